@@ -74,6 +74,7 @@
 import org.apache.isis.viewer.scimpi.dispatcher.processor.Request;
 import org.apache.isis.viewer.scimpi.dispatcher.processor.SimpleEncoder;
 import org.apache.isis.viewer.scimpi.dispatcher.processor.TagProcessingException;
+import org.apache.isis.viewer.scimpi.dispatcher.processor.TemplateCache;
 import org.apache.isis.viewer.scimpi.dispatcher.util.MethodsUtils;
 import org.apache.isis.viewer.scimpi.dispatcher.view.Snippet;
 
@@ -90,6 +91,7 @@ public class Dispatcher {
     private final Map<String, String> parameters = new HashMap<String, String>();
     private final ProcessorLookup processors = new ProcessorLookup();
     private final HtmlFileParser parser = new HtmlFileParser(processors);
+    private TemplateCache templateCache;
     private final Encoder encoder = new SimpleEncoder();
     private boolean showUnshownMessages;
 
@@ -378,10 +380,9 @@ private String findFile(final RequestContext context, final ObjectSpecification
     }
 
     private Stack<Snippet> loadPageTemplate(final RequestContext context, final String path) throws IOException, FileNotFoundException {
-        // TODO cache stacks and check for them first
         copyParametersToVariableList(context);
-        LOG.debug("parsing source " + path);
-        return parser.parseHtmlFile(path, context);
+        LOG.debug("loading source " + path);
+        return templateCache.load(path, context);
     }
 
     private void copyParametersToVariableList(final RequestContext context) {
@@ -420,6 +421,9 @@ public void init(final String dir, final DebugUsers debugUsers) {
         processors.addElementProcessor(new org.apache.isis.viewer.scimpi.dispatcher.view.debug.Debug(this));
         
         showUnshownMessages = IsisContext.getConfiguration().getBoolean(SHOW_UNSHOWN_MESSAGES, true);
+
+        // in production, pages are parsed only once
+        templateCache = new TemplateCache(parser, !IsisContext.getDeploymentType().isProduction());
     }
 
     private void loadConfigFile(final File file) {
@@ -480,5 +484,9 @@ public void debug(final DebugBuilder debug) {
         }
 
         processors.debug(debug);
+
+        debug.startSection("Template cache");
+        templateCache.debug(debug);
+        debug.endSection();
     }
 }
@@ -748,6 +748,11 @@ public void unmapObject(final ObjectAdapter object, final Scope scope) {
 
     public abstract InputStream openStream(String path);
 
+    /**
+     * The time that the file was last modified, or <tt>0</tt> if not known.
+     */
+    public abstract long lastModified(String path);
+
     public abstract String imagePath(ObjectAdapter object);
 
     public abstract String imagePath(ObjectSpecification specification);
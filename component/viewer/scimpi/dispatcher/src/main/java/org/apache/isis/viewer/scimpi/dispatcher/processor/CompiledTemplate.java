@@ -0,0 +1,80 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.scimpi.dispatcher.processor;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Stack;
+
+import org.apache.isis.viewer.scimpi.dispatcher.context.RequestContext;
+import org.apache.isis.viewer.scimpi.dispatcher.view.Snippet;
+
+/**
+ * The snippets parsed from a page, along with the files (the page itself, and any imported files and
+ * templates) that they were parsed from.
+ *
+ * <p>
+ * The snippets are only read once parsed, so can be shared across requests, unless the parse depended
+ * on the request (for example, the name of an imported file contained a variable).
+ */
+public class CompiledTemplate {
+
+    private final Stack<Snippet> snippets = new Stack<Snippet>();
+    private final Map<String, Long> lastModifiedByPath = new LinkedHashMap<String, Long>();
+    private boolean requestDependent;
+
+    Stack<Snippet> getSnippets() {
+        return snippets;
+    }
+
+    void loaded(final String path, final long lastModified) {
+        lastModifiedByPath.put(path, lastModified);
+    }
+
+    void markRequestDependent() {
+        requestDependent = true;
+    }
+
+    /**
+     * Whether the snippets may be reused for other requests.
+     */
+    public boolean isCacheable() {
+        return !requestDependent;
+    }
+
+    /**
+     * Whether none of the files have been modified since parsed; a file whose modification time is
+     * unknown is assumed to have been.
+     */
+    public boolean isUpToDate(final RequestContext context) {
+        for (final Map.Entry<String, Long> entry : lastModifiedByPath.entrySet()) {
+            final long lastModified = context.lastModified(entry.getKey());
+            if (lastModified <= 0 || lastModified != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Map<String, Long> getFiles() {
+        return Collections.unmodifiableMap(lastModifiedByPath);
+    }
+}
@@ -36,7 +36,6 @@
 
 import org.apache.isis.viewer.scimpi.dispatcher.ElementProcessor;
 import org.apache.isis.viewer.scimpi.dispatcher.ScimpiException;
-import org.apache.isis.viewer.scimpi.dispatcher.action.Attributes;
 import org.apache.isis.viewer.scimpi.dispatcher.context.RequestContext;
 import org.apache.isis.viewer.scimpi.dispatcher.view.HtmlSnippet;
 import org.apache.isis.viewer.scimpi.dispatcher.view.Snippet;
@@ -51,18 +50,35 @@ public HtmlFileParser(final ProcessorLookup processors) {
     }
 
     public Stack<Snippet> parseHtmlFile(final String filePath, final RequestContext context) {
-        final Stack<Snippet> tagsBeforeContent = new Stack<Snippet>();
+        return compile(filePath, context).getSnippets();
+    }
+
+    /**
+     * Parses the file, along with any files that it imports or templates that it applies, recording
+     * those files so that the result can be cached.
+     */
+    public CompiledTemplate compile(final String filePath, final RequestContext context) {
+        final CompiledTemplate compiled = new CompiledTemplate();
+        if (context.isDebug()) {
+            // debug comments are written out while parsing
+            compiled.markRequestDependent();
+        }
         final Stack<Snippet> tagsAfterContent = new Stack<Snippet>();
-        parseHtmlFile("/", filePath, context, tagsBeforeContent, tagsAfterContent);
-        return tagsBeforeContent;
+        parseHtmlFile("/", filePath, context, compiled.getSnippets(), tagsAfterContent, compiled);
+        return compiled;
     }
 
     public void parseHtmlFile(final String parentPath, final String filePath, final RequestContext context, final Stack<Snippet> allTags, final Stack<Snippet> tagsForPreviousTemplate) {
+        parseHtmlFile(parentPath, filePath, context, allTags, tagsForPreviousTemplate, new CompiledTemplate());
+    }
+
+    private void parseHtmlFile(final String parentPath, final String filePath, final RequestContext context, final Stack<Snippet> allTags, final Stack<Snippet> tagsForPreviousTemplate, final CompiledTemplate compiled) {
         LOG.debug("parent/file: " + parentPath + " & " + filePath);
         final File directory = filePath.startsWith("/") ? new File(".") : new File(parentPath);
         final File loadFile = new File(directory.getParentFile(), filePath);
         final String loadPath = loadFile.getPath().replace('\\', '/');
         LOG.debug("loading template '" + loadPath + "'");
+        compiled.loaded(loadPath, context.lastModified(loadPath));
         final InputStream in = context.openStream(loadPath);
 
         Page page;
@@ -93,10 +109,6 @@ public void parseHtmlFile(final String parentPath, final String filePath, final
                     final String tagName = tagNode.getTagName().toUpperCase();
                     LOG.debug(tagName);
 
-                    // TODO remove context & request from Attributes -- the tags
-                    // will be re-used across
-                    // requests
-                    final Attributes attributes = new Attributes(tagNode, context);
                     int type = 0;
                     if (tagNode.isEndTag()) {
                         type = SwfTag.END;
@@ -105,7 +117,7 @@ public void parseHtmlFile(final String parentPath, final String filePath, final
                     }
                     testForProcessorForTag(lexer, tagName);
                     lineNumbers = lineNumbering(node);
-                    final SwfTag tag = new SwfTag(tagName, attributes, type, lineNumbers, loadFile.getCanonicalPath());
+                    final SwfTag tag = new SwfTag(tagName, tagNode, type, lineNumbers, loadFile.getCanonicalPath());
                     tags.push(tag);
 
                     if (tagName.equals("SWF:IMPORT")) {
@@ -116,8 +128,11 @@ public void parseHtmlFile(final String parentPath, final String filePath, final
                         if (context.isDebug()) {
                             context.getWriter().println("<!-- " + "import file " + importFile + " -->");
                         }
+                        if (importFile.indexOf("${") >= 0) {
+                            compiled.markRequestDependent();
+                        }
                         importFile = context.replaceVariables(importFile);
-                        parseHtmlFile(loadPath, importFile, context, tags, tagsForPreviousTemplate);
+                        parseHtmlFile(loadPath, importFile, context, tags, tagsForPreviousTemplate, compiled);
                     }
 
                     if (tagName.equals("SWF:TEMPLATE")) {
@@ -128,6 +143,9 @@ public void parseHtmlFile(final String parentPath, final String filePath, final
                             throw new ScimpiException("Template tag can only be used once within a file");
                         }
                         template = tagNode.getAttribute("file");
+                        if (template.indexOf("${") >= 0) {
+                            compiled.markRequestDependent();
+                        }
                         template = context.replaceVariables(template);
                         if (context.isDebug()) {
                             context.getWriter().println("<!-- " + "apply template " + template + " -->");
@@ -160,7 +178,7 @@ public void parseHtmlFile(final String parentPath, final String filePath, final
 
             if (template != null) {
                 final String filePathRoot = loadPath.startsWith("/") ? "" : "/";
-                parseHtmlFile(filePathRoot + loadPath, template, context, allTags, tags);
+                parseHtmlFile(filePathRoot + loadPath, template, context, allTags, tags, compiled);
             }
 
         } catch (final ParserException e) {
@@ -272,7 +272,7 @@ public String getOptionalProperty(final String name, final String defaultValue)
     }
 
     public String getOptionalProperty(final String name, final String defaultValue, final boolean ensureVariablesExists) {
-        final Attributes attributes = getTag().getAttributes();
+        final Attributes attributes = getTag().getAttributes(context);
         return attributes.getOptionalProperty(name, defaultValue, ensureVariablesExists);
     }
 
@@ -281,12 +281,12 @@ public String getOptionalProperty(final String name) {
     }
 
     public String getOptionalProperty(final String name, final boolean ensureVariablesExists) {
-        final Attributes attributes = getTag().getAttributes();
+        final Attributes attributes = getTag().getAttributes(context);
         return attributes.getOptionalProperty(name, ensureVariablesExists);
     }
 
     public Attributes getAttributes() {
-        return getTag().getAttributes();
+        return getTag().getAttributes(context);
     }
 
     public String getRequiredProperty(final String name) {
@@ -294,27 +294,27 @@ public String getRequiredProperty(final String name) {
     }
 
     public String getRequiredProperty(final String name, final boolean ensureVariablesExists) {
-        final Attributes attributes = getTag().getAttributes();
+        final Attributes attributes = getTag().getAttributes(context);
         return attributes.getRequiredProperty(name, ensureVariablesExists);
     }
 
     public boolean isRequested(final String name) {
-        final Attributes attributes = getTag().getAttributes();
+        final Attributes attributes = getTag().getAttributes(context);
         return attributes.isRequested(name);
     }
 
     public boolean isRequested(final String name, final boolean defaultValue) {
-        final Attributes attributes = getTag().getAttributes();
+        final Attributes attributes = getTag().getAttributes(context);
         return attributes.isRequested(name, defaultValue);
     }
 
     public boolean isPropertySet(final String name) {
-        final Attributes attributes = getTag().getAttributes();
+        final Attributes attributes = getTag().getAttributes(context);
         return attributes.isPropertySet(name);
     }
 
     public boolean isPropertySpecified(final String name) {
-        final Attributes attributes = getTag().getAttributes();
+        final Attributes attributes = getTag().getAttributes(context);
         return attributes.isPropertySpecified(name);
     }
 
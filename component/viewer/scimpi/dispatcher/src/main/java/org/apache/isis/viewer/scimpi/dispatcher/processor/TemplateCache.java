@@ -0,0 +1,97 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.scimpi.dispatcher.processor;
+
+import java.util.Map;
+import java.util.Stack;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.core.commons.debug.DebugBuilder;
+import org.apache.isis.viewer.scimpi.dispatcher.context.RequestContext;
+import org.apache.isis.viewer.scimpi.dispatcher.view.Snippet;
+
+/**
+ * Caches the {@link CompiledTemplate compiled} pages, keyed by their path, so that a page is
+ * only parsed the first time that it is requested.
+ *
+ * <p>
+ * If checking for modifications (that is, other than in production), a page is parsed again
+ * whenever it, or any file that it imports or template that it applies, has been modified.
+ */
+public class TemplateCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TemplateCache.class);
+
+    private final HtmlFileParser parser;
+    private final boolean checkForModifications;
+    private final ConcurrentMap<String, CompiledTemplate> templates = new ConcurrentHashMap<String, CompiledTemplate>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+
+    public TemplateCache(final HtmlFileParser parser, final boolean checkForModifications) {
+        this.parser = parser;
+        this.checkForModifications = checkForModifications;
+    }
+
+    public Stack<Snippet> load(final String path, final RequestContext context) {
+        final CompiledTemplate cached = templates.get(path);
+        if (cached != null) {
+            if (!checkForModifications || cached.isUpToDate(context)) {
+                hits.incrementAndGet();
+                return cached.getSnippets();
+            }
+            LOG.debug("template modified, reparsing " + path);
+            reloads.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+
+        final CompiledTemplate compiled = parser.compile(path, context);
+        if (compiled.isCacheable()) {
+            templates.put(path, compiled);
+        } else if (cached != null) {
+            templates.remove(path, cached);
+        }
+        return compiled.getSnippets();
+    }
+
+    public void clear() {
+        templates.clear();
+    }
+
+    public void debug(final DebugBuilder debug) {
+        debug.appendln("Check for modifications", checkForModifications);
+        debug.appendln("Hits", hits.get());
+        debug.appendln("Misses", misses.get());
+        debug.appendln("Reloads", reloads.get());
+        final Map<String, CompiledTemplate> sorted = new TreeMap<String, CompiledTemplate>(templates);
+        for (final Map.Entry<String, CompiledTemplate> entry : sorted.entrySet()) {
+            debug.appendln(entry.getKey(), entry.getValue().getFiles().keySet());
+        }
+    }
+}
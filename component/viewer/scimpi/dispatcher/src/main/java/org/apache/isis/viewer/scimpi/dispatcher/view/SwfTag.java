@@ -19,8 +19,16 @@
 
 package org.apache.isis.viewer.scimpi.dispatcher.view;
 
+import org.htmlparser.nodes.TagNode;
+
 import org.apache.isis.viewer.scimpi.dispatcher.action.Attributes;
+import org.apache.isis.viewer.scimpi.dispatcher.context.RequestContext;
 
+/**
+ * A parsed <tt>swf:</tt> tag.  Tags are shared across requests (once their template has been
+ * cached), so hold only the parsed tag; its {@link #getAttributes(RequestContext) attributes} are
+ * bound to the request when processed.
+ */
 public class SwfTag implements Snippet {
 
     public static final int END = 0;
@@ -28,13 +36,13 @@ public class SwfTag implements Snippet {
     public static final int START = 2;
     private final String tagName;
     private final int type;
-    private final Attributes attributes;
+    private final TagNode tagNode;
     private final String lineNumbers;
     private final String path;
 
-    public SwfTag(final String tagName, final Attributes attributes, final int type, final String lineNumbers, final String path) {
+    public SwfTag(final String tagName, final TagNode tagNode, final int type, final String lineNumbers, final String path) {
         this.tagName = tagName;
-        this.attributes = attributes;
+        this.tagNode = tagNode;
         this.type = type;
         this.lineNumbers = lineNumbers;
         this.path = path;
@@ -57,8 +65,8 @@ public String getName() {
         return tagName;
     }
 
-    public Attributes getAttributes() {
-        return attributes;
+    public Attributes getAttributes(final RequestContext context) {
+        return new Attributes(tagNode, context);
     }
 
     @Override
@@ -67,7 +75,7 @@ public String errorAt() {
     }
 
     public String debug() {
-        return path + ":" + lineNumbers + " - " + getAttributes();
+        return path + ":" + lineNumbers + " - " + tagNode.toHtml();
     }
 
     @Override
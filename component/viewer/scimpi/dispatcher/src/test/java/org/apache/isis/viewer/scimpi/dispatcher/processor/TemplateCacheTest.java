@@ -0,0 +1,145 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.scimpi.dispatcher.processor;
+
+import java.util.Stack;
+
+import org.jmock.Expectations;
+import org.jmock.Sequence;
+import org.jmock.auto.Mock;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.viewer.scimpi.dispatcher.context.RequestContext;
+import org.apache.isis.viewer.scimpi.dispatcher.view.Snippet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class TemplateCacheTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private HtmlFileParser mockParser;
+    @Mock
+    private RequestContext mockRequestContext;
+
+    private static final String PATH = "/customer.shtml";
+
+    @Test
+    public void whenMissThenParsed() throws Exception {
+        final CompiledTemplate compiled = compiledAt(100L);
+        parses(compiled);
+
+        final TemplateCache cache = new TemplateCache(mockParser, true);
+
+        assertThat(cache.load(PATH, mockRequestContext), is(sameInstance(compiled.getSnippets())));
+    }
+
+    @Test
+    public void whenHitThenNotParsedAgain() throws Exception {
+        final CompiledTemplate compiled = compiledAt(100L);
+        parses(compiled);
+        lastModifiedIs(100L);
+
+        final TemplateCache cache = new TemplateCache(mockParser, true);
+        cache.load(PATH, mockRequestContext);
+        final Stack<Snippet> snippets = cache.load(PATH, mockRequestContext);
+
+        assertThat(snippets, is(sameInstance(compiled.getSnippets())));
+    }
+
+    @Test
+    public void whenModifiedThenParsedAgain() throws Exception {
+        final CompiledTemplate compiled = compiledAt(100L);
+        final CompiledTemplate recompiled = compiledAt(200L);
+        final Sequence sequence = context.sequence("parses");
+        context.checking(new Expectations() {{
+            oneOf(mockParser).compile(PATH, mockRequestContext);
+            inSequence(sequence);
+            will(returnValue(compiled));
+            oneOf(mockParser).compile(PATH, mockRequestContext);
+            inSequence(sequence);
+            will(returnValue(recompiled));
+        }});
+        lastModifiedIs(200L);
+
+        final TemplateCache cache = new TemplateCache(mockParser, true);
+        cache.load(PATH, mockRequestContext);
+
+        assertThat(cache.load(PATH, mockRequestContext), is(sameInstance(recompiled.getSnippets())));
+        // and the reparsed page is cached in turn
+        assertThat(cache.load(PATH, mockRequestContext), is(sameInstance(recompiled.getSnippets())));
+    }
+
+    @Test
+    public void whenNotCheckingForModificationsThenModificationIgnored() throws Exception {
+        final CompiledTemplate compiled = compiledAt(100L);
+        parses(compiled);
+        context.checking(new Expectations() {{
+            never(mockRequestContext).lastModified(PATH);
+        }});
+
+        final TemplateCache cache = new TemplateCache(mockParser, false);
+        cache.load(PATH, mockRequestContext);
+
+        assertThat(cache.load(PATH, mockRequestContext), is(sameInstance(compiled.getSnippets())));
+    }
+
+    @Test
+    public void whenRequestDependentThenNotCached() throws Exception {
+        final CompiledTemplate compiled = compiledAt(100L);
+        compiled.markRequestDependent();
+        context.checking(new Expectations() {{
+            exactly(2).of(mockParser).compile(PATH, mockRequestContext);
+            will(returnValue(compiled));
+        }});
+
+        final TemplateCache cache = new TemplateCache(mockParser, true);
+        cache.load(PATH, mockRequestContext);
+        cache.load(PATH, mockRequestContext);
+    }
+
+    private static CompiledTemplate compiledAt(final long lastModified) {
+        final CompiledTemplate compiled = new CompiledTemplate();
+        compiled.loaded(PATH, lastModified);
+        return compiled;
+    }
+
+    private void parses(final CompiledTemplate compiled) {
+        context.checking(new Expectations() {{
+            oneOf(mockParser).compile(PATH, mockRequestContext);
+            will(returnValue(compiled));
+        }});
+    }
+
+    private void lastModifiedIs(final long lastModified) {
+        context.checking(new Expectations() {{
+            allowing(mockRequestContext).lastModified(PATH);
+            will(returnValue(lastModified));
+        }});
+    }
+
+}
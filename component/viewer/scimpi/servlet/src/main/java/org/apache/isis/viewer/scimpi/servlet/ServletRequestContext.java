@@ -19,10 +19,13 @@
 
 package org.apache.isis.viewer.scimpi.servlet;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
@@ -224,6 +227,26 @@ public InputStream openStream(final String path) {
         }
         return in;
     }
+
+    @Override
+    public long lastModified(final String path) {
+        final String realPath = servletContext.getRealPath(path);
+        if (realPath != null) {
+            return new File(realPath).lastModified();
+        }
+        try {
+            final URL resource = servletContext.getResource(path);
+            if (resource == null) {
+                return 0;
+            }
+            final URLConnection connection = resource.openConnection();
+            final long lastModified = connection.getLastModified();
+            connection.getInputStream().close();
+            return lastModified;
+        } catch (final IOException e) {
+            return 0;
+        }
+    }
     
     @Override
     public void startHttpSession() {
@@ -20,9 +20,11 @@
 package org.apache.isis.viewer.wicket.model.mementos;
 
 import java.io.Serializable;
+import java.util.Iterator;
 import java.util.List;
 
 import com.google.common.base.Function;
+import com.google.common.collect.Lists;
 
 import org.apache.isis.core.commons.ensure.Ensure;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
@@ -280,6 +282,41 @@ public ObjectAdapter getObjectAdapter(ConcurrencyChecking concurrencyChecking) {
         return type.getAdapter(this, concurrencyChecking);
     }
 
+    /**
+     * As {@link #getObjectAdapter(ConcurrencyChecking)} for each of the mementos, but
+     * {@link PersistenceSession#loadObjects(List, ConcurrencyChecking) loading} any persistent objects not
+     * already in memory in bulk, rather than one at a time.
+     */
+    public static List<ObjectAdapter> getObjectAdapters(final List<ObjectAdapterMemento> mementos, final ConcurrencyChecking concurrencyChecking) {
+        final List<ObjectAdapterMemento> persistentMementos = Lists.newArrayList();
+        final List<TypedOid> oids = Lists.newArrayList();
+        for (final ObjectAdapterMemento memento : mementos) {
+            if (memento.type == Type.PERSISTENT) {
+                persistentMementos.add(memento);
+                oids.add(getOidMarshaller().unmarshal(memento.persistentOidStr, TypedOid.class));
+            }
+        }
+        if (oids.isEmpty()) {
+            return Lists.newArrayList(Lists.transform(mementos, Functions.fromMemento(concurrencyChecking)));
+        }
+
+        final Iterator<ObjectAdapter> persistentAdapters;
+        try {
+            persistentAdapters = getPersistenceSession().loadObjects(oids, concurrencyChecking).iterator();
+        } finally {
+            // as for a single memento, copy the (version-)updated oids back into the mementos
+            for (int i = 0; i < oids.size(); i++) {
+                persistentMementos.get(i).persistentOidStr = oids.get(i).enString(getOidMarshaller());
+            }
+        }
+
+        final List<ObjectAdapter> adapters = Lists.newArrayListWithCapacity(mementos.size());
+        for (final ObjectAdapterMemento memento : mementos) {
+            adapters.add(memento.type == Type.PERSISTENT ? persistentAdapters.next() : memento.getObjectAdapter(concurrencyChecking));
+        }
+        return adapters;
+    }
+
     /**
      * Updates the memento if the adapter's state has changed.
      * 
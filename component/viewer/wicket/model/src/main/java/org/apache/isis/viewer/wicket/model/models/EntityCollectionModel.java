@@ -20,6 +20,7 @@
 package org.apache.isis.viewer.wicket.model.models;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -72,7 +73,7 @@ public enum Type {
         STANDALONE {
             @Override
             List<ObjectAdapter> load(final EntityCollectionModel entityCollectionModel) {
-                return Lists.transform(entityCollectionModel.mementoList, ObjectAdapterMemento.Functions.fromMemento(ConcurrencyChecking.NO_CHECK));
+                return ObjectAdapterMemento.getObjectAdapters(entityCollectionModel.mementoList, ConcurrencyChecking.NO_CHECK);
             }
 
             @Override
@@ -86,6 +87,12 @@ public String getName(final EntityCollectionModel model) {
                 return facet.value();
             }
 
+            @Override
+            List<ObjectAdapter> loadPage(final EntityCollectionModel entityCollectionModel, final int first, final int count) {
+                final List<ObjectAdapterMemento> mementoPage = Lists.newArrayList(pageOf(entityCollectionModel.mementoList, first, count));
+                return ObjectAdapterMemento.getObjectAdapters(mementoPage, ConcurrencyChecking.NO_CHECK);
+            }
+
             @Override
             public int getCount(final EntityCollectionModel model) {
                 return model.mementoList.size();
@@ -98,11 +105,7 @@ public int getCount(final EntityCollectionModel model) {
         PARENTED {
             @Override
             List<ObjectAdapter> load(final EntityCollectionModel entityCollectionModel) {
-                final ObjectAdapter adapter = entityCollectionModel.parentObjectAdapterMemento.getObjectAdapter(ConcurrencyChecking.NO_CHECK);
-                final OneToManyAssociation collection = entityCollectionModel.collectionMemento.getCollection();
-                final ObjectAdapter collectionAsAdapter = collection.get(adapter);
-
-                final List<Object> objectList = asIterable(collectionAsAdapter);
+                final List<Object> objectList = Lists.newArrayList(collectionPojoFor(entityCollectionModel));
 
                 final Class<? extends Comparator<?>> sortedBy = entityCollectionModel.sortedBy;
                 if(sortedBy != null) {
@@ -117,10 +120,33 @@ List<ObjectAdapter> load(final EntityCollectionModel entityCollectionModel) {
                 return adapterList;
             }
 
-            @SuppressWarnings("unchecked")
-            private List<Object> asIterable(final ObjectAdapter collectionAsAdapter) {
-                final Iterable<Object> objects = (Iterable<Object>) collectionAsAdapter.getObject();
-                return Lists.newArrayList(objects);
+            /**
+             * If the underlying collection is a {@link List} (and need not be sorted in memory, nor has already been
+             * loaded in full), then only the objects within the requested window are obtained from it and adapted,
+             * using {@link List#subList(int, int)}; for a (non-cached) JDO backed list this is executed by DataNucleus
+             * as a range query.
+             *
+             * <p>
+             * Any other collection (eg a {@link java.util.Set}) cannot be windowed without iterating over it, so is
+             * instead {@link #load(EntityCollectionModel) loaded} in full (and retained until the model is detached).
+             */
+            @Override
+            List<ObjectAdapter> loadPage(final EntityCollectionModel entityCollectionModel, final int first, final int count) {
+                if(entityCollectionModel.sortedBy == null && !entityCollectionModel.isAttached()) {
+                    final Iterable<Object> objects = collectionPojoFor(entityCollectionModel);
+                    if(objects instanceof List) {
+                        final List<Object> objectPage = pageOf((List<Object>) objects, first, count);
+                        return Lists.newArrayList(Lists.transform(objectPage, ObjectAdapter.Functions.adapterForUsing(getAdapterManagerStatic())));
+                    }
+                }
+                return Lists.newArrayList(pageOf(entityCollectionModel.getObject(), first, count));
+            }
+
+            private Iterable<Object> collectionPojoFor(final EntityCollectionModel entityCollectionModel) {
+                final ObjectAdapter adapter = entityCollectionModel.parentObjectAdapterMemento.getObjectAdapter(ConcurrencyChecking.NO_CHECK);
+                final OneToManyAssociation collection = entityCollectionModel.collectionMemento.getCollection();
+                final ObjectAdapter collectionAsAdapter = collection.get(adapter);
+                return asIterable(collectionAsAdapter);
             }
 
             @Override
@@ -134,14 +160,33 @@ public String getName(EntityCollectionModel model) {
                 return model.getCollectionMemento().getName();
             }
 
+            /**
+             * Cached until the model is {@link EntityCollectionModel#onDetach() detached}, that is, for the duration
+             * of the request.
+             *
+             * <p>
+             * For a (non-cached) JDO backed collection, the {@link java.util.Collection#size() size} is executed
+             * by DataNucleus as a count query, without loading the elements.
+             */
             @Override
             public int getCount(EntityCollectionModel model) {
-                return load(model).size();
+                if(model.isAttached()) {
+                    return model.getObject().size();
+                }
+                if(model.countIfCached == null) {
+                    model.countIfCached = sizeOf(collectionPojoFor(model));
+                }
+                return model.countIfCached;
             }
         };
 
         abstract List<ObjectAdapter> load(EntityCollectionModel entityCollectionModel);
 
+        /**
+         * The adapters in the window <tt>[first, first+count)</tt> (or fewer, if the end of the collection is reached).
+         */
+        abstract List<ObjectAdapter> loadPage(EntityCollectionModel entityCollectionModel, int first, int count);
+
         abstract void setObject(EntityCollectionModel entityCollectionModel, List<ObjectAdapter> list);
 
         public abstract String getName(EntityCollectionModel entityCollectionModel);
@@ -286,6 +331,11 @@ public static EntityCollectionModel createParented(final ObjectAdapter adapter,
      */
     private ActionModel actionModelHint;
 
+    /**
+     * Populated (lazily) only if {@link Type#PARENTED}; cleared when the model is detached.
+     */
+    private transient Integer countIfCached;
+
     private EntityCollectionModel(final Class<?> typeOf, final List<ObjectAdapterMemento> mementoList, final int pageSize) {
         this.type = Type.STANDALONE;
         this.typeOf = typeOf;
@@ -350,12 +400,29 @@ public int getCount() {
         return this.type.getCount(this);
     }
 
+    /**
+     * As {@link #getObject()}, but restricted to the window <tt>[first, first+count)</tt>.
+     *
+     * <p>
+     * For a {@link Type#PARENTED parented} collection that is a {@link List}, this avoids loading (and adapting) the
+     * entire contents of the collection just to render a single page.
+     */
+    public List<ObjectAdapter> loadPage(final int first, final int count) {
+        return type.loadPage(this, first, count);
+    }
+
 
     @Override
     protected List<ObjectAdapter> load() {
         return type.load(this);
     }
 
+    @Override
+    protected void onDetach() {
+        super.onDetach();
+        countIfCached = null;
+    }
+
     public ObjectSpecification getTypeOfSpecification() {
         if (typeOfSpec == null) {
             typeOfSpec = getSpecificationLoaderStatic().loadSpecification(typeOf);
@@ -397,6 +464,22 @@ private static Iterable<Object> asIterable(final ObjectAdapter resultAdapter) {
         return (Iterable<Object>) resultAdapter.getObject();
     }
 
+    static int sizeOf(final Iterable<?> iterable) {
+        return iterable instanceof Collection
+                ? ((Collection<?>) iterable).size()
+                : Iterables.size(iterable);
+    }
+
+    /**
+     * The elements in the window <tt>[first, first+count)</tt> (or fewer, if the end of the list is reached).
+     */
+    static <T> List<T> pageOf(final List<T> list, final int first, final int count) {
+        final int size = list.size();
+        final int fromIndex = Math.min(first, size);
+        final int toIndex = Math.min(first + count, size);
+        return list.subList(fromIndex, toIndex);
+    }
+
     
     public void toggleSelectionOn(ObjectAdapter selectedAdapter) {
         ObjectAdapterMemento selectedAsMemento = ObjectAdapterMemento.createOrNull(selectedAdapter);
@@ -182,6 +182,14 @@ public List<ObjectAdapter> getAutoComplete(final ScalarModel scalarModel, String
                 return choicesAsList(choices);
             }
 
+            @Override
+            public List<ObjectAdapter> getAutoComplete(final ScalarModel scalarModel, final String searchArg, final long start, final long count) {
+                final PropertyMemento propertyMemento = scalarModel.getPropertyMemento();
+                final OneToOneAssociation property = propertyMemento.getProperty();
+                final ObjectAdapter[] choices = property.getAutoComplete(scalarModel.parentObjectAdapterMemento.getObjectAdapter(ConcurrencyChecking.NO_CHECK), searchArg, start, count);
+                return choicesAsList(choices);
+            }
+
             @Override
             public int getAutoCompleteOrChoicesMinLength(ScalarModel scalarModel) {
                 
@@ -337,6 +345,14 @@ public List<ObjectAdapter> getAutoComplete(final ScalarModel scalarModel, final
                 return choicesAsList(choices);
             }
 
+            @Override
+            public List<ObjectAdapter> getAutoComplete(final ScalarModel scalarModel, final String searchArg, final long start, final long count) {
+                final ActionParameterMemento parameterMemento = scalarModel.getParameterMemento();
+                final ObjectActionParameter actionParameter = parameterMemento.getActionParameter();
+                final ObjectAdapter[] choices = actionParameter.getAutoComplete(scalarModel.parentObjectAdapterMemento.getObjectAdapter(ConcurrencyChecking.NO_CHECK), searchArg, start, count);
+                return choicesAsList(choices);
+            }
+
             @Override
             public int getAutoCompleteOrChoicesMinLength(ScalarModel scalarModel) {
                 if (scalarModel.hasAutoComplete()) {
@@ -427,6 +443,7 @@ static boolean isRequired(final FacetHolder facetHolder) {
 
         public abstract boolean hasAutoComplete(ScalarModel scalarModel);
         public abstract List<ObjectAdapter> getAutoComplete(ScalarModel scalarModel, String searchArg);
+        public abstract List<ObjectAdapter> getAutoComplete(ScalarModel scalarModel, String searchArg, long start, long count);
         public abstract int getAutoCompleteOrChoicesMinLength(ScalarModel scalarModel);
         
         public abstract void resetVersion(ScalarModel scalarModel);
@@ -631,6 +648,13 @@ public List<ObjectAdapter> getAutoComplete(String searchTerm) {
         return kind.getAutoComplete(this, searchTerm);
     }
 
+    /**
+     * As {@link #getAutoComplete(String)}, but only the (at most) <tt>count</tt> choices starting at <tt>start</tt>.
+     */
+    public List<ObjectAdapter> getAutoComplete(String searchTerm, long start, long count) {
+        return kind.getAutoComplete(this, searchTerm, start, count);
+    }
+
     /**
      * for {@link BigDecimal}s only.
      * 
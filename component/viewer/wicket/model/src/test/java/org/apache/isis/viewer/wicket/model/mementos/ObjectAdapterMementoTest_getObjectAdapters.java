@@ -0,0 +1,142 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.wicket.model.mementos;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jmock.Expectations;
+import org.jmock.api.Invocation;
+import org.jmock.auto.Mock;
+import org.jmock.lib.action.CustomAction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager.ConcurrencyChecking;
+import org.apache.isis.core.metamodel.adapter.oid.OidMarshaller;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
+import org.apache.isis.core.metamodel.adapter.oid.TypedOid;
+import org.apache.isis.core.metamodel.adapter.version.Version;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.context.IsisContextStatic;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.core.runtime.system.session.IsisSession;
+import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ObjectAdapterMementoTest_getObjectAdapters {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private IsisSessionFactory mockSessionFactory;
+    @Mock
+    private IsisSession mockSession;
+    @Mock
+    private AuthenticationSession mockAuthenticationSession;
+    @Mock
+    private PersistenceSession mockPersistenceSession;
+
+    @Mock
+    private ObjectAdapter mockAdapter1;
+    @Mock
+    private ObjectAdapter mockAdapter2;
+
+    private final OidMarshaller oidMarshaller = new OidMarshaller();
+    private final ObjectSpecId cus = ObjectSpecId.of("CUS");
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockSessionFactory).getOidMarshaller();
+            will(returnValue(oidMarshaller));
+
+            allowing(mockSessionFactory).openSession(mockAuthenticationSession);
+            will(returnValue(mockSession));
+            ignoring(mockSession).open();
+
+            allowing(mockSession).getPersistenceSession();
+            will(returnValue(mockPersistenceSession));
+        }});
+
+        IsisContextStatic.createRelaxedInstance(mockSessionFactory);
+        IsisContext.openSession(mockAuthenticationSession);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        IsisContext.testReset();
+    }
+
+    @Test
+    public void usesAdaptersLoadedInBulk() throws Exception {
+        final List<ObjectAdapterMemento> mementos = Arrays.asList(memento("1"), memento("2"));
+
+        context.checking(new Expectations() {{
+            oneOf(mockPersistenceSession).loadObjects(
+                    Arrays.<TypedOid>asList(RootOidDefault.create(cus, "1"), RootOidDefault.create(cus, "2")), ConcurrencyChecking.CHECK);
+            will(returnValue(Arrays.asList(mockAdapter1, mockAdapter2)));
+
+            never(mockPersistenceSession).getAdapterManager();
+        }});
+
+        final List<ObjectAdapter> adapters = ObjectAdapterMemento.getObjectAdapters(mementos, ConcurrencyChecking.CHECK);
+
+        assertThat(adapters, is(Arrays.asList(mockAdapter1, mockAdapter2)));
+    }
+
+    @Test
+    public void copiesUpdatedVersionsBackIntoMementos() throws Exception {
+        final ObjectAdapterMemento memento = memento("1");
+
+        context.checking(new Expectations() {{
+            oneOf(mockPersistenceSession).loadObjects(with(any(List.class)), with(ConcurrencyChecking.NO_CHECK));
+            will(new CustomAction("sync version") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    final List<?> oids = (List<?>) invocation.getParameter(0);
+                    ((RootOid) oids.get(0)).setVersion(Version.create(2L));
+                    return Collections.singletonList(mockAdapter1);
+                }
+            });
+        }});
+
+        ObjectAdapterMemento.getObjectAdapters(Collections.singletonList(memento), ConcurrencyChecking.NO_CHECK);
+
+        assertThat(memento.asString(), is(RootOidDefault.create(cus, "1", 2L).enString(oidMarshaller)));
+    }
+
+    private ObjectAdapterMemento memento(final String identifier) {
+        return ObjectAdapterMemento.createPersistent(RootOidDefault.create(cus, identifier));
+    }
+
+}
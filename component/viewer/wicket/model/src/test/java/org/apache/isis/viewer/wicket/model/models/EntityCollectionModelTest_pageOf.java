@@ -0,0 +1,61 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.wicket.model.models;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class EntityCollectionModelTest_pageOf {
+
+    private final List<String> list = Arrays.asList("a", "b", "c", "d", "e");
+
+    @Test
+    public void firstPageOfList() throws Exception {
+        assertThat(pageOf(list, 0, 2), is(Arrays.asList("a", "b")));
+    }
+
+    @Test
+    public void lastPartialPageOfList() throws Exception {
+        assertThat(pageOf(list, 4, 2), is(Arrays.asList("e")));
+    }
+
+    @Test
+    public void beyondEndOfList() throws Exception {
+        assertThat(pageOf(list, 6, 2), is(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void sizeOf() throws Exception {
+        assertThat(EntityCollectionModel.sizeOf(list), is(5));
+        assertThat(EntityCollectionModel.sizeOf(Lists.newLinkedList(list)), is(5));
+    }
+
+    private static List<String> pageOf(final List<String> list, final int first, final int count) {
+        return Lists.newArrayList(EntityCollectionModel.pageOf(list, first, count));
+    }
+}
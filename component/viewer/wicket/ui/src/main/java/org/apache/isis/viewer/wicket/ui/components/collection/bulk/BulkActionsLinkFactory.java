@@ -87,8 +87,8 @@ public void onClick() {
                 try {
                     final List<ObjectAdapterMemento> toggleMementosList = model.getToggleMementosList();
 
-                    final Iterable<ObjectAdapter> toggledAdapters = 
-                            Iterables.transform(toggleMementosList, ObjectAdapterMemento.Functions.fromMemento(concurrencyChecking));
+                    final List<ObjectAdapter> toggledAdapters = 
+                            ObjectAdapterMemento.getObjectAdapters(toggleMementosList, concurrencyChecking);
                     
                     final List<Object> domainObjects = Lists.newArrayList(Iterables.transform(toggledAdapters, ObjectAdapter.Functions.getObject()));
                     
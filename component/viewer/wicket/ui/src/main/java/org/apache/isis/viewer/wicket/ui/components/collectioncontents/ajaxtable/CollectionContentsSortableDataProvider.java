@@ -35,6 +35,8 @@
 import org.apache.isis.core.metamodel.consent.InteractionInvocationMethod;
 import org.apache.isis.core.metamodel.consent.InteractionResult;
 import org.apache.isis.core.metamodel.deployment.DeploymentCategory;
+import org.apache.isis.core.metamodel.facetapi.FacetFilters;
+import org.apache.isis.core.metamodel.interactions.HidingInteractionAdvisor;
 import org.apache.isis.core.metamodel.interactions.InteractionUtils;
 import org.apache.isis.core.metamodel.interactions.ObjectVisibilityContext;
 import org.apache.isis.core.metamodel.interactions.VisibilityContext;
@@ -63,9 +65,15 @@ public IModel<ObjectAdapter> model(final ObjectAdapter adapter) {
         return new EntityModel(adapter);
     }
 
+    /**
+     * Consistent with {@link #iterator(long, long)}, that is, excludes any objects that are hidden.
+     */
     @Override
     public long size() {
-        return model.getObject().size();
+        if(!isHidingPossible()) {
+            return model.getCount();
+        }
+        return Iterables.size(Iterables.filter(loadAll(), ignoreHidden()));
     }
 
     @Override
@@ -77,44 +85,47 @@ public void detach() {
     @Override
     public Iterator<ObjectAdapter> iterator(final long first, final long count) {
 
-        final List<ObjectAdapter> adapters = model.getObject();
+        final SortParam<String> sort = getSort();
+        final ObjectAssociation sortProperty = lookupAssociationFor(sort);
+        if(sortProperty == null && !isHidingPossible()) {
+            // nothing to filter out, and no need to sort by column, so only load the requested page
+            return model.loadPage((int) first, (int) count).iterator();
+        }
+
+        final List<ObjectAdapter> adapters = loadAll();
 
         final Iterable<ObjectAdapter> visibleAdapters =
                 Iterables.filter(adapters, ignoreHidden());
 
         // need to create a list from the iterable, then back to an iterable
         // because guava's Ordering class doesn't support sorting of iterable -> iterable
-        final List<ObjectAdapter> sortedVisibleAdapters = sortedCopy(visibleAdapters, getSort());
+        final List<ObjectAdapter> sortedVisibleAdapters =
+                sortProperty != null
+                    ? orderingBy(sortProperty, sort.isAscending()).sortedCopy(visibleAdapters)
+                    : Lists.newArrayList(visibleAdapters);
         final List<ObjectAdapter> pagedAdapters = subList(first, count, sortedVisibleAdapters);
         return pagedAdapters.iterator();
     }
 
+    /**
+     * All of the model's objects, loaded in full if need be (overridable for testing).
+     */
+    List<ObjectAdapter> loadAll() {
+        return model.getObject();
+    }
+
     private static List<ObjectAdapter> subList(
             final long first,
             final long count,
             final List<ObjectAdapter> objectAdapters) {
 
-        final int fromIndex = (int) first;
+        final int fromIndex = Math.min((int) first, objectAdapters.size());
         // if adapters where filter out (as invisible), then make sure don't run off the end
         final int toIndex = Math.min((int) (first + count), objectAdapters.size());
 
         return objectAdapters.subList(fromIndex, toIndex);
     }
 
-    private List<ObjectAdapter> sortedCopy(
-            final Iterable<ObjectAdapter> adapters,
-            final SortParam<String> sort) {
-
-        final ObjectAssociation sortProperty = lookupAssociationFor(sort);
-        if(sortProperty == null) {
-            return Lists.newArrayList(adapters);
-        }
-
-        final Ordering<ObjectAdapter> ordering =
-                orderingBy(sortProperty, sort.isAscending());
-        return ordering.sortedCopy(adapters);
-    }
-
     private ObjectAssociation lookupAssociationFor(final SortParam<String> sort) {
 
         if(sort == null) {
@@ -133,6 +144,29 @@ private ObjectAssociation lookupAssociationFor(final SortParam<String> sort) {
         }
     }
 
+    /**
+     * Whether any object in the collection might be hidden, that is, if any of the collection's element type or its
+     * (known) subtypes has a facet that can hide an object.
+     *
+     * <p>
+     * If not, then there is no need to load the collection in full in order to filter out the hidden objects.
+     */
+    private boolean isHidingPossible() {
+        return isHidingPossible(model.getTypeOfSpecification());
+    }
+
+    private static boolean isHidingPossible(final ObjectSpecification spec) {
+        if(!spec.getFacets(FacetFilters.isA(HidingInteractionAdvisor.class)).isEmpty()) {
+            return true;
+        }
+        for (final ObjectSpecification subclassSpec : spec.subclasses()) {
+            if(isHidingPossible(subclassSpec)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Predicate<ObjectAdapter> ignoreHidden() {
         return new Predicate<ObjectAdapter>() {
             @Override
@@ -376,6 +376,10 @@ private ChoiceProvider<ObjectAdapterMemento> providerForObjectAutoComplete() {
 
             private static final long serialVersionUID = 1L;
 
+            /**
+             * The {@link AutoCompleteFacet} (the repository action of <tt>@AutoComplete</tt>) is not paged,
+             * so all of its results are obtained, once per term, and (being cacheable) each page is taken from those.
+             */
             @Override
             protected List<ObjectAdapterMemento> obtainMementos(String term) {
                 final ObjectSpecification typeOfSpecification = getScalarModel().getTypeOfSpecification();
@@ -383,6 +387,11 @@ protected List<ObjectAdapterMemento> obtainMementos(String term) {
                 final List<ObjectAdapter> results = autoCompleteFacet.execute(term);
                 return Lists.transform(results, ObjectAdapterMemento.Functions.fromAdapter());
             }
+
+            @Override
+            protected boolean isCacheable() {
+                return true;
+            }
         };
     }
 
@@ -401,6 +410,21 @@ protected List<ObjectAdapterMemento> obtainMementos(String term) {
                 // take a copy otherwise is only lazily evaluated
                 return Lists.newArrayList(Lists.transform(autoCompleteChoices, ObjectAdapterMemento.Functions.fromAdapter()));
             }
+
+            @Override
+            protected List<ObjectAdapterMemento> obtainMementos(String term, int start, int count) {
+                final List<ObjectAdapter> autoCompleteChoices = Lists.newArrayList();
+                if(getScalarModel().hasAutoComplete()) {
+                    autoCompleteChoices.addAll(getScalarModel().getAutoComplete(term, start, count));
+                }
+                // take a copy otherwise is only lazily evaluated
+                return Lists.newArrayList(Lists.transform(autoCompleteChoices, ObjectAdapterMemento.Functions.fromAdapter()));
+            }
+
+            @Override
+            protected boolean isCacheable() {
+                return true;
+            }
             
         };
     }
@@ -0,0 +1,123 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.wicket.ui.components.widgets;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.apache.wicket.MetaDataKey;
+import org.apache.wicket.Session;
+import org.apache.wicket.util.collections.MostRecentlyUsedMap;
+import org.apache.wicket.util.time.Duration;
+import org.apache.wicket.util.time.Time;
+
+import org.apache.isis.viewer.wicket.model.mementos.ObjectAdapterMemento;
+
+/**
+ * A small cache, held in the user's {@link Session}, of the pages of choices most recently returned
+ * for a given search term by an {@link ObjectAdapterMementoProviderAbstract provider}, so that the
+ * domain object's <tt>autoComplete</tt> method need not be called again if the user deletes and
+ * then retypes some characters, or scrolls back.
+ *
+ * <p>
+ * Entries expire after a short while, so that choices are not too stale.
+ */
+public class AutoCompleteResultsCache implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final MetaDataKey<AutoCompleteResultsCache> KEY = new MetaDataKey<AutoCompleteResultsCache>() {
+        private static final long serialVersionUID = 1L;
+    };
+
+    private static final int MAX_ENTRIES = 32;
+    private static final Duration LIFETIME = Duration.seconds(30);
+
+    /**
+     * A page of choices, and whether there are more.
+     */
+    public static class Page implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<ObjectAdapterMemento> mementos;
+        private final boolean more;
+        private final Time created = Time.now();
+
+        public Page(final List<ObjectAdapterMemento> mementos, final boolean more) {
+            this.mementos = mementos;
+            this.more = more;
+        }
+
+        public List<ObjectAdapterMemento> getMementos() {
+            return mementos;
+        }
+
+        public boolean hasMore() {
+            return more;
+        }
+
+        boolean isExpired(final Duration lifetime) {
+            return lifetime.lessThanOrEqual(Time.now().subtract(created));
+        }
+    }
+
+    /**
+     * The cache for the current session, or <tt>null</tt> if there is no session.
+     */
+    public static AutoCompleteResultsCache current() {
+        if (!Session.exists()) {
+            return null;
+        }
+        final Session session = Session.get();
+        synchronized (session) {
+            AutoCompleteResultsCache cache = session.getMetaData(KEY);
+            if (cache == null) {
+                cache = new AutoCompleteResultsCache(MAX_ENTRIES, LIFETIME);
+                session.setMetaData(KEY, cache);
+            }
+            return cache;
+        }
+    }
+
+    private final MostRecentlyUsedMap<String, Page> pageByKey;
+    private final Duration lifetime;
+
+    AutoCompleteResultsCache(final int maxEntries, final Duration lifetime) {
+        this.pageByKey = new MostRecentlyUsedMap<String, Page>(maxEntries);
+        this.lifetime = lifetime;
+    }
+
+    public synchronized Page get(final String key) {
+        final Page page = pageByKey.get(key);
+        if (page == null) {
+            return null;
+        }
+        if (page.isExpired(lifetime)) {
+            pageByKey.remove(key);
+            return null;
+        }
+        return page;
+    }
+
+    public synchronized void put(final String key, final Page page) {
+        pageByKey.put(key, page);
+    }
+}
@@ -18,6 +18,7 @@
 
 import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Collections2;
@@ -37,8 +38,19 @@ public abstract class ObjectAdapterMementoProviderAbstract extends TextChoicePro
     protected static final String NULL_PLACEHOLDER = "$$_isis_null_$$";
     private static final String NULL_DISPLAY_TEXT = "";
 
+    /**
+     * The number of choices returned to Select2 at a time; it asks for the next page as the user
+     * scrolls down.
+     */
+    protected static final int PAGE_SIZE = 25;
+
     private final ScalarModel scalarModel;
 
+    /**
+     * Identifies this provider's entries in the {@link AutoCompleteResultsCache}.
+     */
+    private final String cacheKey = UUID.randomUUID().toString();
+
     public ObjectAdapterMementoProviderAbstract(final ScalarModel scalarModel){
         this.scalarModel = scalarModel;
     }
@@ -55,17 +67,80 @@ protected Object getId(ObjectAdapterMemento choice) {
 
     @Override
     public void query(String term, int page, com.vaynberg.wicket.select2.Response<ObjectAdapterMemento> response) {
-        
-        final List<ObjectAdapterMemento> mementos = Lists.newArrayList(obtainMementos(term));
-        // if not mandatory, and the list doesn't contain null already, then add it in.
-        if(!scalarModel.isRequired() && !mementos.contains(null)) {
+
+        final AutoCompleteResultsCache.Page results = obtainPage(term, Math.max(page, 1));
+        final List<ObjectAdapterMemento> mementos = Lists.newArrayList(results.getMementos());
+        // if not mandatory, and the list doesn't contain null already, then add it in (to the first page).
+        if(page <= 1 && !scalarModel.isRequired() && !mementos.contains(null)) {
             mementos.add(0, null);
         }
         response.addAll(mementos);
+        response.setHasMore(results.hasMore());
+    }
+
+    private AutoCompleteResultsCache.Page obtainPage(final String term, final int page) {
+        final AutoCompleteResultsCache cache = getResultsCache();
+        final String key = cacheKey + ":" + page + ":" + term;
+        AutoCompleteResultsCache.Page results = cache != null ? cache.get(key) : null;
+        if(results == null) {
+            // ask for one more than fits on the page, to find out if there are more
+            final List<ObjectAdapterMemento> mementos = Lists.newArrayList(obtainMementos(term, (page - 1) * PAGE_SIZE, PAGE_SIZE + 1));
+            final boolean more = mementos.size() > PAGE_SIZE;
+            results = new AutoCompleteResultsCache.Page(more ? Lists.newArrayList(mementos.subList(0, PAGE_SIZE)) : mementos, more);
+            if(cache != null) {
+                cache.put(key, results);
+            }
+        }
+        return results;
     }
 
     protected abstract List<ObjectAdapterMemento> obtainMementos(String term);
 
+    /**
+     * The (at most) <tt>count</tt> mementos starting at <tt>start</tt>.
+     *
+     * <p>
+     * By default, obtains all of the {@link #obtainMementos(String) mementos} and returns those
+     * in the range; may be overridden to obtain only those in the range.  If
+     * {@link #isCacheable() cacheable}, then all of the mementos are obtained only once per term (rather
+     * than once per page).
+     */
+    protected List<ObjectAdapterMemento> obtainMementos(String term, int start, int count) {
+        final List<ObjectAdapterMemento> mementos = obtainAllMementos(term);
+        final int from = Math.min(start, mementos.size());
+        final int to = Math.min(from + count, mementos.size());
+        return mementos.subList(from, to);
+    }
+
+    private List<ObjectAdapterMemento> obtainAllMementos(final String term) {
+        final AutoCompleteResultsCache cache = getResultsCache();
+        final String key = cacheKey + ":*:" + term;
+        AutoCompleteResultsCache.Page results = cache != null ? cache.get(key) : null;
+        if(results == null) {
+            // take a copy otherwise may only be lazily evaluated
+            results = new AutoCompleteResultsCache.Page(Lists.newArrayList(obtainMementos(term)), false);
+            if(cache != null) {
+                cache.put(key, results);
+            }
+        }
+        return results.getMementos();
+    }
+
+    /**
+     * Whether the pages of mementos should be held (briefly) in the {@link AutoCompleteResultsCache};
+     * by default not, as is only worthwhile if obtaining them calls the domain object.
+     */
+    protected boolean isCacheable() {
+        return false;
+    }
+
+    /**
+     * The cache for the current session if {@link #isCacheable() cacheable}, else <tt>null</tt>.
+     */
+    AutoCompleteResultsCache getResultsCache() {
+        return isCacheable() ? AutoCompleteResultsCache.current() : null;
+    }
+
     @Override
     public Collection<ObjectAdapterMemento> toChoices(Collection<String> ids) {
         Function<String, ObjectAdapterMemento> function = new Function<String, ObjectAdapterMemento>() {
@@ -0,0 +1,199 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.wicket.ui.components.collectioncontents.ajaxtable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.applib.filter.Filter;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.deployment.DeploymentCategory;
+import org.apache.isis.core.metamodel.facetapi.Facet;
+import org.apache.isis.core.metamodel.facetapi.FacetHolder;
+import org.apache.isis.core.metamodel.facets.object.hidden.HiddenObjectFacetAbstract;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.viewer.wicket.model.models.EntityCollectionModel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CollectionContentsSortableDataProviderTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private EntityCollectionModel mockModel;
+    @Mock
+    private ObjectSpecification mockElementSpec;
+    @Mock
+    private ObjectSpecification mockSubclassSpec;
+
+    private List<ObjectAdapter> adapters;
+    private int loadAllCount;
+
+    private CollectionContentsSortableDataProvider provider;
+
+    @Before
+    public void setUp() throws Exception {
+        adapters = Lists.newArrayList();
+        for (final String pojo : Arrays.asList("a", "b", "c", "d", "e")) {
+            final ObjectAdapter mockAdapter = context.mock(ObjectAdapter.class, "adapter-" + pojo);
+            adapters.add(mockAdapter);
+            context.checking(new Expectations() {{
+                allowing(mockAdapter).getSpecification();
+                will(returnValue(pojo.equals("a") ? mockSubclassSpec : mockElementSpec));
+                allowing(mockAdapter).getObject();
+                will(returnValue(pojo));
+            }});
+        }
+
+        context.checking(new Expectations() {{
+            allowing(mockModel).getTypeOfSpecification();
+            will(returnValue(mockElementSpec));
+
+            allowing(mockElementSpec).getIdentifier();
+            will(returnValue(Identifier.classIdentifier("Customer")));
+
+            allowing(mockSubclassSpec).getIdentifier();
+            will(returnValue(Identifier.classIdentifier("PreferredCustomer")));
+
+            allowing(mockSubclassSpec).subclasses();
+            will(returnValue(Collections.emptyList()));
+        }});
+
+        provider = new CollectionContentsSortableDataProvider(mockModel) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            List<ObjectAdapter> loadAll() {
+                loadAllCount++;
+                return adapters;
+            }
+
+            @Override
+            protected AuthenticationSession getAuthenticationSession() {
+                return null;
+            }
+
+            @Override
+            protected DeploymentCategory getDeploymentCategory() {
+                return DeploymentCategory.PRODUCTION;
+            }
+        };
+    }
+
+    @Test
+    public void whenNothingCanBeHiddenOnlyLoadsRequestedPage() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockElementSpec).getFacets(with(any(Filter.class)));
+            will(returnValue(Collections.emptyList()));
+
+            allowing(mockElementSpec).subclasses();
+            will(returnValue(Collections.singletonList(mockSubclassSpec)));
+
+            allowing(mockSubclassSpec).getFacets(with(any(Filter.class)));
+            will(returnValue(Collections.emptyList()));
+
+            allowing(mockModel).getCount();
+            will(returnValue(5));
+
+            oneOf(mockModel).loadPage(2, 2);
+            will(returnValue(adapters.subList(2, 4)));
+        }});
+
+        assertThat(provider.size(), is(5L));
+        assertThat(pojosOf(provider.iterator(2, 2)), is(Arrays.<Object>asList("c", "d")));
+        assertThat(loadAllCount, is(0));
+    }
+
+    @Test
+    public void whenObjectsHiddenThenPagesAndSizeExcludeThem() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockElementSpec).getFacets(with(any(Filter.class)));
+            will(returnValue(Collections.singletonList(hiding("b", "d"))));
+
+            allowing(mockSubclassSpec).getFacets(with(any(Filter.class)));
+            will(returnValue(Collections.emptyList()));
+
+            never(mockModel).getCount();
+            never(mockModel).loadPage(with(any(Integer.class)), with(any(Integer.class)));
+        }});
+
+        assertThat(provider.size(), is(3L));
+        assertThat(pojosOf(provider.iterator(0, 2)), is(Arrays.<Object>asList("a", "c")));
+        assertThat(pojosOf(provider.iterator(2, 2)), is(Arrays.<Object>asList("e")));
+    }
+
+    @Test
+    public void whenSubclassObjectsHiddenThenPagesAndSizeExcludeThem() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockElementSpec).getFacets(with(any(Filter.class)));
+            will(returnValue(Collections.emptyList()));
+
+            allowing(mockElementSpec).subclasses();
+            will(returnValue(Collections.singletonList(mockSubclassSpec)));
+
+            allowing(mockSubclassSpec).getFacets(with(any(Filter.class)));
+            will(returnValue(Collections.singletonList(hiding("a"))));
+
+            never(mockModel).getCount();
+            never(mockModel).loadPage(with(any(Integer.class)), with(any(Integer.class)));
+        }});
+
+        assertThat(provider.size(), is(4L));
+        assertThat(pojosOf(provider.iterator(0, 10)), is(Arrays.<Object>asList("b", "c", "d", "e")));
+    }
+
+    private Facet hiding(final String... pojos) {
+        final List<String> hiddenPojos = Arrays.asList(pojos);
+        return new HiddenObjectFacetAbstract(mockElementSpec) {
+            @Override
+            protected String hiddenReason(final ObjectAdapter toHide) {
+                return hiddenPojos.contains(toHide.getObject()) ? "hidden" : null;
+            }
+
+            @Override
+            public void copyOnto(final FacetHolder holder) {
+            }
+        };
+    }
+
+    private static List<Object> pojosOf(final Iterator<ObjectAdapter> iterator) {
+        final List<Object> pojos = Lists.newArrayList();
+        while (iterator.hasNext()) {
+            pojos.add(iterator.next().getObject());
+        }
+        return pojos;
+    }
+}
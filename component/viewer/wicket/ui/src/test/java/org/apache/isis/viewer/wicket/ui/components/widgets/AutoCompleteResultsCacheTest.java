@@ -0,0 +1,68 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.wicket.ui.components.widgets;
+
+import java.util.Collections;
+
+import org.apache.wicket.util.time.Duration;
+import org.junit.Test;
+
+import org.apache.isis.viewer.wicket.model.mementos.ObjectAdapterMemento;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class AutoCompleteResultsCacheTest {
+
+    private final AutoCompleteResultsCache.Page page = new AutoCompleteResultsCache.Page(Collections.<ObjectAdapterMemento>emptyList(), false);
+
+    @Test
+    public void whenPut() throws Exception {
+        final AutoCompleteResultsCache cache = new AutoCompleteResultsCache(2, Duration.ONE_HOUR);
+        cache.put("a", page);
+
+        assertThat(cache.get("a"), is(sameInstance(page)));
+        assertThat(cache.get("b"), is(nullValue()));
+    }
+
+    @Test
+    public void whenExpired() throws Exception {
+        final AutoCompleteResultsCache cache = new AutoCompleteResultsCache(2, Duration.NONE);
+        cache.put("a", page);
+
+        assertThat(cache.get("a"), is(nullValue()));
+    }
+
+    @Test
+    public void leastRecentlyUsedEvicted() throws Exception {
+        final AutoCompleteResultsCache cache = new AutoCompleteResultsCache(2, Duration.ONE_HOUR);
+        cache.put("a", page);
+        cache.put("b", page);
+        cache.get("a");
+        cache.put("c", page);
+
+        assertThat(cache.get("a"), is(sameInstance(page)));
+        assertThat(cache.get("b"), is(nullValue()));
+        assertThat(cache.get("c"), is(sameInstance(page)));
+    }
+
+}
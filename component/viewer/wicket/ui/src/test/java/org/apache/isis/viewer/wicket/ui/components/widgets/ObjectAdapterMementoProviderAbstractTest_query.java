@@ -0,0 +1,138 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.wicket.ui.components.widgets;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.vaynberg.wicket.select2.Response;
+
+import org.apache.wicket.util.time.Duration;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.viewer.wicket.model.mementos.ObjectAdapterMemento;
+import org.apache.isis.viewer.wicket.model.models.ScalarModel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ObjectAdapterMementoProviderAbstractTest_query {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private ScalarModel mockScalarModel;
+
+    private List<ObjectAdapterMemento> mementos;
+    private int obtainCount;
+    private AutoCompleteResultsCache cache;
+
+    private ObjectAdapterMementoProviderAbstract provider;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockScalarModel).isRequired();
+            will(returnValue(false));
+        }});
+
+        mementos = Lists.newArrayList();
+        for (int i = 0; i < ObjectAdapterMementoProviderAbstract.PAGE_SIZE + 5; i++) {
+            mementos.add(context.mock(ObjectAdapterMemento.class, "memento" + i));
+        }
+
+        provider = new ObjectAdapterMementoProviderAbstract(mockScalarModel) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected List<ObjectAdapterMemento> obtainMementos(final String term) {
+                obtainCount++;
+                return mementos;
+            }
+
+            @Override
+            AutoCompleteResultsCache getResultsCache() {
+                return cache;
+            }
+        };
+    }
+
+    @Test
+    public void firstPageHasMoreAndBlankChoice() throws Exception {
+        final Response<ObjectAdapterMemento> response = query(1);
+
+        assertThat(response.getHasMore(), is(true));
+        assertThat(response.size(), is(ObjectAdapterMementoProviderAbstract.PAGE_SIZE + 1));
+        assertThat(response.getResults().get(0), is(nullValue()));
+        assertThat(response.getResults().get(1), is(mementos.get(0)));
+    }
+
+    @Test
+    public void lastPageHasNoMoreAndNoBlankChoice() throws Exception {
+        final Response<ObjectAdapterMemento> response = query(2);
+
+        assertThat(response.getHasMore(), is(false));
+        assertThat(response.size(), is(5));
+        assertThat(response.getResults().get(0), is(mementos.get(ObjectAdapterMementoProviderAbstract.PAGE_SIZE)));
+    }
+
+    @Test
+    public void exactlyOnePageHasNoMore() throws Exception {
+        mementos = Lists.newArrayList(mementos.subList(0, ObjectAdapterMementoProviderAbstract.PAGE_SIZE));
+
+        final Response<ObjectAdapterMemento> response = query(1);
+
+        assertThat(response.getHasMore(), is(false));
+        assertThat(response.size(), is(ObjectAdapterMementoProviderAbstract.PAGE_SIZE + 1));
+    }
+
+    @Test
+    public void whenNotCachedObtainsAllMementosForEachPage() throws Exception {
+        query(1);
+        query(2);
+
+        assertThat(obtainCount, is(2));
+    }
+
+    @Test
+    public void whenCachedObtainsAllMementosOncePerTerm() throws Exception {
+        cache = new AutoCompleteResultsCache(32, Duration.ONE_HOUR);
+
+        query(1);
+        query(2);
+        query(1);
+
+        assertThat(obtainCount, is(1));
+    }
+
+    private Response<ObjectAdapterMemento> query(final int page) {
+        final Response<ObjectAdapterMemento> response = new Response<ObjectAdapterMemento>();
+        provider.query("abc", page, response);
+        return response;
+    }
+
+}
@@ -68,13 +68,19 @@ public boolean accept(final T f) {
         };
     }
 
+    private static final Filter<Object> ANY = new Filter<Object>() {
+        @Override
+        public boolean accept(final Object t) {
+            return true;
+        }
+    };
+
+    /**
+     * Always returns the same instance, so callers may use identity to detect an unfiltered request.
+     */
+    @SuppressWarnings("unchecked")
     public static <T> Filter<T> any() {
-        return new Filter<T>() {
-            @Override
-            public boolean accept(final T t) {
-                return true;
-            }
-        };
+        return (Filter<T>) ANY;
     }
 
     public final static <T> Filter<T> anyOfType(final Class<T> clazz) {
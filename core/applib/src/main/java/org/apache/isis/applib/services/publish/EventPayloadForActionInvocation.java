@@ -140,6 +140,15 @@ public boolean hideArg9() {
     public Object getResult() {
         return result;
     }
+
+    /**
+     * All of the arguments, including any beyond those exposed as {@link #getArg0() properties}.
+     */
+    @Programmatic
+    public List<? extends Object> getArguments() {
+        return arguments;
+    }
+
     private Object getArg(int paramNum) {
         return arguments.size()>paramNum?arguments.get(paramNum):null;
     }
@@ -0,0 +1,366 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.applib.services.queryresultscache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache.Key;
+
+/**
+ * An application-scoped (that is, shared across interactions) tier alongside the request-scoped
+ * {@link QueryResultsCache}, for idempotent queries of reference data (such as the choices for a
+ * drop-down) that would otherwise be recomputed on every request.
+ *
+ * <p>
+ * Unlike the request-scoped cache, this cache is bounded in size (least recently used entries being
+ * evicted first), and each entry has a time-to-live.  An entry may also declare the types upon which
+ * it depends; whenever a transaction that has changed any object of those types commits, the entry is
+ * invalidated.  An entry that declares no dependent types is invalidated by any committed change.
+ *
+ * <p>
+ * Cached results are shared across sessions and threads, so should be immutable values (or otherwise
+ * safe to share); in particular, entities loaded by one persistence session should not be relied upon
+ * in another.
+ *
+ * <p>
+ * The maximum size and default time-to-live can be configured using
+ * {@value #MAX_SIZE_KEY} (default {@value #MAX_SIZE_DEFAULT}) and
+ * {@value #TIME_TO_LIVE_SECONDS_KEY} (default {@value #TIME_TO_LIVE_SECONDS_DEFAULT}).
+ */
+@DomainService
+public class QueryResultsCacheApplicationScoped {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryResultsCacheApplicationScoped.class);
+
+    public static final String MAX_SIZE_KEY = "isis.services.queryResultsCache.applicationScoped.maxSize";
+    public static final long MAX_SIZE_DEFAULT = 1000L;
+
+    public static final String TIME_TO_LIVE_SECONDS_KEY = "isis.services.queryResultsCache.applicationScoped.timeToLiveSeconds";
+    public static final long TIME_TO_LIVE_SECONDS_DEFAULT = 300L;
+
+    static class Entry<T> extends QueryResultsCache.Value<T> {
+        private final long expiresAtNanos;
+        private final Set<Class<?>> dependentTypes;
+
+        Entry(final T result, final long expiresAtNanos, final Set<Class<?>> dependentTypes) {
+            super(result);
+            this.expiresAtNanos = expiresAtNanos;
+            this.dependentTypes = dependentTypes;
+        }
+
+        boolean isExpiredAt(final long nanos) {
+            return nanos - expiresAtNanos >= 0;
+        }
+
+        /**
+         * Whether a change to an object of the specified type invalidates this entry.
+         */
+        boolean dependsOn(final Class<?> changedType) {
+            if (dependentTypes.isEmpty()) {
+                return true;
+            }
+            for (final Class<?> dependentType : dependentTypes) {
+                if (dependentType.isAssignableFrom(changedType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final Ticker ticker;
+
+    private Cache<Key, Entry<?>> cache;
+    private long timeToLiveNanos;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong expiryCount = new AtomicLong();
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    public QueryResultsCacheApplicationScoped() {
+        this(Ticker.systemTicker());
+    }
+
+    QueryResultsCacheApplicationScoped(final Ticker ticker) {
+        this.ticker = ticker;
+        configure(MAX_SIZE_DEFAULT, TIME_TO_LIVE_SECONDS_DEFAULT);
+    }
+
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String, String> props) {
+        configure(
+                parseLong(props, MAX_SIZE_KEY, MAX_SIZE_DEFAULT),
+                parseLong(props, TIME_TO_LIVE_SECONDS_KEY, TIME_TO_LIVE_SECONDS_DEFAULT));
+    }
+
+    private static long parseLong(final Map<String, String> props, final String key, final long defaultValue) {
+        final String value = props.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (final NumberFormatException ex) {
+            LOG.warn("Invalid value for '" + key + "': '" + value + "'; using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private void configure(final long maxSize, final long timeToLiveSeconds) {
+        this.timeToLiveNanos = TimeUnit.SECONDS.toNanos(timeToLiveSeconds);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .removalListener(new RemovalListener<Key, Entry<?>>() {
+                    @Override
+                    public void onRemoval(final RemovalNotification<Key, Entry<?>> notification) {
+                        if (notification.wasEvicted()) {
+                            evictionCount.incrementAndGet();
+                        }
+                    }
+                })
+                .build();
+    }
+
+    // //////////////////////////////////////
+    // execute
+    // //////////////////////////////////////
+
+    /**
+     * Using the default time-to-live, and invalidated by any committed change.
+     */
+    @Programmatic
+    public <T> T execute(final Callable<T> callable, final Class<?> callingClass, final String methodName, final Object... keys) {
+        return execute(callable, new Key(callingClass, methodName, keys));
+    }
+
+    /**
+     * Using the default time-to-live, and invalidated by any committed change.
+     */
+    @Programmatic
+    public <T> T execute(final Callable<T> callable, final Key cacheKey) {
+        return execute(callable, cacheKey, timeToLiveNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Cached for the specified time-to-live, and invalidated by any committed change to an object
+     * of (a subtype of) any of the <tt>dependentTypes</tt>, or by any committed change at all if
+     * there are none.
+     */
+    @Programmatic
+    @SuppressWarnings("unchecked")
+    public <T> T execute(
+            final Callable<T> callable,
+            final Key cacheKey,
+            final long timeToLive,
+            final TimeUnit timeUnit,
+            final Class<?>... dependentTypes) {
+        final Entry<?> entry = getEntry(cacheKey);
+        if (entry != null) {
+            return (T) entry.getResult();
+        }
+        try {
+            // cache miss, so get the result, and cache
+            final T result = callable.call();
+            put(cacheKey, result, timeToLive, timeUnit, dependentTypes);
+            return result;
+        } catch (final RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // //////////////////////////////////////
+    // get, put
+    // //////////////////////////////////////
+
+    @Programmatic
+    @SuppressWarnings("unchecked")
+    public <T> QueryResultsCache.Value<T> get(final Key cacheKey) {
+        return (QueryResultsCache.Value<T>) getEntry(cacheKey);
+    }
+
+    private Entry<?> getEntry(final Key cacheKey) {
+        Entry<?> entry = cache.getIfPresent(cacheKey);
+        if (entry != null && entry.isExpiredAt(ticker.read())) {
+            cache.asMap().remove(cacheKey, entry);
+            expiryCount.incrementAndGet();
+            entry = null;
+        }
+        if (entry != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug((entry != null ? "HIT: " : "MISS: ") + cacheKey);
+        }
+        return entry;
+    }
+
+    @Programmatic
+    public <T> void put(
+            final Key cacheKey,
+            final T result,
+            final long timeToLive,
+            final TimeUnit timeUnit,
+            final Class<?>... dependentTypes) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("PUT: " + cacheKey + (dependentTypes.length > 0 ? " dependent on " + Arrays.toString(dependentTypes) : ""));
+        }
+        final long expiresAtNanos = ticker.read() + timeUnit.toNanos(timeToLive);
+        cache.put(cacheKey, new Entry<T>(result, expiresAtNanos, ImmutableSet.copyOf(dependentTypes)));
+    }
+
+    // //////////////////////////////////////
+    // invalidation
+    // //////////////////////////////////////
+
+    @Programmatic
+    public void invalidate(final Key cacheKey) {
+        if (cache.asMap().remove(cacheKey) != null) {
+            invalidationCount.incrementAndGet();
+        }
+    }
+
+    @Programmatic
+    public void invalidateAll() {
+        invalidationCount.addAndGet(cache.size());
+        cache.invalidateAll();
+    }
+
+    /**
+     * Called by the framework when a transaction commits, with the types of all objects that were
+     * created, updated or deleted; invalidates every entry that depends on any of those types.
+     */
+    @Programmatic
+    public void invalidateDependentOn(final Collection<Class<?>> changedTypes) {
+        if (changedTypes.isEmpty() || cache.size() == 0) {
+            return;
+        }
+        for (final Map.Entry<Key, Entry<?>> mapEntry : cache.asMap().entrySet()) {
+            if (dependsOnAny(mapEntry.getValue(), changedTypes)) {
+                if (cache.asMap().remove(mapEntry.getKey(), mapEntry.getValue())) {
+                    invalidationCount.incrementAndGet();
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("INVALIDATED: " + mapEntry.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean dependsOnAny(final Entry<?> entry, final Collection<Class<?>> changedTypes) {
+        for (final Class<?> changedType : changedTypes) {
+            if (entry.dependsOn(changedType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // //////////////////////////////////////
+    // statistics
+    // //////////////////////////////////////
+
+    @Programmatic
+    public long getSize() {
+        return cache.size();
+    }
+
+    @Programmatic
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Programmatic
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * The proportion of lookups that were hits, or <tt>0</tt> if there have been none.
+     */
+    @Programmatic
+    public double getHitRatio() {
+        final long hits = hitCount.get();
+        final long lookups = hits + missCount.get();
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    /**
+     * The number of entries evicted because the cache was full.
+     */
+    @Programmatic
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * The number of entries discarded because their time-to-live had passed.
+     */
+    @Programmatic
+    public long getExpiryCount() {
+        return expiryCount.get();
+    }
+
+    /**
+     * The number of entries discarded because of a committed change (or explicit invalidation).
+     */
+    @Programmatic
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    @Programmatic
+    public Map<String, Object> getStatistics() {
+        final Map<String, Object> statistics = Maps.newLinkedHashMap();
+        statistics.put("size", getSize());
+        statistics.put("hits", getHitCount());
+        statistics.put("misses", getMissCount());
+        statistics.put("hitRatio", getHitRatio());
+        statistics.put("evictions", getEvictionCount());
+        statistics.put("expiries", getExpiryCount());
+        statistics.put("invalidations", getInvalidationCount());
+        return Collections.unmodifiableMap(statistics);
+    }
+}
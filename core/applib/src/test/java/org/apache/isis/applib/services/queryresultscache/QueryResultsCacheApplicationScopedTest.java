@@ -0,0 +1,144 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.applib.services.queryresultscache;
+
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache.Key;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class QueryResultsCacheApplicationScopedTest {
+
+    public static class Country {
+    }
+
+    public static class Customer {
+    }
+
+    private static class FakeTicker extends Ticker {
+        long nanos;
+        @Override
+        public long read() {
+            return nanos;
+        }
+    }
+
+    private static class CountingCallable implements Callable<String> {
+        int calls;
+        @Override
+        public String call() throws Exception {
+            calls++;
+            return "foo";
+        }
+    }
+
+    private FakeTicker ticker;
+    private QueryResultsCacheApplicationScoped queryResultsCache;
+    private CountingCallable callable;
+
+    private final Key countriesKey = new Key(QueryResultsCacheApplicationScopedTest.class, "allCountries");
+
+    @Before
+    public void setUp() throws Exception {
+        ticker = new FakeTicker();
+        queryResultsCache = new QueryResultsCacheApplicationScoped(ticker);
+        callable = new CountingCallable();
+    }
+
+    @Test
+    public void caching() {
+        assertThat(queryResultsCache.execute(callable, QueryResultsCacheApplicationScopedTest.class, "caching", "a", 1), is("foo"));
+        assertThat(queryResultsCache.execute(callable, QueryResultsCacheApplicationScopedTest.class, "caching", "a", 1), is("foo"));
+        assertThat(callable.calls, is(1));
+
+        assertThat(queryResultsCache.execute(callable, QueryResultsCacheApplicationScopedTest.class, "caching", "b", 1), is("foo"));
+        assertThat(callable.calls, is(2));
+
+        assertThat(queryResultsCache.getHitCount(), is(1L));
+        assertThat(queryResultsCache.getMissCount(), is(2L));
+        assertThat(queryResultsCache.getSize(), is(2L));
+    }
+
+    @Test
+    public void expiresAfterTimeToLive() {
+        queryResultsCache.execute(callable, countriesKey, 10, TimeUnit.SECONDS, Country.class);
+
+        ticker.nanos = TimeUnit.SECONDS.toNanos(9);
+        queryResultsCache.execute(callable, countriesKey, 10, TimeUnit.SECONDS, Country.class);
+        assertThat(callable.calls, is(1));
+
+        ticker.nanos = TimeUnit.SECONDS.toNanos(10);
+        queryResultsCache.execute(callable, countriesKey, 10, TimeUnit.SECONDS, Country.class);
+        assertThat(callable.calls, is(2));
+        assertThat(queryResultsCache.getExpiryCount(), is(1L));
+    }
+
+    @Test
+    public void invalidatedOnlyByChangesToDependentTypes() {
+        queryResultsCache.execute(callable, countriesKey, 10, TimeUnit.SECONDS, Country.class);
+
+        queryResultsCache.invalidateDependentOn(Collections.<Class<?>>singleton(Customer.class));
+        queryResultsCache.execute(callable, countriesKey, 10, TimeUnit.SECONDS, Country.class);
+        assertThat(callable.calls, is(1));
+
+        queryResultsCache.invalidateDependentOn(Collections.<Class<?>>singleton(Country.class));
+        queryResultsCache.execute(callable, countriesKey, 10, TimeUnit.SECONDS, Country.class);
+        assertThat(callable.calls, is(2));
+        assertThat(queryResultsCache.getInvalidationCount(), is(1L));
+    }
+
+    @Test
+    public void withoutDependentTypesInvalidatedByAnyChange() {
+        queryResultsCache.execute(callable, countriesKey);
+
+        queryResultsCache.invalidateDependentOn(Collections.<Class<?>>singleton(Customer.class));
+
+        queryResultsCache.execute(callable, countriesKey);
+        assertThat(callable.calls, is(2));
+    }
+
+    @Test
+    public void boundedInSize() {
+        queryResultsCache.init(ImmutableMap.of(QueryResultsCacheApplicationScoped.MAX_SIZE_KEY, "1"));
+
+        queryResultsCache.execute(callable, QueryResultsCacheApplicationScopedTest.class, "boundedInSize", 1);
+        queryResultsCache.execute(callable, QueryResultsCacheApplicationScopedTest.class, "boundedInSize", 2);
+
+        assertThat(queryResultsCache.getSize(), is(1L));
+        assertThat(queryResultsCache.getEvictionCount(), is(1L));
+    }
+
+    @Test
+    public void hitRatio() {
+        assertThat(queryResultsCache.getHitRatio(), is(0.0));
+
+        queryResultsCache.execute(callable, countriesKey);
+        queryResultsCache.execute(callable, countriesKey);
+
+        assertThat(queryResultsCache.getHitRatio(), is(0.5));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
+import org.apache.isis.core.tck.dom.scalars.JdkValuedEntity;
+
+/**
+ * JMH benchmark of {@link AdapterManager#adapterFor(Object) looking up} the adapters of persistent objects already
+ * mapped in the session, cycling through the objects so that the lookups are not all for the same pojo.
+ *
+ * <p>
+ * Run using {@link #main(String[])}, or through the <tt>benchmarks.jar</tt> uber-jar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AdapterManagerBenchmark extends IsisSystemBenchmarkAbstract {
+
+    @Param({"100", "10000"})
+    public int mappedObjects;
+
+    private AdapterManager adapterManager;
+    private Object[] pojos;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUpObjects() {
+        final List<JdkValuedEntity> entities = persistEntities(mappedObjects);
+        pojos = entities.toArray();
+        adapterManager = isft.getAdapterManager();
+    }
+
+    @Benchmark
+    public ObjectAdapter adapterFor() {
+        final Object pojo = pojos[next];
+        next = (next + 1) % pojos.length;
+        return adapterManager.adapterFor(pojo);
+    }
+
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+        BenchmarkRunner.main(new String[] { AdapterManagerBenchmark.class.getSimpleName() });
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import org.apache.isis.applib.annotation.Where;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+import org.apache.isis.viewer.restfulobjects.rendering.RendererContext;
+import org.apache.isis.viewer.restfulobjects.rendering.domainobjects.DomainObjectReprRenderer;
+import org.apache.isis.viewer.restfulobjects.rendering.util.JsonWriterUtil;
+
+/**
+ * JMH benchmark of {@link DomainObjectReprRenderer rendering} the representation of a persistent object, as the
+ * Restful Objects viewer does for <tt>GET /objects/{domainType}/{instanceId}</tt>, both with and without then
+ * {@link JsonWriterUtil#bytesFor(Object) serializing} it.
+ *
+ * <p>
+ * Run using {@link #main(String[])}, or through the <tt>benchmarks.jar</tt> uber-jar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DomainObjectReprRendererBenchmark extends IsisSystemBenchmarkAbstract {
+
+    private ObjectAdapter adapter;
+
+    @Setup(Level.Trial)
+    public void setUpAdapter() {
+        final Object entity = persistEntities(1).get(0);
+        adapter = isft.adapterFor(entity);
+    }
+
+    @Benchmark
+    public JsonRepresentation render() {
+        return newRenderer().render();
+    }
+
+    @Benchmark
+    public byte[] renderAndSerialize() {
+        return JsonWriterUtil.bytesFor(newRenderer().render());
+    }
+
+    private DomainObjectReprRenderer newRenderer() {
+        final RendererContext rendererContext = new BenchmarkRendererContext("http://localhost:8080/restful/", Where.OBJECT_FORMS);
+        final DomainObjectReprRenderer renderer = new DomainObjectReprRenderer(rendererContext, null, JsonRepresentation.newMap());
+        renderer.with(adapter).includesSelf();
+        return renderer;
+    }
+
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+        BenchmarkRunner.main(new String[] { DomainObjectReprRendererBenchmark.class.getSimpleName() });
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.apache.isis.applib.DomainObjectContainer;
+import org.apache.isis.core.integtestsupport.IsisSystemForTest;
+import org.apache.isis.core.metamodel.services.container.DomainObjectContainerDefault;
+import org.apache.isis.core.tck.dom.scalars.JdkValuedEntity;
+import org.apache.isis.core.tck.dom.scalars.MyEnum;
+import org.apache.isis.core.wrapper.WrapperFactoryDefault;
+
+/**
+ * Boots an {@link IsisSystemForTest} using the in-memory object store (and with a session open) for the duration
+ * of each trial, for those benchmarks that exercise the framework against the <tt>tck-dom</tt> entities.
+ *
+ * <p>
+ * The benchmarks use {@link JdkValuedEntity}, which (unlike some of the other <tt>tck-dom</tt> entities) has no
+ * properties whose getters throw if called.
+ */
+public abstract class IsisSystemBenchmarkAbstract {
+
+    protected IsisSystemForTest isft;
+
+    @Setup(Level.Trial)
+    public void setUpSystem() {
+        isft = IsisSystemForTest.builder()
+                .withServices(new DomainObjectContainerDefault(), new WrapperFactoryDefault())
+                .withLoggingAt(org.apache.log4j.Level.WARN)
+                .build()
+                .setUpSystem();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownSystem() throws Exception {
+        isft.tearDownSystem();
+    }
+
+    /**
+     * Persists the specified number of entities, within their own transaction.
+     */
+    protected List<JdkValuedEntity> persistEntities(final int number) {
+        isft.beginTran();
+        final List<JdkValuedEntity> entities = newEntities(number);
+        isft.endTran();
+        return entities;
+    }
+
+    /**
+     * Creates and persists (that is, enlists in the current transaction) the specified number of entities.
+     */
+    protected List<JdkValuedEntity> newEntities(final int number) {
+        final DomainObjectContainer container = isft.getContainer();
+        final List<JdkValuedEntity> entities = Lists.newArrayListWithCapacity(number);
+        for (int i = 0; i < number; i++) {
+            final JdkValuedEntity entity = container.newTransientInstance(JdkValuedEntity.class);
+            entity.setStringProperty("entity #" + i);
+            entity.setJavaUtilDateProperty(new Date());
+            entity.setBigDecimalProperty(BigDecimal.valueOf(i, 2));
+            entity.setMyEnum(MyEnum.RED);
+            container.persist(entity);
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.memento.MementoService.Memento;
+import org.apache.isis.core.runtime.services.memento.MementoServiceDefault;
+
+/**
+ * JMH benchmark of {@link MementoServiceDefault} creating and encoding a memento (such as a view model's, or a
+ * scheduled background command's), and of parsing it and reading back its values, in each of the memento
+ * formats.
+ *
+ * <p>
+ * Run using {@link #main(String[])}, or through the <tt>benchmarks.jar</tt> uber-jar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MementoServiceBenchmark {
+
+    @Param({MementoServiceDefault.FORMAT_XML, MementoServiceDefault.FORMAT_BINARY})
+    public String format;
+
+    private MementoServiceDefault mementoService;
+    private String mementoStr;
+
+    @Setup(Level.Trial)
+    public void setUpMementoService() {
+        mementoService = new MementoServiceDefault();
+        if (MementoServiceDefault.FORMAT_BINARY.equals(format)) {
+            mementoService.withBinaryFormat();
+        }
+        mementoStr = createAndEncode();
+    }
+
+    @Benchmark
+    public String createAndEncode() {
+        final Memento memento = mementoService.create();
+        memento.set("actionId", "placeOrder");
+        memento.set("target", new Bookmark("CUS", "12345"));
+        memento.set("product", new Bookmark("PRD", "678"));
+        memento.set("quantity", 3);
+        memento.set("price", new BigDecimal("19.99"));
+        memento.set("deliveryDate", new LocalDate(2014, 9, 3));
+        memento.set("notes", "please leave with neighbour");
+        memento.set("express", Boolean.TRUE);
+        return memento.asString();
+    }
+
+    @Benchmark
+    public Object parseAndRead() {
+        final Memento memento = mementoService.parse(mementoStr);
+        memento.get("actionId", String.class);
+        memento.get("target", Bookmark.class);
+        memento.get("product", Bookmark.class);
+        memento.get("quantity", Integer.class);
+        memento.get("price", BigDecimal.class);
+        memento.get("deliveryDate", LocalDate.class);
+        memento.get("notes", String.class);
+        return memento.get("express", Boolean.class);
+    }
+
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+        BenchmarkRunner.main(new String[] { MementoServiceBenchmark.class.getSimpleName() });
+    }
+}
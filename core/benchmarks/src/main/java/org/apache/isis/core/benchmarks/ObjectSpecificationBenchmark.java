@@ -0,0 +1,80 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.tck.dom.scalars.JdkValuedEntity;
+
+/**
+ * JMH benchmark of looking up a {@link ObjectSpecification specification} by class, and then one of its
+ * {@link ObjectSpecification#getAssociation(String) associations} by id (the first and the last declared).
+ *
+ * <p>
+ * Run using {@link #main(String[])}, or through the <tt>benchmarks.jar</tt> uber-jar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ObjectSpecificationBenchmark extends IsisSystemBenchmarkAbstract {
+
+    @Param({"stringProperty", "myEnum"})
+    public String associationId;
+
+    private ObjectSpecification specification;
+
+    @Setup(Level.Trial)
+    public void setUpSpecification() {
+        specification = isft.loadSpecification(JdkValuedEntity.class);
+    }
+
+    @Benchmark
+    public ObjectSpecification loadSpecification() {
+        return isft.loadSpecification(JdkValuedEntity.class);
+    }
+
+    @Benchmark
+    public ObjectAssociation getAssociation() {
+        return specification.getAssociation(associationId);
+    }
+
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+        BenchmarkRunner.main(new String[] { ObjectSpecificationBenchmark.class.getSimpleName() });
+    }
+}
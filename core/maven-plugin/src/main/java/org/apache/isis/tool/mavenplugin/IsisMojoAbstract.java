@@ -33,6 +33,7 @@
 import org.apache.isis.core.commons.config.IsisConfigurationBuilderDefault;
 import org.apache.isis.core.metamodel.app.IsisMetaModel;
 import org.apache.isis.core.metamodel.runtimecontext.noruntime.RuntimeContextNoRuntime;
+import org.apache.isis.core.metamodel.specloader.MetaModelIndex;
 import org.apache.isis.core.runtime.services.ServicesInstaller;
 import org.apache.isis.core.runtime.services.ServicesInstallerFromAnnotation;
 import org.apache.isis.core.runtime.services.ServicesInstallerFromConfigurationAndAnnotation;
@@ -52,23 +53,34 @@ public abstract class IsisMojoAbstract extends AbstractMojo {
     private String isisConfigDir;
 
     private final MetaModelProcessor metaModelProcessor;
-    private final ContextForMojo context;
+    private ContextForMojo context;
 
     protected IsisMojoAbstract(final MetaModelProcessor metaModelProcessor) {
         this.metaModelProcessor = metaModelProcessor;
-        this.context = new ContextForMojo(mavenProject, getLog());
     }
 
     public void execute() throws MojoExecutionException, MojoFailureException {
+        // the project and its parameters are only injected after construction
+        context = new ContextForMojo(mavenProject, getLog());
 
-        final Plugin plugin = MavenProjects.lookupPlugin(mavenProject, CURRENT_PLUGIN_KEY);
-        final List<Object> serviceList = plugin != null ? serviceListFor(plugin) : null;
-        if(serviceList == null || serviceList.size() == 0) {
-            return;
-        }
-        getLog().info("Found " + serviceList.size() + " services");
+        // always scan the classpath, rather than rely on any index from a previous build
+        final String indexDisabled = System.setProperty(MetaModelIndex.DISABLED_PROPERTY, "true");
+        try {
+            final Plugin plugin = MavenProjects.lookupPlugin(mavenProject, CURRENT_PLUGIN_KEY);
+            final List<Object> serviceList = plugin != null ? serviceListFor(plugin) : null;
+            if(serviceList == null || serviceList.size() == 0) {
+                return;
+            }
+            getLog().info("Found " + serviceList.size() + " services");
 
-        usingIsisMetaModel(serviceList, metaModelProcessor);
+            usingIsisMetaModel(serviceList, metaModelProcessor);
+        } finally {
+            if(indexDisabled == null) {
+                System.clearProperty(MetaModelIndex.DISABLED_PROPERTY);
+            } else {
+                System.setProperty(MetaModelIndex.DISABLED_PROPERTY, indexDisabled);
+            }
+        }
     }
 
     private void usingIsisMetaModel(
@@ -86,6 +98,7 @@ private void usingIsisMetaModel(
 
     private List<Object> serviceListFor(Plugin plugin) throws MojoFailureException {
         IsisConfiguration isisConfiguration = getIsisConfiguration();
+        context.setIsisConfiguration(isisConfiguration);
 
         final ServicesInstaller servicesInstaller;
         if(isisConfiguration == null) {
@@ -137,6 +150,7 @@ static class ContextForMojo implements MetaModelProcessor.Context {
 
         private final MavenProject mavenProject;
         private final Log log;
+        private IsisConfiguration isisConfiguration;
 
         public ContextForMojo(final MavenProject mavenProject, final Log log) {
             this.mavenProject = mavenProject;
@@ -153,6 +167,15 @@ public Log getLog() {
             return log;
         }
 
+        @Override
+        public IsisConfiguration getIsisConfiguration() {
+            return isisConfiguration;
+        }
+
+        void setIsisConfiguration(final IsisConfiguration isisConfiguration) {
+            this.isisConfiguration = isisConfiguration;
+        }
+
         @Override
         public void throwFailureException(String errorMessage, Set<String> logMessages) throws MojoFailureException {
             logErrors(logMessages);
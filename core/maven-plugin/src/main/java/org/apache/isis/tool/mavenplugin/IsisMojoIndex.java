@@ -0,0 +1,119 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.tool.mavenplugin;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import com.google.common.base.Charsets;
+import com.google.common.collect.Maps;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.isis.core.metamodel.app.IsisMetaModel;
+import org.apache.isis.core.metamodel.facets.object.objectspecid.ObjectSpecIdFacet;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.specloader.MetaModelIndex;
+import org.apache.isis.core.runtime.services.DeweyOrderComparator;
+import org.apache.isis.core.runtime.services.ServicesInstallerFromAnnotation;
+import org.apache.isis.core.runtime.system.DeploymentType;
+
+/**
+ * Writes a {@link MetaModelIndex} of the domain services and domain classes to the project's output directory, so
+ * that the application need not scan the classpath for them each time that it starts.  Only the class names are
+ * indexed; the metamodel itself is still built by introspection at startup.
+ */
+@Mojo(
+        name = "index",
+        defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+        requiresProject = true,
+        requiresDependencyResolution = ResolutionScope.COMPILE,
+        requiresDependencyCollection = ResolutionScope.COMPILE
+)
+public class IsisMojoIndex extends IsisMojoAbstract {
+
+    protected IsisMojoIndex() {
+        super(new IndexMetaModelProcessor());
+    }
+
+    static class IndexMetaModelProcessor implements MetaModelProcessor {
+        @Override
+        public void process(final IsisMetaModel isisMetaModel, final Context context) throws MojoFailureException, MojoExecutionException {
+            final MetaModelIndex index = new MetaModelIndex();
+            try {
+                appendServices(index, context);
+            } catch (final ClassNotFoundException ex) {
+                context.throwExecutionException("Unable to load class", ex);
+            }
+            appendSpecifications(index, isisMetaModel);
+
+            final File file = new File(context.getMavenProject().getBuild().getOutputDirectory(), MetaModelIndex.RESOURCE);
+            try {
+                file.getParentFile().mkdirs();
+                try (final Writer writer = new OutputStreamWriter(new FileOutputStream(file), Charsets.UTF_8)) {
+                    index.writeTo(writer);
+                }
+            } catch (final IOException ex) {
+                context.throwExecutionException("Unable to write " + file, ex);
+            }
+            context.getLog().info("Indexed " + index.getNumberOfClasses() + " classes to " + file);
+        }
+
+        private static void appendServices(final MetaModelIndex index, final Context context) throws ClassNotFoundException {
+            final ServicesInstallerFromAnnotation servicesInstaller = new ServicesInstallerFromAnnotation();
+            servicesInstaller.setConfiguration(context.getIsisConfiguration());
+            final SortedMap<String, SortedSet<String>> positionedServices = Maps.newTreeMap(new DeweyOrderComparator());
+            servicesInstaller.appendServices(DeploymentType.SERVER_PROTOTYPE, positionedServices);
+
+            index.setPackagePrefixes(servicesInstaller.getPackagePrefixes(), Thread.currentThread().getContextClassLoader());
+            for (final Map.Entry<String, SortedSet<String>> entry : positionedServices.entrySet()) {
+                for (final String serviceClassName : entry.getValue()) {
+                    index.addService(entry.getKey(), loadClass(serviceClassName));
+                }
+            }
+        }
+
+        /**
+         * Only domain classes are indexed (values and collections are always loaded along with the services or
+         * domain classes that reference them).
+         */
+        private static void appendSpecifications(final MetaModelIndex index, final IsisMetaModel isisMetaModel) {
+            for (final ObjectSpecification spec : isisMetaModel.getSpecificationLoader().allSpecifications()) {
+                final Class<?> cls = spec.getCorrespondingClass();
+                if (!spec.containsDoOpFacet(ObjectSpecIdFacet.class) || spec.isValue() || spec.isParentedOrFreeCollection()
+                        || cls.getClassLoader() == null) {
+                    continue;
+                }
+                index.addSpecification(spec.getSpecId().asString(), cls);
+            }
+        }
+
+        private static Class<?> loadClass(final String className) throws ClassNotFoundException {
+            return Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+        }
+    }
+
+}
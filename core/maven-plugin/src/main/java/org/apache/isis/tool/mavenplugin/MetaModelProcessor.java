@@ -23,6 +23,7 @@
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
+import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.metamodel.app.IsisMetaModel;
 
 interface MetaModelProcessor {
@@ -33,6 +34,8 @@ public interface Context {
 
         Log getLog();
 
+        IsisConfiguration getIsisConfiguration();
+
         void logErrors(final String... logMessages);
 
         void throwFailureException(final String errorMessage, final Set<String> logMessages) throws MojoFailureException;
@@ -30,4 +30,13 @@ public interface ObjectDirtier extends Injectable {
      */
     void objectChanged(Object object);
 
+    /**
+     * Provided by <tt>PersistenceSession</tt> when used by framework.
+     *
+     * <p>
+     * Registers an object that has been {@link org.apache.isis.core.metamodel.spec.Dirtiable#markDirty(ObjectAdapter) marked as dirty},
+     * so that it (and only it) is checked for changes when the transaction completes.
+     */
+    void objectMarkedDirty(ObjectAdapter adapter);
+
 }
@@ -18,14 +18,11 @@
  */
 package org.apache.isis.core.metamodel.adapter.oid;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.regex.Matcher;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
-import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
-import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import org.apache.isis.core.metamodel.adapter.oid.Oid.State;
 import org.apache.isis.core.metamodel.adapter.version.Version;
@@ -78,6 +75,11 @@
  * 
  * <p>
  * Note that # and ; were not chosen as separators to minimize noise when URL encoding OIDs.
+ * 
+ * <p>
+ * Oid strs are parsed in a single pass (rather than by matching against the equivalent
+ * {@link #OIDSTR_PATTERN regular expression}), interning the {@link ObjectSpecId}s, and are
+ * marshalled into a (per-thread) reusable buffer.
  */
 public class OidMarshaller {
 
@@ -94,7 +96,10 @@ public class OidMarshaller {
 	private static final String WORD_GROUP = "(" + WORD + ")";
 	private static final String DIGITS_GROUP = "(" + DIGITS + ")";
     
-	private static Pattern OIDSTR_PATTERN = 
+	/**
+	 * The syntax of an oid str, as reported if cannot be {@link #unmarshal(String, Class) unmarshalled}.
+	 */
+	static final Pattern OIDSTR_PATTERN = 
             Pattern.compile(
             		"^(" +
             		   "(" +
@@ -114,6 +119,21 @@ public class OidMarshaller {
     		 		 ")?" + 
             		 "$");
 
+	/**
+	 * Object types are drawn from a small set, so are shared rather than recreated for every oid;
+	 * bounded in case of malicious oid strs.
+	 */
+	private static final int MAX_INTERNED_SPEC_IDS = 4096;
+	private static final ConcurrentMap<String, ObjectSpecId> SPEC_ID_BY_OBJECT_TYPE = Maps.newConcurrentMap();
+
+	private static final int MAX_RETAINED_BUFFER = 1024;
+	private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>() {
+	    @Override
+	    protected StringBuilder initialValue() {
+	        return new StringBuilder(64);
+	    }
+	};
+
     ////////////////////////////////////////////////////////////////
     // constructor
     ////////////////////////////////////////////////////////////////
@@ -140,94 +160,157 @@ public String splitInstanceId(String oidStr) {
 
     @SuppressWarnings("unchecked")
 	public <T extends Oid> T unmarshal(String oidStr, Class<T> requestedType) {
-        
-        final Matcher matcher = OIDSTR_PATTERN.matcher(oidStr);
-        if (!matcher.matches()) {
-            throw new IllegalArgumentException("Could not parse OID '" + oidStr + "'; should match pattern: " + OIDSTR_PATTERN.pattern());
-        }
+        final int length = oidStr.length();
+        int pos = 0;
 
-        final String isTransientOrViewModelStr = getGroup(matcher, 3);
         final State state;
-        if("!".equals(isTransientOrViewModelStr)) {
-            state = State.TRANSIENT;
-        } else if("*".equals(isTransientOrViewModelStr)) {
-            state = State.VIEWMODEL;
+        if(length > 1 && isStateIndicator(oidStr.charAt(0)) && !isSeparator(oidStr.charAt(1))) {
+            state = oidStr.charAt(0) == TRANSIENT_INDICATOR.charAt(0) ? State.TRANSIENT : State.VIEWMODEL;
+            pos++;
         } else {
             state = State.PERSISTENT;
         }
-        
-        final String rootOidStr = getGroup(matcher, 2);
-        
-        final String rootObjectType = getGroup(matcher, 4);
-        final String rootIdentifier = getGroup(matcher, 5);
-        
-        final String aggregateOidPart = getGroup(matcher, 6);
-        final List<AggregateOidPart> aggregateOidParts = Lists.newArrayList();
-        final Splitter nestingSplitter = Splitter.on(SEPARATOR_NESTING);
-        final Splitter partsSplitter = Splitter.on(SEPARATOR);
-        if(aggregateOidPart != null) {
-            final Iterable<String> tildaSplitIter = nestingSplitter.split(aggregateOidPart);
-            for(String str: tildaSplitIter) {
-                if(Strings.isNullOrEmpty(str)) {
-                    continue; // leading "~"
-                }
-                final Iterator<String> colonSplitIter = partsSplitter.split(str).iterator();
-                final String objectType = colonSplitIter.next();
-                final String localId = colonSplitIter.next();
-                aggregateOidParts.add(new AggregateOidPart(objectType, localId));
+
+        final int rootObjectTypeEnd = endOfWord(oidStr, pos);
+        if(rootObjectTypeEnd == pos || !isAt(oidStr, rootObjectTypeEnd, SEPARATOR)) {
+            throw couldNotParse(oidStr);
+        }
+        final String rootObjectType = oidStr.substring(pos, rootObjectTypeEnd);
+        pos = rootObjectTypeEnd + 1;
+
+        final int rootIdentifierEnd = endOfWord(oidStr, pos);
+        if(rootIdentifierEnd == pos) {
+            throw couldNotParse(oidStr);
+        }
+        final String rootIdentifier = oidStr.substring(pos, rootIdentifierEnd);
+        pos = rootIdentifierEnd;
+
+        // nesting of aggregates; the starting position of each object type, then of each local id
+        int[] aggregatePositions = null;
+        int numAggregates = 0;
+        while(isAt(oidStr, pos, SEPARATOR_NESTING)) {
+            final int objectTypeEnd = endOfWord(oidStr, pos + 1);
+            if(objectTypeEnd == pos + 1 || !isAt(oidStr, objectTypeEnd, SEPARATOR)) {
+                throw couldNotParse(oidStr);
+            }
+            final int localIdEnd = endOfWord(oidStr, objectTypeEnd + 1);
+            if(localIdEnd == objectTypeEnd + 1) {
+                throw couldNotParse(oidStr);
+            }
+            if(aggregatePositions == null) {
+                aggregatePositions = new int[4];
+            } else if(aggregatePositions.length < (numAggregates + 1) * 2) {
+                final int[] grown = new int[aggregatePositions.length * 2];
+                System.arraycopy(aggregatePositions, 0, grown, 0, aggregatePositions.length);
+                aggregatePositions = grown;
+            }
+            aggregatePositions[numAggregates * 2] = pos + 1;
+            aggregatePositions[numAggregates * 2 + 1] = objectTypeEnd + 1;
+            numAggregates++;
+            pos = localIdEnd;
+        }
+
+        String collectionName = null;
+        if(isAt(oidStr, pos, SEPARATOR_COLLECTION)) {
+            final int collectionNameEnd = endOfWord(oidStr, pos + 1);
+            if(collectionNameEnd == pos + 1) {
+                throw couldNotParse(oidStr);
             }
+            collectionName = oidStr.substring(pos + 1, collectionNameEnd);
+            pos = collectionNameEnd;
+        }
+
+        Version version = null;
+        if(isAt(oidStr, pos, SEPARATOR_VERSION)) {
+            final int sequenceEnd = endOfDigits(oidStr, pos + 1);
+            if(sequenceEnd == pos + 1 || !isAt(oidStr, sequenceEnd, SEPARATOR)) {
+                throw couldNotParse(oidStr);
+            }
+            final int userEnd = endOfWord(oidStr, sequenceEnd + 1);
+            if(!isAt(oidStr, userEnd, SEPARATOR)) {
+                throw couldNotParse(oidStr);
+            }
+            final int utcTimestampEnd = endOfDigits(oidStr, userEnd + 1);
+            version = Version.create(
+                    oidStr.substring(pos + 1, sequenceEnd), 
+                    Strings.emptyToNull(oidStr.substring(sequenceEnd + 1, userEnd)), 
+                    Strings.emptyToNull(oidStr.substring(userEnd + 1, utcTimestampEnd)));
+            pos = utcTimestampEnd;
+        }
+
+        if(pos != length) {
+            throw couldNotParse(oidStr);
+        }
+
+        final RootOidDefault rootOid = new RootOidDefault(internSpecId(rootObjectType), rootIdentifier, state, version);
+        TypedOid typedOid = rootOid;
+        for(int i = 0; i < numAggregates; i++) {
+            final int objectTypeStart = aggregatePositions[i * 2];
+            final int localIdStart = aggregatePositions[i * 2 + 1];
+            final String objectType = oidStr.substring(objectTypeStart, localIdStart - 1);
+            final String localId = oidStr.substring(localIdStart, endOfWord(oidStr, localIdStart));
+            typedOid = new AggregatedOid(internSpecId(objectType), typedOid, localId);
         }
-        final String collectionPart = getGroup(matcher, 8);
-        final String collectionName = collectionPart != null ? collectionPart.substring(1) : null;
-        
-        final String versionSequence = getGroup(matcher, 10);
-        final String versionUser = getGroup(matcher, 11); 
-        final String versionUtcTimestamp = getGroup(matcher, 12);
-        final Version version = Version.create(versionSequence, versionUser, versionUtcTimestamp);
 
         if(collectionName == null) {
-            if(aggregateOidParts.isEmpty()) {
+            if(numAggregates == 0) {
                 ensureCorrectType(oidStr, requestedType, RootOidDefault.class); 
-                return (T)new RootOidDefault(ObjectSpecId.of(rootObjectType), rootIdentifier, state, version);
             } else {
                 ensureCorrectType(oidStr, requestedType, AggregatedOid.class);
-                final AggregateOidPart lastPart = aggregateOidParts.remove(aggregateOidParts.size()-1);
-                final TypedOid parentOid = parentOidFor(rootOidStr, aggregateOidParts, version);
-                return (T)new AggregatedOid(ObjectSpecId.of(lastPart.objectType), parentOid, lastPart.localId);
             }
+            return (T)typedOid;
         } else {
-            final String oidStrWithoutCollectionName = getGroup(matcher, 1);
-            
-            final String parentOidStr = oidStrWithoutCollectionName + marshal(version);
-
-            TypedOid parentOid = this.unmarshal(parentOidStr, TypedOid.class);
             ensureCorrectType(oidStr, requestedType, CollectionOid.class);
-            return (T)new CollectionOid(parentOid, collectionName);
+            return (T)new CollectionOid(typedOid, collectionName);
         }
     }
 
+    private static boolean isStateIndicator(final char ch) {
+        return ch == TRANSIENT_INDICATOR.charAt(0) || ch == VIEWMODEL_INDICATOR.charAt(0);
+    }
 
+    /**
+     * The characters that cannot appear within a word (as per {@link #WORD}).
+     */
+    private static boolean isSeparator(final char ch) {
+        return ch == ':' || ch == '~' || ch == '$' || ch == '^' || ch == '#';
+    }
 
-    private static class AggregateOidPart {
-        AggregateOidPart(String objectType, String localId) {
-            this.objectType = objectType;
-            this.localId = localId;
+    private static int endOfWord(final String str, int pos) {
+        final int length = str.length();
+        while(pos < length && !isSeparator(str.charAt(pos))) {
+            pos++;
         }
-        String objectType;
-        String localId;
-        public String toString() {
-            return SEPARATOR_NESTING + objectType + SEPARATOR + localId;
+        return pos;
+    }
+
+    private static int endOfDigits(final String str, int pos) {
+        final int length = str.length();
+        while(pos < length && str.charAt(pos) >= '0' && str.charAt(pos) <= '9') {
+            pos++;
         }
+        return pos;
+    }
+
+    private static boolean isAt(final String str, final int pos, final String separator) {
+        return pos < str.length() && str.charAt(pos) == separator.charAt(0);
     }
-    
 
-    private TypedOid parentOidFor(final String rootOidStr, final List<AggregateOidPart> aggregateOidParts, Version version) {
-        final StringBuilder buf = new StringBuilder(rootOidStr);
-        for(AggregateOidPart part: aggregateOidParts) {
-            buf.append(part.toString());
+    private static IllegalArgumentException couldNotParse(final String oidStr) {
+        return new IllegalArgumentException("Could not parse OID '" + oidStr + "'; should match pattern: " + OIDSTR_PATTERN.pattern());
+    }
+
+    private static ObjectSpecId internSpecId(final String objectType) {
+        final ObjectSpecId specId = SPEC_ID_BY_OBJECT_TYPE.get(objectType);
+        if(specId != null) {
+            return specId;
+        }
+        final ObjectSpecId newSpecId = ObjectSpecId.of(objectType);
+        if(SPEC_ID_BY_OBJECT_TYPE.size() >= MAX_INTERNED_SPEC_IDS) {
+            return newSpecId;
         }
-        buf.append(marshal(version));
-        return unmarshal(buf.toString(), TypedOid.class);
+        final ObjectSpecId existingSpecId = SPEC_ID_BY_OBJECT_TYPE.putIfAbsent(objectType, newSpecId);
+        return existingSpecId != null ? existingSpecId : newSpecId;
     }
 
     private <T> void ensureCorrectType(String oidStr, Class<T> requestedType, final Class<? extends Oid> actualType) {
@@ -237,57 +320,115 @@ private <T> void ensureCorrectType(String oidStr, Class<T> requestedType, final
         }
     }
 
-    private String getGroup(final Matcher matcher, final int group) {
-        final int groupCount = matcher.groupCount();
-        if(group > groupCount) {
-            return null;
-        }
-        final String val = matcher.group(group);
-        return Strings.emptyToNull(val);
-    }
-
     
     ////////////////////////////////////////////////////////////////
     // marshal
     ////////////////////////////////////////////////////////////////
 
     public final String marshal(RootOid rootOid) {
-        return marshalNoVersion(rootOid) + marshal(rootOid.getVersion());
+        final StringBuilder buf = acquireBuffer();
+        appendNoVersion(buf, rootOid);
+        appendVersion(buf, rootOid.getVersion());
+        return releaseBuffer(buf);
     }
 
     public final String marshalNoVersion(RootOid rootOid) {
-        final String transientIndicator = rootOid.isTransient()? TRANSIENT_INDICATOR : "";
-        final String viewModelIndicator = rootOid.isViewModel()? VIEWMODEL_INDICATOR : "";
-        return transientIndicator + viewModelIndicator + rootOid.getObjectSpecId() + SEPARATOR + rootOid.getIdentifier();
+        final StringBuilder buf = acquireBuffer();
+        appendNoVersion(buf, rootOid);
+        return releaseBuffer(buf);
     }
 
     public final String marshal(CollectionOid collectionOid) {
-        return marshalNoVersion(collectionOid) + marshal(collectionOid.getVersion());
+        final StringBuilder buf = acquireBuffer();
+        appendNoVersion(buf, collectionOid);
+        appendVersion(buf, collectionOid.getVersion());
+        return releaseBuffer(buf);
     }
 
     public String marshalNoVersion(CollectionOid collectionOid) {
-        return collectionOid.getParentOid().enStringNoVersion(this) + SEPARATOR_COLLECTION + collectionOid.getName();
+        final StringBuilder buf = acquireBuffer();
+        appendNoVersion(buf, collectionOid);
+        return releaseBuffer(buf);
     }
 
     public final String marshal(AggregatedOid aggregatedOid) {
-        return marshalNoVersion(aggregatedOid) + marshal(aggregatedOid.getVersion());
+        final StringBuilder buf = acquireBuffer();
+        appendNoVersion(buf, aggregatedOid);
+        appendVersion(buf, aggregatedOid.getVersion());
+        return releaseBuffer(buf);
     }
 
     public final String marshalNoVersion(AggregatedOid aggregatedOid) {
-        return aggregatedOid.getParentOid().enStringNoVersion(this) + SEPARATOR_NESTING + aggregatedOid.getObjectSpecId() + SEPARATOR + aggregatedOid.getLocalId();
+        final StringBuilder buf = acquireBuffer();
+        appendNoVersion(buf, aggregatedOid);
+        return releaseBuffer(buf);
     }
 
     public final String marshal(Version version) {
         if(version == null) {
             return "";
         }
-        final String versionUser = version.getUser();
-        return SEPARATOR_VERSION + version.getSequence() + SEPARATOR + Strings.nullToEmpty(versionUser) + SEPARATOR + nullToEmpty(version.getUtcTimestamp());
+        final StringBuilder buf = acquireBuffer();
+        appendVersion(buf, version);
+        return releaseBuffer(buf);
     }
 
+    private void appendNoVersion(final StringBuilder buf, final Oid oid) {
+        if(oid instanceof RootOid) {
+            final RootOid rootOid = (RootOid) oid;
+            if(rootOid.isTransient()) {
+                buf.append(TRANSIENT_INDICATOR);
+            }
+            if(rootOid.isViewModel()) {
+                buf.append(VIEWMODEL_INDICATOR);
+            }
+            buf.append(rootOid.getObjectSpecId()).append(SEPARATOR).append(rootOid.getIdentifier());
+        } else if(oid instanceof AggregatedOid) {
+            final AggregatedOid aggregatedOid = (AggregatedOid) oid;
+            appendNoVersion(buf, aggregatedOid.getParentOid());
+            buf.append(SEPARATOR_NESTING).append(aggregatedOid.getObjectSpecId()).append(SEPARATOR).append(aggregatedOid.getLocalId());
+        } else if(oid instanceof CollectionOid) {
+            final CollectionOid collectionOid = (CollectionOid) oid;
+            appendNoVersion(buf, collectionOid.getParentOid());
+            buf.append(SEPARATOR_COLLECTION).append(collectionOid.getName());
+        } else {
+            buf.append(oid.enStringNoVersion(this));
+        }
+    }
+
+    private static void appendVersion(final StringBuilder buf, final Version version) {
+        if(version == null) {
+            return;
+        }
+        buf.append(SEPARATOR_VERSION).append(version.getSequence()).append(SEPARATOR);
+        if(version.getUser() != null) {
+            buf.append(version.getUser());
+        }
+        buf.append(SEPARATOR);
+        if(version.getUtcTimestamp() != null) {
+            buf.append(version.getUtcTimestamp());
+        }
+    }
+
+    /**
+     * The buffer for this thread, or a new one if already in use (if marshalling re-entrantly).
+     */
+    private static StringBuilder acquireBuffer() {
+        final StringBuilder buf = BUFFER.get();
+        if(buf == null) {
+            return new StringBuilder(64);
+        }
+        BUFFER.set(null);
+        buf.setLength(0);
+        return buf;
+    }
 
-    private static String nullToEmpty(Object obj) {
-        return obj == null? "": "" + obj;
+    private static String releaseBuffer(final StringBuilder buf) {
+        final String str = buf.toString();
+        if(buf.capacity() <= MAX_RETAINED_BUFFER) {
+            BUFFER.set(buf);
+        }
+        return str;
     }
 
 }
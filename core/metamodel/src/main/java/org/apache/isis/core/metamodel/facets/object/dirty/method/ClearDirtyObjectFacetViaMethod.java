@@ -23,7 +23,6 @@
 import java.util.Collections;
 import java.util.List;
 
-import org.apache.isis.core.commons.lang.MethodExtensions;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.facetapi.FacetHolder;
 import org.apache.isis.core.metamodel.facets.ImperativeFacet;
@@ -64,6 +63,6 @@ public boolean impliesObjectChanged() {
 
     @Override
     public void invoke(final ObjectAdapter object) {
-        MethodExtensions.invokeStatic(method);
+        ObjectAdapter.InvokeUtils.invoke(method, object);
     }
 }
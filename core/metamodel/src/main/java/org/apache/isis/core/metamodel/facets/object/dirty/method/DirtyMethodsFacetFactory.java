@@ -23,6 +23,8 @@
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.isis.core.metamodel.adapter.ObjectDirtier;
+import org.apache.isis.core.metamodel.adapter.ObjectDirtierAware;
 import org.apache.isis.core.metamodel.facetapi.Facet;
 import org.apache.isis.core.metamodel.facetapi.FacetHolder;
 import org.apache.isis.core.metamodel.facetapi.FacetUtil;
@@ -31,7 +33,7 @@
 import org.apache.isis.core.metamodel.facets.MethodFinderUtils;
 import org.apache.isis.core.metamodel.facets.MethodPrefixBasedFacetFactoryAbstract;
 
-public class DirtyMethodsFacetFactory extends MethodPrefixBasedFacetFactoryAbstract {
+public class DirtyMethodsFacetFactory extends MethodPrefixBasedFacetFactoryAbstract implements ObjectDirtierAware {
 
     private static final String MARK_DIRTY_PREFIX = "markDirty";
     private static final String CLEAR_DIRTY_PREFIX = "clearDirty";
@@ -39,6 +41,8 @@ public class DirtyMethodsFacetFactory extends MethodPrefixBasedFacetFactoryAbstr
 
     private static final String[] PREFIXES = { MARK_DIRTY_PREFIX, CLEAR_DIRTY_PREFIX, IS_DIRTY_PREFIX, };
 
+    private ObjectDirtier objectDirtier;
+
     public DirtyMethodsFacetFactory() {
         super(FeatureType.OBJECTS_ONLY, OrphanValidation.VALIDATE, PREFIXES);
 
@@ -66,10 +70,23 @@ public void process(final ProcessClassContext processClassContext) {
         method = MethodFinderUtils.findMethod(cls, MethodScope.OBJECT, MARK_DIRTY_PREFIX, void.class, NO_PARAMETERS_TYPES);
         if (method != null) {
             processClassContext.removeMethod(method);
-            facets.add(new MarkDirtyObjectFacetViaMethod(method, facetHolder));
+            facets.add(new MarkDirtyObjectFacetViaMethod(method, facetHolder, getObjectDirtier()));
         }
 
         FacetUtil.addFacets(facets);
     }
 
+    // ///////////////////////////////////////////////////////
+    // Dependencies (injected)
+    // ///////////////////////////////////////////////////////
+
+    protected ObjectDirtier getObjectDirtier() {
+        return objectDirtier;
+    }
+
+    @Override
+    public void setObjectDirtier(final ObjectDirtier objectDirtier) {
+        this.objectDirtier = objectDirtier;
+    }
+
 }
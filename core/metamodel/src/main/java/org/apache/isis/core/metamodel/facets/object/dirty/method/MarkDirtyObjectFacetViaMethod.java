@@ -23,8 +23,8 @@
 import java.util.Collections;
 import java.util.List;
 
-import org.apache.isis.core.commons.lang.MethodExtensions;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.ObjectDirtier;
 import org.apache.isis.core.metamodel.facetapi.FacetHolder;
 import org.apache.isis.core.metamodel.facets.ImperativeFacet;
 import org.apache.isis.core.metamodel.facets.object.dirty.MarkDirtyObjectFacetAbstract;
@@ -32,10 +32,12 @@
 public class MarkDirtyObjectFacetViaMethod extends MarkDirtyObjectFacetAbstract implements ImperativeFacet {
 
     private final Method method;
+    private final ObjectDirtier objectDirtier;
 
-    public MarkDirtyObjectFacetViaMethod(final Method method, final FacetHolder holder) {
+    public MarkDirtyObjectFacetViaMethod(final Method method, final FacetHolder holder, final ObjectDirtier objectDirtier) {
         super(holder);
         this.method = method;
+        this.objectDirtier = objectDirtier;
     }
 
     @Override
@@ -60,7 +62,16 @@ public boolean impliesObjectChanged() {
 
     @Override
     public void invoke(final ObjectAdapter object) {
-        MethodExtensions.invokeStatic(method);
+        ObjectAdapter.InvokeUtils.invoke(method, object);
+        getObjectDirtier().objectMarkedDirty(object);
+    }
+
+    // /////////////////////////////////////////////////////
+    // Dependencies
+    // /////////////////////////////////////////////////////
+
+    protected ObjectDirtier getObjectDirtier() {
+        return objectDirtier;
     }
 
 }
@@ -19,6 +19,7 @@
 
 package org.apache.isis.core.metamodel.facets.param.autocomplete;
 
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.facetapi.Facet;
 import org.apache.isis.core.metamodel.facetapi.FacetAbstract;
@@ -46,6 +47,15 @@ protected ObjectSpecification getSpecification(final Class<?> type) {
         return type != null ? getSpecificationLookup().loadSpecification(type) : null;
     }
 
+    /**
+     * Applies the range to all of the {@link #autoComplete(ObjectAdapter, String) choices}; subclasses
+     * may override to obtain only those within the range.
+     */
+    @Override
+    public Object[] autoComplete(final ObjectAdapter inObject, final String searchArg, final long start, final long count) {
+        return RangeUtil.inRange(autoComplete(inObject, searchArg), start, count);
+    }
+
     @Override
     public abstract int getMinLength();
 
@@ -27,11 +27,11 @@ private MinLengthUtil(){}
 
     /**
      * Finds the value of the {@link MinLength} annotation on the first parameter of the
-     * supplied method.
+     * supplied method (the search argument, possibly followed by the range).
      */
     public static int determineMinLength(final Method method) {
         final Annotation[][] parameterAnnotations = method.getParameterAnnotations();
-        if(parameterAnnotations.length == 1) {
+        if(parameterAnnotations.length >= 1) {
             final Annotation[] searchArgAnnotations = parameterAnnotations[0];
             for(Annotation annotation: searchArgAnnotations) {
                 if(annotation instanceof MinLength) {
@@ -0,0 +1,51 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.facets.param.autocomplete;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+public final class RangeUtil {
+
+    private RangeUtil(){}
+
+    /**
+     * Whether the supplied <tt>autoCompleteXxx</tt> method accepts a range (ie
+     * <tt>autoCompleteXxx(String searchArg, long... range)</tt>), and so can return
+     * just a page of choices.
+     */
+    public static boolean acceptsRange(final Method method) {
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        return parameterTypes.length == 2 && parameterTypes[1] == long[].class;
+    }
+
+    /**
+     * Those choices within the range, ie at most <tt>count</tt> of them, starting at <tt>start</tt>.
+     */
+    public static Object[] inRange(final Object[] choices, final long start, final long count) {
+        if(choices == null) {
+            return null;
+        }
+        final int from = (int) Math.min(Math.max(start, 0), choices.length);
+        final int to = from + (int) Math.min(Math.max(count, 0), choices.length - from);
+        return from == 0 && to == choices.length ? choices : Arrays.copyOfRange(choices, from, to);
+    }
+
+}
@@ -23,6 +23,7 @@
 import java.util.Collections;
 import java.util.List;
 
+import org.apache.isis.core.commons.lang.MethodExtensions;
 import org.apache.isis.core.commons.lang.ObjectExtensions;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
@@ -30,6 +31,7 @@
 import org.apache.isis.core.metamodel.facets.ImperativeFacet;
 import org.apache.isis.core.metamodel.facets.param.autocomplete.ActionParameterAutoCompleteFacetAbstract;
 import org.apache.isis.core.metamodel.facets.param.autocomplete.MinLengthUtil;
+import org.apache.isis.core.metamodel.facets.param.autocomplete.RangeUtil;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.spec.SpecificationLoader;
 import org.apache.isis.core.metamodel.facets.CollectionUtils;
@@ -39,12 +41,14 @@ public class ActionParameterAutoCompleteFacetViaMethod extends ActionParameterAu
     private final Method method;
     private final Class<?> choicesType;
     private final int minLength;
+    private final boolean acceptsRange;
 
     public ActionParameterAutoCompleteFacetViaMethod(final Method method, final Class<?> choicesType, final FacetHolder holder, final SpecificationLoader specificationLookup, final AdapterManager adapterManager) {
         super(holder, specificationLookup, adapterManager);
         this.method = method;
         this.choicesType = choicesType;
         this.minLength = MinLengthUtil.determineMinLength(method);
+        this.acceptsRange = RangeUtil.acceptsRange(method);
     }
 
     /**
@@ -78,7 +82,22 @@ public boolean impliesObjectChanged() {
 
     @Override
     public Object[] autoComplete(ObjectAdapter owningAdapter, String searchArg) {
-        final Object options = ObjectAdapter.InvokeUtils.invoke(method, owningAdapter, searchArg);
+        return asArray(acceptsRange
+                ? MethodExtensions.invoke(method, ObjectAdapter.Util.unwrap(owningAdapter), new Object[] {searchArg, new long[0]})
+                : ObjectAdapter.InvokeUtils.invoke(method, owningAdapter, searchArg));
+    }
+
+    @Override
+    public Object[] autoComplete(ObjectAdapter owningAdapter, String searchArg, long start, long count) {
+        if (!acceptsRange) {
+            return super.autoComplete(owningAdapter, searchArg, start, count);
+        }
+        final Object options = MethodExtensions.invoke(method, ObjectAdapter.Util.unwrap(owningAdapter), new Object[] {searchArg, new long[] {start, count}});
+        // in case the method returned more than asked for
+        return RangeUtil.inRange(asArray(options), 0, count);
+    }
+
+    private Object[] asArray(final Object options) {
         if (options == null) {
             return new Object[0];
         }
@@ -92,7 +111,7 @@ public Object[] autoComplete(ObjectAdapter owningAdapter, String searchArg) {
 
     @Override
     protected String toStringValues() {
-        return "method=" + method + ",type=" + choicesType;
+        return "method=" + method + ",type=" + choicesType + (acceptsRange ? ",acceptsRange" : "");
     }
 
 
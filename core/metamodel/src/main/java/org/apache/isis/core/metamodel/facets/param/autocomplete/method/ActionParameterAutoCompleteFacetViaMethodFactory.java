@@ -94,7 +94,12 @@ private Method findAutoCompleteNumMethodReturning(final ProcessMethodContext pro
         final Method actionMethod = processMethodContext.getMethod();
         final String capitalizedName = StringExtensions.asCapitalizedName(actionMethod.getName());
         final String name = MethodPrefixConstants.AUTO_COMPLETE_PREFIX + i + capitalizedName;
-        return MethodFinderUtils.findMethod(cls, MethodScope.OBJECT, name, paramType, new Class[]{String.class});
+        final Method method = MethodFinderUtils.findMethod(cls, MethodScope.OBJECT, name, paramType, new Class[]{String.class});
+        if (method != null) {
+            return method;
+        }
+        // or, to return just a page of the choices
+        return MethodFinderUtils.findMethod(cls, MethodScope.OBJECT, name, paramType, new Class[]{String.class, long[].class});
     }
 
     // ///////////////////////////////////////////////////////////////
@@ -40,6 +40,17 @@ public interface PropertyAutoCompleteFacet extends Facet {
      * Gets the available auto-complete choices for this property.
      */
     public Object[] autoComplete(ObjectAdapter inObject, String searchArg);
+
+    /**
+     * As {@link #autoComplete(ObjectAdapter, String)}, but only the (at most) <tt>count</tt> choices
+     * starting at <tt>start</tt>.
+     *
+     * <p>
+     * If the <tt>autoCompleteXxx(String, long...)</tt> supporting method accepts a range then it is
+     * passed through; otherwise the range is applied to all of the choices.
+     */
+    public Object[] autoComplete(ObjectAdapter inObject, String searchArg, long start, long count);
+
     /**
      * The minimum number of characters that need to be entered.
      */
@@ -19,9 +19,11 @@
 
 package org.apache.isis.core.metamodel.facets.properties.autocomplete;
 
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.facetapi.Facet;
 import org.apache.isis.core.metamodel.facetapi.FacetAbstract;
 import org.apache.isis.core.metamodel.facetapi.FacetHolder;
+import org.apache.isis.core.metamodel.facets.param.autocomplete.RangeUtil;
 import org.apache.isis.core.metamodel.facets.properties.autocomplete.PropertyAutoCompleteFacet;
 
 public abstract class PropertyAutoCompleteFacetAbstract extends FacetAbstract implements PropertyAutoCompleteFacet {
@@ -34,6 +36,15 @@ public PropertyAutoCompleteFacetAbstract(final FacetHolder holder) {
         super(type(), holder, Derivation.NOT_DERIVED);
     }
 
+    /**
+     * Applies the range to all of the {@link #autoComplete(ObjectAdapter, String) choices}; subclasses
+     * may override to obtain only those within the range.
+     */
+    @Override
+    public Object[] autoComplete(final ObjectAdapter inObject, final String searchArg, final long start, final long count) {
+        return RangeUtil.inRange(autoComplete(inObject, searchArg), start, count);
+    }
+
     @Override
     public abstract int getMinLength();
 
@@ -23,6 +23,7 @@
 import java.util.Collections;
 import java.util.List;
 
+import org.apache.isis.core.commons.lang.MethodExtensions;
 import org.apache.isis.core.commons.lang.ObjectExtensions;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
@@ -33,12 +34,14 @@
 import org.apache.isis.core.metamodel.spec.SpecificationLoader;
 import org.apache.isis.core.metamodel.facets.CollectionUtils;
 import org.apache.isis.core.metamodel.facets.param.autocomplete.MinLengthUtil;
+import org.apache.isis.core.metamodel.facets.param.autocomplete.RangeUtil;
 
 public class PropertyAutoCompleteFacetMethod extends PropertyAutoCompleteFacetAbstract implements ImperativeFacet {
 
     private final Method method;
     private final Class<?> choicesClass;
     private final int minLength;
+    private final boolean acceptsRange;
 
     private final AdapterManager adapterManager;
     private SpecificationLoader specificationLookup;
@@ -50,6 +53,7 @@ public PropertyAutoCompleteFacetMethod(final Method method, final Class<?> choic
         this.specificationLookup = specificationLookup;
         this.adapterManager = adapterManager;
         this.minLength = MinLengthUtil.determineMinLength(method);
+        this.acceptsRange = RangeUtil.acceptsRange(method);
     }
 
     /**
@@ -83,7 +87,22 @@ public boolean impliesObjectChanged() {
 
     @Override
     public Object[] autoComplete(ObjectAdapter owningAdapter, String searchArg) {
-        final Object options = ObjectAdapter.InvokeUtils.invoke(method, owningAdapter, searchArg);
+        return asArray(acceptsRange
+                ? MethodExtensions.invoke(method, ObjectAdapter.Util.unwrap(owningAdapter), new Object[] {searchArg, new long[0]})
+                : ObjectAdapter.InvokeUtils.invoke(method, owningAdapter, searchArg));
+    }
+
+    @Override
+    public Object[] autoComplete(ObjectAdapter owningAdapter, String searchArg, long start, long count) {
+        if (!acceptsRange) {
+            return super.autoComplete(owningAdapter, searchArg, start, count);
+        }
+        final Object options = MethodExtensions.invoke(method, ObjectAdapter.Util.unwrap(owningAdapter), new Object[] {searchArg, new long[] {start, count}});
+        // in case the method returned more than asked for
+        return RangeUtil.inRange(asArray(options), 0, count);
+    }
+
+    private Object[] asArray(final Object options) {
         if (options == null) {
             return null;
         }
@@ -96,7 +115,7 @@ public Object[] autoComplete(ObjectAdapter owningAdapter, String searchArg) {
 
     @Override
     protected String toStringValues() {
-        return "method=" + method + ",class=" + choicesClass;
+        return "method=" + method + ",class=" + choicesClass + (acceptsRange ? ",acceptsRange" : "");
     }
 
     // ////////////////////////////////////////////
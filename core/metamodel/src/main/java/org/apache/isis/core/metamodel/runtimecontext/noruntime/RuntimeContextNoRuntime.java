@@ -170,6 +170,11 @@ public void objectChanged(final Object object) {
             public void objectChanged(final ObjectAdapter adapter) {
                 throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
             }
+
+            @Override
+            public void objectMarkedDirty(final ObjectAdapter adapter) {
+                throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
+            }
         };
         objectPersistor = new ObjectPersistorAbstract() {
 
@@ -20,11 +20,19 @@
 package org.apache.isis.core.metamodel.services.container;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import com.google.common.base.Predicate;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
 import org.apache.isis.applib.DomainObjectContainer;
 import org.apache.isis.applib.PersistFailedException;
 import org.apache.isis.applib.RecoverableException;
@@ -62,6 +70,22 @@
 @DomainService
 public class  DomainObjectContainerDefault implements DomainObjectContainer, QuerySubmitterAware, ObjectDirtierAware, DomainObjectServicesAware, ObjectPersistorAware, SpecificationLoaderAware, AuthenticationSessionProviderAware, AdapterManagerAware, LocalizationProviderAware, ExceptionRecognizer {
 
+    /**
+     * The number of instances fetched by the first query when filtering using a {@link Predicate} (or
+     * {@link Filter}).
+     */
+    public static final String CHUNK_SIZE_KEY = "isis.services.container.chunkSize";
+    public static final int CHUNK_SIZE_DEFAULT = 100;
+
+    /**
+     * The number of instances fetched by each subsequent query is doubled, up to this number.
+     */
+    public static final String MAX_CHUNK_SIZE_KEY = "isis.services.container.maxChunkSize";
+    public static final int MAX_CHUNK_SIZE_DEFAULT = 10000;
+
+    private int chunkSize = CHUNK_SIZE_DEFAULT;
+    private int maxChunkSize = MAX_CHUNK_SIZE_DEFAULT;
+
     //region > titleOf
 
     @Programmatic
@@ -401,14 +425,12 @@ public <T> List<T> allInstances(final Class<T> type, long... range) {
     @Programmatic
     @Override
     public <T> List<T> allMatches(final Class<T> cls, final Predicate<? super T> predicate, long... range) {
-        final List<T> allInstances = allInstances(cls, range);
-        final List<T> filtered = new ArrayList<T>();
-        for (final T instance : allInstances) {
-            if (predicate.apply(instance)) {
-                filtered.add(instance);
-            }
-        }
-        return filtered;
+        final long start = range.length > 0 ? range[0] : 0;
+        final long count = range.length > 1 ? range[1] : 0;
+        // range applies to the matching instances, so stop fetching once it has been filled
+        final Iterator<T> matching = Iterators.filter(instancesInChunks(cls), predicate);
+        Iterators.advance(matching, Ints.saturatedCast(start));
+        return Lists.newArrayList(count != 0 ? Iterators.limit(matching, Ints.saturatedCast(count)) : matching);
     }
 
     @Programmatic
@@ -444,13 +466,7 @@ public <T> List<T> allMatches(final Query<T> query) {
     @Programmatic
     @Override
     public <T> T firstMatch(final Class<T> cls, final Predicate<T> predicate) {
-        final List<T> allInstances = allInstances(cls); // Have to fetch all, as matching is done in next loop
-        for (final T instance : allInstances) {
-            if (predicate.apply(instance)) {
-                return instance;
-            }
-        }
-        return null;
+        return Iterators.find(instancesInChunks(cls), predicate, null); // No need to fetch beyond the first match
     }
 
     @Programmatic
@@ -488,7 +504,7 @@ public <T> T firstMatch(final Query<T> query) {
     @Programmatic
     @Override
     public <T> T uniqueMatch(final Class<T> type, final Predicate<T> predicate) {
-        final List<T> instances = allMatches(type, predicate, 0, 2); // No need to fetch more than 2.
+        final List<T> instances = allMatches(type, predicate, 0, 2); // No need to fetch beyond the second match.
         if (instances.size() > 1) {
             throw new RepositoryException("Found more than one instance of " + type + " matching filter " + predicate);
         }
@@ -540,6 +556,50 @@ private static <T> T firstInstanceElseNull(final List<T> instances) {
         return instances.size() == 0 ? null : instances.get(0);
     }
 
+    /**
+     * Iterates over all instances of the type, fetching them {@link #CHUNK_SIZE_KEY a chunk at a time}
+     * (as ranged {@link QueryFindAllInstances queries}) so that the caller can stop early, and need not
+     * hold every instance in memory.
+     *
+     * <p>
+     * Each chunk is {@link #MAX_CHUNK_SIZE_KEY up to} twice the size of the one before, so that a full
+     * iteration submits only a few queries (each of which must skip over the instances already fetched).
+     * The object store orders each ranged query by identity, so that consecutive chunks neither skip nor
+     * repeat instances.
+     */
+    private <T> Iterator<T> instancesInChunks(final Class<T> type) {
+        flush(); // auto-flush any pending changes
+        return new AbstractIterator<T>() {
+            private long start;
+            private int count = chunkSize;
+            private Iterator<T> chunk = Collections.emptyIterator();
+            private Set<Object> previousChunk = Collections.emptySet();
+            private boolean lastChunk;
+
+            @Override
+            protected T computeNext() {
+                while (!chunk.hasNext()) {
+                    if (lastChunk) {
+                        return endOfData();
+                    }
+                    final List<ObjectAdapter> adapters = getQuerySubmitter().allMatchingQuery(new QueryFindAllInstances<T>(type, start, count));
+                    final List<T> pojos = ObjectAdapter.Util.<T>unwrapT(adapters);
+                    // an object store that ignores the range returns every instance in each chunk
+                    if (!pojos.isEmpty() && previousChunk.containsAll(pojos)) {
+                        return endOfData();
+                    }
+                    lastChunk = pojos.size() != count;
+                    start += pojos.size();
+                    count = Math.max(count, Math.min(2 * count, maxChunkSize));
+                    previousChunk = Sets.newIdentityHashSet();
+                    previousChunk.addAll(pojos);
+                    chunk = pojos.iterator();
+                }
+                return chunk.next();
+            }
+        };
+    }
+
     //endregion
 
     //region > ExceptionRecognizer
@@ -582,6 +642,14 @@ public String recognize(Throwable ex) {
     @PostConstruct
     @Override
     public void init(Map<String, String> properties) {
+        final String chunkSizeProperty = properties.get(CHUNK_SIZE_KEY);
+        if (chunkSizeProperty != null) {
+            chunkSize = Integer.parseInt(chunkSizeProperty.trim());
+        }
+        final String maxChunkSizeProperty = properties.get(MAX_CHUNK_SIZE_KEY);
+        if (maxChunkSizeProperty != null) {
+            maxChunkSize = Integer.parseInt(maxChunkSizeProperty.trim());
+        }
         recognizer.init(properties);
     }
 
@@ -41,6 +41,13 @@ public interface SpecificationLoaderSpi extends ApplicationScopedComponent, Debu
     void invalidateCacheFor(Object domainObject);
     
     void invalidateCache(Class<?> domainClass);
+
+    /**
+     * Incremented each time that the cache is {@link #invalidateCache(Class) invalidated}, so that anything
+     * derived from the metamodel (for example, rendered representations of domain types) can tell that it may
+     * be stale.
+     */
+    long getCacheGeneration();
     
     boolean isInitialized();
 }
@@ -100,6 +100,12 @@ public interface ObjectActionParameter extends ObjectFeature, CurrentHolder {
      */
     ObjectAdapter[] getAutoComplete(ObjectAdapter adapter, String searchArg);
 
+    /**
+     * As {@link #getAutoComplete(ObjectAdapter, String)}, but only the (at most) <tt>count</tt>
+     * references/values starting at <tt>start</tt>.
+     */
+    ObjectAdapter[] getAutoComplete(ObjectAdapter adapter, String searchArg, long start, long count);
+
     
     
     int getAutoCompleteMinLength();
@@ -82,6 +82,12 @@ public interface ObjectAssociation extends ObjectMember, CurrentHolder {
      */
     public ObjectAdapter[] getAutoComplete(ObjectAdapter object, String searchArg);
 
+    /**
+     * As {@link #getAutoComplete(ObjectAdapter, String)}, but only the (at most) <tt>count</tt>
+     * references/values starting at <tt>start</tt>.
+     */
+    public ObjectAdapter[] getAutoComplete(ObjectAdapter object, String searchArg, long start, long count);
+
     int getAutoCompleteMinLength();
 
     /**
@@ -0,0 +1,443 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.WeakHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.CRC32;
+import com.google.common.base.Charsets;
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An index of the classes discovered when the metamodel was built (by the <tt>isis-maven-plugin</tt>), so that
+ * they need not be discovered again, by scanning the classpath, each time that the application starts.
+ *
+ * <p>
+ * The index is a list of class names only: it does not hold any part of the metamodel itself (facets, members or
+ * layout metadata), so every specification is still introspected at startup.  What it saves is the classpath
+ * scanning.  The index is written to {@value #RESOURCE} in the project's output directory, and lists:
+ * <ul>
+ * <li>the package prefixes that were searched, and the {@link org.apache.isis.applib.annotation.DomainService domain services}
+ * found within them, along with their menu order (read by <tt>ServicesInstallerFromAnnotation</tt>);</li>
+ * <li>the domain classes of the metamodel, keyed by their object type (read by
+ * {@link ObjectReflectorDefault#lookupBySpecId(org.apache.isis.core.metamodel.spec.ObjectSpecId)}).</li>
+ * </ul>
+ *
+ * <p>
+ * Each class listed is recorded with the checksum of its class file, along with a checksum of the names of the
+ * class files in each package (if read from a directory rather than a jar).  Each package prefix that was searched
+ * is recorded with a checksum of the names of all the class files within it, across every directory and jar of the
+ * classpath, so that a class added in a new package is also detected.  If any of these have changed since the
+ * index was built (for example, because a class was added or modified in the IDE without re-running the plugin),
+ * or cannot be verified, or if the index was written by a different {@link #VERSION version}, then the index is
+ * ignored and the classpath is scanned as usual.  The index can also be ignored by setting the
+ * {@value #DISABLED_PROPERTY} system property to <tt>true</tt>.
+ */
+public class MetaModelIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetaModelIndex.class);
+
+    public static final String RESOURCE = "META-INF/isis/metamodel.index";
+    public static final int VERSION = 3;
+
+    public static final String DISABLED_PROPERTY = "isis.metamodel.index.disabled";
+
+    private static final String HEADER = "isis-metamodel-index";
+
+    private String packagePrefixes;
+    private final SortedMap<String, String> checksumByClassName = Maps.newTreeMap();
+    private final SortedMap<String, String> checksumByPackageName = Maps.newTreeMap();
+    private final SortedMap<String, String> checksumByPackagePrefix = Maps.newTreeMap();
+    private final Map<String, String> serviceOrderByClassName = Maps.newLinkedHashMap();
+    private final SortedMap<String, String> classNameBySpecId = Maps.newTreeMap();
+
+    // //////////////////////////////////////
+    // build
+    // //////////////////////////////////////
+
+    /**
+     * The (comma separated) package prefixes that were searched, each checksummed using the class loader.
+     */
+    public void setPackagePrefixes(final String packagePrefixes, final ClassLoader classLoader) {
+        this.packagePrefixes = packagePrefixes;
+        checksumByPackagePrefix.clear();
+        for (final String packagePrefix : splitPackagePrefixes(packagePrefixes)) {
+            final String checksum = packagePrefixChecksum(classLoader, packagePrefix);
+            if (checksum != null) {
+                checksumByPackagePrefix.put(packagePrefix, checksum);
+            }
+        }
+    }
+
+    public void addService(final String order, final Class<?> serviceClass) {
+        serviceOrderByClassName.put(serviceClass.getName(), order);
+        addClass(serviceClass);
+    }
+
+    public void addSpecification(final String specId, final Class<?> cls) {
+        classNameBySpecId.put(specId, cls.getName());
+        addClass(cls);
+    }
+
+    private void addClass(final Class<?> cls) {
+        final ClassLoader classLoader = classLoaderOf(cls);
+        final String checksum = classChecksum(classLoader, cls.getName());
+        if (checksum == null) {
+            return;
+        }
+        checksumByClassName.put(cls.getName(), checksum);
+        final String packageName = packageNameOf(cls.getName());
+        if (!checksumByPackageName.containsKey(packageName)) {
+            final String packageChecksum = packageChecksum(classLoader, packageName);
+            if (packageChecksum != null) {
+                checksumByPackageName.put(packageName, packageChecksum);
+            }
+        }
+    }
+
+    private static ClassLoader classLoaderOf(final Class<?> cls) {
+        final ClassLoader classLoader = cls.getClassLoader();
+        return classLoader != null ? classLoader : ClassLoader.getSystemClassLoader();
+    }
+
+    // //////////////////////////////////////
+    // query
+    // //////////////////////////////////////
+
+    public String getPackagePrefixes() {
+        return packagePrefixes;
+    }
+
+    /**
+     * The menu order of each domain service class, keyed by class name, in the order found.
+     */
+    public Map<String, String> getServices() {
+        return Collections.unmodifiableMap(serviceOrderByClassName);
+    }
+
+    /**
+     * The name of the domain class with the specified object type, or <tt>null</tt> if not indexed.
+     */
+    public String getClassNameForSpecId(final String specId) {
+        return classNameBySpecId.get(specId);
+    }
+
+    public int getNumberOfClasses() {
+        return checksumByClassName.size();
+    }
+
+    // //////////////////////////////////////
+    // write, read
+    // //////////////////////////////////////
+
+    public void writeTo(final Writer writer) throws IOException {
+        writer.write(HEADER + " " + VERSION + "\n");
+        if (packagePrefixes != null) {
+            writer.write("prefixes " + packagePrefixes + "\n");
+        }
+        for (final Map.Entry<String, String> entry : checksumByPackagePrefix.entrySet()) {
+            writer.write("prefix " + entry.getKey() + " " + entry.getValue() + "\n");
+        }
+        for (final Map.Entry<String, String> entry : checksumByPackageName.entrySet()) {
+            writer.write("package " + entry.getKey() + " " + entry.getValue() + "\n");
+        }
+        for (final Map.Entry<String, String> entry : checksumByClassName.entrySet()) {
+            writer.write("class " + entry.getKey() + " " + entry.getValue() + "\n");
+        }
+        for (final Map.Entry<String, String> entry : serviceOrderByClassName.entrySet()) {
+            writer.write("service " + entry.getKey() + " " + entry.getValue() + "\n");
+        }
+        for (final Map.Entry<String, String> entry : classNameBySpecId.entrySet()) {
+            writer.write("spec " + entry.getKey() + " " + entry.getValue() + "\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Returns <tt>null</tt> if the index was written by a different {@link #VERSION version}.
+     */
+    public static MetaModelIndex readFrom(final Reader reader) throws IOException {
+        final BufferedReader bufferedReader = new BufferedReader(reader);
+        final String header = bufferedReader.readLine();
+        if (header == null || !header.equals(HEADER + " " + VERSION)) {
+            return null;
+        }
+        final MetaModelIndex index = new MetaModelIndex();
+        final Splitter splitter = Splitter.on(' ').limit(3);
+        String line;
+        while ((line = bufferedReader.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            final List<String> parts = Lists.newArrayList(splitter.split(line));
+            final String kind = parts.get(0);
+            if (kind.equals("prefixes")) {
+                index.packagePrefixes = parts.get(1);
+                continue;
+            }
+            if (parts.size() != 3) {
+                throw new IOException("malformed metamodel index entry: " + line);
+            }
+            final String key = parts.get(1);
+            final String value = parts.get(2);
+            switch (kind) {
+            case "prefix":
+                index.checksumByPackagePrefix.put(key, value);
+                break;
+            case "package":
+                index.checksumByPackageName.put(key, value);
+                break;
+            case "class":
+                index.checksumByClassName.put(key, value);
+                break;
+            case "service":
+                index.serviceOrderByClassName.put(key, value);
+                break;
+            case "spec":
+                index.classNameBySpecId.put(key, value);
+                break;
+            default:
+                throw new IOException("unknown metamodel index entry: " + line);
+            }
+        }
+        return index;
+    }
+
+    // //////////////////////////////////////
+    // lookup
+    // //////////////////////////////////////
+
+    private static final Map<ClassLoader, Optional<MetaModelIndex>> indexByClassLoader =
+            Collections.synchronizedMap(new WeakHashMap<ClassLoader, Optional<MetaModelIndex>>());
+
+    /**
+     * The index (if any) available from the specified class loader, provided that it is up-to-date with respect to
+     * the classes that it lists, otherwise <tt>null</tt>.
+     *
+     * <p>
+     * The outcome is cached for each class loader, so that the checksums are only verified once.
+     */
+    public static MetaModelIndex lookup(final ClassLoader classLoader) {
+        if (Boolean.getBoolean(DISABLED_PROPERTY)) {
+            return null;
+        }
+        Optional<MetaModelIndex> index = indexByClassLoader.get(classLoader);
+        if (index == null) {
+            index = Optional.fromNullable(loadIfUpToDate(classLoader));
+            indexByClassLoader.put(classLoader, index);
+        }
+        return index.orNull();
+    }
+
+    private static MetaModelIndex loadIfUpToDate(final ClassLoader classLoader) {
+        final URL resource = classLoader.getResource(RESOURCE);
+        if (resource == null) {
+            return null;
+        }
+        final MetaModelIndex index;
+        try (final InputStream in = resource.openStream()) {
+            index = readFrom(new InputStreamReader(in, Charsets.UTF_8));
+        } catch (final IOException ex) {
+            LOG.warn("unable to read metamodel index " + resource + ", ignoring; " + ex.getMessage());
+            return null;
+        }
+        if (index == null) {
+            LOG.info("metamodel index " + resource + " was built by a different version, ignoring");
+            return null;
+        }
+        final String staleness = index.findStaleness(classLoader);
+        if (staleness != null) {
+            LOG.info("metamodel index " + resource + " is out of date (" + staleness + "), ignoring");
+            return null;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("using metamodel index " + resource + " (" + index.getNumberOfClasses() + " classes)");
+        }
+        return index;
+    }
+
+    /**
+     * Returns a description of the first class, package or package prefix found to have changed (or that cannot
+     * be verified), or <tt>null</tt> if none.
+     */
+    String findStaleness(final ClassLoader classLoader) {
+        for (final String packagePrefix : splitPackagePrefixes(packagePrefixes)) {
+            final String checksum = checksumByPackagePrefix.get(packagePrefix);
+            if (checksum == null) {
+                return "prefix " + packagePrefix + " not verified";
+            }
+            if (!checksum.equals(packagePrefixChecksum(classLoader, packagePrefix))) {
+                return "prefix " + packagePrefix;
+            }
+        }
+        for (final Map.Entry<String, String> entry : checksumByClassName.entrySet()) {
+            if (!entry.getValue().equals(classChecksum(classLoader, entry.getKey()))) {
+                return "class " + entry.getKey();
+            }
+        }
+        for (final Map.Entry<String, String> entry : checksumByPackageName.entrySet()) {
+            if (!entry.getValue().equals(packageChecksum(classLoader, entry.getKey()))) {
+                return "package " + entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    // //////////////////////////////////////
+    // checksums
+    // //////////////////////////////////////
+
+    static String classChecksum(final ClassLoader classLoader, final String className) {
+        final URL resource = classLoader.getResource(className.replace('.', '/') + ".class");
+        if (resource == null) {
+            return null;
+        }
+        try (final InputStream in = resource.openStream()) {
+            final CRC32 crc = new CRC32();
+            crc.update(ByteStreams.toByteArray(in));
+            return Long.toHexString(crc.getValue());
+        } catch (final IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Checksum of the names of the class files within the package, if it resides in a directory (classes within a
+     * jar are not expected to change other than by rebuilding the jar, and with it the index).
+     */
+    static String packageChecksum(final ClassLoader classLoader, final String packageName) {
+        final URL resource = classLoader.getResource(packageName.replace('.', '/'));
+        if (resource == null || !"file".equals(resource.getProtocol())) {
+            return null;
+        }
+        final File[] files;
+        try {
+            files = new File(resource.toURI()).listFiles();
+        } catch (final URISyntaxException | IllegalArgumentException ex) {
+            return null;
+        }
+        if (files == null) {
+            return null;
+        }
+        final String[] classFileNames = new String[files.length];
+        int count = 0;
+        for (final File file : files) {
+            if (file.isFile() && file.getName().endsWith(".class")) {
+                classFileNames[count++] = file.getName();
+            }
+        }
+        Arrays.sort(classFileNames, 0, count);
+        final CRC32 crc = new CRC32();
+        for (int i = 0; i < count; i++) {
+            crc.update(classFileNames[i].getBytes(Charsets.UTF_8));
+            crc.update('\n');
+        }
+        return Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * Checksum of the names of the class files within the package prefix (including its subpackages), across every
+     * directory and jar of the class loader's classpath; <tt>null</tt> if any of these cannot be listed.
+     */
+    static String packagePrefixChecksum(final ClassLoader classLoader, final String packagePrefix) {
+        final String path = packagePrefix.replace('.', '/');
+        final List<String> classFileNames = Lists.newArrayList();
+        try {
+            for (final URL resource : Collections.list(classLoader.getResources(path))) {
+                if ("file".equals(resource.getProtocol())) {
+                    appendClassFileNames(new File(resource.toURI()), path, classFileNames);
+                } else if ("jar".equals(resource.getProtocol())) {
+                    appendClassFileNames((JarURLConnection) resource.openConnection(), path, classFileNames);
+                } else {
+                    return null;
+                }
+            }
+        } catch (final IOException | URISyntaxException | IllegalArgumentException ex) {
+            return null;
+        }
+        Collections.sort(classFileNames);
+        final CRC32 crc = new CRC32();
+        for (final String classFileName : classFileNames) {
+            crc.update(classFileName.getBytes(Charsets.UTF_8));
+            crc.update('\n');
+        }
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static void appendClassFileNames(final File directory, final String path, final List<String> classFileNames) throws IOException {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("unable to list " + directory);
+        }
+        for (final File file : files) {
+            if (file.isDirectory()) {
+                appendClassFileNames(file, path + "/" + file.getName(), classFileNames);
+            } else if (file.getName().endsWith(".class")) {
+                classFileNames.add(path + "/" + file.getName());
+            }
+        }
+    }
+
+    private static void appendClassFileNames(final JarURLConnection connection, final String path, final List<String> classFileNames) throws IOException {
+        // not cached, since the (shared) cached jar file must not be closed
+        connection.setUseCaches(false);
+        try (final JarFile jarFile = connection.getJarFile()) {
+            for (final JarEntry entry : Collections.list(jarFile.entries())) {
+                final String name = entry.getName();
+                if (name.startsWith(path + "/") && name.endsWith(".class")) {
+                    classFileNames.add(name);
+                }
+            }
+        }
+    }
+
+    private static Iterable<String> splitPackagePrefixes(final String packagePrefixes) {
+        return packagePrefixes != null
+                ? Splitter.on(',').trimResults().omitEmptyStrings().split(packagePrefixes)
+                : Collections.<String>emptyList();
+    }
+
+    private static String packageNameOf(final String className) {
+        final int lastDot = className.lastIndexOf('.');
+        return lastDot == -1 ? "" : className.substring(0, lastDot);
+    }
+
+}
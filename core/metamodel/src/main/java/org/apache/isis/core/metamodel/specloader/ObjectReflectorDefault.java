@@ -21,7 +21,15 @@
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import com.google.common.base.Function;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.slf4j.Logger;
@@ -63,6 +71,7 @@
 import org.apache.isis.core.metamodel.specloader.specimpl.standalonelist.ObjectSpecificationOnStandaloneList;
 import org.apache.isis.core.metamodel.specloader.traverser.SpecificationTraverser;
 import org.apache.isis.core.metamodel.specloader.validator.MetaModelValidator;
+import org.apache.isis.core.metamodel.specloader.validator.MetaModelValidatorComposite;
 import org.apache.isis.core.metamodel.specloader.validator.ValidationFailures;
 import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
 
@@ -105,6 +114,14 @@ public final class ObjectReflectorDefault implements SpecificationLoaderSpi, App
 
     private final static Logger LOG = LoggerFactory.getLogger(ObjectReflectorDefault.class);
 
+    /**
+     * The number of threads with which to introspect the service classes (and the types that they
+     * reference) and then validate the metamodel at bootstrap; if not greater than 1 (the default),
+     * then both are done by the calling thread.
+     */
+    public static final String INTROSPECTION_PARALLELISM_KEY = "isis.reflector.introspection.parallelism";
+    public static final int INTROSPECTION_PARALLELISM_DEFAULT = 1;
+
     private final ClassSubstitutor classSubstitutor = new ClassSubstitutor();
 
     /**
@@ -148,6 +165,19 @@ public final class ObjectReflectorDefault implements SpecificationLoaderSpi, App
     private final List<LayoutMetadataReader> layoutMetadataReaders;
 
     private boolean initialized = false;
+    /**
+     * Incremented whenever the cache is {@link #invalidateCache(Class) invalidated}.
+     */
+    private final AtomicLong cacheGeneration = new AtomicLong();
+    /**
+     * The {@link MetaModelIndex} built by the <tt>isis-maven-plugin</tt>, if available and up to date; used to
+     * {@link #lookupBySpecId(ObjectSpecId) look up} those specifications that have not yet been loaded.
+     */
+    private MetaModelIndex metaModelIndex;
+    /**
+     * Time taken (in milliseconds) by each phase of {@link #init()}, in order.
+     */
+    private final Map<String, Long> bootstrapTimings = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
     /**
      * Populated in {@link SpecificationLoaderSpi#setServiceInjector(org.apache.isis.core.metamodel.services.ServicesInjectorSpi)}.
      */
@@ -206,9 +236,15 @@ public void init() {
         
         validationFailures.assertNone();
         
+        final long start = System.nanoTime();
         cacheBySpecId();
+        recordTiming("cacheBySpecId", start);
         
         initialized = true;
+
+        if (LOG.isInfoEnabled()) {
+            LOG.info("metamodel bootstrapped; " + allSpecifications().size() + " specifications, timings (ms): " + bootstrapTimings);
+        }
     }
 
     @Override
@@ -236,16 +272,53 @@ public ValidationFailures initAndValidate() {
         runtimeContext.injectInto(facetProcessor);
 
         // initialize subcomponents
+        long start = System.nanoTime();
         facetDecoratorSet.init();
         programmingModel.init();
         facetProcessor.init();
         metaModelValidator.init();
+        recordTiming("init", start);
 
-        primeCache();
-        
-        ValidationFailures validationFailures = new ValidationFailures();
-        metaModelValidator.validate(validationFailures);
-        return validationFailures;
+        start = System.nanoTime();
+        metaModelIndex = MetaModelIndex.lookup(Thread.currentThread().getContextClassLoader());
+        recordTiming("index", start);
+
+        final int parallelism = configuration.getInteger(INTROSPECTION_PARALLELISM_KEY, INTROSPECTION_PARALLELISM_DEFAULT);
+        final ForkJoinPool pool = parallelism > 1 ? newIntrospectionPool(parallelism) : null;
+        try {
+            start = System.nanoTime();
+            if (pool != null) {
+                primeCache(pool);
+            } else {
+                primeCache();
+            }
+            recordTiming("introspection", start);
+
+            start = System.nanoTime();
+            final ValidationFailures validationFailures = new ValidationFailures();
+            if (pool != null && metaModelValidator instanceof MetaModelValidatorComposite) {
+                ((MetaModelValidatorComposite) metaModelValidator).validate(validationFailures, pool);
+            } else {
+                metaModelValidator.validate(validationFailures);
+            }
+            recordTiming("validation", start);
+            return validationFailures;
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private void recordTiming(final String phase, final long startNanos) {
+        bootstrapTimings.put(phase, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * The time taken (in milliseconds) by each phase of bootstrapping, in order.
+     */
+    public Map<String, Long> getBootstrapTimings() {
+        return Collections.unmodifiableMap(new LinkedHashMap<String, Long>(bootstrapTimings));
     }
 
 	private void cacheBySpecId() {
@@ -270,6 +343,55 @@ private void primeCache() {
         }
     }
 
+    /**
+     * load the service specifications concurrently.
+     *
+     * <p>
+     * Each service class is loaded by its own task, introspecting in turn the types that it references.
+     * Where two tasks require the same specification, one introspects it while the other waits for it to
+     * complete (see {@link SpecificationCacheDefault}); mutually-dependent specifications are handled just
+     * as they are when loaded by a single thread.
+     */
+    private void primeCache(final ForkJoinPool pool) {
+        final List<Callable<ObjectSpecification>> tasks = Lists.newArrayList();
+        for (final Class<?> serviceClass : getServiceClasses()) {
+            tasks.add(new Callable<ObjectSpecification>() {
+                @Override
+                public ObjectSpecification call() {
+                    return internalLoadSpecification(serviceClass);
+                }
+            });
+        }
+        try {
+            for (final Future<ObjectSpecification> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IsisException("Interrupted while introspecting specifications", ex);
+        } catch (final ExecutionException ex) {
+            Throwables.propagateIfPossible(ex.getCause());
+            throw new IsisException(ex.getCause());
+        }
+    }
+
+    /**
+     * The pool's threads use the bootstrapping thread's context class loader (as, for example, required
+     * to read layout metadata within a webapp).
+     */
+    private static ForkJoinPool newIntrospectionPool(final int parallelism) {
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return new ForkJoinPool(parallelism, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+                final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("isis-introspection-" + thread.getPoolIndex());
+                thread.setContextClassLoader(contextClassLoader);
+                return thread;
+            }
+        }, null, false);
+    }
+
 
     @Override
     public void shutdown() {
@@ -312,6 +434,12 @@ public void invalidateCache(final Class<?> cls) {
             }
             spec = spec.superclass(); 
         }
+        cacheGeneration.incrementAndGet();
+    }
+
+    @Override
+    public long getCacheGeneration() {
+        return cacheGeneration.get();
     }
 
     //region > isInjectorMethodFor
@@ -339,6 +467,10 @@ private void recache(final ObjectSpecification newSpec) {
     public final ObjectSpecification loadSpecification(final String className) {
         ensureThatArg(className, is(notNullValue()), "specification class name must be specified");
 
+        final ObjectSpecification loadedSpec = getCache().getIfLoaded(className);
+        if (loadedSpec != null) {
+            return loadedSpec;
+        }
         try {
             final Class<?> cls = loadBuiltIn(className);
             return internalLoadSpecification(cls);
@@ -383,24 +515,42 @@ private ObjectSpecification loadSpecificationForSubstitutedClass(final Class<?>
         final String typeName = type.getName();
 
         final SpecificationCacheDefault specificationCache = getCache();
-        synchronized (specificationCache) {
-            final ObjectSpecification spec = specificationCache.get(typeName);
-            if (spec != null) {
-                return spec;
-            }
-            final ObjectSpecification specification = createSpecification(type);
-            if (specification == null) {
-                throw new IsisException("Failed to create specification for class " + typeName);
-            }
+        final ObjectSpecification loadedSpec = specificationCache.getIfLoaded(typeName);
+        if (loadedSpec != null) {
+            return loadedSpec;
+        }
+
+        final SpecificationCacheDefault.Introspection introspection = new SpecificationCacheDefault.Introspection();
+        final SpecificationCacheDefault.Introspection inProgress = specificationCache.claimIntrospection(typeName, introspection);
+        if (inProgress == null) {
+            try {
+                final ObjectSpecification spec = specificationCache.get(typeName);
+                if (spec != null) {
+                    return spec;
+                }
+                final ObjectSpecification specification = createSpecification(type);
+                if (specification == null) {
+                    throw new IsisException("Failed to create specification for class " + typeName);
+                }
+
+                // put into the cache prior to introspecting, to prevent
+                // infinite loops
+                specificationCache.cache(typeName, specification);
 
-            // put into the cache prior to introspecting, to prevent
-            // infinite loops
-            specificationCache.cache(typeName, specification);
+                introspectIfRequired(specification);
 
-            introspectIfRequired(specification);
+                return specification;
+            } finally {
+                specificationCache.completeIntrospection(typeName, introspection);
+            }
+        }
 
-            return specification;
+        if (inProgress.isOwnedByCurrentThread() || !specificationCache.awaitIntrospection(inProgress)) {
+            // either a recursive load by this thread (eg for a bidirectional relationship), or
+            // the introspecting thread is itself waiting on us; either way, return the spec as it stands
+            return specificationCache.get(typeName);
         }
+        return loadSpecificationForSubstitutedClass(type);
     }
 
     /**
@@ -516,9 +666,18 @@ public ObjectSpecification introspectIfRequired(final ObjectSpecification spec)
         return spec;
     }
 
+    /**
+     * If the specification has not yet been loaded (that is, it is not reachable from any of the services) but
+     * is listed in the {@link MetaModelIndex metamodel index}, then it is loaded.
+     */
     @Override
     public ObjectSpecification lookupBySpecId(ObjectSpecId objectSpecId) {
-        return getCache().getByObjectType(objectSpecId);
+        final ObjectSpecification spec = getCache().getByObjectType(objectSpecId);
+        if (spec != null || metaModelIndex == null) {
+            return spec;
+        }
+        final String className = metaModelIndex.getClassNameForSpecId(objectSpecId.asString());
+        return className != null ? loadSpecification(className) : null;
     }
 
 
@@ -556,6 +715,13 @@ public void debugData(final DebugBuilder debug) {
         facetDecoratorSet.debugData(debug);
         debug.appendln();
 
+        debug.appendTitle("Bootstrap timings (ms)");
+        for (final Map.Entry<String, Long> timing : getBootstrapTimings().entrySet()) {
+            debug.appendln(timing.getKey(), timing.getValue().longValue());
+        }
+        debug.appendln("Metamodel index", metaModelIndex != null ? metaModelIndex.getNumberOfClasses() + " classes" : "not used");
+        debug.appendln();
+
         debug.appendTitle("Specifications");
         final List<ObjectSpecification> specs = Lists.newArrayList(allSpecifications());
         Collections.sort(specs, ObjectSpecification.COMPARATOR_SHORT_IDENTIFIER_IGNORE_CASE);
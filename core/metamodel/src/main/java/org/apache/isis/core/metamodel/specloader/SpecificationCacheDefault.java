@@ -22,69 +22,210 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
 
-import com.google.common.collect.Maps;
-
+import org.apache.isis.core.commons.exceptions.IsisException;
 import org.apache.isis.core.metamodel.facets.object.objectspecid.ObjectSpecIdFacet;
 import org.apache.isis.core.metamodel.spec.ObjectSpecId;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.specloader.validator.MetaModelValidator;
 
+/**
+ * Thread-safe cache of {@link ObjectSpecification}s, by class name and by {@link ObjectSpecId}.
+ *
+ * <p>
+ * Lookups never lock.  The creation and introspection of a new specification is coordinated
+ * per class (see {@link Introspection}), so that two threads loading different new specifications
+ * do not block each other, while a thread requiring a specification that is being introspected by
+ * another thread waits for it to complete.
+ */
 class SpecificationCacheDefault {
-    
-    private final Map<String, ObjectSpecification> specByClassName = Maps.newHashMap();
-    private Map<ObjectSpecId, ObjectSpecification> specById;
 
+    /**
+     * Claimed by the thread that creates and introspects the specification for a class; any other
+     * thread that requires that specification {@link #awaitIntrospection(Introspection) waits} for
+     * it to {@link #completeIntrospection(String, Introspection) complete}.
+     */
+    static final class Introspection implements ForkJoinPool.ManagedBlocker {
+        private final Thread introspectingThread = Thread.currentThread();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        boolean isOwnedByCurrentThread() {
+            return introspectingThread == Thread.currentThread();
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            completed.await();
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return completed.getCount() == 0;
+        }
+    }
+
+    /**
+     * All specifications, including those still being introspected.
+     */
+    private final ConcurrentMap<String, ObjectSpecification> specByClassName = new ConcurrentHashMap<String, ObjectSpecification>();
+    /**
+     * Only those specifications whose introspection has completed.
+     */
+    private final ConcurrentMap<String, ObjectSpecification> loadedSpecByClassName = new ConcurrentHashMap<String, ObjectSpecification>();
+
+    private final ConcurrentMap<String, Introspection> introspectionByClassName = new ConcurrentHashMap<String, Introspection>();
+    /**
+     * The introspection (if any) that each thread is waiting upon, used to detect (and so avoid)
+     * deadlocks between threads introspecting mutually-dependent specifications.
+     */
+    private final ConcurrentMap<Thread, Introspection> awaitedIntrospectionByThread = new ConcurrentHashMap<Thread, Introspection>();
+
+    private volatile ConcurrentMap<ObjectSpecId, ObjectSpecification> specById;
+
+    // //////////////////////////////////////////////////////////////////////
+    // by class name
+    // //////////////////////////////////////////////////////////////////////
+
+    /**
+     * The specification for the class, even if it is still being introspected.
+     */
     public ObjectSpecification get(final String className) {
         return specByClassName.get(className);
     }
 
+    /**
+     * The specification for the class, but only if its introspection has completed.
+     */
+    public ObjectSpecification getIfLoaded(final String className) {
+        return loadedSpecByClassName.get(className);
+    }
+
     public void cache(final String className, final ObjectSpecification spec) {
         specByClassName.put(className, spec);
     }
-    
 
     public void clear() {
         specByClassName.clear();
+        loadedSpecByClassName.clear();
     }
 
     public Collection<ObjectSpecification> allSpecifications() {
         return Collections.unmodifiableCollection(specByClassName.values());
     }
 
-    public ObjectSpecification getByObjectType(ObjectSpecId objectSpecID) {
-        if (!isInitialized()) {
-            throw new IllegalStateException("SpecificationCache by object type has not yet been initialized");
-        }
-        return specById.get(objectSpecID);
-    }
-
-    /**
-     * Populated as a result of running {@link MetaModelValidator#validate() validation} after xxxallxxx most specs have been loaded. 
-     */
-    void setCacheBySpecId(Map<ObjectSpecId, ObjectSpecification> specById) {
-        this.specById = Maps.newHashMap();
-        this.specById.putAll(specById);
-    }
-
     public ObjectSpecification remove(String typeName) {
+        loadedSpecByClassName.remove(typeName);
         ObjectSpecification removed = specByClassName.remove(typeName);
         if(removed != null) {
             if(removed.containsDoOpFacet(ObjectSpecIdFacet.class)) {
                 // umm.  It turns out that anonymous inner classes (eg org.estatio.dom.WithTitleGetter$ToString$1)
                 // don't have an ObjectSpecId; hence the guard.
                 ObjectSpecId specId = removed.getSpecId();
-                specById.remove(specId);
+                final Map<ObjectSpecId, ObjectSpecification> specById = this.specById;
+                if(specById != null) {
+                    specById.remove(specId);
+                }
             }
         }
         return removed;
     }
 
+    // //////////////////////////////////////////////////////////////////////
+    // introspection
+    // //////////////////////////////////////////////////////////////////////
+
+    /**
+     * Attempts to claim the introspection of the specified class for the current thread.
+     *
+     * @return <tt>null</tt> if the claim succeeded (in which case the caller must subsequently
+     * {@link #completeIntrospection(String, Introspection) complete} it), otherwise the
+     * introspection already in progress, possibly by the current thread.
+     */
+    Introspection claimIntrospection(final String className, final Introspection introspection) {
+        return introspectionByClassName.putIfAbsent(className, introspection);
+    }
+
+    /**
+     * Publishes the specification (if created) as loaded, and releases any threads waiting upon it.
+     */
+    void completeIntrospection(final String className, final Introspection introspection) {
+        try {
+            final ObjectSpecification spec = specByClassName.get(className);
+            if(spec != null) {
+                loadedSpecByClassName.put(className, spec);
+            }
+        } finally {
+            introspectionByClassName.remove(className, introspection);
+            introspection.completed.countDown();
+        }
+    }
+
+    /**
+     * Waits for an introspection being performed by some other thread to complete.
+     *
+     * @return <tt>false</tt> (without waiting) if waiting would deadlock, that is, if the
+     * introspecting thread is itself (directly or indirectly) waiting upon the current thread.
+     */
+    boolean awaitIntrospection(final Introspection introspection) {
+        final Thread currentThread = Thread.currentThread();
+        awaitedIntrospectionByThread.put(currentThread, introspection);
+        try {
+            if(wouldDeadlock(currentThread, introspection)) {
+                return false;
+            }
+            // if waiting within a fork-join pool (see ObjectReflectorDefault), lets the pool compensate
+            ForkJoinPool.managedBlock(introspection);
+            return true;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IsisException("Interrupted while waiting for specification to be introspected", ex);
+        } finally {
+            awaitedIntrospectionByThread.remove(currentThread);
+        }
+    }
+
+    private boolean wouldDeadlock(final Thread currentThread, final Introspection introspection) {
+        Introspection awaited = introspection;
+        // bounded, in case the wait-for graph changes under our feet
+        for (int i = 0; awaited != null && i <= awaitedIntrospectionByThread.size(); i++) {
+            if(awaited.introspectingThread == currentThread) {
+                return true;
+            }
+            awaited = awaitedIntrospectionByThread.get(awaited.introspectingThread);
+        }
+        return false;
+    }
+
+    // //////////////////////////////////////////////////////////////////////
+    // by ObjectSpecId
+    // //////////////////////////////////////////////////////////////////////
+
+    public ObjectSpecification getByObjectType(ObjectSpecId objectSpecID) {
+        final Map<ObjectSpecId, ObjectSpecification> specById = this.specById;
+        if (specById == null) {
+            throw new IllegalStateException("SpecificationCache by object type has not yet been initialized");
+        }
+        return specById.get(objectSpecID);
+    }
+
+    /**
+     * Populated as a result of running {@link MetaModelValidator#validate() validation} after xxxallxxx most specs have been loaded. 
+     */
+    void setCacheBySpecId(Map<ObjectSpecId, ObjectSpecification> specById) {
+        this.specById = new ConcurrentHashMap<ObjectSpecId, ObjectSpecification>(specById);
+    }
+
     /**
      * @param spec
      */
     public void recache(ObjectSpecification spec) {
-        if(!isInitialized()) {
+        final Map<ObjectSpecId, ObjectSpecification> specById = this.specById;
+        if(specById == null) {
             // JRebel plugin might call this before we are actually up and running;
             // just ignore.
             return;
@@ -0,0 +1,188 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.specloader.classsubstitutor;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * Caches the proxy (sub)classes generated by javassist or cglib, so that bytecode is
+ * generated only once per proxied class rather than every time an object is proxied.
+ *
+ * <p>
+ * Proxy classes are cached per {@link ClassLoader} of the proxied class; class loaders are
+ * held only weakly, so that redeploying an application does not leak its classes.  Within
+ * each class loader, proxy classes are keyed by the name of the proxied class and its
+ * interfaces along with a <tt>proxyType</tt> discriminator (so that, for example, the
+ * proxies generated by the background service and by the wrapper factory are kept apart).
+ *
+ * <p>
+ * A single {@link #getInstance() shared instance} is used by all callers, which also
+ * records the {@link #getHitCount() hit}, {@link #getMissCount() miss} and
+ * {@link #getGeneratedClassCount() generated class} counts.
+ */
+public final class ProxyClassCache {
+
+    /**
+     * Generates the proxy class in the event of a cache miss.
+     */
+    public interface ProxyClassFactory {
+        Class<?> createProxyClass(Class<?> superclass, Class<?>[] interfaces);
+    }
+
+    private static final ProxyClassCache INSTANCE = new ProxyClassCache();
+
+    public static ProxyClassCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The values hold only weak references to the proxy classes; since a class loader
+     * references all the classes that it has defined, a proxy class is only collected
+     * once its class loader becomes unreachable.
+     */
+    private final LoadingCache<ClassLoader, ConcurrentMap<String, WeakReference<Class<?>>>> proxyClassesByClassLoader =
+            CacheBuilder.newBuilder().weakKeys().build(
+                    new CacheLoader<ClassLoader, ConcurrentMap<String, WeakReference<Class<?>>>>() {
+                        @Override
+                        public ConcurrentMap<String, WeakReference<Class<?>>> load(final ClassLoader classLoader) {
+                            return newProxyClassMap();
+                        }
+                    });
+
+    /**
+     * For classes loaded by the bootstrap class loader (represented as <tt>null</tt>).
+     */
+    private final ConcurrentMap<String, WeakReference<Class<?>>> bootstrapProxyClasses = newProxyClassMap();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong generatedClassCount = new AtomicLong();
+
+    ProxyClassCache() {
+    }
+
+    private static ConcurrentMap<String, WeakReference<Class<?>>> newProxyClassMap() {
+        return new ConcurrentHashMap<String, WeakReference<Class<?>>>();
+    }
+
+    // //////////////////////////////////////
+
+    /**
+     * Returns the cached proxy class for the specified superclass and interfaces, using the
+     * provided factory to generate (at most once) if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Class<T> proxyClassFor(
+            final String proxyType,
+            final Class<?> superclass,
+            final Class<?>[] interfaces,
+            final ProxyClassFactory factory) {
+
+        final ConcurrentMap<String, WeakReference<Class<?>>> proxyClasses = proxyClassesFor(superclass.getClassLoader());
+        final String key = keyFor(proxyType, superclass, interfaces);
+
+        Class<?> proxyClass = lookup(proxyClasses, key);
+        if (proxyClass != null) {
+            hitCount.incrementAndGet();
+            return (Class<T>) proxyClass;
+        }
+
+        synchronized (proxyClasses) {
+            // another thread may have generated the class while we were waiting
+            proxyClass = lookup(proxyClasses, key);
+            if (proxyClass != null) {
+                hitCount.incrementAndGet();
+                return (Class<T>) proxyClass;
+            }
+            missCount.incrementAndGet();
+            proxyClass = factory.createProxyClass(superclass, interfaces);
+            generatedClassCount.incrementAndGet();
+            proxyClasses.put(key, new WeakReference<Class<?>>(proxyClass));
+            return (Class<T>) proxyClass;
+        }
+    }
+
+    private ConcurrentMap<String, WeakReference<Class<?>>> proxyClassesFor(final ClassLoader classLoader) {
+        return classLoader != null ? proxyClassesByClassLoader.getUnchecked(classLoader) : bootstrapProxyClasses;
+    }
+
+    private static Class<?> lookup(final ConcurrentMap<String, WeakReference<Class<?>>> proxyClasses, final String key) {
+        final WeakReference<Class<?>> reference = proxyClasses.get(key);
+        return reference != null ? reference.get() : null;
+    }
+
+    private static String keyFor(final String proxyType, final Class<?> superclass, final Class<?>[] interfaces) {
+        final StringBuilder buf = new StringBuilder(proxyType).append(':').append(superclass.getName());
+        for (final Class<?> iface : interfaces) {
+            buf.append(',').append(iface.getName());
+        }
+        return buf.toString();
+    }
+
+    // //////////////////////////////////////
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * The number of proxy classes generated (over the lifetime of this cache).
+     */
+    public long getGeneratedClassCount() {
+        return generatedClassCount.get();
+    }
+
+    /**
+     * The proportion of lookups served from the cache, or <tt>0</tt> if there have been none.
+     */
+    public double getHitRate() {
+        final long hits = hitCount.get();
+        final long lookups = hits + missCount.get();
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    /**
+     * Discards all cached proxy classes and resets the statistics.
+     */
+    public void clear() {
+        proxyClassesByClassLoader.invalidateAll();
+        bootstrapProxyClasses.clear();
+        hitCount.set(0);
+        missCount.set(0);
+        generatedClassCount.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "ProxyClassCache[hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", generatedClasses=" + getGeneratedClassCount() + "]";
+    }
+}
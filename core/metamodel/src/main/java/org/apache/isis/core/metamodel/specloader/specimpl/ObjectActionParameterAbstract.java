@@ -259,11 +259,20 @@ public boolean hasAutoComplete() {
 
     @Override
     public ObjectAdapter[] getAutoComplete(ObjectAdapter adapter, String searchArg) {
-        final List<ObjectAdapter> adapters = Lists.newArrayList();
         final ActionParameterAutoCompleteFacet facet = getFacet(ActionParameterAutoCompleteFacet.class);
+        return autoCompleteAdaptersFor(facet != null ? facet.autoComplete(adapter, searchArg) : null);
+    }
 
-        if (facet != null) {
-            final Object[] choices = facet.autoComplete(adapter, searchArg);
+    @Override
+    public ObjectAdapter[] getAutoComplete(ObjectAdapter adapter, String searchArg, long start, long count) {
+        final ActionParameterAutoCompleteFacet facet = getFacet(ActionParameterAutoCompleteFacet.class);
+        return autoCompleteAdaptersFor(facet != null ? facet.autoComplete(adapter, searchArg, start, count) : null);
+    }
+
+    private ObjectAdapter[] autoCompleteAdaptersFor(final Object[] choices) {
+        final List<ObjectAdapter> adapters = Lists.newArrayList();
+
+        if (choices != null) {
             checkChoicesOrAutoCompleteType(getSpecificationLookup(), choices, getSpecification());
             for (final Object choice : choices) {
                 adapters.add(getAdapterMap().adapterFor(choice));
@@ -0,0 +1,223 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.specloader.specimpl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.isis.core.metamodel.spec.ActionType;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.metamodel.spec.feature.ObjectMember;
+import org.apache.isis.core.metamodel.spec.feature.OneToManyAssociation;
+import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
+
+/**
+ * Immutable lookup tables over the (sorted) associations and actions of an
+ * {@link ObjectSpecificationAbstract}.
+ *
+ * <p>
+ * A new index is built (and safely published by the owning specification) whenever
+ * its members change, that is, once after introspection and again once any
+ * contributee members have been merged in.  All lookups are therefore lock-free and
+ * return shared, unmodifiable lists.
+ */
+final class ObjectMemberIndex {
+
+    static final ObjectMemberIndex EMPTY =
+            new ObjectMemberIndex(Collections.<ObjectAssociation>emptyList(), Collections.<ObjectAction>emptyList());
+
+    private final List<ObjectAssociation> associations;
+    private final List<ObjectAction> actions;
+
+    private final Map<Contributed, List<ObjectAssociation>> associationsByContributed;
+    private final Map<Contributed, List<OneToOneAssociation>> propertiesByContributed;
+    private final Map<Contributed, List<OneToManyAssociation>> collectionsByContributed;
+    private final Map<String, ObjectAssociation> associationsById;
+
+    private final Map<ActionType, Map<Contributed, List<ObjectAction>>> actionsByTypeAndContributed;
+    /**
+     * Actions of {@link ActionType#ALL all} types, grouped by type (in the order of {@link ActionType#ALL}).
+     */
+    private final Map<Contributed, List<ObjectAction>> allActionsByContributed;
+    private final Map<ActionType, Map<String, ObjectAction>> actionsByTypeAndId;
+    private final Map<String, ObjectAction> allActionsById;
+
+    ObjectMemberIndex(final List<ObjectAssociation> associations, final List<ObjectAction> actions) {
+        this.associations = ImmutableList.copyOf(associations);
+        this.actions = ImmutableList.copyOf(actions);
+
+        final Map<Contributed, List<ObjectAssociation>> associationsByContributed = Maps.newEnumMap(Contributed.class);
+        final Map<Contributed, List<OneToOneAssociation>> propertiesByContributed = Maps.newEnumMap(Contributed.class);
+        final Map<Contributed, List<OneToManyAssociation>> collectionsByContributed = Maps.newEnumMap(Contributed.class);
+        for (final Contributed contributed : Contributed.values()) {
+            final List<ObjectAssociation> associationsFor = filter(this.associations, contributed);
+            associationsByContributed.put(contributed, associationsFor);
+            propertiesByContributed.put(contributed,
+                    ImmutableList.copyOf(Iterables.filter(associationsFor, OneToOneAssociation.class)));
+            collectionsByContributed.put(contributed,
+                    ImmutableList.copyOf(Iterables.filter(associationsFor, OneToManyAssociation.class)));
+        }
+        this.associationsByContributed = ImmutableMap.copyOf(associationsByContributed);
+        this.propertiesByContributed = ImmutableMap.copyOf(propertiesByContributed);
+        this.collectionsByContributed = ImmutableMap.copyOf(collectionsByContributed);
+
+        final Map<String, ObjectAssociation> associationsById = Maps.newHashMap();
+        for (final ObjectAssociation association : this.associations) {
+            if(!associationsById.containsKey(association.getId())) {
+                associationsById.put(association.getId(), association);
+            }
+        }
+        this.associationsById = ImmutableMap.copyOf(associationsById);
+
+        final Map<ActionType, Map<Contributed, List<ObjectAction>>> actionsByTypeAndContributed = Maps.newEnumMap(ActionType.class);
+        final Map<ActionType, Map<String, ObjectAction>> actionsByTypeAndId = Maps.newEnumMap(ActionType.class);
+        final List<ObjectAction> allActionsByType = Lists.newArrayList();
+        for (final ActionType type : ActionType.ALL) {
+            final List<ObjectAction> actionsOfType = ImmutableList.copyOf(
+                    Iterables.filter(this.actions, ObjectAction.Predicates.ofType(type)));
+            allActionsByType.addAll(actionsOfType);
+
+            final Map<Contributed, List<ObjectAction>> byContributed = Maps.newEnumMap(Contributed.class);
+            for (final Contributed contributed : Contributed.values()) {
+                byContributed.put(contributed, filter(actionsOfType, contributed));
+            }
+            actionsByTypeAndContributed.put(type, ImmutableMap.copyOf(byContributed));
+            actionsByTypeAndId.put(type, indexById(actionsOfType));
+        }
+        this.actionsByTypeAndContributed = ImmutableMap.copyOf(actionsByTypeAndContributed);
+        this.actionsByTypeAndId = ImmutableMap.copyOf(actionsByTypeAndId);
+
+        final Map<Contributed, List<ObjectAction>> allActionsByContributed = Maps.newEnumMap(Contributed.class);
+        for (final Contributed contributed : Contributed.values()) {
+            allActionsByContributed.put(contributed, filter(allActionsByType, contributed));
+        }
+        this.allActionsByContributed = ImmutableMap.copyOf(allActionsByContributed);
+        this.allActionsById = indexById(allActionsByType);
+    }
+
+    private static <T extends ObjectMember> List<T> filter(
+            final List<T> members, final Contributed contributed) {
+        return ImmutableList.copyOf(Iterables.filter(members, ContributeeMember.Predicates.<T>regularElse(contributed)));
+    }
+
+    /**
+     * Indexed by both {@link org.apache.isis.applib.Identifier#toNameParmsIdentityString() name and parameters}
+     * and by {@link org.apache.isis.applib.Identifier#toNameIdentityString() name}; the first action in the
+     * list to claim either key wins.
+     */
+    private static Map<String, ObjectAction> indexById(final List<ObjectAction> actions) {
+        final Map<String, ObjectAction> actionsById = Maps.newHashMap();
+        for (final ObjectAction action : actions) {
+            final String nameParmsIdentityString = action.getIdentifier().toNameParmsIdentityString();
+            if(!actionsById.containsKey(nameParmsIdentityString)) {
+                actionsById.put(nameParmsIdentityString, action);
+            }
+            final String nameIdentityString = action.getIdentifier().toNameIdentityString();
+            if(!actionsById.containsKey(nameIdentityString)) {
+                actionsById.put(nameIdentityString, action);
+            }
+        }
+        return ImmutableMap.copyOf(actionsById);
+    }
+
+    // //////////////////////////////////////////////////////////////////////
+    // copy
+    // //////////////////////////////////////////////////////////////////////
+
+    ObjectMemberIndex withAssociations(final List<ObjectAssociation> associations) {
+        return new ObjectMemberIndex(associations, this.actions);
+    }
+
+    ObjectMemberIndex withActions(final List<ObjectAction> actions) {
+        return new ObjectMemberIndex(this.associations, actions);
+    }
+
+    // //////////////////////////////////////////////////////////////////////
+    // associations
+    // //////////////////////////////////////////////////////////////////////
+
+    List<ObjectAssociation> getAssociations(final Contributed contributed) {
+        return associationsByContributed.get(contributed);
+    }
+
+    List<OneToOneAssociation> getProperties(final Contributed contributed) {
+        return propertiesByContributed.get(contributed);
+    }
+
+    List<OneToManyAssociation> getCollections(final Contributed contributed) {
+        return collectionsByContributed.get(contributed);
+    }
+
+    /**
+     * Searches all associations, including any contributee associations.
+     */
+    ObjectAssociation getAssociation(final String id) {
+        return associationsById.get(id);
+    }
+
+    // //////////////////////////////////////////////////////////////////////
+    // actions
+    // //////////////////////////////////////////////////////////////////////
+
+    List<ObjectAction> getActions(final ActionType type, final Contributed contributed) {
+        return actionsByTypeAndContributed.get(type).get(contributed);
+    }
+
+    /**
+     * The actions of the specified types, grouped in the order that the types are provided.
+     */
+    List<ObjectAction> getActions(final List<ActionType> types, final Contributed contributed) {
+        if(types == ActionType.ALL) {
+            return allActionsByContributed.get(contributed);
+        }
+        if(types.size() == 1) {
+            return getActions(types.get(0), contributed);
+        }
+        final List<ObjectAction> actions = Lists.newArrayList();
+        for (final ActionType type : types) {
+            actions.addAll(getActions(type, contributed));
+        }
+        return Collections.unmodifiableList(actions);
+    }
+
+    /**
+     * Searches actions of all types, including any contributee actions.
+     */
+    ObjectAction getAction(final String id) {
+        return allActionsById.get(id);
+    }
+
+    /**
+     * Searches actions of the specified type, including any contributee actions.
+     */
+    ObjectAction getAction(final ActionType type, final String id) {
+        return actionsByTypeAndId.get(type).get(id);
+    }
+
+}
@@ -21,10 +21,8 @@
 
 import java.util.*;
 import com.google.common.base.Function;
-import com.google.common.collect.Collections2;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.isis.applib.Identifier;
@@ -119,21 +117,15 @@ public List<ObjectSpecification> toList() {
     protected final ObjectMemberContext objectMemberContext;
 
 
-    private final List<ObjectAssociation> associations = Lists.newArrayList();
-    private final List<ObjectAction> objectActions = Lists.newArrayList();
-    // partitions and caches objectActions by type; updated in sortCacheAndUpdateActions()
-    private final Map<ActionType, List<ObjectAction>> objectActionsByType = createObjectActionsByType();
-
-    private static Map<ActionType, List<ObjectAction>> createObjectActionsByType() {
-        final Map<ActionType, List<ObjectAction>> map = Maps.newHashMap();
-        for (final ActionType type : ActionType.values()) {
-            map.put(type, Lists.<ObjectAction>newArrayList());
-        }
-        return map;
-    }
+    /**
+     * Immutable lookup tables over the associations and actions; replaced (rather than mutated) whenever
+     * the members change, in {@link #sortAndUpdateAssociations(List)} and {@link #sortCacheAndUpdateActions(List)}.
+     */
+    private volatile ObjectMemberIndex memberIndex = ObjectMemberIndex.EMPTY;
+    private final Object memberIndexLock = new Object();
 
-    private boolean contributeeAssociationsAdded;
-    private boolean contributeeActionsAdded;
+    private volatile boolean contributeeAssociationsAdded;
+    private volatile boolean contributeeActionsAdded;
 
 
     private final List<ObjectSpecification> interfaces = Lists.newArrayList();
@@ -330,23 +322,15 @@ private void updateSubclasses(final ObjectSpecification subclass) {
 
     protected void sortAndUpdateAssociations(final List<ObjectAssociation> associations) {
         final List<ObjectAssociation> orderedAssociations = sortAssociations(associations);
-        synchronized (this.associations) {
-            this.associations.clear();
-            this.associations.addAll(orderedAssociations);
+        synchronized (memberIndexLock) {
+            memberIndex = memberIndex.withAssociations(orderedAssociations);
         }
     }
 
     protected void sortCacheAndUpdateActions(final List<ObjectAction> objectActions) {
         final List<ObjectAction> orderedActions = sortActions(objectActions);
-        synchronized (this.objectActions){
-            this.objectActions.clear();
-            this.objectActions.addAll(orderedActions);
-
-            for (final ActionType type : ActionType.values()) {
-                final List<ObjectAction> objectActionForType = objectActionsByType.get(type);
-                objectActionForType.clear();
-                objectActionForType.addAll(Collections2.filter(objectActions, ObjectAction.Predicates.ofType(type)));
-            }
+        synchronized (memberIndexLock) {
+            memberIndex = memberIndex.withActions(orderedActions);
         }
     }
 
@@ -664,16 +648,22 @@ public List<ObjectAssociation> getAssociations(final Contributed contributed) {
         // the "contributed.isIncluded()" guard is required because we cannot do this too early;
         // there must be a session available
         if(contributed.isIncluded() && !contributeeAssociationsAdded) {
-            synchronized (this.associations) {
-                List<ObjectAssociation> associations = Lists.newArrayList(this.associations);
-                associations.addAll(createContributeeAssociations());
-                sortAndUpdateAssociations(associations);
-                contributeeAssociationsAdded = true;
+            addContributeeAssociations();
+        }
+        // a copy, since callers may modify the returned list
+        return Lists.newArrayList(memberIndex.getAssociations(contributed));
+    }
+
+    private void addContributeeAssociations() {
+        synchronized (memberIndexLock) {
+            if(contributeeAssociationsAdded) {
+                return;
             }
+            final List<ObjectAssociation> associations = Lists.newArrayList(memberIndex.getAssociations(Contributed.INCLUDED));
+            associations.addAll(createContributeeAssociations());
+            sortAndUpdateAssociations(associations);
+            contributeeAssociationsAdded = true;
         }
-        final List<ObjectAssociation> associations = Lists.newArrayList(this.associations);
-        return Lists.newArrayList(Iterables.filter(
-                associations, ContributeeMember.Predicates.regularElse(contributed)));
     }
 
 
@@ -691,9 +681,6 @@ protected Boolean initialValue() {
      * simply returns <tt>null</tt>.
      * 
      * <p>
-     * TODO put fields into hash.
-     * 
-     * <p>
      * TODO: could this be made final? (ie does the framework ever call this
      * method for an {@link org.apache.isis.core.metamodel.specloader.specimpl.standalonelist.ObjectSpecificationOnStandaloneList})
      */
@@ -728,12 +715,10 @@ public ObjectAssociation getAssociation(final String id) {
     }
 
     private ObjectAssociation getAssociationWithId(final String id) {
-        for (final ObjectAssociation objectAssociation : getAssociations(Contributed.INCLUDED)) {
-            if (objectAssociation.getId().equals(id)) {
-                return objectAssociation;
-            }
+        if(!contributeeAssociationsAdded) {
+            addContributeeAssociations();
         }
-        return null;
+        return memberIndex.getAssociation(id);
     }
 
     @Deprecated
@@ -744,23 +729,37 @@ public List<ObjectAssociation> getAssociations(Filter<ObjectAssociation> filter)
 
     @Override
     public List<ObjectAssociation> getAssociations(Contributed contributed, final Filter<ObjectAssociation> filter) {
-        final List<ObjectAssociation> allAssociations = getAssociations(contributed);
-        return Lists.newArrayList(
-                Iterables.filter(allAssociations, Filters.asPredicate(filter)));
+        if(contributed.isIncluded() && !contributeeAssociationsAdded) {
+            addContributeeAssociations();
+        }
+        // always a new list, since callers may modify the returned list
+        if(filter == ObjectAssociation.Filters.PROPERTIES) {
+            return Lists.<ObjectAssociation>newArrayList(memberIndex.getProperties(contributed));
+        }
+        if(filter == ObjectAssociation.Filters.COLLECTIONS) {
+            return Lists.<ObjectAssociation>newArrayList(memberIndex.getCollections(contributed));
+        }
+        final List<ObjectAssociation> allAssociations = memberIndex.getAssociations(contributed);
+        if(filter == Filters.<ObjectAssociation>any()) {
+            return Lists.newArrayList(allAssociations);
+        }
+        return filtered(allAssociations, filter);
     }
 
-    @SuppressWarnings({ "rawtypes", "unchecked" })
     @Override
     public List<OneToOneAssociation> getProperties(Contributed contributed) {
-        final List list = getAssociations(contributed, ObjectAssociation.Filters.PROPERTIES);
-        return list;
+        if(contributed.isIncluded() && !contributeeAssociationsAdded) {
+            addContributeeAssociations();
+        }
+        return Lists.newArrayList(memberIndex.getProperties(contributed));
     }
 
     @Override
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public List<OneToManyAssociation> getCollections(Contributed contributed) {
-        final List list = getAssociations(contributed, ObjectAssociation.Filters.COLLECTIONS);
-        return list;
+        if(contributed.isIncluded() && !contributeeAssociationsAdded) {
+            addContributeeAssociations();
+        }
+        return Lists.newArrayList(memberIndex.getCollections(contributed));
     }
 
     // //////////////////////////////////////////////////////////////////////
@@ -778,24 +777,27 @@ public List<ObjectAction> getObjectActions(
         // the "contributed.isIncluded()" guard is required because we cannot do this too early;
         // there must be a session available
         if(contributed.isIncluded() && !contributeeActionsAdded) {
-            synchronized (this.objectActions) {
-                final List<ObjectAction> actions = Lists.newArrayList(this.objectActions);
-                actions.addAll(createContributeeActions());
-                sortCacheAndUpdateActions(actions);
-                contributeeActionsAdded = true;
-            }
+            addContributeeActions();
         }
 
-        final List<ObjectAction> actions = Lists.newArrayList();
-        for (final ActionType type : types) {
-            final Collection<ObjectAction> filterActions =
-                    Collections2.filter(objectActionsByType.get(type), Filters.asPredicate(filter));
-            actions.addAll(filterActions);
+        final List<ObjectAction> actions = memberIndex.getActions(types, contributed);
+        if(filter == Filters.<ObjectAction>any()) {
+            // a copy, since callers may modify the returned list
+            return Lists.newArrayList(actions);
+        }
+        return filtered(actions, filter);
+    }
+
+    private void addContributeeActions() {
+        synchronized (memberIndexLock) {
+            if(contributeeActionsAdded) {
+                return;
+            }
+            final List<ObjectAction> actions = Lists.newArrayList(memberIndex.getActions(ActionType.ALL, Contributed.INCLUDED));
+            actions.addAll(createContributeeActions());
+            sortCacheAndUpdateActions(actions);
+            contributeeActionsAdded = true;
         }
-        return Lists.newArrayList(
-                Iterables.filter(
-                        actions,
-                        ContributeeMember.Predicates.regularElse(contributed)));
     }
 
     @Override
@@ -812,6 +814,38 @@ public List<ObjectAction> getObjectActions(
         return getObjectActions(Collections.singletonList(type), contributed, filter);
     }
 
+    /**
+     * The first action (of any type, including contributee actions) whose
+     * {@link Identifier#toNameParmsIdentityString() name and parameters} or
+     * {@link Identifier#toNameIdentityString() name} matches the provided id.
+     */
+    protected ObjectAction getObjectActionWithId(final String id) {
+        if(!contributeeActionsAdded) {
+            addContributeeActions();
+        }
+        return memberIndex.getAction(id);
+    }
+
+    /**
+     * As {@link #getObjectActionWithId(String)}, but only for actions of the specified type.
+     */
+    protected ObjectAction getObjectActionWithId(final ActionType type, final String id) {
+        if(!contributeeActionsAdded) {
+            addContributeeActions();
+        }
+        return memberIndex.getAction(type, id);
+    }
+
+    private static <T> List<T> filtered(final List<T> members, final Filter<T> filter) {
+        final List<T> filteredMembers = Lists.newArrayList();
+        for (final T member : members) {
+            if(filter.accept(member)) {
+                filteredMembers.add(member);
+            }
+        }
+        return filteredMembers;
+    }
+
     // //////////////////////////////////////////////////////////////////////
     // sorting
     // //////////////////////////////////////////////////////////////////////
@@ -241,6 +241,11 @@ public boolean hasAutoComplete() {
     public ObjectAdapter[] getAutoComplete(ObjectAdapter object, String searchArg) {
         return new ObjectAdapter[0];
     }
+
+    @Override
+    public ObjectAdapter[] getAutoComplete(ObjectAdapter object, String searchArg, long start, long count) {
+        return new ObjectAdapter[0];
+    }
     
     @Override
     public int getAutoCompleteMinLength() {
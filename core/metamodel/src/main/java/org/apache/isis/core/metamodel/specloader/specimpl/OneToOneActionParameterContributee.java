@@ -55,6 +55,11 @@ public ObjectAdapter[] getAutoComplete(ObjectAdapter adapter, String searchArg)
         return serviceActionParameter.getAutoComplete(serviceAdapter, searchArg);
     }
 
+    @Override
+    public ObjectAdapter[] getAutoComplete(ObjectAdapter adapter, String searchArg, long start, long count) {
+        return serviceActionParameter.getAutoComplete(serviceAdapter, searchArg, start, count);
+    }
+
     protected ObjectAdapter targetForDefaultOrChoices(ObjectAdapter adapter, final List<ObjectAdapter> argumentsIfAvailable) {
         return serviceAdapter;
     }
@@ -278,7 +278,16 @@ public boolean hasAutoComplete() {
     @Override
     public ObjectAdapter[] getAutoComplete(ObjectAdapter ownerAdapter, String searchArg) {
         final PropertyAutoCompleteFacet propertyAutoCompleteFacet = getFacet(PropertyAutoCompleteFacet.class);
-        final Object[] pojoOptions = propertyAutoCompleteFacet.autoComplete(ownerAdapter, searchArg);
+        return adaptersFor(propertyAutoCompleteFacet.autoComplete(ownerAdapter, searchArg));
+    }
+
+    @Override
+    public ObjectAdapter[] getAutoComplete(ObjectAdapter ownerAdapter, String searchArg, long start, long count) {
+        final PropertyAutoCompleteFacet propertyAutoCompleteFacet = getFacet(PropertyAutoCompleteFacet.class);
+        return adaptersFor(propertyAutoCompleteFacet.autoComplete(ownerAdapter, searchArg, start, count));
+    }
+
+    private ObjectAdapter[] adaptersFor(final Object[] pojoOptions) {
         if (pojoOptions != null) {
             final ObjectAdapter[] options = new ObjectAdapter[pojoOptions.length];
             for (int i = 0; i < options.length; i++) {
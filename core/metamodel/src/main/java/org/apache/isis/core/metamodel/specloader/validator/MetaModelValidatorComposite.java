@@ -21,9 +21,15 @@
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 
+import org.apache.isis.core.commons.exceptions.IsisException;
 import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
 
 public class MetaModelValidatorComposite extends MetaModelValidatorAbstract {
@@ -37,6 +43,39 @@ public void validate(final ValidationFailures validationFailures)  {
         }
     }
 
+    /**
+     * Runs each of the validators concurrently, using the supplied executor.
+     *
+     * <p>
+     * Each validator reports to its own {@link ValidationFailures}, which are then combined in the
+     * order that the validators were {@link #add(MetaModelValidator) added}, so that the failures
+     * reported are the same as if {@link #validate(ValidationFailures) validated} sequentially.
+     */
+    public void validate(final ValidationFailures validationFailures, final ExecutorService executorService) {
+        final List<Callable<ValidationFailures>> tasks = Lists.newArrayList();
+        for (final MetaModelValidator validator : validators) {
+            tasks.add(new Callable<ValidationFailures>() {
+                @Override
+                public ValidationFailures call() {
+                    final ValidationFailures failures = new ValidationFailures();
+                    validator.validate(failures);
+                    return failures;
+                }
+            });
+        }
+        try {
+            for (final Future<ValidationFailures> future : executorService.invokeAll(tasks)) {
+                validationFailures.addAll(future.get());
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IsisException("Interrupted while validating metamodel", ex);
+        } catch (final ExecutionException ex) {
+            Throwables.propagateIfPossible(ex.getCause());
+            throw new IsisException(ex.getCause());
+        }
+    }
+
     public MetaModelValidatorComposite add(final MetaModelValidator validator) {
         validators.add(validator);
         return this;
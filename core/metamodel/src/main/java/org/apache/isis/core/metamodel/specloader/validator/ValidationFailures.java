@@ -24,32 +24,58 @@
 
 import com.google.common.collect.Sets;
 
+/**
+ * Thread-safe, so that validators may report failures concurrently (for example, when the metamodel is
+ * {@link MetaModelValidatorComposite#validate(ValidationFailures, java.util.concurrent.ExecutorService) validated in parallel}).
+ */
 public final class ValidationFailures implements Iterable<String> {
 
     private final Set<String> messages = Sets.newLinkedHashSet();
     
     public void add(String pattern, Object... arguments) {
         final String message = String.format(pattern, arguments);
-        messages.add(message);
+        synchronized (messages) {
+            messages.add(message);
+        }
+    }
+
+    /**
+     * Adds all of the messages of the other failures (in the order that they were added).
+     */
+    public void addAll(ValidationFailures validationFailures) {
+        // copied first, so as never to hold both locks at once
+        final Set<String> otherMessages = validationFailures.getMessages();
+        synchronized (messages) {
+            messages.addAll(otherMessages);
+        }
     }
 
     public void assertNone() {
         if (!occurred()) {
             return;
         }
-        throw new MetaModelInvalidException(messages);
+        throw new MetaModelInvalidException(getMessages());
     }
 
     public boolean occurred() {
-        return !messages.isEmpty();
+        synchronized (messages) {
+            return !messages.isEmpty();
+        }
     }
 
+    /**
+     * A snapshot of the messages reported so far.
+     */
     public Set<String> getMessages() {
-        return Collections.unmodifiableSet(messages);
+        synchronized (messages) {
+            return Collections.unmodifiableSet(Sets.newLinkedHashSet(messages));
+        }
     }
 
     public int getNumberOfMessages() {
-        return messages.size();
+        synchronized (messages) {
+            return messages.size();
+        }
     }
 
     @Override
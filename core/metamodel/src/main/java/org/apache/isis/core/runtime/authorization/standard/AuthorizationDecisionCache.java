@@ -0,0 +1,227 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.authorization.standard;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.Lists;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+
+/**
+ * Caches the visibility and usability decisions made by the
+ * {@link org.apache.isis.core.runtime.authorization.AuthorizationManager} for a single
+ * {@link AuthenticationSession}, keyed by member {@link Identifier} and the session's roles.
+ *
+ * <p>
+ * Held as an {@link AuthenticationSession#getAttribute(String) attribute} of the session, obtained
+ * using {@link #of(AuthenticationSession)}.  If the session's roles change then its cached decisions
+ * are discarded; alternatively, a session's decisions can be discarded using
+ * {@link #invalidate(AuthenticationSession)}, and those of every session (for example, because the
+ * permissions themselves have changed) using {@link #invalidateAll()}.
+ *
+ * <p>
+ * Decisions are assumed to depend only upon the roles and the member, not upon the target object
+ * (as is the case for {@link AuthorizationManagerStandard}).
+ */
+public class AuthorizationDecisionCache implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String SESSION_ATTRIBUTE = AuthorizationDecisionCache.class.getName();
+
+    /**
+     * Incremented by {@link #invalidateAll()}; each cache discards its decisions if out of date.
+     */
+    private static final AtomicLong generation = new AtomicLong();
+
+    private static final AtomicLong totalHitCount = new AtomicLong();
+    private static final AtomicLong totalMissCount = new AtomicLong();
+
+    // //////////////////////////////////////
+    // of, invalidate
+    // //////////////////////////////////////
+
+    /**
+     * The cache for the session, created (and stored in the session) if necessary.
+     */
+    public static AuthorizationDecisionCache of(final AuthenticationSession session) {
+        final Object attribute = session.getAttribute(SESSION_ATTRIBUTE);
+        if (attribute instanceof AuthorizationDecisionCache) {
+            return (AuthorizationDecisionCache) attribute;
+        }
+        final AuthorizationDecisionCache cache = new AuthorizationDecisionCache();
+        session.setAttribute(SESSION_ATTRIBUTE, cache);
+        return cache;
+    }
+
+    /**
+     * Discards the cached decisions for the session, for example because its roles have changed.
+     */
+    public static void invalidate(final AuthenticationSession session) {
+        final Object attribute = session.getAttribute(SESSION_ATTRIBUTE);
+        if (attribute instanceof AuthorizationDecisionCache) {
+            ((AuthorizationDecisionCache) attribute).clear();
+        }
+    }
+
+    /**
+     * Discards the cached decisions of all sessions, for example because permissions have changed.
+     */
+    public static void invalidateAll() {
+        generation.incrementAndGet();
+    }
+
+    // //////////////////////////////////////
+    // statistics (across all sessions)
+    // //////////////////////////////////////
+
+    public static long getTotalHitCount() {
+        return totalHitCount.get();
+    }
+
+    public static long getTotalMissCount() {
+        return totalMissCount.get();
+    }
+
+    // //////////////////////////////////////
+    // constructor
+    // //////////////////////////////////////
+
+    /**
+     * The decisions cached for a particular set of roles and {@link #invalidateAll() generation}; replaced
+     * wholesale rather than cleared, so that a decision can never be cached against the wrong roles.
+     */
+    private static final class Decisions {
+        private final List<String> roles;
+        private final long generation;
+        /**
+         * Keyed by {@link Identifier#toString()} (which is cached by the identifier, and includes
+         * the class name, member name and parameter types).
+         */
+        private final ConcurrentMap<String, Boolean> visibleByIdentifier = new ConcurrentHashMap<String, Boolean>();
+        private final ConcurrentMap<String, Boolean> usableByIdentifier = new ConcurrentHashMap<String, Boolean>();
+
+        private Decisions(final List<String> roles, final long generation) {
+            this.roles = Lists.newArrayList(roles);
+            this.generation = generation;
+        }
+
+        private boolean isCurrentFor(final List<String> roles) {
+            return generation == AuthorizationDecisionCache.generation.get() && this.roles.equals(roles);
+        }
+    }
+
+    /**
+     * Not serialized; a deserialized session simply starts with an empty cache.
+     */
+    private transient volatile Decisions decisions;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    AuthorizationDecisionCache() {
+        clear();
+    }
+
+    private Object readResolve() {
+        clear();
+        return this;
+    }
+
+    // //////////////////////////////////////
+    // get, put
+    // //////////////////////////////////////
+
+    /**
+     * The cached visibility decision, or <tt>null</tt> if none.
+     */
+    public Boolean getVisible(final Identifier identifier, final List<String> roles) {
+        return get(decisionsFor(roles).visibleByIdentifier, identifier);
+    }
+
+    public void putVisible(final Identifier identifier, final List<String> roles, final boolean visible) {
+        decisionsFor(roles).visibleByIdentifier.put(identifier.toString(), visible);
+    }
+
+    /**
+     * The cached usability decision, or <tt>null</tt> if none.
+     */
+    public Boolean getUsable(final Identifier identifier, final List<String> roles) {
+        return get(decisionsFor(roles).usableByIdentifier, identifier);
+    }
+
+    public void putUsable(final Identifier identifier, final List<String> roles, final boolean usable) {
+        decisionsFor(roles).usableByIdentifier.put(identifier.toString(), usable);
+    }
+
+    private Boolean get(final ConcurrentMap<String, Boolean> decisionByIdentifier, final Identifier identifier) {
+        final Boolean decision = decisionByIdentifier.get(identifier.toString());
+        if (decision != null) {
+            hitCount.incrementAndGet();
+            totalHitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+            totalMissCount.incrementAndGet();
+        }
+        return decision;
+    }
+
+    /**
+     * Discards all decisions if the roles differ from those for which they were cached, or if
+     * {@link #invalidateAll()} has been called since.
+     */
+    private Decisions decisionsFor(final List<String> roles) {
+        final Decisions current = decisions;
+        if (current.isCurrentFor(roles)) {
+            return current;
+        }
+        final Decisions replacement = new Decisions(roles, generation.get());
+        decisions = replacement;
+        return replacement;
+    }
+
+    public void clear() {
+        decisions = new Decisions(Collections.<String>emptyList(), generation.get());
+    }
+
+    // //////////////////////////////////////
+    // statistics (this session)
+    // //////////////////////////////////////
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "AuthorizationDecisionCache[hits=" + getHitCount() + ", misses=" + getMissCount() + "]";
+    }
+}
@@ -19,8 +19,10 @@
 
 package org.apache.isis.core.runtime.authorization.standard;
 
+import org.apache.isis.applib.Identifier;
 import org.apache.isis.applib.events.UsabilityEvent;
 import org.apache.isis.applib.events.VisibilityEvent;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.metamodel.facetapi.Facet;
 import org.apache.isis.core.metamodel.facetapi.FacetAbstract;
 import org.apache.isis.core.metamodel.facetapi.FacetHolder;
@@ -41,14 +43,36 @@ public AuthorizationFacetAbstract(final FacetHolder holder, final AuthorizationM
         this.authorizationManager = authorizationManager;
     }
 
+    /**
+     * Decisions are {@link AuthorizationDecisionCache cached} for the session.
+     */
     @Override
     public String hides(final VisibilityContext<? extends VisibilityEvent> ic) {
-        return authorizationManager.isVisible(ic.getSession(), ic.getTarget(), ic.getIdentifier()) ? null : "Not authorized to view";
+        final AuthenticationSession session = ic.getSession();
+        final Identifier identifier = ic.getIdentifier();
+        final AuthorizationDecisionCache cache = AuthorizationDecisionCache.of(session);
+        Boolean visible = cache.getVisible(identifier, session.getRoles());
+        if (visible == null) {
+            visible = authorizationManager.isVisible(session, ic.getTarget(), identifier);
+            cache.putVisible(identifier, session.getRoles(), visible);
+        }
+        return visible ? null : "Not authorized to view";
     }
 
+    /**
+     * Decisions are {@link AuthorizationDecisionCache cached} for the session.
+     */
     @Override
     public String disables(final UsabilityContext<? extends UsabilityEvent> ic) {
-        return authorizationManager.isUsable(ic.getSession(), ic.getTarget(), ic.getIdentifier()) ? null : "Not authorized to edit";
+        final AuthenticationSession session = ic.getSession();
+        final Identifier identifier = ic.getIdentifier();
+        final AuthorizationDecisionCache cache = AuthorizationDecisionCache.of(session);
+        Boolean usable = cache.getUsable(identifier, session.getRoles());
+        if (usable == null) {
+            usable = authorizationManager.isUsable(session, ic.getTarget(), identifier);
+            cache.putUsable(identifier, session.getRoles(), usable);
+        }
+        return usable ? null : "Not authorized to edit";
     }
 
 }
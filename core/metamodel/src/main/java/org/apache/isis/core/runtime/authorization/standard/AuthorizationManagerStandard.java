@@ -76,14 +76,20 @@ public boolean isUsableInAnyRole(Identifier identifier) {
     // init, shutddown
     // /////////////////////////////////////////////////////////
 
+    /**
+     * Also {@link AuthorizationDecisionCache#invalidateAll() invalidates} any cached decisions, as the
+     * permissions may differ from those of any previously initialized authorizor.
+     */
     @Override
     public void init() {
+        AuthorizationDecisionCache.invalidateAll();
         authorizor.init();
     }
 
     @Override
     public void shutdown() {
         authorizor.shutdown();
+        AuthorizationDecisionCache.invalidateAll();
     }
 
     // /////////////////////////////////////////////////////////
@@ -161,6 +167,8 @@ public String debugTitle() {
     public void debugData(final DebugBuilder debug) {
         debug.appendTitle("Authorizor Manager");
         debug.appendln("Authorizer", authorizor);
+        debug.appendln("Cached decision hits", AuthorizationDecisionCache.getTotalHitCount());
+        debug.appendln("Cached decision misses", AuthorizationDecisionCache.getTotalMissCount());
     }
 
     // //////////////////////////////////////////////////
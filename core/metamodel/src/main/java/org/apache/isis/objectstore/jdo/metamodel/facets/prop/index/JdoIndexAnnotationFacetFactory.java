@@ -0,0 +1,45 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.metamodel.facets.prop.index;
+
+import javax.jdo.annotations.Index;
+import javax.jdo.annotations.Unique;
+
+import org.apache.isis.core.metamodel.facetapi.FacetUtil;
+import org.apache.isis.core.metamodel.facetapi.FeatureType;
+import org.apache.isis.core.metamodel.facets.Annotations;
+import org.apache.isis.core.metamodel.facets.FacetFactoryAbstract;
+
+
+public class JdoIndexAnnotationFacetFactory extends FacetFactoryAbstract {
+
+    public JdoIndexAnnotationFacetFactory() {
+        super(FeatureType.PROPERTIES_ONLY);
+    }
+
+    @Override
+    public void process(ProcessMethodContext processMethodContext) {
+        final Index indexAnnotation = Annotations.getAnnotation(processMethodContext.getMethod(), Index.class);
+        final Unique uniqueAnnotation = Annotations.getAnnotation(processMethodContext.getMethod(), Unique.class);
+        if (indexAnnotation == null && uniqueAnnotation == null) {
+            return;
+        }
+        FacetUtil.addFacet(new JdoIndexFacetAnnotation(processMethodContext.getFacetHolder()));
+    }
+}
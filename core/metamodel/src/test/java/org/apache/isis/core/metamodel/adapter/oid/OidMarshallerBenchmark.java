@@ -0,0 +1,165 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.adapter.oid;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.apache.isis.core.metamodel.adapter.version.Version;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+
+/**
+ * JMH benchmark comparing the single-pass {@link OidMarshaller#unmarshal(String, Class) unmarshalling} of root,
+ * aggregated and collection oids against the previous implementation, which {@link #unmarshalUsingRegex() matched}
+ * the {@link OidMarshaller#OIDSTR_PATTERN regular expression} and then split the nested aggregates.
+ *
+ * <p>
+ * Run using {@link #main(String[])}, which also enables the GC profiler so that allocation rates can be compared.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class OidMarshallerBenchmark {
+
+    @Param({"CUS:123^90800:sven:1376812800000", "CUS:123~NME:2~CTY:LON", "!CUS:123~NME:2$items"})
+    public String oidStr;
+
+    private OidMarshaller oidMarshaller;
+    private Oid oid;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        oidMarshaller = new OidMarshaller();
+        oid = oidMarshaller.unmarshal(oidStr, Oid.class);
+    }
+
+    @Benchmark
+    public Oid unmarshal() {
+        return oidMarshaller.unmarshal(oidStr, Oid.class);
+    }
+
+    @Benchmark
+    public Oid unmarshalUsingRegex() {
+        return unmarshalUsingRegex(oidStr);
+    }
+
+    @Benchmark
+    public String marshal() {
+        return oid.enString(oidMarshaller);
+    }
+
+    /**
+     * As previously implemented by {@link OidMarshaller}.
+     */
+    private Oid unmarshalUsingRegex(final String oidStr) {
+        final Matcher matcher = OidMarshaller.OIDSTR_PATTERN.matcher(oidStr);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Could not parse OID '" + oidStr + "'");
+        }
+
+        final String isTransientOrViewModelStr = getGroup(matcher, 3);
+        final Oid.State state;
+        if("!".equals(isTransientOrViewModelStr)) {
+            state = Oid.State.TRANSIENT;
+        } else if("*".equals(isTransientOrViewModelStr)) {
+            state = Oid.State.VIEWMODEL;
+        } else {
+            state = Oid.State.PERSISTENT;
+        }
+
+        final String rootOidStr = getGroup(matcher, 2);
+        final String rootObjectType = getGroup(matcher, 4);
+        final String rootIdentifier = getGroup(matcher, 5);
+
+        final String aggregateOidPart = getGroup(matcher, 6);
+        final List<String[]> aggregateOidParts = Lists.newArrayList();
+        if(aggregateOidPart != null) {
+            for(String str: Splitter.on("~").split(aggregateOidPart)) {
+                if(Strings.isNullOrEmpty(str)) {
+                    continue;
+                }
+                final Iterator<String> colonSplitIter = Splitter.on(":").split(str).iterator();
+                aggregateOidParts.add(new String[]{colonSplitIter.next(), colonSplitIter.next()});
+            }
+        }
+        final String collectionPart = getGroup(matcher, 8);
+        final String collectionName = collectionPart != null ? collectionPart.substring(1) : null;
+
+        final Version version = Version.create(getGroup(matcher, 10), getGroup(matcher, 11), getGroup(matcher, 12));
+
+        if(collectionName == null) {
+            if(aggregateOidParts.isEmpty()) {
+                return new RootOidDefault(ObjectSpecId.of(rootObjectType), rootIdentifier, state, version);
+            } 
+            final String[] lastPart = aggregateOidParts.remove(aggregateOidParts.size()-1);
+            final StringBuilder buf = new StringBuilder(rootOidStr);
+            for(String[] part: aggregateOidParts) {
+                buf.append("~").append(part[0]).append(":").append(part[1]);
+            }
+            buf.append(oidMarshaller.marshal(version));
+            final TypedOid parentOid = (TypedOid) unmarshalUsingRegex(buf.toString());
+            return new AggregatedOid(ObjectSpecId.of(lastPart[0]), parentOid, lastPart[1]);
+        } 
+        final String parentOidStr = getGroup(matcher, 1) + oidMarshaller.marshal(version);
+        final TypedOid parentOid = (TypedOid) unmarshalUsingRegex(parentOidStr);
+        return new CollectionOid(parentOid, collectionName);
+    }
+
+    private static String getGroup(final Matcher matcher, final int group) {
+        if(group > matcher.groupCount()) {
+            return null;
+        }
+        return Strings.emptyToNull(matcher.group(group));
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(OidMarshallerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
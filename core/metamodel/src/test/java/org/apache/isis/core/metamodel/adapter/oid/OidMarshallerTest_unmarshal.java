@@ -289,6 +289,28 @@ public void badPattern() {
         oidMarshaller.unmarshal("xxx", RootOidDefault.class);
     }
 
+    @Test
+    public void parsesExactlyThoseMatchingPattern() {
+        final String[] oidStrs = {
+                "CUS:123", "!CUS:123", "*CUS:123", "!:123", "**CUS:123", "!*CUS:123", "CUS:", ":123", "!",
+                "CUS:123~", "CUS:123~NME", "CUS:123~NME:", "CUS:123~~NME:2", "CUS:123~NME:2~CTY:LON$streets",
+                "CUS:123$", "CUS:123$items$more", "CUS:123$items~NME:2", "CUS:1#23",
+                "CUS:123^", "CUS:123^90809", "CUS:123^90809:", "CUS:123^90809::", "CUS:123^x::",
+                "CUS:123^90809:joe:1231334545123", "CUS:123^90809:joe:123x", "CUS:123^90809::1231334545123^1::",
+                "CUS:123~NME:2$items^90809:joe:"
+        };
+        for (final String oidStr : oidStrs) {
+            boolean parsed;
+            try {
+                oidMarshaller.unmarshal(oidStr, Oid.class);
+                parsed = true;
+            } catch (IllegalArgumentException ex) {
+                parsed = false;
+            }
+            assertThat(oidStr, parsed, is(OidMarshaller.OIDSTR_PATTERN.matcher(oidStr).matches()));
+        }
+    }
+
     
 
 }
@@ -148,6 +148,11 @@ public void invalidateCacheFor(Object domainObject) {
     public void invalidateCache(Class<?> domainClass) {
     }
 
+    @Override
+    public long getCacheGeneration() {
+        return 0;
+    }
+
     @Override
     public boolean isInitialized() {
         return false;
@@ -0,0 +1,82 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.facets.param.autocomplete;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class RangeUtilTest {
+
+    public static class Customer {
+        public Object[] autoCompleteName(final String searchArg) { return null; }
+        public Object[] autoCompleteNickname(final String searchArg, final long... range) { return null; }
+    }
+
+    private final Object[] choices = { "a", "b", "c", "d", "e" };
+
+    @Test
+    public void withinBounds() throws Exception {
+        assertThat(RangeUtil.inRange(choices, 1, 2), is(new Object[] { "b", "c" }));
+    }
+
+    @Test
+    public void countBeyondEnd() throws Exception {
+        assertThat(RangeUtil.inRange(choices, 3, 10), is(new Object[] { "d", "e" }));
+    }
+
+    @Test
+    public void countOfMaxValue() throws Exception {
+        assertThat(RangeUtil.inRange(choices, 1, Long.MAX_VALUE), is(new Object[] { "b", "c", "d", "e" }));
+    }
+
+    @Test
+    public void startAtOrBeyondEnd() throws Exception {
+        assertThat(RangeUtil.inRange(choices, 5, 2), is(new Object[0]));
+        assertThat(RangeUtil.inRange(choices, 100, 2), is(new Object[0]));
+    }
+
+    @Test
+    public void negativeStartOrCount() throws Exception {
+        assertThat(RangeUtil.inRange(choices, -1, 2), is(new Object[] { "a", "b" }));
+        assertThat(RangeUtil.inRange(choices, 1, -2), is(new Object[0]));
+    }
+
+    @Test
+    public void wholeRangeIsNotCopied() throws Exception {
+        assertThat(RangeUtil.inRange(choices, 0, 5), is(sameInstance(choices)));
+        assertThat(RangeUtil.inRange(choices, 0, Long.MAX_VALUE), is(sameInstance(choices)));
+    }
+
+    @Test
+    public void whenNull() throws Exception {
+        assertThat(RangeUtil.inRange(null, 0, 5), is(nullValue()));
+    }
+
+    @Test
+    public void acceptsRange() throws Exception {
+        assertThat(RangeUtil.acceptsRange(Customer.class.getMethod("autoCompleteName", String.class)), is(false));
+        assertThat(RangeUtil.acceptsRange(Customer.class.getMethod("autoCompleteNickname", String.class, long[].class)), is(true));
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.facets.param.autocomplete.method;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
+import org.apache.isis.core.metamodel.facetapi.FacetHolderImpl;
+import org.apache.isis.core.metamodel.spec.SpecificationLoader;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ActionParameterAutoCompleteFacetViaMethodTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    public static class Customer {
+        long[] range;
+
+        public String[] autoComplete0PlaceOrder(final String searchArg, final long... range) {
+            this.range = range;
+            // more than asked for
+            return new String[] { "a", "b", "c" };
+        }
+
+        public String[] autoComplete1PlaceOrder(final String searchArg) {
+            return new String[] { "a", "b", "c", "d" };
+        }
+    }
+
+    @Mock
+    private ObjectAdapter mockOwningAdapter;
+    @Mock
+    private SpecificationLoader mockSpecificationLookup;
+    @Mock
+    private AdapterManager mockAdapterManager;
+
+    private Customer customer;
+
+    @Before
+    public void setUp() throws Exception {
+        customer = new Customer();
+        context.checking(new Expectations() {{
+            allowing(mockOwningAdapter).getObject();
+            will(returnValue(customer));
+        }});
+    }
+
+    @Test
+    public void rangePassedThroughAndResultTrimmedToCount() throws Exception {
+        final ActionParameterAutoCompleteFacetViaMethod facet = facetFor("autoComplete0PlaceOrder", String.class, long[].class);
+
+        final Object[] choices = facet.autoComplete(mockOwningAdapter, "x", 10, 2);
+
+        assertThat(customer.range, is(new long[] { 10, 2 }));
+        assertThat(choices, is(new Object[] { "a", "b" }));
+    }
+
+    @Test
+    public void noRangePassedWhenAllChoicesRequested() throws Exception {
+        final ActionParameterAutoCompleteFacetViaMethod facet = facetFor("autoComplete0PlaceOrder", String.class, long[].class);
+
+        final Object[] choices = facet.autoComplete(mockOwningAdapter, "x");
+
+        assertThat(customer.range, is(new long[0]));
+        assertThat(choices, is(new Object[] { "a", "b", "c" }));
+    }
+
+    @Test
+    public void rangeAppliedToChoicesWhenMethodDoesNotAcceptRange() throws Exception {
+        final ActionParameterAutoCompleteFacetViaMethod facet = facetFor("autoComplete1PlaceOrder", String.class);
+
+        final Object[] choices = facet.autoComplete(mockOwningAdapter, "x", 1, 2);
+
+        assertThat(choices, is(new Object[] { "b", "c" }));
+    }
+
+    private ActionParameterAutoCompleteFacetViaMethod facetFor(final String methodName, final Class<?>... parameterTypes) throws NoSuchMethodException {
+        return new ActionParameterAutoCompleteFacetViaMethod(
+                Customer.class.getMethod(methodName, parameterTypes), String.class, new FacetHolderImpl(), mockSpecificationLookup, mockAdapterManager);
+    }
+
+}
@@ -396,6 +396,35 @@ public Object[] autoCompleteFirstName(String searchArg) {
         assertTrue(methodRemover.getRemovedMethodMethodCalls().contains(propertyAutoCompleteMethod));
     }
 
+    public void testAutoCompleteFacetAcceptingRangeFoundAndMethodRemoved() {
+        final PropertyAutoCompleteFacetMethodFactory facetFactory = new PropertyAutoCompleteFacetMethodFactory();
+        facetFactory.setSpecificationLookup(reflector);
+
+        class Customer {
+            @SuppressWarnings("unused")
+            public String getFirstName() {
+                return null;
+            }
+
+            @SuppressWarnings("unused")
+            public Object[] autoCompleteFirstName(String searchArg, long... range) {
+                return null;
+            }
+        }
+        final Method propertyAccessorMethod = findMethod(Customer.class, "getFirstName");
+        final Method propertyAutoCompleteMethod = findMethod(Customer.class, "autoCompleteFirstName", new Class[]{String.class, long[].class});
+
+        facetFactory.process(new ProcessMethodContext(Customer.class, null, null, propertyAccessorMethod, methodRemover, facetedMethod));
+
+        final Facet facet = facetedMethod.getFacet(PropertyAutoCompleteFacet.class);
+        assertNotNull(facet);
+        assertTrue(facet instanceof PropertyAutoCompleteFacetMethod);
+        final PropertyAutoCompleteFacetMethod propertyAutoCompleteFacet = (PropertyAutoCompleteFacetMethod) facet;
+        assertEquals(propertyAutoCompleteMethod, propertyAutoCompleteFacet.getMethods().get(0));
+
+        assertTrue(methodRemover.getRemovedMethodMethodCalls().contains(propertyAutoCompleteMethod));
+    }
+
     public void testDefaultFacetFoundAndMethodRemoved() {
         final PropertyDefaultFacetViaMethodFactory facetFactory = new PropertyDefaultFacetViaMethodFactory();
         facetFactory.setSpecificationLookup(reflector);
@@ -0,0 +1,221 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.services.container;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.jmock.Expectations;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.RepositoryException;
+import org.apache.isis.applib.query.Query;
+import org.apache.isis.core.metamodel.adapter.DomainObjectServices;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.QuerySubmitterAbstract;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+public class DomainObjectContainerDefaultTest_allMatches {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    private DomainObjectServices mockDomainObjectServices;
+
+    private List<ObjectAdapter> adapters;
+    private List<Query<?>> queriesSubmitted;
+
+    private DomainObjectContainerDefault container;
+
+    private static final Predicate<Integer> EVEN = new Predicate<Integer>() {
+        @Override
+        public boolean apply(final Integer input) {
+            return input % 2 == 0;
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        mockDomainObjectServices = context.mock(DomainObjectServices.class);
+        context.checking(new Expectations() {
+            {
+                allowing(mockDomainObjectServices).flush();
+            }
+        });
+
+        // instances 1..25
+        adapters = Lists.newArrayList();
+        for (int i = 1; i <= 25; i++) {
+            final ObjectAdapter mockAdapter = context.mock(ObjectAdapter.class, "adapter" + i);
+            final Integer pojo = i;
+            context.checking(new Expectations() {
+                {
+                    allowing(mockAdapter).getObject();
+                    will(returnValue(pojo));
+                }
+            });
+            adapters.add(mockAdapter);
+        }
+        queriesSubmitted = Lists.newArrayList();
+
+        container = new DomainObjectContainerDefault();
+        container.setDomainObjectServices(mockDomainObjectServices);
+        container.setQuerySubmitter(new QuerySubmitterAbstract() {
+            @Override
+            public <T> List<ObjectAdapter> allMatchingQuery(final Query<T> query) {
+                queriesSubmitted.add(query);
+                final int start = (int) Math.min(query.getStart(), adapters.size());
+                final int end = query.getCount() != 0 ? (int) Math.min(start + query.getCount(), adapters.size()) : adapters.size();
+                return Lists.newArrayList(adapters.subList(start, end));
+            }
+
+            @Override
+            public <T> ObjectAdapter firstMatchingQuery(final Query<T> query) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        initContainer("10", "20");
+    }
+
+    private void initContainer(final String chunkSize, final String maxChunkSize) {
+        final Map<String, String> properties = Maps.newHashMap();
+        properties.put(DomainObjectContainerDefault.CHUNK_SIZE_KEY, chunkSize);
+        properties.put(DomainObjectContainerDefault.MAX_CHUNK_SIZE_KEY, maxChunkSize);
+        container.init(properties);
+    }
+
+    @Test
+    public void fetchesInChunks() throws Exception {
+        final List<Integer> matches = container.allMatches(Integer.class, EVEN);
+        assertThat(matches, is(Arrays.asList(2, 4, 6, 8, 10, 12, 14, 16, 18, 20, 22, 24)));
+        assertThat(queriesSubmitted.size(), is(2));
+        assertThat(queriesSubmitted.get(1).getStart(), is(10L));
+        assertThat(queriesSubmitted.get(1).getCount(), is(20L));
+    }
+
+    @Test
+    public void chunksGrowUpToMaximum() throws Exception {
+        initContainer("2", "8");
+        container.allMatches(Integer.class, EVEN);
+        final List<Long> counts = Lists.newArrayList();
+        for (final Query<?> query : queriesSubmitted) {
+            counts.add(query.getCount());
+        }
+        assertThat(counts, is(Arrays.asList(2L, 4L, 8L, 8L, 8L)));
+    }
+
+    @Test
+    public void rangeAppliesToMatches() throws Exception {
+        final List<Integer> matches = container.allMatches(Integer.class, EVEN, 3, 4);
+        assertThat(matches, is(Arrays.asList(8, 10, 12, 14)));
+        assertThat(queriesSubmitted.size(), is(2));
+    }
+
+    @Test
+    public void whenRangeIgnoredAndEveryChunkIsFull() throws Exception {
+        initContainer("25", "25");
+        ignoreRange();
+        final List<Integer> matches = container.allMatches(Integer.class, EVEN);
+        assertThat(matches, is(Arrays.asList(2, 4, 6, 8, 10, 12, 14, 16, 18, 20, 22, 24)));
+        assertThat(queriesSubmitted.size(), is(2));
+    }
+
+    @Test
+    public void whenRangeIgnored() throws Exception {
+        ignoreRange();
+        final List<Integer> matches = container.allMatches(Integer.class, EVEN);
+        assertThat(matches.size(), is(12));
+        assertThat(queriesSubmitted.size(), is(1));
+    }
+
+    private void ignoreRange() {
+        container.setQuerySubmitter(new QuerySubmitterAbstract() {
+            @Override
+            public <T> List<ObjectAdapter> allMatchingQuery(final Query<T> query) {
+                queriesSubmitted.add(query);
+                return Lists.newArrayList(adapters);
+            }
+
+            @Override
+            public <T> ObjectAdapter firstMatchingQuery(final Query<T> query) {
+                throw new UnsupportedOperationException();
+            }
+        });
+    }
+
+    @Test
+    public void firstMatchStopsAtFirstMatch() throws Exception {
+        final Integer match = container.firstMatch(Integer.class, new Predicate<Integer>() {
+            @Override
+            public boolean apply(final Integer input) {
+                return input > 5;
+            }
+        });
+        assertThat(match, is(6));
+        assertThat(queriesSubmitted.size(), is(1));
+    }
+
+    @Test
+    public void firstMatchWhenNone() throws Exception {
+        final Integer match = container.firstMatch(Integer.class, new Predicate<Integer>() {
+            @Override
+            public boolean apply(final Integer input) {
+                return input > 100;
+            }
+        });
+        assertThat(match, is(nullValue()));
+        assertThat(queriesSubmitted.size(), is(2));
+    }
+
+    @Test
+    public void uniqueMatchStopsAtSecondMatch() throws Exception {
+        try {
+            container.uniqueMatch(Integer.class, EVEN);
+        } catch (final RepositoryException ex) {
+            assertThat(queriesSubmitted.size(), is(1));
+            return;
+        }
+        throw new AssertionError("expected a RepositoryException");
+    }
+
+    @Test
+    public void uniqueMatchFiltersBeforeLimiting() throws Exception {
+        final Integer match = container.uniqueMatch(Integer.class, new Predicate<Integer>() {
+            @Override
+            public boolean apply(final Integer input) {
+                return input == 17;
+            }
+        });
+        assertThat(match, is(17));
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class MetaModelIndexTest {
+
+    public static class SomeService {}
+    public static class SomeEntity {}
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ClassLoader classLoader = getClass().getClassLoader();
+
+    @Test
+    public void roundtrips() throws Exception {
+        final MetaModelIndex index = newIndex();
+
+        final MetaModelIndex read = roundtrip(index);
+
+        assertThat(read, is(notNullValue()));
+        assertThat(read.getPackagePrefixes(), is("com.mycompany,org.apache.isis.core.metamodel.specloader"));
+        assertThat(read.getServices().get(SomeService.class.getName()), is("1.2"));
+        assertThat(read.getClassNameForSpecId("ENT"), is(SomeEntity.class.getName()));
+        assertThat(read.getNumberOfClasses(), is(2));
+    }
+
+    @Test
+    public void upToDateIfClassesUnchanged() throws Exception {
+        assertThat(roundtrip(newIndex()).findStaleness(classLoader), is(nullValue()));
+    }
+
+    @Test
+    public void staleIfClassChanged() throws Exception {
+        final StringWriter writer = new StringWriter();
+        newIndex().writeTo(writer);
+        final String modified = writer.toString().replaceFirst(
+                "class " + SomeEntity.class.getName().replace("$", "\\$") + " \\w+",
+                "class " + SomeEntity.class.getName().replace("$", "\\$") + " 0");
+
+        final MetaModelIndex read = MetaModelIndex.readFrom(new StringReader(modified));
+
+        assertThat(read.findStaleness(classLoader), is("class " + SomeEntity.class.getName()));
+    }
+
+    @Test
+    public void staleIfClassAddedInNewPackage() throws Exception {
+        final File root = temporaryFolder.newFolder();
+        newClassFile(root, "com/mycompany/dom/Customer.class");
+        final ClassLoader classLoader = new URLClassLoader(new URL[] { root.toURI().toURL() }, null);
+
+        final MetaModelIndex index = new MetaModelIndex();
+        index.setPackagePrefixes("com.mycompany", classLoader);
+        final MetaModelIndex read = roundtrip(index);
+        assertThat(read.findStaleness(classLoader), is(nullValue()));
+
+        newClassFile(root, "com/mycompany/fixture/CustomerFixture.class");
+
+        assertThat(read.findStaleness(classLoader), is("prefix com.mycompany"));
+    }
+
+    @Test
+    public void staleIfJarAddedWithinPackagePrefix() throws Exception {
+        final File domJar = newJar("dom.jar", "com/mycompany/dom/Customer.class");
+        final File fixtureJar = newJar("fixture.jar", "com/mycompany/fixture/CustomerFixture.class");
+
+        final MetaModelIndex index = new MetaModelIndex();
+        index.setPackagePrefixes("com.mycompany", new URLClassLoader(new URL[] { domJar.toURI().toURL() }, null));
+        final MetaModelIndex read = roundtrip(index);
+
+        assertThat(read.findStaleness(new URLClassLoader(new URL[] { domJar.toURI().toURL() }, null)), is(nullValue()));
+        assertThat(read.findStaleness(new URLClassLoader(new URL[] { domJar.toURI().toURL(), fixtureJar.toURI().toURL() }, null)), is("prefix com.mycompany"));
+    }
+
+    @Test
+    public void ignoredIfDifferentVersion() throws Exception {
+        assertThat(MetaModelIndex.readFrom(new StringReader("isis-metamodel-index 0\n")), is(nullValue()));
+    }
+
+    private static MetaModelIndex newIndex() {
+        final MetaModelIndex index = new MetaModelIndex();
+        index.setPackagePrefixes("com.mycompany,org.apache.isis.core.metamodel.specloader", MetaModelIndexTest.class.getClassLoader());
+        index.addService("1.2", SomeService.class);
+        index.addSpecification("ENT", SomeEntity.class);
+        return index;
+    }
+
+    private static void newClassFile(final File root, final String path) throws IOException {
+        final File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        file.createNewFile();
+    }
+
+    private File newJar(final String name, final String path) throws IOException {
+        final File file = new File(temporaryFolder.getRoot(), name);
+        try (final JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+            // with the directory entries, as written by the jar tool
+            for (int i = path.indexOf('/'); i != -1; i = path.indexOf('/', i + 1)) {
+                out.putNextEntry(new JarEntry(path.substring(0, i + 1)));
+                out.closeEntry();
+            }
+            out.putNextEntry(new JarEntry(path));
+            out.closeEntry();
+        }
+        return file;
+    }
+
+    private static MetaModelIndex roundtrip(final MetaModelIndex index) throws Exception {
+        final StringWriter writer = new StringWriter();
+        index.writeTo(writer);
+        return MetaModelIndex.readFrom(new StringReader(writer.toString()));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.apache.isis.applib.filter.Filters;
+import org.apache.isis.core.metamodel.spec.ActionType;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.metamodel.spec.feature.OneToManyAssociation;
+import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * The member lists are looked up from precomputed tables, but callers may (and do) modify the returned lists.
+ */
+public class ObjectReflectorDefaultTest_memberLists extends ObjectReflectorDefaultTestAbstract {
+
+    public static class TestDomainObject {
+
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        private List<TestDomainObject> children;
+
+        public List<TestDomainObject> getChildren() {
+            return children;
+        }
+
+        public void setChildren(final List<TestDomainObject> children) {
+            this.children = children;
+        }
+
+        public void doSomething() {
+        }
+    }
+
+    @Override
+    protected ObjectSpecification loadSpecification(final ObjectReflectorDefault reflector) {
+        return reflector.loadSpecification(TestDomainObject.class);
+    }
+
+    @Test
+    public void objectActionsCanBeModified() throws Exception {
+        final List<ObjectAction> actions = specification.getObjectActions(Contributed.EXCLUDED);
+        final int size = actions.size();
+
+        actions.addAll(specification.getObjectActions(ActionType.USER, Contributed.EXCLUDED, Filters.<ObjectAction>any()));
+        actions.clear();
+
+        assertThat(specification.getObjectActions(Contributed.EXCLUDED).size(), is(size));
+    }
+
+    @Test
+    public void objectActionsAreANewListEachTime() throws Exception {
+        assertThat(specification.getObjectActions(Contributed.EXCLUDED),
+                is(not(sameInstance(specification.getObjectActions(Contributed.EXCLUDED)))));
+    }
+
+    @Test
+    public void associationsCanBeModified() throws Exception {
+        final List<ObjectAssociation> associations = specification.getAssociations(Contributed.EXCLUDED);
+        assertThat(associations.size(), is(2));
+
+        associations.clear();
+
+        assertThat(specification.getAssociations(Contributed.EXCLUDED).size(), is(2));
+    }
+
+    @Test
+    public void filteredAssociationsCanBeModified() throws Exception {
+        final List<ObjectAssociation> all = specification.getAssociations(Contributed.EXCLUDED, Filters.<ObjectAssociation>any());
+        final List<ObjectAssociation> properties = specification.getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES);
+        final List<ObjectAssociation> collections = specification.getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.COLLECTIONS);
+
+        all.clear();
+        properties.add(collections.get(0));
+        collections.remove(0);
+
+        assertThat(specification.getAssociations(Contributed.EXCLUDED, Filters.<ObjectAssociation>any()).size(), is(2));
+        assertThat(specification.getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES).size(), is(1));
+        assertThat(specification.getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.COLLECTIONS).size(), is(1));
+    }
+
+    @Test
+    public void propertiesAndCollectionsCanBeModified() throws Exception {
+        final List<OneToOneAssociation> properties = specification.getProperties(Contributed.EXCLUDED);
+        final List<OneToManyAssociation> collections = specification.getCollections(Contributed.EXCLUDED);
+
+        properties.clear();
+        collections.clear();
+
+        assertThat(specification.getProperties(Contributed.EXCLUDED).size(), is(1));
+        assertThat(specification.getCollections(Contributed.EXCLUDED).size(), is(1));
+    }
+
+}
@@ -0,0 +1,239 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.specloader;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.facetdecorator.FacetDecorator;
+import org.apache.isis.core.metamodel.layoutmetadata.LayoutMetadataReader;
+import org.apache.isis.core.metamodel.layoutmetadata.json.LayoutMetadataReaderFromJson;
+import org.apache.isis.core.metamodel.metamodelvalidator.dflt.MetaModelValidatorDefault;
+import org.apache.isis.core.metamodel.runtimecontext.noruntime.RuntimeContextNoRuntime;
+import org.apache.isis.core.metamodel.services.ServicesInjectorDefault;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.unittestsupport.jmocking.InjectIntoJMockAction;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Introspecting concurrently (services that share, and whose types mutually reference, the same types) must
+ * result in the same metamodel as introspecting sequentially.
+ */
+public class ObjectReflectorDefaultTest_parallel {
+
+    private static final int ITERATIONS = 20;
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_ONLY);
+
+    @Mock
+    private IsisConfiguration mockSequentialConfiguration;
+    @Mock
+    private IsisConfiguration mockParallelConfiguration;
+
+    public static class Customer {
+        private List<Order> orders;
+        public List<Order> getOrders() {
+            return orders;
+        }
+        public void setOrders(final List<Order> orders) {
+            this.orders = orders;
+        }
+        private Address address;
+        public Address getAddress() {
+            return address;
+        }
+        public void setAddress(final Address address) {
+            this.address = address;
+        }
+        public Order placeOrder(final Product product) {
+            return null;
+        }
+    }
+
+    public static class Order {
+        private Customer customer;
+        public Customer getCustomer() {
+            return customer;
+        }
+        public void setCustomer(final Customer customer) {
+            this.customer = customer;
+        }
+        private List<OrderLine> lines;
+        public List<OrderLine> getLines() {
+            return lines;
+        }
+        public void setLines(final List<OrderLine> lines) {
+            this.lines = lines;
+        }
+    }
+
+    public static class OrderLine {
+        private Order order;
+        public Order getOrder() {
+            return order;
+        }
+        public void setOrder(final Order order) {
+            this.order = order;
+        }
+        private Product product;
+        public Product getProduct() {
+            return product;
+        }
+        public void setProduct(final Product product) {
+            this.product = product;
+        }
+    }
+
+    public static class Product {
+        private String name;
+        public String getName() {
+            return name;
+        }
+        public void setName(final String name) {
+            this.name = name;
+        }
+        public List<OrderLine> findOrderLines() {
+            return null;
+        }
+    }
+
+    public static class Address {
+        private Customer customer;
+        public Customer getCustomer() {
+            return customer;
+        }
+        public void setCustomer(final Customer customer) {
+            this.customer = customer;
+        }
+    }
+
+    public static class Customers {
+        public Customer findCustomer(final String name) {
+            return null;
+        }
+        public Order findOrder(final Customer customer) {
+            return null;
+        }
+    }
+
+    public static class Orders {
+        public Order findOrder(final OrderLine orderLine) {
+            return null;
+        }
+        public Product findProduct(final String name) {
+            return null;
+        }
+    }
+
+    public static class Products {
+        public Product findProduct(final String name) {
+            return null;
+        }
+        public Address findAddress(final Customer customer) {
+            return null;
+        }
+    }
+
+    public static class Addresses {
+        public Address findAddress(final OrderLine orderLine) {
+            return null;
+        }
+    }
+
+    @Test
+    public void sameMetamodelAsWhenIntrospectedSequentially() throws Exception {
+        allowingParallelism(mockSequentialConfiguration, 1);
+        allowingParallelism(mockParallelConfiguration, 4);
+
+        final SortedMap<String, SortedSet<String>> sequential = describe(newReflector(mockSequentialConfiguration));
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertThat(describe(newReflector(mockParallelConfiguration)), is(sequential));
+        }
+    }
+
+    private void allowingParallelism(final IsisConfiguration mockConfiguration, final int parallelism) {
+        context.checking(new Expectations() {
+            {
+                allowing(mockConfiguration).getInteger(ObjectReflectorDefault.INTROSPECTION_PARALLELISM_KEY, ObjectReflectorDefault.INTROSPECTION_PARALLELISM_DEFAULT);
+                will(returnValue(parallelism));
+
+                allowing(mockConfiguration).injectInto(with(anything()));
+                will(InjectIntoJMockAction.injectInto());
+
+                ignoring(mockConfiguration);
+            }
+        });
+    }
+
+    private ObjectReflectorDefault newReflector(final IsisConfiguration mockConfiguration) {
+        final ObjectReflectorDefault reflector =
+                new ObjectReflectorDefault(
+                        mockConfiguration,
+                        new ProgrammingModelFacetsJava5(),
+                        new HashSet<FacetDecorator>(),
+                        new MetaModelValidatorDefault(),
+                        Lists.<LayoutMetadataReader>newArrayList(new LayoutMetadataReaderFromJson()));
+        reflector.setRuntimeContext(new RuntimeContextNoRuntime());
+        reflector.setServiceInjector(new ServicesInjectorDefault().withServices(Collections.<Object>unmodifiableList(
+                Lists.<Object>newArrayList(new Customers(), new Orders(), new Products(), new Addresses()))));
+        reflector.init();
+        return reflector;
+    }
+
+    /**
+     * The members of each specification, by specification.
+     */
+    private static SortedMap<String, SortedSet<String>> describe(final ObjectReflectorDefault reflector) {
+        final SortedMap<String, SortedSet<String>> membersBySpec = Maps.newTreeMap();
+        for (final ObjectSpecification spec : reflector.allSpecifications()) {
+            final SortedSet<String> members = Sets.newTreeSet();
+            for (final ObjectAssociation association : spec.getAssociations(Contributed.INCLUDED)) {
+                members.add(association.getId() + ":" + association.getSpecification().getFullIdentifier());
+            }
+            for (final ObjectAction action : spec.getObjectActions(Contributed.INCLUDED)) {
+                members.add(action.getIdentifier().toNameParmsIdentityString());
+            }
+            membersBySpec.put(spec.getFullIdentifier(), members);
+        }
+        return membersBySpec;
+    }
+}
@@ -19,12 +19,17 @@
 package org.apache.isis.core.metamodel.specloader;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.google.common.collect.Maps;
 
@@ -106,4 +111,117 @@ public void getByObjectType_whenSet() {
         assertSame(objectSpec, customerSpec);
     }
 
+    @Test
+    public void getIfLoaded_whenStillBeingIntrospected() {
+        final String customerClassName = Customer.class.getName();
+        final SpecificationCacheDefault.Introspection introspection = new SpecificationCacheDefault.Introspection();
+        assertNull(specificationCache.claimIntrospection(customerClassName, introspection));
+        specificationCache.cache(customerClassName, customerSpec);
+
+        assertSame(specificationCache.get(customerClassName), customerSpec);
+        assertNull(specificationCache.getIfLoaded(customerClassName));
+
+        specificationCache.completeIntrospection(customerClassName, introspection);
+
+        assertSame(specificationCache.getIfLoaded(customerClassName), customerSpec);
+    }
+
+    @Test
+    public void claimIntrospection_whenAlreadyClaimed() {
+        final String customerClassName = Customer.class.getName();
+        final SpecificationCacheDefault.Introspection introspection = new SpecificationCacheDefault.Introspection();
+        specificationCache.claimIntrospection(customerClassName, introspection);
+
+        final SpecificationCacheDefault.Introspection inProgress =
+                specificationCache.claimIntrospection(customerClassName, new SpecificationCacheDefault.Introspection());
+
+        assertSame(inProgress, introspection);
+        assertTrue(inProgress.isOwnedByCurrentThread());
+    }
+
+    @Test
+    public void awaitIntrospection_whenOwnedByCurrentThreadWouldDeadlock() {
+        final SpecificationCacheDefault.Introspection introspection = new SpecificationCacheDefault.Introspection();
+        specificationCache.claimIntrospection(Customer.class.getName(), introspection);
+
+        assertFalse(specificationCache.awaitIntrospection(introspection));
+    }
+
+    @Test
+    public void awaitIntrospection_whenOwnedByAnotherThread() throws Exception {
+        final String customerClassName = Customer.class.getName();
+        final SpecificationCacheDefault.Introspection introspection = new SpecificationCacheDefault.Introspection();
+        specificationCache.claimIntrospection(customerClassName, introspection);
+        specificationCache.cache(customerClassName, customerSpec);
+
+        final SpecificationCacheDefault.Introspection inProgress =
+                specificationCache.claimIntrospection(customerClassName, new SpecificationCacheDefault.Introspection());
+
+        final AtomicBoolean awaited = new AtomicBoolean();
+        final Thread waitingThread = new Thread() {
+            @Override
+            public void run() {
+                awaited.set(specificationCache.awaitIntrospection(inProgress));
+            }
+        };
+        waitingThread.start();
+        specificationCache.completeIntrospection(customerClassName, introspection);
+        waitingThread.join(5000);
+
+        assertTrue(awaited.get());
+        assertSame(specificationCache.getIfLoaded(customerClassName), customerSpec);
+    }
+
+    @Test
+    public void awaitIntrospection_whenCycleAcrossThreadsWouldDeadlock() throws Exception {
+        final String customerClassName = Customer.class.getName();
+        final String orderClassName = Order.class.getName();
+
+        // the current thread introspects Customer...
+        final SpecificationCacheDefault.Introspection customerIntrospection = new SpecificationCacheDefault.Introspection();
+        assertNull(specificationCache.claimIntrospection(customerClassName, customerIntrospection));
+
+        // ... while another thread introspects Order, and (before completing) requires Customer
+        final CountDownLatch orderClaimed = new CountDownLatch(1);
+        final CountDownLatch customerCompleted = new CountDownLatch(1);
+        final AtomicBoolean awaitedCustomer = new AtomicBoolean();
+        final Thread orderThread = new Thread() {
+            @Override
+            public void run() {
+                final SpecificationCacheDefault.Introspection orderIntrospection = new SpecificationCacheDefault.Introspection();
+                specificationCache.claimIntrospection(orderClassName, orderIntrospection);
+                orderClaimed.countDown();
+                try {
+                    awaitedCustomer.set(specificationCache.awaitIntrospection(customerIntrospection));
+                    customerCompleted.countDown();
+                } finally {
+                    specificationCache.completeIntrospection(orderClassName, orderIntrospection);
+                }
+            }
+        };
+        orderThread.start();
+        assertTrue(orderClaimed.await(5, TimeUnit.SECONDS));
+        awaitUntilWaiting(orderThread);
+
+        // the current thread now requires Order, which would deadlock
+        final SpecificationCacheDefault.Introspection orderInProgress =
+                specificationCache.claimIntrospection(orderClassName, new SpecificationCacheDefault.Introspection());
+        assertThat(orderInProgress.isOwnedByCurrentThread(), is(false));
+        assertFalse(specificationCache.awaitIntrospection(orderInProgress));
+
+        // whereas the other thread does go on to wait for, and be released by, the completion of Customer
+        specificationCache.completeIntrospection(customerClassName, customerIntrospection);
+        assertTrue(customerCompleted.await(5, TimeUnit.SECONDS));
+        orderThread.join(5000);
+        assertTrue(awaitedCustomer.get());
+    }
+
+    private static void awaitUntilWaiting(final Thread thread) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(thread.getState(), is(Thread.State.WAITING));
+    }
+
 }
@@ -0,0 +1,102 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.specloader.classsubstitutor;
+
+import java.io.Serializable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ProxyClassCacheTest {
+
+    public static class Customer {
+    }
+
+    public static class CustomerProxy extends Customer {
+    }
+
+    private static class CountingFactory implements ProxyClassCache.ProxyClassFactory {
+        int invocations;
+        @Override
+        public Class<?> createProxyClass(final Class<?> superclass, final Class<?>[] interfaces) {
+            invocations++;
+            return CustomerProxy.class;
+        }
+    }
+
+    private ProxyClassCache cache;
+    private CountingFactory factory;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new ProxyClassCache();
+        factory = new CountingFactory();
+    }
+
+    @Test
+    public void generatesOnlyOnce() throws Exception {
+        final Class<?> first = cache.proxyClassFor("test", Customer.class, new Class<?>[0], factory);
+        final Class<?> second = cache.proxyClassFor("test", Customer.class, new Class<?>[0], factory);
+
+        assertThat(second, is(sameInstance((Object) first)));
+        assertThat(factory.invocations, is(1));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getGeneratedClassCount(), is(1L));
+        assertThat(cache.getHitRate(), is(0.5));
+    }
+
+    @Test
+    public void keyedByProxyTypeAndInterfaces() throws Exception {
+        cache.proxyClassFor("test", Customer.class, new Class<?>[0], factory);
+        cache.proxyClassFor("other", Customer.class, new Class<?>[0], factory);
+        cache.proxyClassFor("test", Customer.class, new Class<?>[] { Serializable.class }, factory);
+
+        assertThat(factory.invocations, is(3));
+        assertThat(cache.getHitCount(), is(0L));
+    }
+
+    @Test
+    public void classesOfBootstrapClassLoader() throws Exception {
+        cache.proxyClassFor("test", Object.class, new Class<?>[0], factory);
+        cache.proxyClassFor("test", Object.class, new Class<?>[0], factory);
+
+        assertThat(factory.invocations, is(1));
+    }
+
+    @Test
+    public void clear() throws Exception {
+        cache.proxyClassFor("test", Customer.class, new Class<?>[0], factory);
+        cache.clear();
+        cache.proxyClassFor("test", Customer.class, new Class<?>[0], factory);
+
+        assertThat(factory.invocations, is(2));
+        assertThat(cache.getGeneratedClassCount(), is(1L));
+    }
+
+    @Test
+    public void hitRateWhenNoLookups() throws Exception {
+        assertThat(cache.getHitRate(), is(0.0));
+    }
+}
@@ -133,6 +133,11 @@ public boolean hasAutoComplete() {
             public ObjectAdapter[] getAutoComplete(ObjectAdapter object, String searchArg) {
                 return null;
             }
+
+            @Override
+            public ObjectAdapter[] getAutoComplete(ObjectAdapter object, String searchArg, long start, long count) {
+                return null;
+            }
             @Override
             public int getAutoCompleteMinLength() {
                 return 0;
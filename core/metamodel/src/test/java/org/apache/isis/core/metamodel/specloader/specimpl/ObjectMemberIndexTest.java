@@ -0,0 +1,175 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.specloader.specimpl;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.core.metamodel.spec.ActionType;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.metamodel.spec.feature.OneToManyAssociation;
+import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ObjectMemberIndexTest {
+
+    public interface ContributeeProperty extends OneToOneAssociation, ContributeeMember {
+    }
+
+    public interface ContributeeAction extends ObjectAction, ContributeeMember {
+    }
+
+    public static class Customer {
+        public void placeOrder(final String product) {}
+        public void placeOrder(final String product, final int quantity) {}
+        public void debugDump() {}
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private OneToOneAssociation mockFirstName;
+    @Mock
+    private OneToManyAssociation mockOrders;
+    @Mock
+    private ContributeeProperty mockContributedLastOrder;
+
+    @Mock
+    private ObjectAction mockPlaceOrder;
+    @Mock
+    private ObjectAction mockPlaceOrderWithQuantity;
+    @Mock
+    private ObjectAction mockDebugDump;
+    @Mock
+    private ContributeeAction mockContributedCancel;
+
+    private ObjectMemberIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockFirstName).getId();
+            will(returnValue("firstName"));
+            allowing(mockOrders).getId();
+            will(returnValue("orders"));
+            allowing(mockContributedLastOrder).getId();
+            will(returnValue("lastOrder"));
+
+            allowing(mockPlaceOrder).getType();
+            will(returnValue(ActionType.USER));
+            allowing(mockPlaceOrder).getIdentifier();
+            will(returnValue(Identifier.actionIdentifier(Customer.class, "placeOrder", String.class)));
+
+            allowing(mockPlaceOrderWithQuantity).getType();
+            will(returnValue(ActionType.USER));
+            allowing(mockPlaceOrderWithQuantity).getIdentifier();
+            will(returnValue(Identifier.actionIdentifier(Customer.class, "placeOrder", String.class, int.class)));
+
+            allowing(mockDebugDump).getType();
+            will(returnValue(ActionType.DEBUG));
+            allowing(mockDebugDump).getIdentifier();
+            will(returnValue(Identifier.actionIdentifier(Customer.class, "debugDump")));
+
+            allowing(mockContributedCancel).getType();
+            will(returnValue(ActionType.USER));
+            allowing(mockContributedCancel).getIdentifier();
+            will(returnValue(Identifier.actionIdentifier(Customer.class, "cancel")));
+        }});
+
+        index = new ObjectMemberIndex(
+                Arrays.<ObjectAssociation>asList(mockFirstName, mockOrders, mockContributedLastOrder),
+                Arrays.<ObjectAction>asList(mockPlaceOrder, mockDebugDump, mockPlaceOrderWithQuantity, mockContributedCancel));
+    }
+
+    @Test
+    public void associationsByContributed() throws Exception {
+        assertThat(index.getAssociations(Contributed.INCLUDED),
+                is(Arrays.<ObjectAssociation>asList(mockFirstName, mockOrders, mockContributedLastOrder)));
+        assertThat(index.getAssociations(Contributed.EXCLUDED),
+                is(Arrays.<ObjectAssociation>asList(mockFirstName, mockOrders)));
+    }
+
+    @Test
+    public void propertiesAndCollectionsByContributed() throws Exception {
+        assertThat(index.getProperties(Contributed.INCLUDED),
+                is(Arrays.<OneToOneAssociation>asList(mockFirstName, mockContributedLastOrder)));
+        assertThat(index.getProperties(Contributed.EXCLUDED),
+                is(Arrays.<OneToOneAssociation>asList(mockFirstName)));
+        assertThat(index.getCollections(Contributed.INCLUDED),
+                is(Arrays.<OneToManyAssociation>asList(mockOrders)));
+    }
+
+    @Test
+    public void associationById() throws Exception {
+        assertThat(index.getAssociation("orders"), is(sameInstance((ObjectAssociation) mockOrders)));
+        assertThat(index.getAssociation("lastOrder"), is(sameInstance((ObjectAssociation) mockContributedLastOrder)));
+        assertThat(index.getAssociation("nonExistent"), is(nullValue()));
+    }
+
+    @Test
+    public void actionsByTypeAndContributed() throws Exception {
+        assertThat(index.getActions(ActionType.USER, Contributed.INCLUDED),
+                is(Arrays.<ObjectAction>asList(mockPlaceOrder, mockPlaceOrderWithQuantity, mockContributedCancel)));
+        assertThat(index.getActions(ActionType.USER, Contributed.EXCLUDED),
+                is(Arrays.<ObjectAction>asList(mockPlaceOrder, mockPlaceOrderWithQuantity)));
+        assertThat(index.getActions(ActionType.PROTOTYPE, Contributed.INCLUDED),
+                is(Collections.<ObjectAction>emptyList()));
+    }
+
+    @Test
+    public void allActionsAreGroupedByType() throws Exception {
+        assertThat(index.getActions(ActionType.ALL, Contributed.EXCLUDED),
+                is(Arrays.<ObjectAction>asList(mockDebugDump, mockPlaceOrder, mockPlaceOrderWithQuantity)));
+    }
+
+    @Test
+    public void actionById() throws Exception {
+        assertThat(index.getAction("placeOrder(java.lang.String,int)"), is(sameInstance(mockPlaceOrderWithQuantity)));
+        // first action with matching name wins
+        assertThat(index.getAction("placeOrder"), is(sameInstance(mockPlaceOrder)));
+        assertThat(index.getAction(ActionType.DEBUG, "debugDump"), is(sameInstance(mockDebugDump)));
+        assertThat(index.getAction(ActionType.USER, "debugDump"), is(nullValue()));
+        assertThat(index.getAction("cancel"), is(sameInstance((ObjectAction) mockContributedCancel)));
+    }
+
+    @Test
+    public void withAssociationsRetainsActions() throws Exception {
+        final ObjectMemberIndex updated = index.withAssociations(Collections.<ObjectAssociation>emptyList());
+        assertThat(updated.getAssociations(Contributed.INCLUDED).isEmpty(), is(true));
+        assertThat(updated.getAction("debugDump"), is(sameInstance(mockDebugDump)));
+    }
+
+}
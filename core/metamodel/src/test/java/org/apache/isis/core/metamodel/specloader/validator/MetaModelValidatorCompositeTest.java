@@ -0,0 +1,118 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.specloader.validator;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.Lists;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class MetaModelValidatorCompositeTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ExecutorService executorService;
+    private MetaModelValidatorComposite composite;
+
+    private static class ReportingValidator extends MetaModelValidatorAbstract {
+        private final long delayMillis;
+        private final String[] messages;
+
+        ReportingValidator(final long delayMillis, final String... messages) {
+            this.delayMillis = delayMillis;
+            this.messages = messages;
+        }
+
+        @Override
+        public void validate(final ValidationFailures validationFailures) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (final String message : messages) {
+                validationFailures.add(message);
+            }
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        executorService = Executors.newFixedThreadPool(3);
+        composite = new MetaModelValidatorComposite();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdown();
+    }
+
+    @Test
+    public void failuresAreInTheOrderTheValidatorsWereAdded() throws Exception {
+        composite.add(new ReportingValidator(100, "first", "second"));
+        composite.add(new ReportingValidator(0));
+        composite.add(new ReportingValidator(0, "third"));
+
+        final ValidationFailures validationFailures = new ValidationFailures();
+        composite.validate(validationFailures, executorService);
+
+        assertThat(Lists.newArrayList(validationFailures.getMessages()), is(Arrays.asList("first", "second", "third")));
+    }
+
+    @Test
+    public void sameFailuresAsWhenValidatedSequentially() throws Exception {
+        composite.add(new ReportingValidator(10, "duplicate", "first"));
+        composite.add(new ReportingValidator(0, "duplicate", "second"));
+
+        final ValidationFailures sequentialFailures = new ValidationFailures();
+        composite.validate(sequentialFailures);
+        final ValidationFailures parallelFailures = new ValidationFailures();
+        composite.validate(parallelFailures, executorService);
+
+        assertThat(parallelFailures.getMessages(), is(sequentialFailures.getMessages()));
+        assertThat(parallelFailures.getNumberOfMessages(), is(3));
+    }
+
+    @Test
+    public void exceptionFromValidatorIsPropagated() throws Exception {
+        composite.add(new MetaModelValidatorAbstract() {
+            @Override
+            public void validate(final ValidationFailures validationFailures) {
+                throw new IllegalStateException("validator failed");
+            }
+        });
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("validator failed");
+
+        composite.validate(new ValidationFailures(), executorService);
+    }
+}
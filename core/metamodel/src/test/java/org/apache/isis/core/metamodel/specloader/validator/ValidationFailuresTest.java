@@ -0,0 +1,123 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.specloader.validator;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.Lists;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ValidationFailuresTest {
+
+    private static final int THREADS = 8;
+    private static final int MESSAGES_PER_THREAD = 2000;
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() throws Exception {
+        executorService = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdown();
+    }
+
+    @Test
+    public void concurrentlyAddedMessagesAreAllRetained() throws Exception {
+        final ValidationFailures validationFailures = new ValidationFailures();
+        final CountDownLatch startTogether = new CountDownLatch(1);
+        final List<Future<Void>> futures = Lists.newArrayList();
+        for (int i = 0; i < THREADS; i++) {
+            final int thread = i;
+            futures.add(executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    startTogether.await();
+                    for (int j = 0; j < MESSAGES_PER_THREAD; j++) {
+                        validationFailures.add("thread %d, message %d", thread, j);
+                        // concurrent reads must not fail either
+                        validationFailures.getNumberOfMessages();
+                    }
+                    return null;
+                }
+            }));
+        }
+        startTogether.countDown();
+        for (final Future<Void> future : futures) {
+            future.get();
+        }
+
+        assertThat(validationFailures.getNumberOfMessages(), is(THREADS * MESSAGES_PER_THREAD));
+    }
+
+    @Test
+    public void messagesAreASnapshot() throws Exception {
+        final ValidationFailures validationFailures = new ValidationFailures();
+        validationFailures.add("first");
+        final int before = validationFailures.getMessages().size();
+
+        validationFailures.add("second");
+
+        assertThat(before, is(1));
+        assertThat(validationFailures.getMessages().size(), is(2));
+    }
+
+    @Test
+    public void addAllInBothDirectionsConcurrentlyDoesNotDeadlock() throws Exception {
+        final ValidationFailures first = new ValidationFailures();
+        final ValidationFailures second = new ValidationFailures();
+        first.add("first");
+        second.add("second");
+
+        final List<Future<Void>> futures = Lists.newArrayList();
+        for (int i = 0; i < THREADS; i++) {
+            final ValidationFailures from = i % 2 == 0 ? first : second;
+            final ValidationFailures to = i % 2 == 0 ? second : first;
+            futures.add(executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int j = 0; j < MESSAGES_PER_THREAD; j++) {
+                        to.addAll(from);
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (final Future<Void> future : futures) {
+            future.get();
+        }
+
+        assertThat(first.getNumberOfMessages(), is(2));
+        assertThat(second.getNumberOfMessages(), is(2));
+    }
+}
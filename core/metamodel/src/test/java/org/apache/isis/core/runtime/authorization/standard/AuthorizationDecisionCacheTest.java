@@ -0,0 +1,103 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.authorization.standard;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.core.runtime.authentication.standard.SimpleSession;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class AuthorizationDecisionCacheTest {
+
+    public static class Customer {
+    }
+
+    private SimpleSession session;
+    private AuthorizationDecisionCache cache;
+
+    private final Identifier firstName = Identifier.propertyOrCollectionIdentifier(Customer.class, "firstName");
+    private final Identifier lastName = Identifier.propertyOrCollectionIdentifier(Customer.class, "lastName");
+
+    @Before
+    public void setUp() throws Exception {
+        session = new SimpleSession("joe", Arrays.asList("clerk"));
+        cache = AuthorizationDecisionCache.of(session);
+    }
+
+    @Test
+    public void heldBySession() throws Exception {
+        assertThat(AuthorizationDecisionCache.of(session), is(sameInstance(cache)));
+    }
+
+    @Test
+    public void cachedByIdentifier() throws Exception {
+        assertThat(cache.getVisible(firstName, session.getRoles()), is(nullValue()));
+
+        cache.putVisible(firstName, session.getRoles(), false);
+        cache.putUsable(firstName, session.getRoles(), true);
+
+        assertThat(cache.getVisible(firstName, session.getRoles()), is(false));
+        assertThat(cache.getUsable(firstName, session.getRoles()), is(true));
+        assertThat(cache.getVisible(lastName, session.getRoles()), is(nullValue()));
+        assertThat(cache.getHitCount(), is(2L));
+        assertThat(cache.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void discardedWhenRolesChange() throws Exception {
+        cache.putVisible(firstName, session.getRoles(), true);
+
+        assertThat(cache.getVisible(firstName, Arrays.asList("clerk", "manager")), is(nullValue()));
+    }
+
+    @Test
+    public void invalidate() throws Exception {
+        cache.putVisible(firstName, session.getRoles(), true);
+
+        AuthorizationDecisionCache.invalidate(session);
+
+        assertThat(cache.getVisible(firstName, session.getRoles()), is(nullValue()));
+    }
+
+    @Test
+    public void invalidateAll() throws Exception {
+        cache.putVisible(firstName, session.getRoles(), true);
+
+        AuthorizationDecisionCache.invalidateAll();
+
+        assertThat(cache.getVisible(firstName, session.getRoles()), is(nullValue()));
+    }
+
+    @Test
+    public void whenNoRoles() throws Exception {
+        cache.putUsable(firstName, Collections.<String>emptyList(), false);
+
+        assertThat(cache.getUsable(firstName, Collections.<String>emptyList()), is(false));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.metamodel.facets.prop.index;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import javax.jdo.annotations.Index;
+import javax.jdo.annotations.Unique;
+
+import org.apache.isis.core.metamodel.facetapi.Facet;
+import org.apache.isis.core.metamodel.facetapi.FeatureType;
+import org.apache.isis.core.metamodel.facets.AbstractFacetFactoryTest;
+import org.apache.isis.core.metamodel.facets.FacetFactory;
+
+public class GivenJdoIndexAnnotationFacetFactoryTest extends AbstractFacetFactoryTest {
+
+    private JdoIndexAnnotationFacetFactory facetFactory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        facetFactory = new JdoIndexAnnotationFacetFactory();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        facetFactory = null;
+        super.tearDown();
+    }
+
+    public void testFeatureTypes() {
+        final List<FeatureType> featureTypes = facetFactory.getFeatureTypes();
+        assertFalse(contains(featureTypes, FeatureType.OBJECT));
+        assertTrue(contains(featureTypes, FeatureType.PROPERTY));
+        assertFalse(contains(featureTypes, FeatureType.COLLECTION));
+        assertFalse(contains(featureTypes, FeatureType.ACTION));
+        assertFalse(contains(featureTypes, FeatureType.ACTION_PARAMETER));
+    }
+
+    public void testIndexAnnotationPickedUpOnProperty() throws Exception {
+        class Customer {
+            @SuppressWarnings("unused")
+            @Index
+            public String getLastName() {
+                return null;
+            }
+        }
+        final Class<?> cls = Customer.class;
+        final Method method = cls.getMethod("getLastName");
+        facetFactory.process(new FacetFactory.ProcessMethodContext(cls, null, null, method, methodRemover, facetedMethod));
+
+        final Facet facet = facetedMethod.getFacet(JdoIndexFacet.class);
+        assertNotNull(facet);
+        assertTrue(facet instanceof JdoIndexFacetAnnotation);
+    }
+
+    public void testUniqueAnnotationPickedUpOnProperty() throws Exception {
+        class Customer {
+            @SuppressWarnings("unused")
+            @Unique
+            public String getReference() {
+                return null;
+            }
+        }
+        final Class<?> cls = Customer.class;
+        final Method method = cls.getMethod("getReference");
+        facetFactory.process(new FacetFactory.ProcessMethodContext(cls, null, null, method, methodRemover, facetedMethod));
+
+        assertNotNull(facetedMethod.getFacet(JdoIndexFacet.class));
+    }
+
+    public void testIfNoAnnotationThenNoFacet() throws Exception {
+        class Customer {
+            @SuppressWarnings("unused")
+            public String getLastName() {
+                return null;
+            }
+        }
+        final Class<?> cls = Customer.class;
+        final Method method = cls.getMethod("getLastName");
+        facetFactory.process(new FacetFactory.ProcessMethodContext(cls, null, null, method, methodRemover, facetedMethod));
+
+        assertNull(facetedMethod.getFacet(JdoIndexFacet.class));
+        assertNoMethodsRemoved();
+    }
+}
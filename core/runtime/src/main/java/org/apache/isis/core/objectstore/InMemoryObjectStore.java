@@ -248,6 +248,18 @@ public ObjectAdapter loadInstanceAndAdapt(final TypedOid oid) throws ObjectNotFo
         return adapter;
     }
 
+    /**
+     * The objects are already in memory, so are simply retrieved one at a time.
+     */
+    @Override
+    public List<ObjectAdapter> loadInstancesAndAdapt(final List<TypedOid> oids) throws ObjectNotFoundException, ObjectPersistenceException {
+        final List<ObjectAdapter> adapters = Lists.newArrayListWithCapacity(oids.size());
+        for (final TypedOid oid : oids) {
+            adapters.add(loadInstanceAndAdapt(oid));
+        }
+        return adapters;
+    }
+
     @Override
     public void resolveImmediately(final ObjectAdapter adapter) throws ObjectPersistenceException {
 
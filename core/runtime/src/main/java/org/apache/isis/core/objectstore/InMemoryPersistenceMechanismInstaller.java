@@ -20,18 +20,39 @@
 package org.apache.isis.core.objectstore;
 
 import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.progmodel.ProgrammingModel;
 import org.apache.isis.core.runtime.installerregistry.installerapi.PersistenceMechanismInstallerAbstract;
 import org.apache.isis.core.runtime.system.DeploymentType;
 import org.apache.isis.core.runtime.system.persistence.ObjectStore;
 import org.apache.isis.core.runtime.system.persistence.PersistenceSessionFactory;
+import org.apache.isis.objectstore.jdo.metamodel.facets.prop.index.JdoIndexAnnotationFacetFactory;
 
 /**
  * Installs the in-memory object store.
+ *
+ * <p>
+ * By default every find by title or by pattern scans (and adapts) all instances of the
+ * specification.  The store can instead maintain secondary indexes, configured using:
+ * <ul>
+ * <li>{@value #INDEX_TITLES_KEY} (default {@value #INDEX_TITLES_DEFAULT}); indexes the title of each
+ * object as it is saved.  Only those objects whose indexed title matches are considered by a find by
+ * title, so an object whose title has since changed without being saved (eg because derived from another
+ * object) may be missed.</li>
+ * <li>{@value #INDEX_PROPERTIES_KEY} (default {@value #INDEX_PROPERTIES_DEFAULT}); indexes the value
+ * properties annotated with JDO's <tt>@Index</tt> or <tt>@Unique</tt> as each object is saved; a find by
+pattern specifying any of these properties only considers those objects with the same value.</li>
+ * </ul>
  */
 public class InMemoryPersistenceMechanismInstaller extends PersistenceMechanismInstallerAbstract {
 
     public static final String NAME = "in-memory";
 
+    public static final String INDEX_TITLES_KEY = "isis.persistor.in-memory.index.titles";
+    public static final boolean INDEX_TITLES_DEFAULT = false;
+
+    public static final String INDEX_PROPERTIES_KEY = "isis.persistor.in-memory.index.properties";
+    public static final boolean INDEX_PROPERTIES_DEFAULT = false;
+
     public InMemoryPersistenceMechanismInstaller() {
         super(NAME);
     }
@@ -58,8 +79,13 @@ public ObjectStore createObjectStore(
         return new InMemoryObjectStore();
     }
 
-    
-
+    /**
+     * Recognizes the properties to be indexed if {@value #INDEX_PROPERTIES_KEY} is set.
+     */
+    @Override
+    public void refineProgrammingModel(final ProgrammingModel programmingModel, final IsisConfiguration configuration) {
+        programmingModel.addFactory(JdoIndexAnnotationFacetFactory.class);
+    }
 
 }
 
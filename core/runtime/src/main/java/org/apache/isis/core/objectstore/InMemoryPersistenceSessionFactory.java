@@ -62,7 +62,14 @@ public PersistenceSession createPersistenceSession() {
      * {@link InMemoryObjectStore#open() open}ed.
      */
     public ObjectStorePersistedObjects createPersistedObjects() {
-        return new ObjectStorePersistedObjects();
+        final IsisConfiguration configuration = getConfiguration();
+        final boolean indexTitles = configuration.getBoolean(
+                InMemoryPersistenceMechanismInstaller.INDEX_TITLES_KEY,
+                InMemoryPersistenceMechanismInstaller.INDEX_TITLES_DEFAULT);
+        final boolean indexProperties = configuration.getBoolean(
+                InMemoryPersistenceMechanismInstaller.INDEX_PROPERTIES_KEY,
+                InMemoryPersistenceMechanismInstaller.INDEX_PROPERTIES_DEFAULT);
+        return new ObjectStorePersistedObjects(indexTitles, indexProperties);
     }
 
     /**
@@ -19,13 +19,19 @@
 
 package org.apache.isis.core.objectstore.internal;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import org.apache.isis.applib.clock.Clock;
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
@@ -37,20 +43,56 @@
 import org.apache.isis.core.metamodel.adapter.version.Version;
 import org.apache.isis.core.metamodel.spec.ObjectSpecId;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.objectstore.InMemoryObjectStore;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryBuiltIn;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByPattern;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByTitle;
 import org.apache.isis.core.runtime.system.context.IsisContext;
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.objectstore.jdo.metamodel.facets.prop.index.JdoIndexFacet;
 
 /*
  * The objects need to store in a repeatable sequence so the elements and instances method return the same data for any repeated
  * call, and so that one subset of instances follows on the previous. This is done by keeping the objects in the order that they
  * where created.
+ *
+ * The instances are shared by all sessions, so are guarded by a read/write lock; the adapters are only created (by each session's
+ * adapter manager) outside of the lock.  Optionally, the titles and the indexed properties of each object are indexed as it is
+ * saved, in which case a find by title or by pattern only considers (and adapts) those objects that the indexes say could match.
  */
 public class ObjectStoreInstances {
 
-    private final Map<Oid, Object> pojoByOidMap = new HashMap<Oid, Object>();
-    private final Map<Oid, Version> versionByOidMap = new HashMap<Oid, Version>();
+    private static class Instance {
+        private final Oid oid;
+        private final long sequence;
+        private Object pojo;
+        private Version version;
+        private String title;
+        private Map<String, Object> indexedValues = Collections.emptyMap();
+
+        private Instance(final Oid oid, final long sequence) {
+            this.oid = oid;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final Comparator<Instance> BY_SEQUENCE = new Comparator<Instance>() {
+        @Override
+        public int compare(final Instance o1, final Instance o2) {
+            return o1.sequence < o2.sequence ? -1 : (o1.sequence == o2.sequence ? 0 : 1);
+        }
+    };
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Oid, Instance> instanceByOidMap = Maps.newLinkedHashMap();
+    private final Map<String, Map<Object, Set<Instance>>> instancesByValueByPropertyId = Maps.newHashMap();
+    private long nextSequence;
+
+    private final boolean indexTitles;
+    private final boolean indexProperties;
+    private volatile List<ObjectAssociation> indexedProperties;
 
     @SuppressWarnings("unused")
     private final ObjectSpecId spec;
@@ -60,7 +102,17 @@ public class ObjectStoreInstances {
     // ///////////////////////////////////////////////////////
 
     public ObjectStoreInstances(final ObjectSpecId spec) {
+        this(spec, false, false);
+    }
+
+    /**
+     * @param indexTitles - whether to index the {@link ObjectAdapter#titleString() title} of each object when saved
+     * @param indexProperties - whether to index the value properties with a {@link JdoIndexFacet} when saved
+     */
+    public ObjectStoreInstances(final ObjectSpecId spec, final boolean indexTitles, final boolean indexProperties) {
         this.spec = spec;
+        this.indexTitles = indexTitles;
+        this.indexProperties = indexProperties;
     }
 
     // ///////////////////////////////////////////////////////
@@ -68,22 +120,54 @@ public ObjectStoreInstances(final ObjectSpecId spec) {
     // ///////////////////////////////////////////////////////
 
     /**
+     * A snapshot of the pojos, in the order that they were created.
+     *
+     * <p>
      * TODO: shouldn't really be exposing this directly.
      */
     public Map<Oid, Object> getObjectInstances() {
-        return pojoByOidMap;
+        lock.readLock().lock();
+        try {
+            final Map<Oid, Object> pojoByOid = Maps.newLinkedHashMap();
+            for (final Map.Entry<Oid, Instance> entry : instanceByOidMap.entrySet()) {
+                pojoByOid.put(entry.getKey(), entry.getValue().pojo);
+            }
+            return pojoByOid;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
+    /**
+     * A snapshot of the oids, in the order that their objects were created.
+     */
     public Set<Oid> getOids() {
-        return Collections.unmodifiableSet(pojoByOidMap.keySet());
+        lock.readLock().lock();
+        try {
+            return Collections.unmodifiableSet(Sets.newLinkedHashSet(instanceByOidMap.keySet()));
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public Object getPojo(final Oid oid) {
-        return pojoByOidMap.get(oid);
+        lock.readLock().lock();
+        try {
+            final Instance instance = instanceByOidMap.get(oid);
+            return instance != null ? instance.pojo : null;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public Version getVersion(final Oid oid) {
-        return versionByOidMap.get(oid);
+        lock.readLock().lock();
+        try {
+            final Instance instance = instanceByOidMap.get(oid);
+            return instance != null ? instance.version : null;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     // ///////////////////////////////////////////////////////
@@ -91,8 +175,13 @@ public Version getVersion(final Oid oid) {
     // ///////////////////////////////////////////////////////
 
     public void shutdown() {
-        pojoByOidMap.clear();
-        versionByOidMap.clear();
+        lock.writeLock().lock();
+        try {
+            instanceByOidMap.clear();
+            instancesByValueByPropertyId.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     // ///////////////////////////////////////////////////////
@@ -100,11 +189,30 @@ public void shutdown() {
     // ///////////////////////////////////////////////////////
 
     public void save(final ObjectAdapter adapter) {
-        pojoByOidMap.put(adapter.getOid(), adapter.getObject());
-
-        final Version version = versionByOidMap.get(adapter.getOid());
-        final Version nextVersion = nextVersion(version);
-        versionByOidMap.put(adapter.getOid(), nextVersion);
+        // read from the object before taking the lock, since may resolve other objects
+        final String title = indexTitles ? adapter.titleString().toLowerCase() : null;
+        final Map<String, Object> indexedValues = indexProperties ? indexedValuesOf(adapter) : Collections.<String, Object>emptyMap();
+
+        final Oid oid = adapter.getOid();
+        final Version nextVersion;
+        lock.writeLock().lock();
+        try {
+            Instance instance = instanceByOidMap.get(oid);
+            if (instance == null) {
+                instance = new Instance(oid, nextSequence++);
+                instanceByOidMap.put(oid, instance);
+            }
+            instance.pojo = adapter.getObject();
+            instance.title = title;
+            unindex(instance);
+            instance.indexedValues = indexedValues;
+            index(instance);
+
+            nextVersion = nextVersion(instance.version);
+            instance.version = nextVersion;
+        } finally {
+            lock.writeLock().unlock();
+        }
         adapter.setVersion(nextVersion);
     }
 
@@ -114,8 +222,152 @@ private synchronized Version nextVersion(final Version version) {
     }
 
     public void remove(final Oid oid) {
-        pojoByOidMap.remove(oid);
-        versionByOidMap.remove(oid);
+        lock.writeLock().lock();
+        try {
+            final Instance instance = instanceByOidMap.remove(oid);
+            if (instance != null) {
+                unindex(instance);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ///////////////////////////////////////////////////////
+    // indexes
+    // ///////////////////////////////////////////////////////
+
+    private Map<String, Object> indexedValuesOf(final ObjectAdapter adapter) {
+        final List<ObjectAssociation> properties = indexedProperties(adapter.getSpecification());
+        if (properties.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Object> indexedValues = Maps.newHashMap();
+        for (final ObjectAssociation property : properties) {
+            final ObjectAdapter valueAdapter = property.get(adapter);
+            indexedValues.put(property.getId(), valueAdapter != null ? valueAdapter.getObject() : null);
+        }
+        return indexedValues;
+    }
+
+    /**
+     * The persisted value properties with a {@link JdoIndexFacet}; the same for every instance, so only
+     * determined once.
+     */
+    private synchronized List<ObjectAssociation> indexedProperties(final ObjectSpecification specification) {
+        if (indexedProperties == null) {
+            final List<ObjectAssociation> properties = Lists.newArrayList();
+            for (final ObjectAssociation association : specification.getAssociations(Contributed.EXCLUDED)) {
+                if (isIndexed(association)) {
+                    properties.add(association);
+                }
+            }
+            indexedProperties = properties;
+        }
+        return indexedProperties;
+    }
+
+    private static boolean isIndexed(final ObjectAssociation association) {
+        return association.isOneToOneAssociation() && !association.isNotPersisted() && association.getSpecification().isValue() && association.containsFacet(JdoIndexFacet.class);
+    }
+
+    private void index(final Instance instance) {
+        for (final Map.Entry<String, Object> entry : instance.indexedValues.entrySet()) {
+            Map<Object, Set<Instance>> instancesByValue = instancesByValueByPropertyId.get(entry.getKey());
+            if (instancesByValue == null) {
+                instancesByValue = Maps.newHashMap();
+                instancesByValueByPropertyId.put(entry.getKey(), instancesByValue);
+            }
+            Set<Instance> instances = instancesByValue.get(entry.getValue());
+            if (instances == null) {
+                instances = Sets.newIdentityHashSet();
+                instancesByValue.put(entry.getValue(), instances);
+            }
+            instances.add(instance);
+        }
+    }
+
+    private void unindex(final Instance instance) {
+        for (final Map.Entry<String, Object> entry : instance.indexedValues.entrySet()) {
+            final Map<Object, Set<Instance>> instancesByValue = instancesByValueByPropertyId.get(entry.getKey());
+            final Set<Instance> instances = instancesByValue.get(entry.getValue());
+            instances.remove(instance);
+            if (instances.isEmpty()) {
+                instancesByValue.remove(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * The oids of those objects that could match the query, in the order that they were created.
+     */
+    private List<Oid> candidateOids(final PersistenceQueryBuiltIn persistenceQuery) {
+        lock.readLock().lock();
+        try {
+            final Collection<Instance> candidates = candidates(persistenceQuery);
+            if (candidates == null) {
+                return Lists.newArrayList(instanceByOidMap.keySet());
+            }
+            final List<Instance> sorted = Lists.newArrayList(candidates);
+            Collections.sort(sorted, BY_SEQUENCE);
+            final List<Oid> oids = Lists.newArrayListWithCapacity(sorted.size());
+            for (final Instance instance : sorted) {
+                oids.add(instance.oid);
+            }
+            return oids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the instances to consider, or <tt>null</tt> if there is no suitable index (so all must be).
+     */
+    private Collection<Instance> candidates(final PersistenceQueryBuiltIn persistenceQuery) {
+        if (indexTitles && persistenceQuery instanceof PersistenceQueryFindByTitle) {
+            final String title = ((PersistenceQueryFindByTitle) persistenceQuery).getTitle();
+            final List<Instance> candidates = Lists.newArrayList();
+            for (final Instance instance : instanceByOidMap.values()) {
+                if (instance.title != null && instance.title.contains(title)) {
+                    candidates.add(instance);
+                }
+            }
+            return candidates;
+        }
+        if (indexProperties && persistenceQuery instanceof PersistenceQueryFindByPattern) {
+            final ObjectAdapter pattern = ((PersistenceQueryFindByPattern) persistenceQuery).getPattern();
+            Set<Instance> smallest = null;
+            for (final ObjectAssociation property : indexedPropertiesOf(pattern)) {
+                final ObjectAdapter valueAdapter = property.get(pattern);
+                if (valueAdapter == null || property.isEmpty(pattern)) {
+                    continue;
+                }
+                final Map<Object, Set<Instance>> instancesByValue = instancesByValueByPropertyId.get(property.getId());
+                final Set<Instance> instances = instancesByValue != null ? instancesByValue.get(valueAdapter.getObject()) : null;
+                if (instances == null) {
+                    return Collections.emptyList();
+                }
+                if (smallest == null || instances.size() < smallest.size()) {
+                    smallest = instances;
+                }
+            }
+            return smallest;
+        }
+        return null;
+    }
+
+    private List<ObjectAssociation> indexedPropertiesOf(final ObjectAdapter pattern) {
+        if (indexedProperties != null) {
+            return indexedProperties;
+        }
+        // nothing yet saved, so no indexes; just determine those that would be
+        final List<ObjectAssociation> properties = Lists.newArrayList();
+        for (final ObjectAssociation association : pattern.getSpecification().getAssociations(Contributed.EXCLUDED)) {
+            if (isIndexed(association)) {
+                properties.add(association);
+            }
+        }
+        return properties;
     }
 
     // ///////////////////////////////////////////////////////
@@ -128,7 +380,7 @@ public void remove(final Oid oid) {
      * if none found does it recreates a new {@link ObjectAdapter adapter}.
      */
     public ObjectAdapter getObjectAndMapIfRequired(final Oid oid) {
-        final Object pojo = getObjectInstances().get(oid);
+        final Object pojo = getPojo(oid);
         if (pojo == null) {
             return null;
         }
@@ -150,45 +402,51 @@ public ObjectAdapter getObjectAndMapIfRequired(final Oid oid) {
     /**
      * Not API, but <tt>public</tt> so can be called by
      * {@link InMemoryObjectStore}.
+     *
+     * <p>
+     * Only those objects that the indexes (if any) say could match are adapted, and the query
+     * still checks each of these, in the order that they were created.
      */
     public void findInstancesAndAdd(final PersistenceQueryBuiltIn persistenceQuery, final List<ObjectAdapter> foundInstances) {
-        for (final ObjectAdapter element : elements()) {
-            if (persistenceQuery.matches(element)) {
+        for (final Oid oid : candidateOids(persistenceQuery)) {
+            final ObjectAdapter element = getObjectAndMapIfRequired(oid);
+            if (element != null && persistenceQuery.matches(element)) {
                 foundInstances.add(element);
             }
         }
     }
 
     public int numberOfInstances() {
-        return getObjectInstances().size();
+        lock.readLock().lock();
+        try {
+            return instanceByOidMap.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public boolean hasInstances() {
         return numberOfInstances() > 0;
     }
 
-    private List<ObjectAdapter> elements() {
-        final List<ObjectAdapter> v = new ArrayList<ObjectAdapter>(getObjectInstances().size());
-        for (final Oid oid : getObjectInstances().keySet()) {
-            v.add(getObjectAndMapIfRequired(oid));
-        }
-        return v;
-    }
-
     // ///////////////////////////////////////////////////////
     // Debugging
     // ///////////////////////////////////////////////////////
 
     public void debugData(final DebugBuilder debug) {
         debug.indent();
-        if (getObjectInstances().size() == 0) {
+        if (indexTitles || indexProperties) {
+            debug.appendln("indexed titles", indexTitles);
+            debug.appendln("indexed properties", indexedProperties != null ? indexedProperties.size() : 0);
+        }
+        final Map<Oid, Object> objectInstances = getObjectInstances();
+        if (objectInstances.size() == 0) {
             debug.appendln("no instances");
         }
-        for (final Oid oid : getObjectInstances().keySet()) {
-            final ObjectAdapter objectAdapter = getObjectAndMapIfRequired(oid);
+        for (final Map.Entry<Oid, Object> entry : objectInstances.entrySet()) {
+            final ObjectAdapter objectAdapter = getObjectAndMapIfRequired(entry.getKey());
             final String title = objectAdapter.titleString();
-            final Object object = getObjectInstances().get(oid);
-            debug.appendln(oid.toString(), object + " (" + title + ")");
+            debug.appendln(entry.getKey().toString(), entry.getValue() + " (" + title + ")");
         }
         debug.appendln();
         debug.unindent();
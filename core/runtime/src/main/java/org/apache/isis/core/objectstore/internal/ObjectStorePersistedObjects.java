@@ -19,8 +19,7 @@
 
 package org.apache.isis.core.objectstore.internal;
 
-import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import com.google.common.collect.Maps;
 
@@ -33,14 +32,31 @@
 /**
  * Represents the persisted objects.
  * 
- * Attached and detached to each session.
+ * Attached and detached to each session; because the same instance is shared by all
+ * sessions, it (along with each {@link ObjectStoreInstances}) is safe for concurrent use.
  */
 public class ObjectStorePersistedObjects {
 
-    private final Map<ObjectSpecId, ObjectStoreInstances> instancesBySpecMap = Maps.newHashMap();
-    private final Map<ObjectSpecId, Oid> serviceOidByIdMap = Maps.newHashMap();
+    private final ConcurrentMap<ObjectSpecId, ObjectStoreInstances> instancesBySpecMap = Maps.newConcurrentMap();
+    private final ConcurrentMap<ObjectSpecId, Oid> serviceOidByIdMap = Maps.newConcurrentMap();
 
-    private IdentifierGeneratorDefault.Memento oidGeneratorMemento;
+    private final boolean indexTitles;
+    private final boolean indexProperties;
+
+    private volatile IdentifierGeneratorDefault.Memento oidGeneratorMemento;
+
+    public ObjectStorePersistedObjects() {
+        this(false, false);
+    }
+
+    /**
+     * @param indexTitles - whether the {@link ObjectStoreInstances instances} of each specification should index their titles
+     * @param indexProperties - whether the {@link ObjectStoreInstances instances} of each specification should index their indexed properties
+     */
+    public ObjectStorePersistedObjects(final boolean indexTitles, final boolean indexProperties) {
+        this.indexTitles = indexTitles;
+        this.indexProperties = indexProperties;
+    }
 
 
     public IdentifierGeneratorDefault.Memento getOidGeneratorMemento() {
@@ -62,7 +78,7 @@ public void registerService(final ObjectSpecId objectSpecId, final Oid oid) {
                 throw new IsisException("Already another service registered as name: " + objectSpecId + " (existing Oid: " + oidLookedUpByName + ", " + "intended: " + oid + ")");
             }
         } else {
-            serviceOidByIdMap.put(objectSpecId, oid);
+            serviceOidByIdMap.putIfAbsent(objectSpecId, oid);
         }
     }
 
@@ -71,12 +87,13 @@ public void registerService(final ObjectSpecId objectSpecId, final Oid oid) {
     // also think we shouldn't surface the entire Map, just the API we require
     // (keySet, values etc).
     public ObjectStoreInstances instancesFor(final ObjectSpecId specId) {
-        ObjectStoreInstances ins = instancesBySpecMap.get(specId);
-        if (ins == null) {
-            ins = new ObjectStoreInstances(specId);
-            instancesBySpecMap.put(specId, ins);
+        final ObjectStoreInstances ins = instancesBySpecMap.get(specId);
+        if (ins != null) {
+            return ins;
         }
-        return ins;
+        final ObjectStoreInstances newIns = new ObjectStoreInstances(specId, indexTitles, indexProperties);
+        final ObjectStoreInstances existingIns = instancesBySpecMap.putIfAbsent(specId, newIns);
+        return existingIns != null ? existingIns : newIns;
     }
 
     public Iterable<ObjectSpecId> specifications() {
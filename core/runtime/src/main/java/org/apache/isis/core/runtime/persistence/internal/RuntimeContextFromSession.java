@@ -166,6 +166,11 @@ public void objectChanged(final ObjectAdapter adapter) {
             public void objectChanged(final Object object) {
                 new DomainObjectContainerObjectChanged().objectChanged(object);
             }
+
+            @Override
+            public void objectMarkedDirty(final ObjectAdapter adapter) {
+                getPersistenceSession().objectMarkedDirty(adapter);
+            }
         };
         this.objectPersistor = new ObjectPersistorAbstract() {
             @Override
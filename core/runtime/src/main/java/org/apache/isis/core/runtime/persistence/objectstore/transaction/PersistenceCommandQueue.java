@@ -0,0 +1,187 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.persistence.objectstore.transaction;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Sets;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+
+/**
+ * The {@link PersistenceCommand}s pending within a transaction, held in insertion order
+ * but also indexed by the {@link ObjectAdapter adapter} and {@link Kind kind} of command.
+ *
+ * <p>
+ * This allows the transaction to check for (and remove) an existing command for an
+ * object in constant time, rather than scanning every command enlisted so far.
+ *
+ * <p>
+ * Not thread-safe; the owning transaction is responsible for synchronization.
+ */
+public class PersistenceCommandQueue {
+
+    public static enum Kind {
+        CREATE,
+        SAVE,
+        DESTROY,
+        OTHER;
+
+        public static Kind of(final PersistenceCommand command) {
+            if (command instanceof CreateObjectCommand) {
+                return CREATE;
+            }
+            if (command instanceof SaveObjectCommand) {
+                return SAVE;
+            }
+            if (command instanceof DestroyObjectCommand) {
+                return DESTROY;
+            }
+            return OTHER;
+        }
+    }
+
+    private static final class Key {
+        private final ObjectAdapter adapter;
+        private final Kind kind;
+
+        Key(final ObjectAdapter adapter, final Kind kind) {
+            this.adapter = adapter;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return kind == other.kind && Objects.equal(adapter, other.adapter);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * kind.hashCode() + (adapter != null ? adapter.hashCode() : 0);
+        }
+    }
+
+    /**
+     * All commands, in the order that they were added.
+     */
+    private final Set<PersistenceCommand> commands = Sets.newLinkedHashSet();
+
+    /**
+     * Commands indexed by adapter and kind; each list is in insertion order (and in practice
+     * only ever holds a single command).
+     */
+    private final ListMultimap<Key, PersistenceCommand> index = ArrayListMultimap.create();
+
+
+    // //////////////////////////////////////////////////////////
+    // add, remove, clear
+    // //////////////////////////////////////////////////////////
+
+    public void add(final PersistenceCommand command) {
+        if (commands.add(command)) {
+            index.put(keyFor(command), command);
+        }
+    }
+
+    public boolean remove(final PersistenceCommand command) {
+        if (!commands.remove(command)) {
+            return false;
+        }
+        index.remove(keyFor(command), command);
+        return true;
+    }
+
+    public void removeAll(final Collection<PersistenceCommand> commands) {
+        for (final PersistenceCommand command : commands) {
+            remove(command);
+        }
+    }
+
+    /**
+     * Removes the first command of the specified kind for the adapter, if any.
+     */
+    public PersistenceCommand remove(final Kind kind, final ObjectAdapter onObject) {
+        final PersistenceCommand command = get(kind, onObject);
+        if (command != null) {
+            remove(command);
+        }
+        return command;
+    }
+
+    public void clear() {
+        commands.clear();
+        index.clear();
+    }
+
+
+    // //////////////////////////////////////////////////////////
+    // lookup
+    // //////////////////////////////////////////////////////////
+
+    public boolean contains(final Kind kind, final ObjectAdapter onObject) {
+        return index.containsKey(new Key(onObject, kind));
+    }
+
+    /**
+     * The first command of the specified kind for the adapter, or <tt>null</tt> if none.
+     */
+    public PersistenceCommand get(final Kind kind, final ObjectAdapter onObject) {
+        final List<PersistenceCommand> commandsForKey = index.get(new Key(onObject, kind));
+        return commandsForKey.isEmpty() ? null : commandsForKey.get(0);
+    }
+
+    public boolean isEmpty() {
+        return commands.isEmpty();
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * An immutable copy of the commands, in the order that they were added.
+     */
+    public List<PersistenceCommand> snapshot() {
+        return Collections.unmodifiableList(Lists.newArrayList(commands));
+    }
+
+    private static Key keyFor(final PersistenceCommand command) {
+        return new Key(command.onAdapter(), Kind.of(command));
+    }
+
+    @Override
+    public String toString() {
+        return commands.toString();
+    }
+}
@@ -82,6 +82,19 @@ public void publishObject(
             final ObjectAdapter changedAdapter, 
             final ChangeKind changeKind, 
             final ObjectStringifier stringifier) {
+        final EventPayload payload = payloadForObject(payloadFactoryIfAny, changedAdapter, changeKind, stringifier);
+        publishingService.publish(metadata, payload);
+    }
+
+    /**
+     * The payload that {@link #publishObject(PublishedObject.PayloadFactory, EventMetadata, ObjectAdapter, ChangeKind, ObjectStringifier) would be published}
+     * for the changed object, with the stringifier already injected.
+     */
+    public EventPayload payloadForObject(
+            final PublishedObject.PayloadFactory payloadFactoryIfAny, 
+            final ObjectAdapter changedAdapter, 
+            final ChangeKind changeKind, 
+            final ObjectStringifier stringifier) {
         final PublishedObject.PayloadFactory payloadFactoryToUse = 
                 payloadFactoryIfAny != null
                 ? payloadFactoryIfAny
@@ -89,7 +102,7 @@ public void publishObject(
         final EventPayload payload = payloadFactoryToUse.payloadFor(
                 ObjectAdapter.Util.unwrap(undeletedElseEmpty(changedAdapter)), changeKind);
         payload.withStringifier(stringifier);
-        publishingService.publish(metadata, payload);
+        return payload;
     }
 
     public void publishAction(
@@ -97,6 +110,18 @@ public void publishAction(
             final EventMetadata metadata, 
             final CurrentInvocation currentInvocation, 
             final ObjectStringifier stringifier) {
+        final EventPayload payload = payloadForAction(payloadFactoryIfAny, currentInvocation, stringifier);
+        publishingService.publish(metadata, payload);
+    }
+
+    /**
+     * The payload that {@link #publishAction(PublishedAction.PayloadFactory, EventMetadata, CurrentInvocation, ObjectStringifier) would be published}
+     * for the action invocation, with the stringifier already injected.
+     */
+    public EventPayload payloadForAction(
+            final PublishedAction.PayloadFactory payloadFactoryIfAny, 
+            final CurrentInvocation currentInvocation, 
+            final ObjectStringifier stringifier) {
         final PublishedAction.PayloadFactory payloadFactoryToUse = 
                 payloadFactoryIfAny != null
                 ? payloadFactoryIfAny
@@ -110,7 +135,7 @@ public void publishAction(
                 ObjectAdapter.Util.unwrap(undeletedElseEmpty(parameters)), 
                 ObjectAdapter.Util.unwrap(undeletedElseEmpty(result)));
         payload.withStringifier(stringifier);
-        publishingService.publish(metadata, payload);
+        return payload;
     }
 
     private static List<ObjectAdapter> undeletedElseEmpty(List<ObjectAdapter> parameters) {
@@ -42,6 +42,7 @@
 import org.apache.isis.applib.annotation.DomainServiceLayout;
 import org.apache.isis.applib.services.classdiscovery.ClassDiscoveryServiceUsingReflections;
 import org.apache.isis.core.commons.config.InstallerAbstract;
+import org.apache.isis.core.metamodel.specloader.MetaModelIndex;
 import org.apache.isis.core.runtime.system.DeploymentType;
 
 import static com.google.common.base.Predicates.and;
@@ -101,6 +102,14 @@ public void withPackagePrefixes(String... packagePrefixes) {
         this.packagePrefixes = Joiner.on(",").join(packagePrefixes);
     }
 
+    /**
+     * The package prefixes searched for domain services, including the {@link #PACKAGE_PREFIX_STANDARD standard} ones.
+     */
+    public String getPackagePrefixes() {
+        initIfRequired();
+        return packagePrefixes;
+    }
+
     @Override
     public void setIgnoreFailures(boolean ignoreFailures) {
         // no-op
@@ -202,11 +211,23 @@ public List<Object> getServices(DeploymentType deploymentType) {
 
     // //////////////////////////////////////
 
+    /**
+     * Appends the domain services found, either from the {@link MetaModelIndex metamodel index} (if one is available,
+     * is up to date and was built searching the same package prefixes), or otherwise by scanning the classpath.
+     */
     public void appendServices(
             DeploymentType deploymentType,
             SortedMap<String, SortedSet<String>> positionedServices) {
         initIfRequired();
 
+        final MetaModelIndex index = MetaModelIndex.lookup(Thread.currentThread().getContextClassLoader());
+        if(index != null && packagePrefixes.equals(index.getPackagePrefixes())) {
+            for (final Map.Entry<String, String> entry : index.getServices().entrySet()) {
+                ServicesInstallerUtils.appendInPosition(positionedServices, entry.getValue(), entry.getKey());
+            }
+            return;
+        }
+
         final List<String> packagePrefixList = asList(packagePrefixes);
 
         Vfs.setDefaultURLTypes(ClassDiscoveryServiceUsingReflections.getUrlTypes());
@@ -45,6 +45,7 @@
 import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
 import org.apache.isis.core.metamodel.spec.feature.ObjectMember;
 import org.apache.isis.core.metamodel.specloader.classsubstitutor.JavassistEnhanced;
+import org.apache.isis.core.metamodel.specloader.classsubstitutor.ProxyClassCache;
 import org.apache.isis.core.metamodel.specloader.specimpl.dflt.ObjectSpecificationDefault;
 import org.apache.isis.core.metamodel.facets.actions.interaction.CommandUtil;
 import org.apache.isis.core.runtime.services.memento.MementoServiceDefault;
@@ -60,21 +61,31 @@
 public class BackgroundServiceDefault implements BackgroundService {
 
     private final MementoServiceDefault mementoService;
+    private final ProxyClassCache proxyClassCache;
     
     public BackgroundServiceDefault() {
         this(new MementoServiceDefault());
     }
     
     BackgroundServiceDefault(MementoServiceDefault mementoService) {
+        this(mementoService, ProxyClassCache.getInstance());
+    }
+
+    BackgroundServiceDefault(MementoServiceDefault mementoService, ProxyClassCache proxyClassCache) {
         this.mementoService = mementoService.withNoEncoding();
+        this.proxyClassCache = proxyClassCache;
     }
     
     // //////////////////////////////////////
 
     
+    /**
+     * The format of the mementos of the scheduled commands is as configured for the {@link MementoServiceDefault}.
+     */
     @Programmatic
     @PostConstruct
     public void init(Map<String,String> props) {
+        mementoService.init(props);
     }
     
 
@@ -112,21 +123,13 @@ public <T> T execute(final T domainObject) {
     }
 
 
-    @SuppressWarnings("unchecked")
+    /**
+     * The proxy class is generated only once per domain class (and then {@link ProxyClassCache cached}); only
+     * the instantiation and the {@link MethodHandler} are per-call.
+     */
     private <T> T newProxy(Class<? extends Object> cls, MethodHandler methodHandler) {
-        final ProxyFactory proxyFactory = new ProxyFactory();
-        proxyFactory.setSuperclass(cls);
-        proxyFactory.setInterfaces(ArrayExtensions.combine(cls.getInterfaces(), new Class<?>[] { JavassistEnhanced.class }));
-
-        proxyFactory.setFilter(new MethodFilter() {
-            @Override
-            public boolean isHandled(final Method m) {
-                // ignore finalize()
-                return !m.getName().equals("finalize");
-            }
-        });
-
-        final Class<T> proxySubclass = proxyFactory.createClass();
+        final Class<?>[] interfaces = ArrayExtensions.combine(cls.getInterfaces(), new Class<?>[] { JavassistEnhanced.class });
+        final Class<T> proxySubclass = proxyClassCache.proxyClassFor(PROXY_TYPE, cls, interfaces, PROXY_CLASS_FACTORY);
         try {
             final T newInstance = proxySubclass.newInstance();
             final ProxyObject proxyObject = (ProxyObject) newInstance;
@@ -140,6 +143,27 @@ public boolean isHandled(final Method m) {
         }
     }
 
+    private static final String PROXY_TYPE = "background";
+
+    private static final ProxyClassCache.ProxyClassFactory PROXY_CLASS_FACTORY = new ProxyClassCache.ProxyClassFactory() {
+        @Override
+        public Class<?> createProxyClass(final Class<?> superclass, final Class<?>[] interfaces) {
+            final ProxyFactory proxyFactory = new ProxyFactory();
+            proxyFactory.setSuperclass(superclass);
+            proxyFactory.setInterfaces(interfaces);
+
+            proxyFactory.setFilter(new MethodFilter() {
+                @Override
+                public boolean isHandled(final Method m) {
+                    // ignore finalize()
+                    return !m.getName().equals("finalize");
+                }
+            });
+
+            return proxyFactory.createClass();
+        }
+    };
+
     private <T> MethodHandler newMethodHandler(final T domainObject) {
         return new MethodHandler() {
             @Override
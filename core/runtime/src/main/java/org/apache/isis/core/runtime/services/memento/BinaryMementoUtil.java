@@ -0,0 +1,328 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.memento;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.joda.time.LocalDate;
+
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.core.commons.exceptions.IsisException;
+
+/**
+ * Compact binary form of a memento, as an alternative to the XML of {@link Dom4jUtil}.
+ *
+ * <p>
+ * The form is a two-byte header (a zero byte, which cannot start an XML document, and the
+ * {@link #VERSION version}), followed by the number of entries and then, for each entry, its name,
+ * a single byte tag for the type of its value, and the value itself.  Integral values are written
+ * as (zig-zag) varints, and every string (including names) is written in full only the first time
+ * it occurs; thereafter it is written as its index in a table of those already written.
+ */
+class BinaryMementoUtil {
+
+    private BinaryMementoUtil(){}
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte MARKER = 0;
+    static final byte VERSION = 1;
+
+    private static final int NULL = 0;
+    private static final int STRING = 1;
+    private static final int TRUE = 2;
+    private static final int FALSE = 3;
+    private static final int BYTE = 4;
+    private static final int SHORT = 5;
+    private static final int INTEGER = 6;
+    private static final int LONG = 7;
+    private static final int FLOAT = 8;
+    private static final int DOUBLE = 9;
+    private static final int BIG_INTEGER = 10;
+    private static final int BIG_DECIMAL = 11;
+    private static final int LOCAL_DATE = 12;
+    private static final int ENUM = 13;
+    private static final int BOOKMARK = 14;
+
+    /**
+     * Whether the bytes are in this (rather than XML) form.
+     */
+    static boolean isBinary(final byte[] bytes) {
+        return bytes.length >= 2 && bytes[0] == MARKER;
+    }
+
+    // //////////////////////////////////////
+    // encode
+    // //////////////////////////////////////
+
+    static byte[] encode(final Map<String, Object> valueByName) {
+        final Writer writer = new Writer();
+        writer.out.write(MARKER);
+        writer.out.write(VERSION);
+        writer.writeVarint(valueByName.size());
+        for (final Map.Entry<String, Object> entry : valueByName.entrySet()) {
+            writer.writeString(entry.getKey());
+            writer.writeValue(entry.getValue());
+        }
+        return writer.out.toByteArray();
+    }
+
+    private static class Writer {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        private final Map<String, Integer> indexByString = Maps.newHashMap();
+
+        void writeValue(final Object value) {
+            if (value == null) {
+                out.write(NULL);
+            } else if (value instanceof String) {
+                out.write(STRING);
+                writeString((String) value);
+            } else if (value instanceof Boolean) {
+                out.write((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof Byte) {
+                out.write(BYTE);
+                out.write((Byte) value);
+            } else if (value instanceof Short) {
+                out.write(SHORT);
+                writeVarint(zigZag((Short) value));
+            } else if (value instanceof Integer) {
+                out.write(INTEGER);
+                writeVarint(zigZag((Integer) value));
+            } else if (value instanceof Long) {
+                out.write(LONG);
+                writeVarint(zigZag((Long) value));
+            } else if (value instanceof Float) {
+                out.write(FLOAT);
+                writeFixed(Float.floatToIntBits((Float) value), 4);
+            } else if (value instanceof Double) {
+                out.write(DOUBLE);
+                writeFixed(Double.doubleToLongBits((Double) value), 8);
+            } else if (value instanceof BigInteger) {
+                out.write(BIG_INTEGER);
+                writeBytes(((BigInteger) value).toByteArray());
+            } else if (value instanceof BigDecimal) {
+                final BigDecimal bigDecimal = (BigDecimal) value;
+                out.write(BIG_DECIMAL);
+                writeVarint(zigZag(bigDecimal.scale()));
+                writeBytes(bigDecimal.unscaledValue().toByteArray());
+            } else if (value instanceof LocalDate) {
+                final LocalDate localDate = (LocalDate) value;
+                out.write(LOCAL_DATE);
+                writeVarint(zigZag(localDate.getYear()));
+                writeVarint(localDate.getMonthOfYear());
+                writeVarint(localDate.getDayOfMonth());
+            } else if (value instanceof Enum) {
+                out.write(ENUM);
+                writeString(((Enum<?>) value).name());
+            } else if (value instanceof Bookmark) {
+                final Bookmark bookmark = (Bookmark) value;
+                out.write(BOOKMARK);
+                writeString(bookmark.getObjectType());
+                writeString(bookmark.getIdentifier());
+            } else {
+                // as for the XML form
+                out.write(STRING);
+                writeString(value.toString());
+            }
+        }
+
+        void writeString(final String str) {
+            final Integer index = indexByString.get(str);
+            if (index != null) {
+                writeVarint(((long) index << 1) | 1);
+                return;
+            }
+            indexByString.put(str, indexByString.size());
+            final byte[] bytes = str.getBytes(UTF_8);
+            writeVarint((long) bytes.length << 1);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        void writeBytes(final byte[] bytes) {
+            writeVarint(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        void writeFixed(final long value, final int numBytes) {
+            for (int i = numBytes - 1; i >= 0; i--) {
+                out.write((int) (value >>> (i * 8)));
+            }
+        }
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // //////////////////////////////////////
+    // decode
+    // //////////////////////////////////////
+
+    /**
+     * @return the values, keyed by name, in the order they were {@link #encode(Map) encoded}.
+     */
+    static Map<String, Object> decode(final byte[] bytes) {
+        if (!isBinary(bytes)) {
+            throw new IsisException("Not a binary memento");
+        }
+        if (bytes[1] != VERSION) {
+            throw new IsisException("Unsupported binary memento version: " + bytes[1]);
+        }
+        final Reader reader = new Reader(bytes, 2);
+        final int size = (int) reader.readVarint();
+        final Map<String, Object> valueByName = Maps.newLinkedHashMap();
+        for (int i = 0; i < size; i++) {
+            final String name = reader.readString();
+            valueByName.put(name, reader.readValue());
+        }
+        return valueByName;
+    }
+
+    private static class Reader {
+        private final byte[] bytes;
+        private int pos;
+        private final List<String> strings = Lists.newArrayList();
+
+        Reader(final byte[] bytes, final int pos) {
+            this.bytes = bytes;
+            this.pos = pos;
+        }
+
+        /**
+         * Enums are returned as their name, to be converted (like all other values) by
+         * {@link Dom4jUtil.Parseable} when {@link org.apache.isis.applib.services.memento.MementoService.Memento#get(String, Class) requested}
+         * as some other type.
+         */
+        Object readValue() {
+            final int tag = readByte();
+            switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+            case ENUM:
+                return readString();
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case BYTE:
+                return (byte) readByte();
+            case SHORT:
+                return (short) unZigZag(readVarint());
+            case INTEGER:
+                return (int) unZigZag(readVarint());
+            case LONG:
+                return unZigZag(readVarint());
+            case FLOAT:
+                return Float.intBitsToFloat((int) readFixed(4));
+            case DOUBLE:
+                return Double.longBitsToDouble(readFixed(8));
+            case BIG_INTEGER:
+                return new BigInteger(readBytes());
+            case BIG_DECIMAL:
+                final int scale = (int) unZigZag(readVarint());
+                return new BigDecimal(new BigInteger(readBytes()), scale);
+            case LOCAL_DATE:
+                final int year = (int) unZigZag(readVarint());
+                final int month = (int) readVarint();
+                final int day = (int) readVarint();
+                return new LocalDate(year, month, day);
+            case BOOKMARK:
+                final String objectType = readString();
+                return new Bookmark(objectType, readString());
+            default:
+                throw new IsisException("Unknown type in binary memento: " + tag);
+            }
+        }
+
+        String readString() {
+            final long header = readVarint();
+            if ((header & 1) != 0) {
+                return strings.get((int) (header >>> 1));
+            }
+            final int length = (int) (header >>> 1);
+            ensureAvailable(length);
+            final String str = new String(bytes, pos, length, UTF_8);
+            pos += length;
+            strings.add(str);
+            return str;
+        }
+
+        byte[] readBytes() {
+            final int length = (int) readVarint();
+            ensureAvailable(length);
+            final byte[] result = new byte[length];
+            System.arraycopy(bytes, pos, result, 0, length);
+            pos += length;
+            return result;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IsisException("Malformed varint in binary memento");
+        }
+
+        long readFixed(final int numBytes) {
+            long value = 0;
+            for (int i = 0; i < numBytes; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        int readByte() {
+            ensureAvailable(1);
+            return bytes[pos++] & 0xFF;
+        }
+
+        private void ensureAvailable(final int length) {
+            if (length < 0 || pos + length > bytes.length) {
+                throw new IsisException("Truncated binary memento");
+            }
+        }
+    }
+
+}
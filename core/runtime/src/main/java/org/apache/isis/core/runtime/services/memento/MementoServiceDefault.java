@@ -18,12 +18,17 @@
 
 import java.nio.charset.Charset;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.PostConstruct;
+
 import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.io.BaseEncoding;
+import com.google.common.primitives.Primitives;
 
 import org.dom4j.Document;
 import org.dom4j.DocumentHelper;
@@ -32,6 +37,7 @@
 import org.apache.isis.applib.annotation.DomainService;
 import org.apache.isis.applib.annotation.Programmatic;
 import org.apache.isis.applib.services.memento.MementoService;
+import org.apache.isis.core.commons.exceptions.IsisException;
 
 /**
  * This service provides a mechanism by which a serializable memento of arbitrary state can be created.  Most
@@ -41,10 +47,19 @@
  * This implementation has no UI and there are no other implementations of the service API, and so it annotated
  * with {@link org.apache.isis.applib.annotation.DomainService}.  Because this class is implemented in core, this means
  * that it is automatically registered and available for use; no further configuration is required.
+ *
+ * <p>
+ * By default mementos are XML documents; setting {@value #FORMAT_KEY} to {@value #FORMAT_BINARY} instead creates
+ * them in a much more compact binary form.  Mementos in either form can always be {@link #parse(String) parsed}.
  */
 @DomainService
 public class MementoServiceDefault implements MementoService {
 
+    public static final String FORMAT_KEY = "isis.services.memento.format";
+    public static final String FORMAT_XML = "xml";
+    public static final String FORMAT_BINARY = "binary";
+    public static final String FORMAT_DEFAULT = FORMAT_XML;
+
     static class MementoDefault implements Memento {
 
         private final boolean noEncoding;
@@ -107,14 +122,92 @@ public String toString() {
 
     }
 
+    /**
+     * Holds the values themselves, only converting them to a {@link BinaryMementoUtil binary form} when
+     * {@link #asString()} is called.
+     */
+    static class MementoBinary implements Memento {
+
+        private final Map<String, Object> valueByName;
+
+        MementoBinary() {
+            this(Maps.<String, Object>newLinkedHashMap());
+        }
+
+        MementoBinary(final Map<String, Object> valueByName) {
+            this.valueByName = valueByName;
+        }
+
+        /**
+         * As for the XML form, if a value is set more than once for the same name, then it is the first
+         * that is {@link #get(String, Class) returned}.
+         */
+        @Override
+        public Memento set(final String name, final Object value) {
+            if (!valueByName.containsKey(name)) {
+                valueByName.put(name, value);
+            }
+            return this;
+        }
+
+        @Override
+        public <T> T get(final String name, final Class<T> cls) {
+            Dom4jUtil.Parseable.assertSupported(cls);
+            final Object value = valueByName.get(name);
+            if (value == null) {
+                return null;
+            }
+            if (Primitives.wrap(cls).isInstance(value)) {
+                @SuppressWarnings("unchecked")
+                final T t = (T) value;
+                return t;
+            }
+            return Dom4jUtil.Parseable.parse(value.toString(), cls);
+        }
+
+        /**
+         * Always base-64 encoded (being binary).
+         */
+        @Override
+        public String asString() {
+            return BaseEncoding.base64Url().encode(BinaryMementoUtil.encode(valueByName));
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return Sets.newLinkedHashSet(valueByName.keySet());
+        }
+
+        // //////////////////////////////////////
+
+        @Override
+        public String toString() {
+            return valueByName.toString();
+        }
+    }
+
     // //////////////////////////////////////
 
     private boolean noEncoding;
+    private boolean binary;
     
     public MementoServiceDefault() {
         this.noEncoding = false;
     }
 
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String, String> props) {
+        final String format = props.get(FORMAT_KEY);
+        if (format == null || FORMAT_XML.equalsIgnoreCase(format.trim())) {
+            binary = false;
+        } else if (FORMAT_BINARY.equalsIgnoreCase(format.trim())) {
+            binary = true;
+        } else {
+            throw new IsisException("Unknown memento format '" + format + "'; expected '" + FORMAT_XML + "' or '" + FORMAT_BINARY + "'");
+        }
+    }
+
     /**
      * Not public API.
      */
@@ -123,22 +216,40 @@ public MementoServiceDefault withNoEncoding() {
         this.noEncoding = true;
         return this;
     }
+
+    /**
+     * Not public API.
+     *
+     * <p>
+     * Equivalent to configuring {@value #FORMAT_KEY} as {@value #FORMAT_BINARY}.
+     */
+    @Programmatic
+    public MementoServiceDefault withBinaryFormat() {
+        this.binary = true;
+        return this;
+    }
     
     // //////////////////////////////////////
 
     @Override
     public Memento create() {
-        return new MementoDefault(noEncoding);
+        return binary ? new MementoBinary() : new MementoDefault(noEncoding);
     }
 
-    
+    /**
+     * Parses a memento in either form, irrespective of the format configured for those {@link #create() created}.
+     */
     @Override
     public Memento parse(String str) {
         String xmlStr;
-        if (noEncoding) {
+        if (noEncoding && str.trim().startsWith("<")) {
             xmlStr = str;
         } else {
-            xmlStr = base64UrlDecode(str);
+            final byte[] bytes = BaseEncoding.base64Url().decode(str);
+            if (BinaryMementoUtil.isBinary(bytes)) {
+                return new MementoBinary(BinaryMementoUtil.decode(bytes));
+            }
+            xmlStr = new String(bytes, Charset.forName("UTF-8"));
         }
         final Document doc = Dom4jUtil.parse(xmlStr);
         return new MementoDefault(doc, noEncoding);
@@ -151,11 +262,6 @@ public boolean canSet(final Object input) {
 
     // //////////////////////////////////////
 
-    private static String base64UrlDecode(String str) {
-        final byte[] bytes = BaseEncoding.base64Url().decode(str);
-        return new String(bytes, Charset.forName("UTF-8"));
-    }
-    
     private static String base64UrlEncode(final String xmlStr) {
         byte[] bytes = xmlStr.getBytes(Charset.forName("UTF-8"));
         return BaseEncoding.base64Url().encode(bytes);
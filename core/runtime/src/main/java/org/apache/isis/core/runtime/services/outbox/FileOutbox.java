@@ -0,0 +1,482 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.services.outbox;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.core.commons.exceptions.IsisException;
+
+/**
+ * A local, file-backed outbox of {@link OutboxBatch batches}, delivered to a {@link Sink} by a
+ * bounded pool of background threads.
+ *
+ * <p>
+ * Each batch is {@link #prepare(OutboxBatch) prepared} before the transaction that it records is
+ * committed to the datastore: it is written to its own file in the outbox directory (via a temporary
+ * file that is then renamed), so that it survives a crash once the transaction has committed.  Only
+ * once the transaction has committed is the batch {@link #release(OutboxBatch) released} for
+ * delivery; if instead the transaction is aborted, the batch is {@link #discard(OutboxBatch) discarded}.
+ * The batch's file is only deleted once the sink has accepted the batch.
+ *
+ * <p>
+ * Any batches still pending when the outbox is {@link #start() started} (for example, following a
+ * crash) are delivered again, so delivery is <i>at least once</i>: sinks should tolerate duplicates.
+ * This includes any batches that were prepared but neither released nor discarded; the outcome of
+ * their transactions is not known, so they are delivered rather than risk losing the record of a
+ * committed transaction.
+ *
+ * <p>
+ * A failed delivery is retried, with exponential backoff, up to the maximum number of attempts;
+ * thereafter the batch's file is renamed with a <tt>.failed</tt> suffix and left for manual recovery.
+ *
+ * <p>
+ * At most <tt>queueCapacity</tt> batches may be prepared or pending (including those being retried);
+ * once that many are, {@link #prepare(OutboxBatch)} blocks until one has been delivered, so that a slow
+ * or unavailable sink eventually pushes back on the committing threads rather than filling the disk.
+ */
+public class FileOutbox {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileOutbox.class);
+
+    public interface Sink {
+        void deliver(OutboxBatch batch) throws Exception;
+    }
+
+    static final String PREPARED_SUFFIX = ".prepared";
+    static final String PENDING_SUFFIX = ".batch";
+    static final String TEMP_SUFFIX = ".tmp";
+    static final String FAILED_SUFFIX = ".failed";
+
+    /**
+     * Upper bound on the backoff exponent, so that the delay between retries stops doubling.
+     */
+    private static final int MAX_BACKOFF_SHIFT = 10;
+
+    private final File directory;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final long replayDelayMillis;
+    private final long shutdownTimeoutMillis;
+    private final Sink sink;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final Semaphore capacity;
+
+    /**
+     * Creation time of each pending batch, keyed by {@link OutboxBatch#getId() id}.
+     */
+    private final ConcurrentMap<String, Long> pendingSince = new ConcurrentHashMap<String, Long>();
+
+    private final AtomicLong enqueuedBatches = new AtomicLong();
+    private final AtomicLong enqueuedEntries = new AtomicLong();
+    private final AtomicInteger largestBatchSize = new AtomicInteger();
+    private final AtomicLong deliveredBatches = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    public FileOutbox(
+            final File directory,
+            final int threads,
+            final int queueCapacity,
+            final int maxAttempts,
+            final long retryDelayMillis,
+            final long replayDelayMillis,
+            final long shutdownTimeoutMillis,
+            final Sink sink) {
+        this.directory = directory;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMillis = retryDelayMillis;
+        this.replayDelayMillis = replayDelayMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.sink = sink;
+        this.capacity = new Semaphore(Math.max(1, queueCapacity));
+
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, threads), new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger();
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "isis-outbox-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // any retries still scheduled at shutdown remain on disk, to be replayed on restart
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+
+    // //////////////////////////////////////
+    // start, shutdown
+    // //////////////////////////////////////
+
+    /**
+     * Creates the outbox directory if required, and schedules the redelivery of any batches left pending.
+     *
+     * <p>
+     * Only the names of the files left in the directory are listed by the caller; the batches themselves are
+     * read and redelivered (after the replay delay) on the outbox's own threads, so as not to hold up startup.
+     */
+    public void start() {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IsisException("Unable to create outbox directory " + directory);
+        }
+        final List<File> files = Lists.newArrayList();
+        files.addAll(Arrays.asList(listFiles(PENDING_SUFFIX)));
+        files.addAll(Arrays.asList(listFiles(PREPARED_SUFFIX)));
+        final List<File> tempFiles = Arrays.asList(listFiles(TEMP_SUFFIX));
+        if (files.isEmpty() && tempFiles.isEmpty()) {
+            return;
+        }
+        Collections.sort(files);
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                replay(files, tempFiles);
+            }
+        }, replayDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void replay(final List<File> files, final List<File> tempFiles) {
+        for (final File tempFile : tempFiles) {
+            if (!tempFile.delete()) {
+                LOG.warn("Unable to delete partially written outbox batch {}", tempFile);
+            }
+        }
+        for (final File file : files) {
+            final OutboxBatch batch;
+            try {
+                batch = read(file);
+            } catch (final IOException ex) {
+                LOG.error("Unable to read outbox batch " + file + "; marking as failed", ex);
+                markFailed(file);
+                continue;
+            } catch (final ClassNotFoundException ex) {
+                LOG.error("Unable to read outbox batch " + file + "; marking as failed", ex);
+                markFailed(file);
+                continue;
+            }
+            if (file.getName().endsWith(PREPARED_SUFFIX)) {
+                LOG.warn("Redelivering outbox batch {}, whose transaction may or may not have committed", batch);
+            } else {
+                LOG.info("Redelivering pending outbox batch {}", batch);
+            }
+            pendingSince.put(batch.getId(), batch.getCreatedAt());
+            executor.execute(new Delivery(file, batch, false));
+        }
+    }
+
+    /**
+     * Stops accepting batches, waiting (up to the shutdown timeout) for those in the middle of being
+     * delivered.  Any still pending are redelivered when next {@link #start() started}.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                LOG.warn("Outbox did not drain within {}ms; {} batch(es) left pending", shutdownTimeoutMillis, getQueueDepth());
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    // //////////////////////////////////////
+    // prepare, release, discard
+    // //////////////////////////////////////
+
+    /**
+     * Durably records the batch, ahead of the commit of the transaction that it records, blocking while
+     * the outbox is at capacity.
+     *
+     * <p>
+     * Once prepared, the batch must be either {@link #release(OutboxBatch) released} or
+     * {@link #discard(OutboxBatch) discarded}.
+     *
+     * @throws IsisException if the batch could not be recorded (in which case the transaction should be aborted)
+     */
+    public void prepare(final OutboxBatch batch) {
+        capacity.acquireUninterruptibly();
+        try {
+            write(batch);
+        } catch (final IOException ex) {
+            capacity.release();
+            throw new IsisException("Unable to write " + batch + " to outbox " + directory, ex);
+        }
+    }
+
+    /**
+     * Schedules the delivery of a {@link #prepare(OutboxBatch) prepared} batch, now that its transaction has
+     * committed.
+     *
+     * <p>
+     * Does not throw; should the batch not be scheduled, it remains on disk and is redelivered when next
+     * {@link #start() started}.
+     */
+    public void release(final OutboxBatch batch) {
+        final File preparedFile = fileFor(batch, PREPARED_SUFFIX);
+        final File pendingFile = fileFor(batch, PENDING_SUFFIX);
+        final File file;
+        if (preparedFile.renameTo(pendingFile)) {
+            file = pendingFile;
+        } else {
+            LOG.warn("Unable to rename {} to {}; will deliver as is", preparedFile, pendingFile);
+            file = preparedFile;
+        }
+
+        pendingSince.put(batch.getId(), batch.getCreatedAt());
+        enqueuedBatches.incrementAndGet();
+        enqueuedEntries.addAndGet(batch.size());
+        updateLargestBatchSize(batch.size());
+
+        try {
+            executor.execute(new Delivery(file, batch, true));
+        } catch (final RejectedExecutionException ex) {
+            LOG.warn("Outbox is shut down; {} will be redelivered on restart", batch);
+            pendingSince.remove(batch.getId());
+            capacity.release();
+        }
+    }
+
+    /**
+     * Discards a {@link #prepare(OutboxBatch) prepared} batch, because its transaction was aborted.
+     */
+    public void discard(final OutboxBatch batch) {
+        final File preparedFile = fileFor(batch, PREPARED_SUFFIX);
+        if (!preparedFile.delete()) {
+            LOG.warn("Unable to delete discarded outbox batch {}; will be delivered on restart", preparedFile);
+        }
+        capacity.release();
+    }
+
+    private void updateLargestBatchSize(final int batchSize) {
+        int largest;
+        do {
+            largest = largestBatchSize.get();
+        } while (batchSize > largest && !largestBatchSize.compareAndSet(largest, batchSize));
+    }
+
+
+    // //////////////////////////////////////
+    // Delivery
+    // //////////////////////////////////////
+
+    private class Delivery implements Runnable {
+
+        private final File file;
+        private final OutboxBatch batch;
+        private final boolean holdsCapacity;
+        private int attempts;
+
+        Delivery(final File file, final OutboxBatch batch, final boolean holdsCapacity) {
+            this.file = file;
+            this.batch = batch;
+            this.holdsCapacity = holdsCapacity;
+        }
+
+        @Override
+        public void run() {
+            attempts++;
+            try {
+                sink.deliver(batch);
+            } catch (final Exception ex) {
+                if (attempts < maxAttempts && executor.isShutdown()) {
+                    LOG.warn("Failed to deliver " + batch + " while shutting down; will be redelivered on restart", ex);
+                    done();
+                    return;
+                }
+                if (attempts < maxAttempts) {
+                    final long delayMillis = retryDelayMillis << Math.min(attempts - 1, MAX_BACKOFF_SHIFT);
+                    LOG.warn("Failed to deliver " + batch + " (attempt " + attempts + " of " + maxAttempts
+                            + "); retrying in " + delayMillis + "ms", ex);
+                    retries.incrementAndGet();
+                    try {
+                        executor.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+                    } catch (final RejectedExecutionException shuttingDown) {
+                        // left pending, to be redelivered on restart
+                        done();
+                    }
+                    return;
+                }
+                LOG.error("Failed to deliver " + batch + " after " + attempts + " attempt(s)", ex);
+                failedBatches.incrementAndGet();
+                markFailed(file);
+                done();
+                return;
+            }
+            deliveredBatches.incrementAndGet();
+            if (!file.delete()) {
+                LOG.warn("Unable to delete delivered outbox batch {}; will be redelivered on restart", file);
+            }
+            done();
+        }
+
+        private void done() {
+            pendingSince.remove(batch.getId());
+            if (holdsCapacity) {
+                capacity.release();
+            }
+        }
+    }
+
+
+    // //////////////////////////////////////
+    // file handling
+    // //////////////////////////////////////
+
+    private File fileFor(final OutboxBatch batch, final String suffix) {
+        return new File(directory, batch.getId() + suffix);
+    }
+
+    private void write(final OutboxBatch batch) throws IOException {
+        final File tempFile = fileFor(batch, TEMP_SUFFIX);
+        final FileOutputStream fos = new FileOutputStream(tempFile);
+        try {
+            final ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(fos));
+            oos.writeObject(batch);
+            oos.flush();
+            fos.getFD().sync();
+        } finally {
+            fos.close();
+        }
+        final File preparedFile = fileFor(batch, PREPARED_SUFFIX);
+        if (!tempFile.renameTo(preparedFile)) {
+            tempFile.delete();
+            throw new IOException("Unable to rename " + tempFile + " to " + preparedFile);
+        }
+    }
+
+    private static OutboxBatch read(final File file) throws IOException, ClassNotFoundException {
+        final ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            return (OutboxBatch) ois.readObject();
+        } finally {
+            ois.close();
+        }
+    }
+
+    private static void markFailed(final File file) {
+        final File failedFile = new File(file.getParentFile(), file.getName() + FAILED_SUFFIX);
+        if (!file.renameTo(failedFile)) {
+            LOG.warn("Unable to rename failed outbox batch {}", file);
+        }
+    }
+
+    private File[] listFiles(final String suffix) {
+        final File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(final File dir, final String name) {
+                return name.endsWith(suffix);
+            }
+        });
+        return files != null ? files : new File[0];
+    }
+
+
+    // //////////////////////////////////////
+    // metrics
+    // //////////////////////////////////////
+
+    /**
+     * The number of batches released (or replayed) but not yet either delivered or given up on.
+     */
+    public int getQueueDepth() {
+        return pendingSince.size();
+    }
+
+    /**
+     * The age of the oldest pending batch, or 0 if there are none.
+     */
+    public long getLagMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (final Long createdAt : pendingSince.values()) {
+            oldest = Math.min(oldest, createdAt);
+        }
+        return oldest == Long.MAX_VALUE ? 0L : Math.max(0L, System.currentTimeMillis() - oldest);
+    }
+
+    public long getEnqueuedBatches() {
+        return enqueuedBatches.get();
+    }
+
+    public long getDeliveredBatches() {
+        return deliveredBatches.get();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * The mean number of entries (audit entries and published events) per released batch.
+     */
+    public double getAverageBatchSize() {
+        final long batches = enqueuedBatches.get();
+        return batches == 0 ? 0.0 : (double) enqueuedEntries.get() / batches;
+    }
+
+    public int getLargestBatchSize() {
+        return largestBatchSize.get();
+    }
+
+    public Map<String, Object> getStatistics() {
+        final Map<String, Object> statistics = Maps.newLinkedHashMap();
+        statistics.put("queueDepth", getQueueDepth());
+        statistics.put("lagMillis", getLagMillis());
+        statistics.put("enqueued", getEnqueuedBatches());
+        statistics.put("delivered", getDeliveredBatches());
+        statistics.put("failed", getFailedBatches());
+        statistics.put("retries", getRetries());
+        statistics.put("averageBatchSize", getAverageBatchSize());
+        statistics.put("largestBatchSize", getLargestBatchSize());
+        return Collections.unmodifiableMap(statistics);
+    }
+}
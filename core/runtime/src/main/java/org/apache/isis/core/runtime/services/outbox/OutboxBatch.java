@@ -0,0 +1,213 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.services.outbox;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import com.google.common.collect.Lists;
+
+import org.apache.isis.applib.services.audit.AuditingService3;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.publish.EventMetadata;
+import org.apache.isis.applib.services.publish.EventType;
+import org.apache.isis.applib.services.publish.PublishingService;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
+import org.apache.isis.core.metamodel.spec.SpecificationLoader;
+
+/**
+ * The audit entries and published events of a single transaction, held as plain
+ * (serializable) values so that they can be written to the {@link FileOutbox outbox} and delivered
+ * once the originating session has been closed.
+ *
+ * <p>
+ * Published event payloads reference live domain objects, so are held as a {@link PayloadMemento memento}
+ * from which the payload is recreated on delivery.
+ */
+public class OutboxBatch implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static class AuditEntry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final UUID transactionId;
+        private final String targetClass;
+        private final Bookmark target;
+        private final String memberId;
+        private final String propertyId;
+        private final String preValue;
+        private final String postValue;
+        private final String user;
+        private final Timestamp timestamp;
+
+        public AuditEntry(
+                final UUID transactionId,
+                final String targetClass,
+                final Bookmark target,
+                final String memberId,
+                final String propertyId,
+                final String preValue,
+                final String postValue,
+                final String user,
+                final Timestamp timestamp) {
+            this.transactionId = transactionId;
+            this.targetClass = targetClass;
+            this.target = target;
+            this.memberId = memberId;
+            this.propertyId = propertyId;
+            this.preValue = preValue;
+            this.postValue = postValue;
+            this.user = user;
+            this.timestamp = timestamp;
+        }
+
+        public void deliverTo(final AuditingService3 auditingService) {
+            auditingService.audit(transactionId, targetClass, target, memberId, propertyId, preValue, postValue, user, timestamp);
+        }
+
+        @Override
+        public String toString() {
+            return target + "#" + propertyId + ": " + preValue + " -> " + postValue;
+        }
+    }
+
+    public static class PublishedEvent implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final UUID transactionId;
+        private final int sequence;
+        private final EventType eventType;
+        private final String user;
+        private final Timestamp timestamp;
+        private final String title;
+        private final String targetClass;
+        private final String targetAction;
+        private final Bookmark target;
+        private final String actionIdentifier;
+        private final PayloadMemento payload;
+
+        public PublishedEvent(final EventMetadata metadata, final PayloadMemento payload) {
+            this.transactionId = metadata.getTransactionId();
+            this.sequence = metadata.getSequence();
+            this.eventType = metadata.getEventType();
+            this.user = metadata.getUser();
+            this.timestamp = metadata.getJavaSqlTimestamp();
+            this.title = metadata.getTitle();
+            this.targetClass = metadata.getTargetClass();
+            this.targetAction = metadata.getTargetAction();
+            this.target = metadata.getTarget();
+            this.actionIdentifier = metadata.getActionIdentifier();
+            this.payload = payload;
+        }
+
+        public EventMetadata getMetadata() {
+            return new EventMetadata(
+                    transactionId, sequence, eventType, user, timestamp, title,
+                    targetClass, targetAction, target, actionIdentifier);
+        }
+
+        public PayloadMemento getPayload() {
+            return payload;
+        }
+
+        /**
+         * Publishes the event, recreating its payload within the current session.
+         */
+        public void deliverTo(
+                final PublishingService publishingService,
+                final AdapterManager adapterManager,
+                final SpecificationLoader specificationLoader) {
+            publishingService.publish(getMetadata(), payload.recreate(adapterManager, specificationLoader));
+        }
+
+        @Override
+        public String toString() {
+            return transactionId + "." + sequence + " " + eventType + ": " + title;
+        }
+    }
+
+    private final String id;
+    private final UUID transactionId;
+    private final long createdAt;
+    private final List<AuditEntry> auditEntries = Lists.newArrayList();
+    private final List<PublishedEvent> publishedEvents = Lists.newArrayList();
+
+    public OutboxBatch(final UUID transactionId) {
+        this(transactionId, System.currentTimeMillis());
+    }
+
+    OutboxBatch(final UUID transactionId, final long createdAt) {
+        this.id = createdAt + "-" + UUID.randomUUID();
+        this.transactionId = transactionId;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Unique (over and above the {@link #getTransactionId() transaction Id}, which may be shared by the
+     * several transactions of a single command) and ordered by {@link #getCreatedAt() creation time}.
+     */
+    public String getId() {
+        return id;
+    }
+
+    public UUID getTransactionId() {
+        return transactionId;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void add(final AuditEntry auditEntry) {
+        auditEntries.add(auditEntry);
+    }
+
+    public void add(final PublishedEvent publishedEvent) {
+        publishedEvents.add(publishedEvent);
+    }
+
+    public List<AuditEntry> getAuditEntries() {
+        return Collections.unmodifiableList(auditEntries);
+    }
+
+    public List<PublishedEvent> getPublishedEvents() {
+        return Collections.unmodifiableList(publishedEvents);
+    }
+
+    public int size() {
+        return auditEntries.size() + publishedEvents.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxBatch[" + id + ", transactionId=" + transactionId + ", " + auditEntries.size() + " audit entries, "
+                + publishedEvents.size() + " published events]";
+    }
+}
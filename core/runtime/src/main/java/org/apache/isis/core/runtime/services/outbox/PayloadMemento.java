@@ -0,0 +1,310 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.services.outbox;
+
+import java.io.Serializable;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.applib.services.publish.EventPayload;
+import org.apache.isis.applib.services.publish.EventPayloadForActionInvocation;
+import org.apache.isis.applib.services.publish.EventPayloadForObjectChanged;
+import org.apache.isis.applib.services.publish.ObjectStringifier;
+import org.apache.isis.core.commons.exceptions.IsisException;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
+import org.apache.isis.core.metamodel.adapter.oid.Oid;
+import org.apache.isis.core.metamodel.adapter.oid.OidMarshaller;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
+import org.apache.isis.core.metamodel.facets.object.encodeable.EncodableFacet;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.SpecificationLoader;
+import org.apache.isis.core.runtime.persistence.ObjectNotFoundException;
+
+/**
+ * Holds an {@link EventPayload} in serializable form, so that it can be written to the
+ * {@link FileOutbox outbox} and an equivalent payload {@link #recreate(AdapterManager, SpecificationLoader) recreated}
+ * once the originating session has been closed.
+ *
+ * <p>
+ * The default {@link EventPayloadForObjectChanged object} and {@link EventPayloadForActionInvocation action}
+ * payloads are held as a {@link Reference reference} to each of the objects that they refer to: persistent objects
+ * by their {@link RootOid oid} (and so are looked up again on delivery), and values by their encoded form.  The
+ * string form and class name of each object, as rendered by the {@link ObjectStringifier stringifier} when the
+ * transaction committed, are also held, so that the recreated payload renders as the original would have (other than
+ * for any reference that cannot be recreated).
+ *
+ * <p>
+ * Any other payload (that is, as created by an application-provided payload factory) must itself be
+ * {@link Serializable}; any reference that it holds to the stringifier should be <tt>transient</tt>.
+ */
+public abstract class PayloadMemento implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static PayloadMemento of(
+            final EventPayload payload,
+            final AdapterManager adapterManager,
+            final ObjectStringifier stringifier) {
+        if (payload.getClass() == EventPayloadForObjectChanged.class) {
+            return new ForObjectChanged((EventPayloadForObjectChanged<?>) payload, adapterManager, stringifier);
+        }
+        if (payload.getClass() == EventPayloadForActionInvocation.class) {
+            return new ForActionInvocation((EventPayloadForActionInvocation<?>) payload, adapterManager, stringifier);
+        }
+        if (payload instanceof Serializable) {
+            return new ForSerializable(payload);
+        }
+        throw new IsisException("Payload " + payload.getClass().getName() + " is not serializable, so cannot be recorded in the outbox");
+    }
+
+    /**
+     * Recreates the payload, within the session in which it is to be delivered.
+     */
+    public abstract EventPayload recreate(AdapterManager adapterManager, SpecificationLoader specificationLoader);
+
+
+    // //////////////////////////////////////
+    // Reference
+    // //////////////////////////////////////
+
+    /**
+     * An object referenced by a payload.
+     *
+     * <p>
+     * On {@link #recreate(AdapterManager, SpecificationLoader) recreation}, a persistent object is looked up by its
+     * oid, and a value decoded.  An object that has since been deleted (or was deleted by the transaction itself) is
+     * recreated as an empty instance of its type, as per the default payload factories; any other (for example, a
+     * transient object or a collection) is recreated as <tt>null</tt>.  Any object recreated as an instance still
+     * renders the string form captured originally.
+     */
+    static class Reference implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        static Reference of(final Object pojo, final AdapterManager adapterManager, final ObjectStringifier stringifier) {
+            if (pojo == null) {
+                return null;
+            }
+            final ObjectAdapter adapter = adapterManager.adapterFor(pojo);
+            final ObjectSpecification spec = adapter.getSpecification();
+            final Oid oid = adapter.getOid();
+
+            String oidStr = null;
+            String encodedValue = null;
+            boolean deleted = false;
+            if (adapter.isDestroyed()) {
+                deleted = true;
+            } else if (oid instanceof RootOid && !oid.isTransient()) {
+                oidStr = oid.enString(getOidMarshaller());
+            } else if (spec.isEncodeable()) {
+                encodedValue = spec.getFacet(EncodableFacet.class).toEncodedString(adapter);
+            }
+            return new Reference(
+                    spec.getFullIdentifier(), oidStr, encodedValue, deleted,
+                    stringifier.toString(pojo), stringifier.classNameOf(pojo));
+        }
+
+        private final String specFullName;
+        private final String oidStr;
+        private final String encodedValue;
+        private final boolean deleted;
+        private final String string;
+        private final String className;
+
+        private Reference(
+                final String specFullName,
+                final String oidStr,
+                final String encodedValue,
+                final boolean deleted,
+                final String string,
+                final String className) {
+            this.specFullName = specFullName;
+            this.oidStr = oidStr;
+            this.encodedValue = encodedValue;
+            this.deleted = deleted;
+            this.string = string;
+            this.className = className;
+        }
+
+        Object recreate(final AdapterManager adapterManager, final SpecificationLoader specificationLoader) {
+            if (oidStr != null) {
+                final RootOid oid = RootOidDefault.deString(oidStr, getOidMarshaller());
+                try {
+                    return adapterManager.adapterFor(oid).getObject();
+                } catch (final ObjectNotFoundException ex) {
+                    return specificationLoader.loadSpecification(specFullName).createObject();
+                }
+            }
+            if (encodedValue != null) {
+                final ObjectSpecification spec = specificationLoader.loadSpecification(specFullName);
+                return spec.getFacet(EncodableFacet.class).fromEncodedString(encodedValue).getObject();
+            }
+            if (deleted) {
+                return specificationLoader.loadSpecification(specFullName).createObject();
+            }
+            return null;
+        }
+
+        String getString() {
+            return string;
+        }
+
+        String getClassName() {
+            return className;
+        }
+
+        private static OidMarshaller getOidMarshaller() {
+            return new OidMarshaller();
+        }
+    }
+
+    /**
+     * Renders the recreated objects as their {@link Reference references} were originally rendered.
+     */
+    static class RecordedStringifier implements ObjectStringifier {
+
+        private final Map<Object, Reference> referenceByPojo = new IdentityHashMap<Object, Reference>();
+
+        Object recreate(final Reference reference, final AdapterManager adapterManager, final SpecificationLoader specificationLoader) {
+            if (reference == null) {
+                return null;
+            }
+            final Object pojo = reference.recreate(adapterManager, specificationLoader);
+            if (pojo != null) {
+                referenceByPojo.put(pojo, reference);
+            }
+            return pojo;
+        }
+
+        @Override
+        public String toString(final Object object) {
+            if (object == null) {
+                return null;
+            }
+            final Reference reference = referenceByPojo.get(object);
+            return reference != null ? reference.getString() : object.toString();
+        }
+
+        @Override
+        public String classNameOf(final Object object) {
+            final Reference reference = referenceByPojo.get(object);
+            return reference != null ? reference.getClassName() : object.getClass().getName();
+        }
+    }
+
+
+    // //////////////////////////////////////
+    // ForObjectChanged
+    // //////////////////////////////////////
+
+    static class ForObjectChanged extends PayloadMemento {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Reference changed;
+
+        ForObjectChanged(
+                final EventPayloadForObjectChanged<?> payload,
+                final AdapterManager adapterManager,
+                final ObjectStringifier stringifier) {
+            this.changed = Reference.of(payload.getChanged(), adapterManager, stringifier);
+        }
+
+        @Override
+        public EventPayload recreate(final AdapterManager adapterManager, final SpecificationLoader specificationLoader) {
+            final RecordedStringifier stringifier = new RecordedStringifier();
+            final EventPayloadForObjectChanged<Object> payload =
+                    new EventPayloadForObjectChanged<Object>(stringifier.recreate(changed, adapterManager, specificationLoader));
+            payload.withStringifier(stringifier);
+            return payload;
+        }
+    }
+
+
+    // //////////////////////////////////////
+    // ForActionInvocation
+    // //////////////////////////////////////
+
+    static class ForActionInvocation extends PayloadMemento {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String actionIdentifier;
+        private final Reference target;
+        private final List<Reference> arguments = Lists.newArrayList();
+        private final Reference result;
+
+        ForActionInvocation(
+                final EventPayloadForActionInvocation<?> payload,
+                final AdapterManager adapterManager,
+                final ObjectStringifier stringifier) {
+            this.actionIdentifier = payload.getActionName();
+            this.target = Reference.of(payload.getTarget(), adapterManager, stringifier);
+            for (final Object argument : payload.getArguments()) {
+                this.arguments.add(Reference.of(argument, adapterManager, stringifier));
+            }
+            this.result = Reference.of(payload.getResult(), adapterManager, stringifier);
+        }
+
+        @Override
+        public EventPayload recreate(final AdapterManager adapterManager, final SpecificationLoader specificationLoader) {
+            final RecordedStringifier stringifier = new RecordedStringifier();
+            final List<Object> recreatedArguments = Lists.newArrayList();
+            for (final Reference argument : arguments) {
+                recreatedArguments.add(stringifier.recreate(argument, adapterManager, specificationLoader));
+            }
+            final EventPayloadForActionInvocation<Object> payload = new EventPayloadForActionInvocation<Object>(
+                    Identifier.fromIdentityString(actionIdentifier),
+                    stringifier.recreate(target, adapterManager, specificationLoader),
+                    recreatedArguments,
+                    stringifier.recreate(result, adapterManager, specificationLoader));
+            payload.withStringifier(stringifier);
+            return payload;
+        }
+    }
+
+
+    // //////////////////////////////////////
+    // ForSerializable
+    // //////////////////////////////////////
+
+    static class ForSerializable extends PayloadMemento {
+
+        private static final long serialVersionUID = 1L;
+
+        private final EventPayload payload;
+
+        ForSerializable(final EventPayload payload) {
+            this.payload = payload;
+        }
+
+        @Override
+        public EventPayload recreate(final AdapterManager adapterManager, final SpecificationLoader specificationLoader) {
+            payload.withStringifier(new RecordedStringifier());
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.services.outbox;
+
+import java.io.File;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.audit.AuditingService3;
+import org.apache.isis.applib.services.publish.PublishingService;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
+import org.apache.isis.core.metamodel.spec.SpecificationLoader;
+import org.apache.isis.core.runtime.sessiontemplate.AbstractIsisSessionTemplate;
+import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.internal.InitialisationSession;
+
+/**
+ * Optional domain service that decouples the {@link AuditingService3 auditing} and
+ * {@link PublishingService publishing} services from the transactions that they record.
+ *
+ * <p>
+ * When this service is registered (it is not annotated as a domain service, so must be listed
+ * explicitly in <tt>isis.services</tt>), each transaction collects its audit entries and published
+ * events into a single {@link OutboxBatch batch} rather than calling those services once per changed
+ * property or object.  The batch is written to a local {@link FileOutbox file-backed outbox} before
+ * the transaction is committed to the datastore, and once committed is delivered to the configured
+ * services on a bounded pool of background threads, each batch within its own session and transaction.
+ * Delivery is <i>at least once</i>, so the services should tolerate duplicate events.
+ *
+ * <p>
+ * Published event payloads are held as a {@link PayloadMemento memento}, and recreated within the
+ * delivering session; any objects that they reference are therefore as at delivery rather than as at
+ * commit (though their string forms are as at commit).  Payloads from application-provided payload
+ * factories must be {@link java.io.Serializable serializable}.
+ *
+ * <p>
+ * The outbox can be configured using:
+ * <ul>
+ * <li>{@value #DIRECTORY_KEY} (default <tt>isis-outbox</tt> under <tt>java.io.tmpdir</tt>)</li>
+ * <li>{@value #THREADS_KEY} (default {@value #THREADS_DEFAULT})</li>
+ * <li>{@value #QUEUE_CAPACITY_KEY} (default {@value #QUEUE_CAPACITY_DEFAULT}); once this many batches
+ * are pending, committing transactions block until one has been delivered</li>
+ * <li>{@value #MAX_ATTEMPTS_KEY} (default {@value #MAX_ATTEMPTS_DEFAULT})</li>
+ * <li>{@value #RETRY_DELAY_MILLIS_KEY} (default {@value #RETRY_DELAY_MILLIS_DEFAULT}), doubled for
+ * each subsequent attempt</li>
+ * <li>{@value #REPLAY_DELAY_MILLIS_KEY} (default {@value #REPLAY_DELAY_MILLIS_DEFAULT}), before any batches
+ * left pending by a previous run are redelivered</li>
+ * <li>{@value #SHUTDOWN_TIMEOUT_MILLIS_KEY} (default {@value #SHUTDOWN_TIMEOUT_MILLIS_DEFAULT})</li>
+ * </ul>
+ */
+public class PublishingAndAuditingOutbox {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PublishingAndAuditingOutbox.class);
+
+    public static final String DIRECTORY_KEY = "isis.services.outbox.directory";
+
+    public static final String THREADS_KEY = "isis.services.outbox.threads";
+    public static final int THREADS_DEFAULT = 1;
+
+    public static final String QUEUE_CAPACITY_KEY = "isis.services.outbox.queueCapacity";
+    public static final int QUEUE_CAPACITY_DEFAULT = 1000;
+
+    public static final String MAX_ATTEMPTS_KEY = "isis.services.outbox.maxAttempts";
+    public static final int MAX_ATTEMPTS_DEFAULT = 10;
+
+    public static final String RETRY_DELAY_MILLIS_KEY = "isis.services.outbox.retryDelayMillis";
+    public static final long RETRY_DELAY_MILLIS_DEFAULT = 1000L;
+
+    public static final String REPLAY_DELAY_MILLIS_KEY = "isis.services.outbox.replayDelayMillis";
+    public static final long REPLAY_DELAY_MILLIS_DEFAULT = 10000L;
+
+    public static final String SHUTDOWN_TIMEOUT_MILLIS_KEY = "isis.services.outbox.shutdownTimeoutMillis";
+    public static final long SHUTDOWN_TIMEOUT_MILLIS_DEFAULT = 10000L;
+
+    private FileOutbox outbox;
+
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String, String> props) {
+        final String directory = props.containsKey(DIRECTORY_KEY)
+                ? props.get(DIRECTORY_KEY)
+                : new File(System.getProperty("java.io.tmpdir"), "isis-outbox").getPath();
+        outbox = new FileOutbox(
+                new File(directory),
+                intFrom(props, THREADS_KEY, THREADS_DEFAULT),
+                intFrom(props, QUEUE_CAPACITY_KEY, QUEUE_CAPACITY_DEFAULT),
+                intFrom(props, MAX_ATTEMPTS_KEY, MAX_ATTEMPTS_DEFAULT),
+                longFrom(props, RETRY_DELAY_MILLIS_KEY, RETRY_DELAY_MILLIS_DEFAULT),
+                longFrom(props, REPLAY_DELAY_MILLIS_KEY, REPLAY_DELAY_MILLIS_DEFAULT),
+                longFrom(props, SHUTDOWN_TIMEOUT_MILLIS_KEY, SHUTDOWN_TIMEOUT_MILLIS_DEFAULT),
+                new FileOutbox.Sink() {
+                    @Override
+                    public void deliver(final OutboxBatch batch) {
+                        deliverInSession(batch);
+                    }
+                });
+        outbox.start();
+        LOG.info("outbox started in {}", directory);
+    }
+
+    private static int intFrom(final Map<String, String> props, final String key, final int defaultValue) {
+        final String value = props.get(key);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    private static long longFrom(final Map<String, String> props, final String key, final long defaultValue) {
+        final String value = props.get(key);
+        return value != null ? Long.parseLong(value.trim()) : defaultValue;
+    }
+
+    @Programmatic
+    @PreDestroy
+    public void shutdown() {
+        if (outbox != null) {
+            outbox.shutdown();
+        }
+    }
+
+
+    // //////////////////////////////////////
+    // prepare, release, discard
+    // //////////////////////////////////////
+
+    /**
+     * Called by the framework before a transaction is committed to the datastore, to durably record its batch;
+     * blocks while the outbox is at capacity.
+     *
+     * @see FileOutbox#prepare(OutboxBatch)
+     */
+    @Programmatic
+    public void prepare(final OutboxBatch batch) {
+        outbox.prepare(batch);
+    }
+
+    /**
+     * Called by the framework once the transaction has committed; does not throw.
+     *
+     * @see FileOutbox#release(OutboxBatch)
+     */
+    @Programmatic
+    public void release(final OutboxBatch batch) {
+        outbox.release(batch);
+    }
+
+    /**
+     * Called by the framework if the transaction is instead aborted.
+     *
+     * @see FileOutbox#discard(OutboxBatch)
+     */
+    @Programmatic
+    public void discard(final OutboxBatch batch) {
+        outbox.discard(batch);
+    }
+
+
+    // //////////////////////////////////////
+    // deliver
+    // //////////////////////////////////////
+
+    /**
+     * Delivers the batch within a new session and transaction (as required by, for example, the JDO
+     * implementations of the auditing and publishing services).
+     */
+    protected void deliverInSession(final OutboxBatch batch) {
+        new AbstractIsisSessionTemplate() {
+            @Override
+            protected void doExecuteWithTransaction(final Object context) {
+                deliver(batch);
+            }
+        }.execute(new InitialisationSession(), batch);
+    }
+
+    protected void deliver(final OutboxBatch batch) {
+        if (auditingService != null) {
+            for (final OutboxBatch.AuditEntry auditEntry : batch.getAuditEntries()) {
+                auditEntry.deliverTo(auditingService);
+            }
+        }
+        if (publishingService != null) {
+            final AdapterManager adapterManager = IsisContext.getPersistenceSession().getAdapterManager();
+            final SpecificationLoader specificationLoader = IsisContext.getSpecificationLoader();
+            for (final OutboxBatch.PublishedEvent publishedEvent : batch.getPublishedEvents()) {
+                publishedEvent.deliverTo(publishingService, adapterManager, specificationLoader);
+            }
+        }
+    }
+
+
+    // //////////////////////////////////////
+    // metrics
+    // //////////////////////////////////////
+
+    @Programmatic
+    public int getQueueDepth() {
+        return outbox.getQueueDepth();
+    }
+
+    @Programmatic
+    public long getLagMillis() {
+        return outbox.getLagMillis();
+    }
+
+    @Programmatic
+    public double getAverageBatchSize() {
+        return outbox.getAverageBatchSize();
+    }
+
+    @Programmatic
+    public int getLargestBatchSize() {
+        return outbox.getLargestBatchSize();
+    }
+
+    /**
+     * Queue depth, lag, batch sizes, and counts of batches enqueued, delivered, failed and retried.
+     */
+    @Programmatic
+    public Map<String, Object> getStatistics() {
+        return outbox.getStatistics();
+    }
+
+
+    // //////////////////////////////////////
+
+    @javax.inject.Inject
+    private AuditingService3 auditingService;
+
+    @javax.inject.Inject
+    private PublishingService publishingService;
+
+}
@@ -159,6 +159,19 @@ public interface ObjectStore extends TransactionalResource, DebuggableWithTitle,
      */
     ObjectAdapter loadInstanceAndAdapt(TypedOid oid);
 
+    /**
+     * As {@link #loadInstanceAndAdapt(TypedOid)}, but for a number of objects at once, returning their
+     * {@link ObjectAdapter adapter}s in the same order as the specified {@link TypedOid}s.
+     * 
+     * <p>
+     * Object stores that retrieve objects from a remote persistence mechanism should do so in as few
+     * round-trips as possible (for example, once per type).
+     * 
+     * @throws org.apache.isis.core.runtime.persistence.ObjectNotFoundException
+     *             when no object corresponding to any of the oids can be found
+     */
+    List<ObjectAdapter> loadInstancesAndAdapt(List<TypedOid> oids);
+
 
     // ///////////////////////////////////////////////////////
     // resolveImmediately
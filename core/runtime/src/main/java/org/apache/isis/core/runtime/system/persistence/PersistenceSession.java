@@ -18,10 +18,14 @@
  */
 package org.apache.isis.core.runtime.system.persistence;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.isis.applib.query.Query;
@@ -40,6 +44,7 @@
 import org.apache.isis.core.metamodel.adapter.oid.Oid;
 import org.apache.isis.core.metamodel.adapter.oid.RootOid;
 import org.apache.isis.core.metamodel.adapter.oid.TypedOid;
+import org.apache.isis.core.metamodel.facets.object.dirty.IsDirtyObjectFacet;
 import org.apache.isis.core.metamodel.facets.object.immutable.ImmutableFacetUtils;
 import org.apache.isis.core.metamodel.facets.object.viewmodel.ViewModelFacet;
 import org.apache.isis.core.metamodel.services.ServiceUtil;
@@ -87,6 +92,13 @@ public class PersistenceSession implements SessionScopedComponent, DebuggableWit
 
     private boolean dirtiableSupport = true;
 
+    /**
+     * Those objects that have been {@link Dirtiable#markDirty(ObjectAdapter) marked as dirty}
+     * (and {@link #objectMarkedDirty(ObjectAdapter) registered} as such) since the last time that
+     * dirty objects were {@link #objectChangedAllDirty() processed} or {@link #clearAllDirty() cleared}.
+     */
+    private final Set<ObjectAdapter> dirtyAdapters = Sets.newLinkedHashSet();
+
 
 
     private static enum State {
@@ -258,6 +270,7 @@ public void close() {
         } catch(RuntimeException ex) {
             // ignore
         }
+        drainDirtyAdapters();
 
         setState(State.CLOSED);
     }
@@ -448,6 +461,9 @@ public boolean isCheckObjectsForDirtyFlag() {
      * {@link Dirtiable#markDirty(ObjectAdapter) marked as dirty}.
      * 
      * <p>
+     * Only those objects that {@link #adaptersToCheckForDirty() could be dirty} are checked.
+     *
+     * <p>
      * Called by the {@link IsisTransactionManager}.
      */
     public void objectChangedAllDirty() {
@@ -458,7 +474,7 @@ public void objectChangedAllDirty() {
         if (LOG.isDebugEnabled()) {
             LOG.debug("marking as changed any objects that have been manually set as dirty");
         }
-        for (final ObjectAdapter adapter : adapterManager) {
+        for (final ObjectAdapter adapter : adaptersToCheckForDirty()) {
             if (adapter.getSpecification().isDirty(adapter)) {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("  found dirty object " + adapter);
@@ -469,6 +485,73 @@ public void objectChangedAllDirty() {
         }
     }
 
+    /**
+     * Registers an object that has been {@link Dirtiable#markDirty(ObjectAdapter) marked as dirty},
+     * to be checked by {@link #objectChangedAllDirty()}.
+     *
+     * <p>
+     * Called (via the {@link org.apache.isis.core.metamodel.adapter.ObjectDirtier}) whenever an object is
+     * marked as dirty.
+     */
+    public synchronized void objectMarkedDirty(final ObjectAdapter adapter) {
+        if (!dirtiableSupport) {
+            return;
+        }
+        dirtyAdapters.add(adapter);
+    }
+
+    /**
+     * Returns (and forgets) all objects registered as dirty; the caller is then free to change the dirty
+     * state of each (which may register the object once more).
+     */
+    private synchronized List<ObjectAdapter> drainDirtyAdapters() {
+        if (dirtyAdapters.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<ObjectAdapter> adapters = Lists.newArrayList(dirtyAdapters);
+        dirtyAdapters.clear();
+        return adapters;
+    }
+
+    /**
+     * Those objects {@link #objectMarkedDirty(ObjectAdapter) registered} as having been marked dirty, along with
+     * every object in the {@link AdapterManagerDefault adapter map} whose type has an {@link IsDirtyObjectFacet}.
+     *
+     * <p>
+     * The latter is required because a pojo can mark itself as dirty (for its <tt>isDirty()</tt> method to
+     * report) without going through its specification.  The adapter map is only swept if some specification
+     * has such a facet.
+     */
+    private Collection<ObjectAdapter> adaptersToCheckForDirty() {
+        final List<ObjectAdapter> markedDirty = drainDirtyAdapters();
+        if (!isAnySpecificationDirtiable()) {
+            return markedDirty;
+        }
+        final Set<ObjectAdapter> adapters = Sets.newLinkedHashSet(markedDirty);
+        for (final ObjectAdapter adapter : adapterManager) {
+            if (adapter.getSpecification().containsFacet(IsDirtyObjectFacet.class)) {
+                adapters.add(adapter);
+            }
+        }
+        return adapters;
+    }
+
+    private boolean isAnySpecificationDirtiable() {
+        for (final ObjectSpecification specification : getSpecificationLoader().allSpecifications()) {
+            if (specification.containsFacet(IsDirtyObjectFacet.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of objects currently {@link #objectMarkedDirty(ObjectAdapter) registered} as dirty.
+     */
+    public synchronized int getDirtyCount() {
+        return dirtyAdapters.size();
+    }
+
     /**
      * Set as {@link Dirtiable#clearDirty(ObjectAdapter) clean} any
      * {@link Dirtiable} objects.
@@ -481,7 +564,7 @@ public synchronized void clearAllDirty() {
             LOG.debug("cleaning any manually dirtied objects");
         }
 
-        for (final ObjectAdapter object : adapterManager) {
+        for (final ObjectAdapter object : adaptersToCheckForDirty()) {
             if (object.getSpecification().isDirty(object)) {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("  found dirty object " + object);
@@ -608,6 +691,48 @@ public ObjectAdapter loadObject(final TypedOid oid) {
         return loadMappedObjectFromObjectStore(oid);
     }
 
+    /**
+     * Loads the objects identified by the specified {@link TypedOid}s, as per {@link #loadObject(TypedOid)},
+     * returning their adapters in the same order.
+     * 
+     * <p>
+     * Those persistent objects that are not already mapped are loaded from the object store
+     * {@link ObjectStore#loadInstancesAndAdapt(List) in bulk}, rather than one at a time; any view models
+     * are recreated through the {@link AdapterManager} as usual.
+     */
+    public List<ObjectAdapter> loadObjects(final List<TypedOid> oids) {
+        return loadObjects(oids, AdapterManager.ConcurrencyChecking.NO_CHECK);
+    }
+
+    /**
+     * As {@link #loadObjects(List)}, but also checking (and in any case syncing) the version of each of
+     * the oids, as per {@link AdapterManager#adapterFor(TypedOid, AdapterManager.ConcurrencyChecking)}.
+     */
+    public List<ObjectAdapter> loadObjects(final List<TypedOid> oids, final AdapterManager.ConcurrencyChecking concurrencyChecking) {
+        ensureThatArg(oids, is(notNullValue()));
+
+        final List<TypedOid> oidsToLoad = Lists.newArrayList();
+        for (final TypedOid oid : oids) {
+            if (!oid.isTransient() && !oid.isViewModel() && getAdapterManager().getAdapterFor(oid) == null) {
+                oidsToLoad.add(oid);
+            }
+        }
+        if (!oidsToLoad.isEmpty()) {
+            getTransactionManager().executeWithinTransaction(new TransactionalClosureWithReturnAbstract<List<ObjectAdapter>>() {
+                @Override
+                public List<ObjectAdapter> execute() {
+                    return objectStore.loadInstancesAndAdapt(oidsToLoad);
+                }
+            });
+        }
+
+        final List<ObjectAdapter> adapters = Lists.newArrayListWithCapacity(oids.size());
+        for (final TypedOid oid : oids) {
+            adapters.add(getAdapterManager().adapterFor(oid, concurrencyChecking));
+        }
+        return adapters;
+    }
+
     private ObjectAdapter loadMappedObjectFromObjectStore(final TypedOid oid) {
         ObjectAdapter adapter = getTransactionManager().executeWithinTransaction(new TransactionalClosureWithReturnAbstract<ObjectAdapter>() {
             @Override
@@ -917,6 +1042,7 @@ public void debugData(final DebugBuilder debug) {
         debug.appendln();
 
         debug.appendln("manually dirtiable support (isDirty flag)?", dirtiableSupport);
+        debug.appendln("objects registered as dirty", getDirtyCount());
 
         debug.appendTitle("OID Generator");
         oidGenerator.debugData(debug);
@@ -974,6 +1100,7 @@ protected boolean isImmutable(final ObjectAdapter adapter) {
     public void testReset() {
         objectStore.reset();
         adapterManager.reset();
+        drainDirtyAdapters();
     }
 
     // ///////////////////////////////////////////////////////////////////////////
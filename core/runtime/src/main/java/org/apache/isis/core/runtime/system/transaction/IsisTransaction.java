@@ -47,6 +47,7 @@
 import org.apache.isis.applib.services.command.spi.CommandService;
 import org.apache.isis.applib.services.eventbus.ActionInteractionEvent;
 import org.apache.isis.applib.services.publish.*;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCacheApplicationScoped;
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.authentication.MessageBroker;
 import org.apache.isis.core.commons.components.TransactionScopedComponent;
@@ -75,6 +76,9 @@
 import org.apache.isis.core.runtime.persistence.ObjectPersistenceException;
 import org.apache.isis.core.runtime.persistence.PersistenceConstants;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.*;
+import org.apache.isis.core.runtime.services.outbox.OutboxBatch;
+import org.apache.isis.core.runtime.services.outbox.PayloadMemento;
+import org.apache.isis.core.runtime.services.outbox.PublishingAndAuditingOutbox;
 import org.apache.isis.core.runtime.system.context.IsisContext;
 
 import static org.apache.isis.core.commons.ensure.Ensure.ensureThatArg;
@@ -214,7 +218,7 @@ public TransactionState getRuntimeContextState() {
     private static final Logger LOG = LoggerFactory.getLogger(IsisTransaction.class);
 
     private final TransactionalResource objectStore;
-    private final List<PersistenceCommand> commands = Lists.newArrayList();
+    private final PersistenceCommandQueue commands = new PersistenceCommandQueue();
     private final IsisTransactionManager transactionManager;
     private final MessageBroker messageBroker;
 
@@ -237,6 +241,14 @@ public TransactionState getRuntimeContextState() {
      * could be null if none has been registered
      */
     private final PublishingServiceWithDefaultPayloadFactories publishingService;
+    /**
+     * could be null if none has been registered; if present, audit entries and published events are
+     * collected into the {@link #outboxBatch}, which is prepared in {@link #preCommit()} and only released
+     * once committed.
+     */
+    private final PublishingAndAuditingOutbox outbox;
+    private OutboxBatch outboxBatch;
+    private boolean outboxBatchPrepared;
 
     /**
      * Will be that of the {@link #command} if not <tt>null</tt>, otherwise will be randomly created.
@@ -266,6 +278,7 @@ public IsisTransaction(
         this.commandContext = servicesInjector.lookupService(CommandContext.class);
         this.auditingService3 = servicesInjector.lookupService(AuditingService3.class);
         this.publishingService = getPublishingServiceIfAny(servicesInjector);
+        this.outbox = servicesInjector.lookupService(PublishingAndAuditingOutbox.class);
 
         // determine whether this xactn is taking place in the context of an
         // existing command in which a previous xactn has already occurred.
@@ -496,8 +509,7 @@ private void doFlush() {
         do {
             // We take a copy of the commands to be executed (executing these
             // might add to this.commands).
-            final List<PersistenceCommand> commandsPrior = 
-                    Collections.unmodifiableList(Lists.newArrayList(commands));
+            final List<PersistenceCommand> commandsPrior = commands.snapshot();
             try {
                 objectStore.execute(commandsPrior);
                 for (final PersistenceCommand command : commandsPrior) {
@@ -520,8 +532,7 @@ private void doFlush() {
         
         if(!commands.isEmpty()) {
             // must have hit max flush
-            final List<PersistenceCommand> commandsStillToFlush = 
-                    Collections.unmodifiableList(Lists.newArrayList(commands));
+            final List<PersistenceCommand> commandsStillToFlush = commands.snapshot();
             commands.clear();
             throw new ObjectPersistenceException("Failed to flush transaction after " + MAX_FLUSH_ATTEMPTS + " attempts; commands still to flush:\n " + commandsStillToFlush.toString());
         }
@@ -576,7 +587,12 @@ protected void publishActionIfRequired(final String currentUser, final java.sql.
             final String memberIdentifier = command.getMemberIdentifier();
             
             final EventMetadata metadata = newEventMetadata(EventType.ACTION_INVOCATION, currentUser, timestamp, title, targetClass, targetAction, target, memberIdentifier);
-            publishingService.publishAction(payloadFactory, metadata, currentInvocation, objectStringifier());
+            if(outbox != null) {
+                final EventPayload payload = publishingService.payloadForAction(payloadFactory, currentInvocation, objectStringifier());
+                outboxBatch().add(new OutboxBatch.PublishedEvent(metadata, PayloadMemento.of(payload, getAdapterManager(), objectStringifier())));
+            } else {
+                publishingService.publishAction(payloadFactory, metadata, currentInvocation, objectStringifier());
+            }
         } finally {
             // ensures that cannot publish this action more than once
             ActionInvocationFacet.currentInvocation.set(null);
@@ -613,7 +629,12 @@ protected List<ObjectAdapter> publishedChangedObjectsIfRequired(final String cur
             
             final EventMetadata metadata = newEventMetadata(eventTypeFor, currentUser, timestamp, title, enlistedAdapterClass, null, enlistedTarget, null);
         
-            publishingService.publishObject(payloadFactory, metadata, enlistedAdapter, changeKind, objectStringifier());
+            if(outbox != null) {
+                final EventPayload payload = publishingService.payloadForObject(payloadFactory, enlistedAdapter, changeKind, objectStringifier());
+                outboxBatch().add(new OutboxBatch.PublishedEvent(metadata, PayloadMemento.of(payload, getAdapterManager(), objectStringifier())));
+            } else {
+                publishingService.publishObject(payloadFactory, metadata, enlistedAdapter, changeKind, objectStringifier());
+            }
         }
         return enlistedAdapters;
     }
@@ -696,7 +717,18 @@ public void auditChangedProperty(
         final String targetClass = CommandUtil.targetClassNameFor(adapter);
         final Bookmark target = new Bookmark(objectType, identifier);
 
-        auditingService3.audit(getTransactionId(), targetClass, target, memberId, propertyId, preValue, postValue, user, timestamp);
+        if(outbox != null) {
+            outboxBatch().add(new OutboxBatch.AuditEntry(getTransactionId(), targetClass, target, memberId, propertyId, preValue, postValue, user, timestamp));
+        } else {
+            auditingService3.audit(getTransactionId(), targetClass, target, memberId, propertyId, preValue, postValue, user, timestamp);
+        }
+    }
+
+    private OutboxBatch outboxBatch() {
+        if(outboxBatch == null) {
+            outboxBatch = new OutboxBatch(getTransactionId());
+        }
+        return outboxBatch;
     }
 
     private static String asString(Object object) {
@@ -731,9 +763,11 @@ synchronized void preCommit() {
 
         try {
             final Set<Entry<AdapterAndProperty, PreAndPostValues>> changedObjectProperties = getChangedObjectProperties();
+            changedTypes.addAll(findChangedTypes(changedObjectProperties));
 
             ensureCommandsPersistedIfDirtyXactnAndAnySafeSemanticsHonoured(changedObjectProperties);
             preCommitServices(changedObjectProperties);
+            prepareOutboxBatchIfAny();
         } catch (final RuntimeException ex) {
             setAbortCause(new IsisTransactionManagerException(ex));
             clearCommandServiceIfConfigured();
@@ -833,6 +867,15 @@ private static Set<ObjectAdapter> findChangedAdapters(
     }
 
 
+    private static Set<Class<?>> findChangedTypes(
+            final Set<Entry<AdapterAndProperty, PreAndPostValues>> changedObjectProperties) {
+        final Set<Class<?>> changedTypes = Sets.newHashSet();
+        for (final ObjectAdapter changedAdapter : findChangedAdapters(changedObjectProperties)) {
+            changedTypes.add(changedAdapter.getSpecification().getCorrespondingClass());
+        }
+        return changedTypes;
+    }
+
     private void preCommitServices(final Set<Entry<AdapterAndProperty, PreAndPostValues>> changedObjectProperties) {
         doAudit(changedObjectProperties);
         
@@ -908,6 +951,67 @@ public synchronized void commit() {
         }
 
         setState(State.COMMITTED);
+
+        invalidateQueryResultsCacheIfConfigured();
+        releaseOutboxBatchIfAny();
+    }
+
+    /**
+     * Durably records the audit entries and published events collected in {@link #preCommit()}, before the
+     * transaction is committed to the datastore; should this fail, the transaction is aborted.
+     */
+    private void prepareOutboxBatchIfAny() {
+        if(outboxBatch == null) {
+            return;
+        }
+        outbox.prepare(outboxBatch);
+        outboxBatchPrepared = true;
+    }
+
+    /**
+     * Releases the {@link #prepareOutboxBatchIfAny() prepared} batch for delivery, now that the transaction
+     * has committed.  Any failure is logged rather than thrown; the transaction cannot now be aborted, and the
+     * batch remains in the outbox to be redelivered.
+     */
+    private void releaseOutboxBatchIfAny() {
+        if(!outboxBatchPrepared) {
+            return;
+        }
+        final OutboxBatch batch = outboxBatch;
+        outboxBatch = null;
+        outboxBatchPrepared = false;
+        try {
+            outbox.release(batch);
+        } catch(final RuntimeException ex) {
+            LOG.error("Unable to release " + batch + " for delivery; will be redelivered on restart", ex);
+        }
+    }
+
+    private void discardOutboxBatchIfAny() {
+        final OutboxBatch batch = outboxBatch;
+        final boolean prepared = outboxBatchPrepared;
+        outboxBatch = null;
+        outboxBatchPrepared = false;
+        if(prepared) {
+            outbox.discard(batch);
+        }
+    }
+
+    /**
+     * The types of the objects changed by this transaction, captured in {@link #preCommit()} (because the
+     * changed properties are cleared once audited) for use once committed.
+     */
+    private final Set<Class<?>> changedTypes = Sets.newHashSet();
+
+    private void invalidateQueryResultsCacheIfConfigured() {
+        if (changedTypes.isEmpty()) {
+            return;
+        }
+        final QueryResultsCacheApplicationScoped queryResultsCache = getServiceOrNull(QueryResultsCacheApplicationScoped.class);
+        if (queryResultsCache != null) {
+            queryResultsCache.invalidateDependentOn(changedTypes);
+        }
+        changedTypes.clear();
     }
 
 
@@ -923,6 +1027,7 @@ public synchronized final void markAsAborted() {
         }
 
         setState(State.ABORTED);
+        discardOutboxBatchIfAny();
     }
 
     
@@ -969,44 +1074,24 @@ public void clearAbortCause() {
     // Helpers
     // //////////////////////////////////////////////////////////
 
-    private boolean alreadyHasCommand(final Class<?> commandClass, final ObjectAdapter onObject) {
-        return getCommand(commandClass, onObject) != null;
-    }
-
     private boolean alreadyHasCreate(final ObjectAdapter onObject) {
-        return alreadyHasCommand(CreateObjectCommand.class, onObject);
+        return commands.contains(PersistenceCommandQueue.Kind.CREATE, onObject);
     }
 
     private boolean alreadyHasDestroy(final ObjectAdapter onObject) {
-        return alreadyHasCommand(DestroyObjectCommand.class, onObject);
+        return commands.contains(PersistenceCommandQueue.Kind.DESTROY, onObject);
     }
 
     private boolean alreadyHasSave(final ObjectAdapter onObject) {
-        return alreadyHasCommand(SaveObjectCommand.class, onObject);
-    }
-
-    private PersistenceCommand getCommand(final Class<?> commandClass, final ObjectAdapter onObject) {
-        for (final PersistenceCommand command : commands) {
-            if (command.onAdapter().equals(onObject)) {
-                if (commandClass.isAssignableFrom(command.getClass())) {
-                    return command;
-                }
-            }
-        }
-        return null;
-    }
-
-    private void removeCommand(final Class<?> commandClass, final ObjectAdapter onObject) {
-        final PersistenceCommand toDelete = getCommand(commandClass, onObject);
-        commands.remove(toDelete);
+        return commands.contains(PersistenceCommandQueue.Kind.SAVE, onObject);
     }
 
     private void removeCreate(final ObjectAdapter onObject) {
-        removeCommand(CreateObjectCommand.class, onObject);
+        commands.remove(PersistenceCommandQueue.Kind.CREATE, onObject);
     }
 
     private void removeSave(final ObjectAdapter onObject) {
-        removeCommand(SaveObjectCommand.class, onObject);
+        commands.remove(PersistenceCommandQueue.Kind.SAVE, onObject);
     }
 
     // ////////////////////////////////////////////////////////////////
@@ -39,6 +39,7 @@
 import org.apache.isis.core.runtime.system.context.IsisContext;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.IsisLifecycleListener;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.JdoQueryTemplates;
 import org.apache.isis.objectstore.jdo.metamodel.facets.object.query.JdoNamedQuery;
 import org.apache.isis.objectstore.jdo.metamodel.facets.object.query.JdoQueryFacet;
 
@@ -83,6 +84,7 @@ public boolean isStale() {
     
     private Map<String, JdoNamedQuery> namedQueryByName;
     private PersistenceManagerFactory persistenceManagerFactory;
+    private final JdoQueryTemplates queryTemplates = new JdoQueryTemplates();
 
     public DataNucleusApplicationComponents(
             final Map<String, String> props, 
@@ -187,6 +189,14 @@ public JdoNamedQuery getNamedQuery(String queryName) {
         return namedQueryByName.get(queryName);
     }
 
+    /**
+     * The queries executed through the {@link #getPersistenceManagerFactory() persistence manager factory}'s
+     * persistence managers, along with their statistics.
+     */
+    public JdoQueryTemplates getQueryTemplates() {
+        return queryTemplates;
+    }
+
     
     ///////////////////////////////////////////////////////////////////////////
     //
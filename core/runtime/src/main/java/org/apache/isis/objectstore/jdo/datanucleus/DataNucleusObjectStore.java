@@ -20,6 +20,9 @@
 
 import java.sql.Connection;
 import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import javax.jdo.FetchGroup;
@@ -197,7 +200,7 @@ private void addPersistenceQueryProcessors(final PersistenceManager persistenceM
         persistenceQueryProcessorByClass.put(PersistenceQueryFindAllInstances.class, new PersistenceQueryFindAllInstancesProcessor(persistenceManager, frameworkSynchronizer));
         persistenceQueryProcessorByClass.put(PersistenceQueryFindByTitle.class, new PersistenceQueryFindByTitleProcessor(persistenceManager, frameworkSynchronizer));
         persistenceQueryProcessorByClass.put(PersistenceQueryFindByPattern.class, new PersistenceQueryFindByPatternProcessor(persistenceManager, frameworkSynchronizer));
-        persistenceQueryProcessorByClass.put(PersistenceQueryFindUsingApplibQueryDefault.class, new PersistenceQueryFindUsingApplibQueryProcessor(persistenceManager, frameworkSynchronizer));
+        persistenceQueryProcessorByClass.put(PersistenceQueryFindUsingApplibQueryDefault.class, new PersistenceQueryFindUsingApplibQueryProcessor(persistenceManager, frameworkSynchronizer, applicationComponents.getQueryTemplates()));
     }
 
     // ///////////////////////////////////////////////////////////////////////
@@ -377,6 +380,24 @@ public ObjectAdapter loadInstanceAndAdapt(final TypedOid oid) {
         return getPersistenceSession().getAdapterManager().mapRecreatedPojo(oid, pojo);
     }
 
+    @Override
+    public List<ObjectAdapter> loadInstancesAndAdapt(final List<TypedOid> oids) {
+        ensureOpened();
+        ensureInTransaction();
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("getObjects; oids=" + oids);
+        }
+
+        final List<Object> pojos = loadPojos(oids);
+        final AdapterManager adapterManager = getPersistenceSession().getAdapterManager();
+        final List<ObjectAdapter> adapters = Lists.newArrayListWithCapacity(oids.size());
+        for (int i = 0; i < oids.size(); i++) {
+            adapters.add(adapterManager.mapRecreatedPojo(oids.get(i), pojos.get(i)));
+        }
+        return adapters;
+    }
+
     
     
     /////////////////////////////////////////////////////////////
@@ -401,20 +422,9 @@ public Object loadPojo(final TypedOid oid) {
             fetchPlan.addGroup(FetchGroup.DEFAULT);
             result = pm.getObjectById(cls, jdoObjectId);
         } catch (final RuntimeException e) {
-
-            final List<ExceptionRecognizer> exceptionRecognizers = getPersistenceSession().getServicesInjector().lookupServices(ExceptionRecognizer.class);
-            for (ExceptionRecognizer exceptionRecognizer : exceptionRecognizers) {
-                if(exceptionRecognizer instanceof ExceptionRecognizer2) {
-                    final ExceptionRecognizer2 recognizer = (ExceptionRecognizer2) exceptionRecognizer;
-                    final ExceptionRecognizer2.Recognition recognition = recognizer.recognize2(e);
-                    if(recognition != null) {
-                        if(recognition.getCategory() == ExceptionRecognizer2.Category.NOT_FOUND) {
-                            throw new ObjectNotFoundException(oid);
-                        }
-                    }
-                }
+            if(isNotFound(e)) {
+                throw new ObjectNotFoundException(oid);
             }
-
             throw e;
         }
 
@@ -424,6 +434,96 @@ public Object loadPojo(final TypedOid oid) {
         return result;
     }
 
+    /**
+     * As {@link #loadPojo(TypedOid)}, but for a number of objects at once, returning the pojos in the same
+     * order as the specified oids.
+     * 
+     * <p>
+     * The oids are grouped by type, and the objects of each type are retrieved using a single call to
+     * {@link PersistenceManager#getObjectsById(Collection, boolean)}.  If any of the objects of a type cannot
+     * be found, then they are retrieved one at a time, so that the {@link ObjectNotFoundException} identifies
+     * the oid that was not found.
+     */
+    public List<Object> loadPojos(final List<TypedOid> oids) {
+
+        final Map<Class<?>, List<Integer>> positionsByClass = Maps.newLinkedHashMap();
+        for (int i = 0; i < oids.size(); i++) {
+            final TypedOid oid = oids.get(i);
+            if(oid instanceof AggregatedOid) {
+                throw new UnsupportedOperationException("Cannot retrieve aggregated objects directly, oid: " + oid.enString(getOidMarshaller()));
+            }
+            final Class<?> cls = clsOf(oid);
+            List<Integer> positions = positionsByClass.get(cls);
+            if(positions == null) {
+                positions = Lists.newArrayList();
+                positionsByClass.put(cls, positions);
+            }
+            positions.add(i);
+        }
+
+        final PersistenceManager pm = getPersistenceManager();
+        final FetchPlan fetchPlan = pm.getFetchPlan();
+        fetchPlan.addGroup(FetchGroup.DEFAULT);
+
+        final Object[] pojos = new Object[oids.size()];
+        for (final Map.Entry<Class<?>, List<Integer>> entry : positionsByClass.entrySet()) {
+            final Class<?> cls = entry.getKey();
+            final List<Integer> positions = entry.getValue();
+            if(positions.size() == 1) {
+                final int position = positions.get(0);
+                pojos[position] = loadPojo(oids.get(position));
+                continue;
+            }
+
+            final List<Object> jdoObjectIds = Lists.newArrayListWithCapacity(positions.size());
+            for (final Integer position : positions) {
+                final Object jdoObjectId = JdoObjectIdSerializer.toJdoObjectId((RootOid) oids.get(position));
+                jdoObjectIds.add(pm.newObjectIdInstance(cls, jdoObjectId));
+            }
+
+            Collection<?> results;
+            try {
+                results = pm.getObjectsById(jdoObjectIds, true);
+            } catch (final RuntimeException e) {
+                if(!isNotFound(e)) {
+                    throw e;
+                }
+                // identify which
+                final List<Object> found = Lists.newArrayListWithCapacity(positions.size());
+                for (final Integer position : positions) {
+                    found.add(loadPojo(oids.get(position)));
+                }
+                results = found;
+            }
+
+            final Iterator<?> resultIter = results.iterator();
+            for (final Integer position : positions) {
+                final Object pojo = resultIter.next();
+                if (pojo == null) {
+                    throw new ObjectNotFoundException(oids.get(position));
+                }
+                pojos[position] = pojo;
+            }
+        }
+        return Arrays.asList(pojos);
+    }
+
+    private boolean isNotFound(final RuntimeException e) {
+        final List<ExceptionRecognizer> exceptionRecognizers = getPersistenceSession().getServicesInjector().lookupServices(ExceptionRecognizer.class);
+        for (ExceptionRecognizer exceptionRecognizer : exceptionRecognizers) {
+            if(exceptionRecognizer instanceof ExceptionRecognizer2) {
+                final ExceptionRecognizer2 recognizer = (ExceptionRecognizer2) exceptionRecognizer;
+                final ExceptionRecognizer2.Recognition recognition = recognizer.recognize2(e);
+                if(recognition != null) {
+                    if(recognition.getCategory() == ExceptionRecognizer2.Category.NOT_FOUND) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
     
     public ObjectAdapter lazilyLoaded(Object pojo) {
         if(!(pojo instanceof PersistenceCapable)) {
@@ -626,8 +726,8 @@ private void ensureStateIs(final State stateRequired) {
     // ///////////////////////////////////////////////////////////////////////
 
     public void debugData(final DebugBuilder debug) {
-        // no-op
-        debug.append("this object store does not currently provide any debug data");
+        debug.appendTitle("Query templates");
+        applicationComponents.getQueryTemplates().debugData(debug);
     }
 
     public String debugTitle() {
@@ -0,0 +1,139 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import com.google.common.collect.Maps;
+
+import org.apache.isis.core.metamodel.services.container.query.QueryCardinality;
+
+/**
+ * Describes a JDO query that is executed repeatedly, either a named query or a filter (whose values are bound
+ * as parameters, so that the JDOQL is the same for each execution), from which each
+ * {@link PersistenceManager persistence manager} {@link #newQuery(PersistenceManager) creates} and compiles
+ * its own {@link Query} just once.
+ *
+ * <p>
+ * Also records the number of times that the query has been compiled and executed, the time taken to do so,
+ * and the number of objects returned.
+ *
+ * @see JdoQueryTemplates
+ */
+public class JdoQueryTemplate {
+
+    private final String key;
+    private final Class<?> cls;
+    private final String queryName;
+    private final String filter;
+    private final QueryCardinality cardinality;
+
+    private final AtomicLong compilations = new AtomicLong();
+    private final AtomicLong compileNanos = new AtomicLong();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong executeNanos = new AtomicLong();
+    private final AtomicLong results = new AtomicLong();
+    private final AtomicLong largestResult = new AtomicLong();
+
+    JdoQueryTemplate(final String key, final Class<?> cls, final String queryName, final String filter, final QueryCardinality cardinality) {
+        this.key = key;
+        this.cls = cls;
+        this.queryName = queryName;
+        this.filter = filter;
+        this.cardinality = cardinality;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public QueryCardinality getCardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Creates and compiles the query; if only a {@link QueryCardinality#SINGLE single} result is required then
+     * the query's range is restricted to the first object.
+     */
+    public Query newQuery(final PersistenceManager persistenceManager) {
+        final long start = System.nanoTime();
+        final Query jdoQuery = queryName != null
+                ? persistenceManager.newNamedQuery(cls, queryName)
+                : persistenceManager.newQuery(cls, filter);
+
+        // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
+        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+
+        if (cardinality == QueryCardinality.SINGLE) {
+            jdoQuery.setRange(0, 1);
+        }
+        jdoQuery.compile();
+
+        compilations.incrementAndGet();
+        compileNanos.addAndGet(System.nanoTime() - start);
+        return jdoQuery;
+    }
+
+    void executed(final long nanos, final int numberOfResults) {
+        executions.incrementAndGet();
+        executeNanos.addAndGet(nanos);
+        results.addAndGet(numberOfResults);
+        long largest;
+        while (numberOfResults > (largest = largestResult.get())) {
+            if (largestResult.compareAndSet(largest, numberOfResults)) {
+                break;
+            }
+        }
+    }
+
+    public long getCompilations() {
+        return compilations.get();
+    }
+
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    /**
+     * Compilations, executions, the average time (in microseconds) taken by each, and the average and largest
+     * number of objects returned.
+     */
+    public Map<String, Object> getStatistics() {
+        final long compilations = this.compilations.get();
+        final long executions = this.executions.get();
+        final Map<String, Object> statistics = Maps.newLinkedHashMap();
+        statistics.put("compilations", compilations);
+        statistics.put("averageCompileMicros", compilations != 0 ? TimeUnit.NANOSECONDS.toMicros(compileNanos.get() / compilations) : 0L);
+        statistics.put("executions", executions);
+        statistics.put("averageExecuteMicros", executions != 0 ? TimeUnit.NANOSECONDS.toMicros(executeNanos.get() / executions) : 0L);
+        statistics.put("averageResultSize", executions != 0 ? (double) results.get() / executions : 0.0);
+        statistics.put("largestResultSize", largestResult.get());
+        return statistics;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.Maps;
+
+import org.apache.isis.core.commons.debug.DebugBuilder;
+import org.apache.isis.core.metamodel.services.container.query.QueryCardinality;
+
+/**
+ * The {@link JdoQueryTemplate}s of a <tt>PersistenceManagerFactory</tt>, keyed by type, named query (or
+ * filter) and cardinality, and shared by all of its persistence managers.
+ */
+public class JdoQueryTemplates {
+
+    private final ConcurrentMap<String, JdoQueryTemplate> templateByKey = new ConcurrentHashMap<String, JdoQueryTemplate>();
+
+    public JdoQueryTemplate namedQuery(final Class<?> cls, final String queryName, final QueryCardinality cardinality) {
+        final String key = cls.getName() + "#" + queryName + "#" + cardinality;
+        final JdoQueryTemplate template = templateByKey.get(key);
+        return template != null ? template : register(new JdoQueryTemplate(key, cls, queryName, null, cardinality));
+    }
+
+    /**
+     * The filter should reference its arguments as (implicit) parameters, rather than including their values.
+     */
+    public JdoQueryTemplate filter(final Class<?> cls, final String filter, final QueryCardinality cardinality) {
+        final String key = cls.getName() + "[" + filter + "]#" + cardinality;
+        final JdoQueryTemplate template = templateByKey.get(key);
+        return template != null ? template : register(new JdoQueryTemplate(key, cls, null, filter, cardinality));
+    }
+
+    private JdoQueryTemplate register(final JdoQueryTemplate template) {
+        final JdoQueryTemplate existing = templateByKey.putIfAbsent(template.getKey(), template);
+        return existing != null ? existing : template;
+    }
+
+    /**
+     * The {@link JdoQueryTemplate#getStatistics() statistics} of each template, keyed and sorted by template.
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        final SortedMap<String, Map<String, Object>> statistics = Maps.newTreeMap();
+        for (final JdoQueryTemplate template : templateByKey.values()) {
+            statistics.put(template.getKey(), template.getStatistics());
+        }
+        return statistics;
+    }
+
+    public void debugData(final DebugBuilder debug) {
+        for (final Map.Entry<String, Map<String, Object>> entry : getStatistics().entrySet()) {
+            debug.appendln(entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -48,9 +48,12 @@ public List<ObjectAdapter> process(final PersistenceQueryFindAllInstances persis
         
         // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
         jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+
+        // so that instances can be fetched a chunk at a time
+        setRangeOrderedByIdentity(jdoQuery, persistenceQuery, cls);
         
         if (LOG.isDebugEnabled()) {
-            LOG.debug("allInstances(): class=" + specification.getFullIdentifier());
+            LOG.debug("allInstances(): class=" + specification.getFullIdentifier() + ", start=" + persistenceQuery.getStart() + ", count=" + persistenceQuery.getCount());
         }
         
         final List<?> pojos = (List<?>) jdoQuery.execute();
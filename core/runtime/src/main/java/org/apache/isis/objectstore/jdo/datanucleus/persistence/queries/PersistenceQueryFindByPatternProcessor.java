@@ -16,20 +16,44 @@
  *  specific language governing permissions and limitations
  *  under the License.
  */
+
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.lang.reflect.Field;
 import java.util.List;
+import java.util.Map;
 
 import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import org.apache.isis.core.commons.exceptions.NotYetImplementedException;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByPattern;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
 
+/**
+ * Matches those (non-empty) properties of the pattern whose values are held in persistent fields
+ * using a JDOQL filter, with the values as parameters.
+ *
+ * <p>
+ * Any other properties of the pattern (in particular references to other objects, which are
+ * matched on their titles) are matched in memory against the instances returned by that query;
+ * the range is only applied by the query if there are none of these.
+ */
 public class PersistenceQueryFindByPatternProcessor extends
         PersistenceQueryProcessorAbstract<PersistenceQueryFindByPattern> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(PersistenceQueryFindByPatternProcessor.class);
+
     public PersistenceQueryFindByPatternProcessor(
             final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer) {
         super(persistenceManager, frameworkSynchronizer);
@@ -37,6 +61,48 @@ public PersistenceQueryFindByPatternProcessor(
 
     public List<ObjectAdapter> process(
             final PersistenceQueryFindByPattern persistenceQuery) {
-        throw new NotYetImplementedException();
+
+        final ObjectAdapter pattern = persistenceQuery.getPattern();
+        final ObjectSpecification specification = pattern.getSpecification();
+        final Class<?> cls = specification.getCorrespondingClass();
+
+        final List<String> clauses = Lists.newArrayList();
+        final Map<String, Object> argumentsByParameterName = Maps.newLinkedHashMap();
+        boolean matchInMemory = false;
+        for (final ObjectAssociation association : specification.getAssociations(Contributed.EXCLUDED)) {
+            if (association.isNotPersisted() || !association.isOneToOneAssociation() || association.isEmpty(pattern)) {
+                continue;
+            }
+            final ObjectAdapter required = association.get(pattern);
+            if (required == null) {
+                continue;
+            }
+            final Field field = association.getSpecification().isValue() ? persistentFieldFor(cls, association) : null;
+            if (field == null) {
+                matchInMemory = true;
+                continue;
+            }
+            final String parameterName = "p" + argumentsByParameterName.size();
+            clauses.add("this." + field.getName() + " == :" + parameterName);
+            argumentsByParameterName.put(parameterName, required.getObject());
+        }
+
+        // only instances of exactly the pattern's type match
+        final Query jdoQuery = getPersistenceManager().newQuery(getPersistenceManager().getExtent(cls, false));
+        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+        if (!clauses.isEmpty()) {
+            jdoQuery.setFilter(Joiner.on(" && ").join(clauses));
+        }
+        if (!matchInMemory) {
+            setRangeOrderedByIdentity(jdoQuery, persistenceQuery, cls);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("allMatches(): class=" + specification.getFullIdentifier() + ", filter=" + jdoQuery.toString() + ", matchInMemory=" + matchInMemory);
+        }
+
+        final List<?> pojos = (List<?>) jdoQuery.executeWithMap(argumentsByParameterName);
+        final List<ObjectAdapter> adapters = loadAdapters(specification, pojos);
+        return matchInMemory ? matching(adapters, persistenceQuery) : adapters;
     }
 }
@@ -16,20 +16,49 @@
  *  specific language governing permissions and limitations
  *  under the License.
  */
+
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.List;
 
 import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import org.apache.isis.core.commons.exceptions.NotYetImplementedException;
+import org.apache.isis.core.commons.lang.StringExtensions;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.facets.object.title.TitleFacet;
+import org.apache.isis.core.metamodel.facets.object.title.annotation.TitleFacetViaTitleAnnotation;
+import org.apache.isis.core.metamodel.facets.object.title.annotation.TitleFacetViaTitleAnnotation.TitleComponent;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByTitle;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
 
+/**
+ * If the title is built up, using {@link org.apache.isis.applib.annotation.Title @Title}, from
+ * string properties held in persistent fields, then matches the title using a JDOQL filter on
+ * those fields (ordered by them).
+ *
+ * <p>
+ * This is only possible if the title being searched for cannot span more than one of these
+ * properties, ie it contains no whitespace nor any of the characters prepended or appended
+ * to each.  Otherwise, every instance is fetched and their titles matched in memory.
+ */
 public class PersistenceQueryFindByTitleProcessor extends PersistenceQueryProcessorAbstract<PersistenceQueryFindByTitle> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(PersistenceQueryFindByTitleProcessor.class);
+
     public PersistenceQueryFindByTitleProcessor(final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer) {
         super(persistenceManager, frameworkSynchronizer);
     }
@@ -41,6 +70,105 @@ public List<ObjectAdapter> process(final PersistenceQueryFindByTitle persistence
     }
 
     private <Z> List<ObjectAdapter> process(final PersistenceQueryFindByTitle persistenceQuery, Class<Z> correspondingClass) {
-        throw new NotYetImplementedException();
+        final ObjectSpecification specification = persistenceQuery.getSpecification();
+        final String title = persistenceQuery.getTitle(); // already lower case
+
+        final Query jdoQuery = getPersistenceManager().newQuery(correspondingClass);
+        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+
+        if (title.isEmpty()) {
+            // every title matches
+            setRangeOrderedByIdentity(jdoQuery, persistenceQuery, correspondingClass);
+            return loadAdapters(specification, (List<?>) jdoQuery.execute());
+        }
+
+        final TitleFacet titleFacet = specification.getFacet(TitleFacet.class);
+        final List<TitleComponent> components = titleFacet instanceof TitleFacetViaTitleAnnotation
+                ? ((TitleFacetViaTitleAnnotation) titleFacet).getComponents()
+                : Collections.<TitleComponent>emptyList();
+        final List<Field> fields = titleFieldsFor(specification, components, title);
+        if (fields == null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("allMatches(): class=" + specification.getFullIdentifier() + ", title=" + title + "; matching titles in memory");
+            }
+            return matching(loadAdapters(specification, (List<?>) jdoQuery.execute()), persistenceQuery);
+        }
+
+        final List<String> clauses = Lists.newArrayList();
+        final List<String> orderings = Lists.newArrayList();
+        for (final Field field : fields) {
+            clauses.add("(this." + field.getName() + " != null && this." + field.getName() + ".toLowerCase().indexOf(:title) >= 0)");
+            orderings.add("this." + field.getName() + " ascending");
+        }
+        // titles need not be unique, so consecutive ranges must also be ordered by identity
+        orderings.addAll(identityOrderingsFor(correspondingClass));
+        jdoQuery.setFilter(Joiner.on(" || ").join(clauses));
+        jdoQuery.setOrdering(Joiner.on(", ").join(orderings));
+
+        // an abbreviated title may no longer contain what its field does
+        final boolean exact = !isAbbreviated(components);
+        if (exact) {
+            setRange(jdoQuery, persistenceQuery);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("allMatches(): class=" + specification.getFullIdentifier() + ", title=" + title + ", filter=" + jdoQuery.toString());
+        }
+
+        final List<?> pojos = (List<?>) jdoQuery.executeWithMap(Collections.singletonMap("title", title));
+        final List<ObjectAdapter> adapters = loadAdapters(specification, pojos);
+        return exact ? adapters : matching(adapters, persistenceQuery);
+    }
+
+    /**
+     * The persistent string fields that the title is built from, or <tt>null</tt> if the title
+     * cannot be matched by matching each of these in turn.
+     */
+    List<Field> titleFieldsFor(final ObjectSpecification specification, final List<TitleComponent> components, final String title) {
+        if (components.isEmpty() || CharMatcher.WHITESPACE.matchesAnyOf(title)) {
+            return null;
+        }
+        final List<Field> fields = Lists.newArrayList();
+        for (int i = 0; i < components.size(); i++) {
+            final TitleComponent component = components.get(i);
+            if (CharMatcher.anyOf(component.getPrepend() + component.getAppend()).matchesAnyOf(title)) {
+                return null;
+            }
+            // any component might be null, so any two might end up adjacent in the title
+            for (int j = 0; j < i; j++) {
+                if ((components.get(j).getAppend() + component.getPrepend()).isEmpty()) {
+                    return null;
+                }
+            }
+            final Field field = titleFieldFor(specification, component.getMethod());
+            if (field == null) {
+                return null;
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    private Field titleFieldFor(final ObjectSpecification specification, final Method method) {
+        if (!method.getName().startsWith("get") || method.getReturnType() != String.class) {
+            return null;
+        }
+        final String propertyId = StringExtensions.asLowerFirst(StringExtensions.asJavaBaseName(method.getName()));
+        for (final ObjectAssociation association : specification.getAssociations(Contributed.EXCLUDED)) {
+            if (association.getId().equals(propertyId)) {
+                final Field field = persistentFieldFor(specification.getCorrespondingClass(), association);
+                return field != null && field.getType() == String.class ? field : null;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isAbbreviated(final List<TitleComponent> components) {
+        for (final TitleComponent component : components) {
+            if (component.getAbbreviateTo() != Integer.MAX_VALUE) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -25,6 +25,7 @@
 import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import org.slf4j.Logger;
@@ -38,12 +39,57 @@
 import org.apache.isis.objectstore.jdo.datanucleus.metamodel.JdoPropertyUtils;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
 
+/**
+ * Executes named queries (and the special-case <tt>#pk</tt> query) using the {@link JdoQueryTemplate}s shared
+ * across all persistence managers; each {@link Query} is created and compiled only once for the (session-scoped)
+ * persistence manager of this processor, and then re-executed with each set of arguments.
+ *
+ * <p>
+ * Because the same {@link Query} is re-executed, the results of each execution are copied and then
+ * {@link Query#close(Object) closed} straightaway; otherwise they would remain open (along with any datastore
+ * resources that they hold) until the query itself is closed.
+ */
 public class PersistenceQueryFindUsingApplibQueryProcessor extends PersistenceQueryProcessorAbstract<PersistenceQueryFindUsingApplibQueryDefault> {
     
     private static final Logger LOG = LoggerFactory.getLogger(PersistenceQueryFindUsingApplibQueryProcessor.class);
 
-    public PersistenceQueryFindUsingApplibQueryProcessor(final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer) {
+    private static final String PK_PARAMETER_NAME = "pk";
+
+    private final JdoQueryTemplates queryTemplates;
+
+    /**
+     * The queries compiled for this processor's persistence manager, keyed by {@link JdoQueryTemplate#getKey() template}
+     * (and whether the range is set explicitly).
+     */
+    private final Map<String, CompiledQuery> compiledQueryByKey = Maps.newHashMap();
+
+    private static class CompiledQuery {
+        private final Query jdoQuery;
+        private long start = -1;
+        private long end = -1;
+
+        CompiledQuery(final Query jdoQuery) {
+            this.jdoQuery = jdoQuery;
+        }
+
+        /**
+         * Only sets the range if it has changed, because doing so discards the compiled query.
+         */
+        void setRange(final long start, final long end) {
+            if (start != this.start || end != this.end) {
+                jdoQuery.setRange(start, end);
+                this.start = start;
+                this.end = end;
+            }
+        }
+    }
+
+    public PersistenceQueryFindUsingApplibQueryProcessor(
+            final PersistenceManager persistenceManager, 
+            final FrameworkSynchronizer frameworkSynchronizer, 
+            final JdoQueryTemplates queryTemplates) {
         super(persistenceManager, frameworkSynchronizer);
+        this.queryTemplates = queryTemplates;
     }
 
     public List<ObjectAdapter> process(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
@@ -73,17 +119,15 @@ private List<?> getResultsPk(final PersistenceQueryFindUsingApplibQueryDefault p
         }
         final OneToOneAssociation pkOtoa = JdoPropertyUtils.getPrimaryKeyPropertyFor(objectSpec);
         final String pkOtoaId = pkOtoa.getId();
-        final String filter = pkOtoaId + "==" + map.get(pkOtoaId);
-        final Query jdoQuery = getPersistenceManager().newQuery(cls, filter);
+        final String filter = pkOtoaId + " == :" + PK_PARAMETER_NAME;
+        final Map<String, Object> argumentsByParameterName = Collections.singletonMap(PK_PARAMETER_NAME, map.get(pkOtoaId));
 
-        // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
-        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
-        
         if (LOG.isDebugEnabled()) {
-            LOG.debug(cls.getName() + " # " + queryName + " ( " + filter + " )");
+            LOG.debug(cls.getName() + " # " + queryName + " ( " + filter + ", " + argumentsByParameterName + " )");
         }
-        
-        return (List<?>) jdoQuery.execute();
+
+        final JdoQueryTemplate template = queryTemplates.filter(cls, filter, QueryCardinality.MULTIPLE);
+        return execute(template, argumentsByParameterName, persistenceQuery);
     }
 
     private List<?> getResults(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
@@ -93,28 +137,48 @@ private List<?> getResults(final PersistenceQueryFindUsingApplibQueryDefault per
         final QueryCardinality cardinality = persistenceQuery.getCardinality();
         final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
 
-        final PersistenceManager persistenceManager = getJdoObjectStore().getPersistenceManager();
         final Class<?> cls = objectSpec.getCorrespondingClass();
-        final Query jdoQuery = persistenceManager.newNamedQuery(cls, queryName);
-        
-        // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
-        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
-        
-        if(persistenceQuery.hasRange()) {
-            jdoQuery.setRange(persistenceQuery.getStart(), persistenceQuery.getEnd());
-        }
         
         if (LOG.isDebugEnabled()) {
             LOG.debug(cls.getName() + " # " + queryName + " ( " + argumentsByParameterName + " )");
         }
         
-        final List<?> results = (List<?>) jdoQuery.executeWithMap(argumentsByParameterName);
+        final JdoQueryTemplate template = queryTemplates.namedQuery(cls, queryName, cardinality);
+        final List<?> results = execute(template, argumentsByParameterName, persistenceQuery);
         if (cardinality == QueryCardinality.MULTIPLE) {
             return results;
         }
         return results.isEmpty()?Collections.emptyList():results.subList(0, 1);
     }
 
+    private List<?> execute(
+            final JdoQueryTemplate template, 
+            final Map<String, Object> argumentsByParameterName, 
+            final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
+
+        final boolean hasRange = persistenceQuery.hasRange();
+        final String key = hasRange ? template.getKey() + "#range" : template.getKey();
+        CompiledQuery compiledQuery = compiledQueryByKey.get(key);
+        if (compiledQuery == null) {
+            compiledQuery = new CompiledQuery(template.newQuery(getPersistenceManager()));
+            compiledQueryByKey.put(key, compiledQuery);
+        }
+        if(hasRange) {
+            compiledQuery.setRange(persistenceQuery.getStart(), persistenceQuery.getEnd());
+        }
+
+        final long start = System.nanoTime();
+        final Object queryResult = compiledQuery.jdoQuery.executeWithMap(argumentsByParameterName);
+        final List<?> results;
+        try {
+            results = Lists.newArrayList((List<?>) queryResult);
+        } finally {
+            compiledQuery.jdoQuery.close(queryResult);
+        }
+        template.executed(System.nanoTime() - start, results.size());
+        return results;
+    }
+
     private static Map<String, Object> unwrap(final Map<String, ObjectAdapter> argumentAdaptersByParameterName) {
         final Map<String, Object> argumentsByParameterName = Maps.newHashMap();
         for (final String parameterName : argumentAdaptersByParameterName.keySet()) {
@@ -18,17 +18,27 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
 import java.util.List;
 import javax.jdo.PersistenceManager;
 import javax.jdo.PersistenceManagerFactory;
+import javax.jdo.Query;
+import javax.jdo.annotations.IdentityType;
+import javax.jdo.annotations.PersistenceModifier;
 import javax.jdo.listener.InstanceLifecycleEvent;
+import javax.jdo.metadata.MemberMetadata;
 import javax.jdo.metadata.TypeMetadata;
 import javax.jdo.spi.PersistenceCapable;
+import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
 import org.apache.isis.core.commons.ensure.Assert;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryBuiltIn;
 import org.apache.isis.core.runtime.system.context.IsisContext;
 import org.apache.isis.core.runtime.system.persistence.PersistenceQuery;
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
@@ -91,6 +101,131 @@ protected List<ObjectAdapter> loadAdapters(
         return adapters;
     }
 
+    /**
+     * Sets the range (if any) of the query onto the JDO query, so that only those instances are fetched.
+     *
+     * <p>
+     * The caller is responsible for ordering the query such that consecutive ranges neither skip nor repeat
+     * instances; see {@link #setRangeOrderedByIdentity(Query, PersistenceQuery, Class)}.
+     */
+    protected static void setRange(final Query jdoQuery, final PersistenceQuery persistenceQuery) {
+        if (isRanged(persistenceQuery)) {
+            final long start = persistenceQuery.getStart();
+            final long count = persistenceQuery.getCount();
+            jdoQuery.setRange(start, count != 0 ? start + count : Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * As {@link #setRange(Query, PersistenceQuery)}, also ordering the JDO query by identity if there is
+     * a range, since otherwise the datastore is free to return the instances in a different order each time.
+     */
+    protected void setRangeOrderedByIdentity(final Query jdoQuery, final PersistenceQuery persistenceQuery, final Class<?> cls) {
+        if (isRanged(persistenceQuery)) {
+            final List<String> orderings = identityOrderingsFor(cls);
+            if (!orderings.isEmpty()) {
+                jdoQuery.setOrdering(Joiner.on(", ").join(orderings));
+            }
+        }
+        setRange(jdoQuery, persistenceQuery);
+    }
+
+    private static boolean isRanged(final PersistenceQuery persistenceQuery) {
+        return persistenceQuery.getStart() != 0 || persistenceQuery.getCount() != 0;
+    }
+
+    /**
+     * JDOQL orderings by the identity of instances of the class: by its primary key fields if it uses
+     * application identity, else by its datastore identity.
+     *
+     * <p>
+     * Empty if the class's identity is not known from its JDO metadata.
+     */
+    protected List<String> identityOrderingsFor(final Class<?> cls) {
+        for (Class<?> declaringClass = cls; declaringClass != null && declaringClass != Object.class; declaringClass = declaringClass.getSuperclass()) {
+            final TypeMetadata typeMetadata = getTypeMetadata(declaringClass.getName());
+            if (typeMetadata == null) {
+                continue;
+            }
+            if (typeMetadata.getIdentityType() == IdentityType.DATASTORE) {
+                return Collections.singletonList("JDOHelper.getObjectId(this) ascending");
+            }
+            final List<String> orderings = Lists.newArrayList();
+            for (final MemberMetadata memberMetadata : typeMetadata.getMembers()) {
+                if (Boolean.TRUE.equals(memberMetadata.getPrimaryKey())) {
+                    orderings.add("this." + memberMetadata.getName() + " ascending");
+                }
+            }
+            if (!orderings.isEmpty()) {
+                return orderings;
+            }
+            // otherwise the primary key (if any) is declared by a superclass
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Those adapters that the query {@link PersistenceQueryBuiltIn#matches(ObjectAdapter) matches} (in memory),
+     * also applying its range.
+     *
+     * <p>
+     * For those queries that cannot be (fully) expressed in JDOQL.
+     */
+    protected static List<ObjectAdapter> matching(final List<ObjectAdapter> adapters, final PersistenceQueryBuiltIn persistenceQuery) {
+        final List<ObjectAdapter> matching = Lists.newArrayList();
+        for (final ObjectAdapter adapter : adapters) {
+            if (persistenceQuery.matches(adapter)) {
+                matching.add(adapter);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * The persistent field that holds the property's value, and which can therefore be referenced
+     * in a JDOQL filter, or <tt>null</tt> if there is none.
+     *
+     * <p>
+     * Whether the field is persistent is taken from the JDO metadata of its declaring class, so that
+     * fields annotated as <tt>@NotPersistent</tt> (or excluded by a mapping file) are not used.
+     */
+    protected Field persistentFieldFor(final Class<?> cls, final ObjectAssociation association) {
+        if (association.isNotPersisted() || !association.isOneToOneAssociation()) {
+            return null;
+        }
+        for (Class<?> declaringClass = cls; declaringClass != null; declaringClass = declaringClass.getSuperclass()) {
+            final Field field;
+            try {
+                field = declaringClass.getDeclaredField(association.getId());
+            } catch (final NoSuchFieldException e) {
+                continue;
+            }
+            return isPersistent(declaringClass, field) ? field : null;
+        }
+        return null;
+    }
+
+    private boolean isPersistent(final Class<?> declaringClass, final Field field) {
+        final TypeMetadata typeMetadata = getTypeMetadata(declaringClass.getName());
+        if (typeMetadata == null || typeMetadata.getMembers() == null) {
+            // not persistence-capable
+            return false;
+        }
+        for (final MemberMetadata memberMetadata : typeMetadata.getMembers()) {
+            if (!field.getName().equals(memberMetadata.getName())) {
+                continue;
+            }
+            final PersistenceModifier persistenceModifier = memberMetadata.getPersistenceModifier();
+            if (persistenceModifier == null || persistenceModifier == PersistenceModifier.UNSPECIFIED) {
+                // JDO's defaults
+                final int modifiers = field.getModifiers();
+                return !Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && !Modifier.isTransient(modifiers);
+            }
+            return persistenceModifier == PersistenceModifier.PERSISTENT;
+        }
+        return false;
+    }
+
     // /////////////////////////////////////////////////////////////
     // Dependencies (from context)
     // /////////////////////////////////////////////////////////////
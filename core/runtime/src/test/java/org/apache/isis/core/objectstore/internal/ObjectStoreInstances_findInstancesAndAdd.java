@@ -29,8 +29,8 @@
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.matchers.IsisMatchers;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.spec.ObjectSpecId;
-import org.apache.isis.core.runtime.persistence.adaptermanager.AdapterManagerDefault;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryBuiltIn;
 import org.apache.isis.core.unittestsupport.jmocking.IsisActions;
 import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
@@ -46,14 +46,14 @@ public class ObjectStoreInstances_findInstancesAndAdd {
     @Rule
     public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
 
-    @Mock
-    private ObjectSpecId mockSpecId;
+    private final ObjectSpecId specId = ObjectSpecId.of("CUS");
+
     @Mock
     private PersistenceQueryBuiltIn mockPersistenceQueryBuiltIn;
     @Mock
     private AuthenticationSession mockAuthSession;
     @Mock
-    private AdapterManagerDefault mockAdapterManager;
+    private AdapterManager mockAdapterManager;
 
     @Mock
     private ObjectAdapter mockAdapter1;
@@ -62,13 +62,13 @@ public class ObjectStoreInstances_findInstancesAndAdd {
 
     @Before
     public void setUp() throws Exception {
-        instances = new ObjectStoreInstances(mockSpecId) {
+        instances = new ObjectStoreInstances(specId) {
             @Override
             protected AuthenticationSession getAuthenticationSession() {
                 return mockAuthSession;
             }
             @Override
-            protected AdapterManagerDefault getAdapterManager() {
+            protected AdapterManager getAdapterManager() {
                 return mockAdapterManager;
             }
         };
@@ -0,0 +1,242 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.objectstore.internal;
+
+import java.util.Collections;
+import java.util.List;
+import com.google.common.collect.Lists;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
+import org.apache.isis.core.metamodel.adapter.oid.Oid;
+import org.apache.isis.core.metamodel.adapter.version.Version;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByPattern;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByTitle;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.objectstore.jdo.metamodel.facets.prop.index.JdoIndexFacet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ObjectStoreInstances_findInstancesAndAddUsingIndexes {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    private final ObjectSpecId specId = ObjectSpecId.of("CUS");
+
+    @Mock
+    private ObjectSpecification mockSpec;
+    @Mock
+    private ObjectSpecification mockValueSpec;
+    @Mock
+    private ObjectAssociation mockProperty;
+    @Mock
+    private AuthenticationSession mockAuthSession;
+    @Mock
+    private AdapterManager mockAdapterManager;
+    @Mock
+    private PersistenceQueryFindByTitle mockFindByTitle;
+    @Mock
+    private PersistenceQueryFindByPattern mockFindByPattern;
+
+    @Mock
+    private Oid mockOid1;
+    @Mock
+    private Oid mockOid2;
+    @Mock
+    private ObjectAdapter mockAdapter1;
+    @Mock
+    private ObjectAdapter mockAdapter2;
+    @Mock
+    private ObjectAdapter mockPattern;
+    @Mock
+    private ObjectAdapter mockValueAdapter1;
+    @Mock
+    private ObjectAdapter mockValueAdapter2;
+
+    private final Object pojo1 = new Object();
+    private final Object pojo2 = new Object();
+
+    private ObjectStoreInstances newInstances(final boolean indexTitles, final boolean indexProperties) {
+        return new ObjectStoreInstances(specId, indexTitles, indexProperties) {
+            @Override
+            protected AuthenticationSession getAuthenticationSession() {
+                return mockAuthSession;
+            }
+            @Override
+            protected AdapterManager getAdapterManager() {
+                return mockAdapterManager;
+            }
+        };
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        context.ignoring(mockAuthSession);
+        context.checking(new Expectations() {
+            {
+                allowing(mockAdapter1).getOid();
+                will(returnValue(mockOid1));
+                allowing(mockAdapter1).getObject();
+                will(returnValue(pojo1));
+                allowing(mockAdapter1).titleString();
+                will(returnValue("Fred Smith"));
+                allowing(mockAdapter1).getSpecification();
+                will(returnValue(mockSpec));
+                allowing(mockAdapter1).setVersion(with(any(Version.class)));
+
+                allowing(mockAdapter2).getOid();
+                will(returnValue(mockOid2));
+                allowing(mockAdapter2).getObject();
+                will(returnValue(pojo2));
+                allowing(mockAdapter2).titleString();
+                will(returnValue("Bill Jones"));
+                allowing(mockAdapter2).getSpecification();
+                will(returnValue(mockSpec));
+                allowing(mockAdapter2).setVersion(with(any(Version.class)));
+
+                allowing(mockAdapterManager).getAdapterFor(pojo1);
+                will(returnValue(mockAdapter1));
+                allowing(mockAdapterManager).getAdapterFor(pojo2);
+                will(returnValue(mockAdapter2));
+            }
+        });
+    }
+
+    @Test
+    public void findByTitle_onlyMatchesThoseWhoseIndexedTitleMatches() throws Exception {
+        final ObjectStoreInstances instances = newInstances(true, false);
+        instances.save(mockAdapter1);
+        instances.save(mockAdapter2);
+
+        context.checking(new Expectations() {
+            {
+                allowing(mockFindByTitle).getTitle();
+                will(returnValue("jones"));
+
+                never(mockFindByTitle).matches(mockAdapter1);
+                one(mockFindByTitle).matches(mockAdapter2);
+                will(returnValue(true));
+            }
+        });
+
+        final List<ObjectAdapter> foundInstances = Lists.newArrayList();
+        instances.findInstancesAndAdd(mockFindByTitle, foundInstances);
+
+        assertThat(foundInstances, is(Collections.singletonList(mockAdapter2)));
+    }
+
+    @Test
+    public void findByPattern_onlyMatchesThoseWhoseIndexedPropertyMatches() throws Exception {
+        allowingIndexedProperty();
+        final ObjectStoreInstances instances = newInstances(false, true);
+        instances.save(mockAdapter1);
+        instances.save(mockAdapter2);
+
+        context.checking(new Expectations() {
+            {
+                allowing(mockProperty).get(mockPattern);
+                will(returnValue(mockValueAdapter2));
+                allowing(mockProperty).isEmpty(mockPattern);
+                will(returnValue(false));
+                allowing(mockFindByPattern).getPattern();
+                will(returnValue(mockPattern));
+
+                never(mockFindByPattern).matches(mockAdapter1);
+                one(mockFindByPattern).matches(mockAdapter2);
+                will(returnValue(true));
+            }
+        });
+
+        final List<ObjectAdapter> foundInstances = Lists.newArrayList();
+        instances.findInstancesAndAdd(mockFindByPattern, foundInstances);
+
+        assertThat(foundInstances, is(Collections.singletonList(mockAdapter2)));
+    }
+
+    @Test
+    public void findByPattern_whenRemovedThenNoLongerIndexed() throws Exception {
+        allowingIndexedProperty();
+        final ObjectStoreInstances instances = newInstances(false, true);
+        instances.save(mockAdapter1);
+        instances.save(mockAdapter2);
+        instances.remove(mockOid2);
+
+        context.checking(new Expectations() {
+            {
+                allowing(mockProperty).get(mockPattern);
+                will(returnValue(mockValueAdapter2));
+                allowing(mockProperty).isEmpty(mockPattern);
+                will(returnValue(false));
+                allowing(mockFindByPattern).getPattern();
+                will(returnValue(mockPattern));
+
+                never(mockFindByPattern).matches(with(any(ObjectAdapter.class)));
+            }
+        });
+
+        final List<ObjectAdapter> foundInstances = Lists.newArrayList();
+        instances.findInstancesAndAdd(mockFindByPattern, foundInstances);
+
+        assertThat(foundInstances.isEmpty(), is(true));
+    }
+
+    private void allowingIndexedProperty() {
+        context.checking(new Expectations() {
+            {
+                allowing(mockSpec).getAssociations(Contributed.EXCLUDED);
+                will(returnValue(Collections.singletonList(mockProperty)));
+
+                allowing(mockProperty).isOneToOneAssociation();
+                will(returnValue(true));
+                allowing(mockProperty).isNotPersisted();
+                will(returnValue(false));
+                allowing(mockProperty).getSpecification();
+                will(returnValue(mockValueSpec));
+                allowing(mockValueSpec).isValue();
+                will(returnValue(true));
+                allowing(mockProperty).containsFacet(JdoIndexFacet.class);
+                will(returnValue(true));
+                allowing(mockProperty).getId();
+                will(returnValue("lastName"));
+
+                allowing(mockProperty).get(mockAdapter1);
+                will(returnValue(mockValueAdapter1));
+                allowing(mockValueAdapter1).getObject();
+                will(returnValue("Smith"));
+                allowing(mockProperty).get(mockAdapter2);
+                will(returnValue(mockValueAdapter2));
+                allowing(mockValueAdapter2).getObject();
+                will(returnValue("Jones"));
+            }
+        });
+    }
+
+}
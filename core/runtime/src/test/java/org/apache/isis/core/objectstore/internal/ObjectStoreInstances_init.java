@@ -47,12 +47,11 @@ public class ObjectStoreInstances_init {
 
     private final Mockery context = new JUnit4Mockery();
 
-    private ObjectSpecId mockSpecId;
+    private final ObjectSpecId specId = ObjectSpecId.of("CUS");
 
     @Before
     public void setUp() throws Exception {
-        mockSpecId = context.mock(ObjectSpecId.class);
-        instances = new ObjectStoreInstances(mockSpecId);
+        instances = new ObjectStoreInstances(specId);
     }
 
     @Test
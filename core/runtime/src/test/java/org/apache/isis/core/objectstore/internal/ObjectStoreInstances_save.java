@@ -46,16 +46,15 @@ public class ObjectStoreInstances_save {
 
     private final Mockery context = new JUnit4Mockery();
 
-    private ObjectSpecId mockSpecId;
+    private final ObjectSpecId specId = ObjectSpecId.of("CUS");
     private ObjectAdapter mockAdapter;
     private AuthenticationSession mockAuthSession;
 
     @Before
     public void setUp() throws Exception {
-        mockSpecId = context.mock(ObjectSpecId.class);
         mockAdapter = context.mock(ObjectAdapter.class);
         mockAuthSession = context.mock(AuthenticationSession.class);
-        instances = new ObjectStoreInstances(mockSpecId) {
+        instances = new ObjectStoreInstances(specId) {
             @Override
             protected AuthenticationSession getAuthenticationSession() {
                 return mockAuthSession;
@@ -22,7 +22,6 @@
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
-import org.jmock.Expectations;
 import org.jmock.Mockery;
 import org.jmock.integration.junit4.JMock;
 import org.jmock.integration.junit4.JUnit4Mockery;
@@ -39,18 +38,15 @@ public class ObjectStorePersistedObjectsDefault_instances {
 
     private final Mockery context = new JUnit4Mockery();
 
-    private ObjectSpecId mockSpec;
+    private final ObjectSpecId specId = ObjectSpecId.of("CUS");
 
     @Before
     public void setUp() throws Exception {
         persistedObjects = new ObjectStorePersistedObjects();
-        mockSpec = context.mock(ObjectSpecId.class);
     }
 
     @Test
     public void instancesLazilyPopulatedWhenAskForThem() throws Exception {
-        neverInteractsWithSpec();
-
         // no instances
         final Iterable<ObjectStoreInstances> instancesBefore = persistedObjects.instances();
         assertThat(instancesBefore.iterator().hasNext(), is(false));
@@ -64,8 +60,6 @@ public void instancesLazilyPopulatedWhenAskForThem() throws Exception {
 
     @Test
     public void clearZapsTheInstances() throws Exception {
-        neverInteractsWithSpec();
-
         ensureThereAreSomeInstances();
         final Iterable<ObjectStoreInstances> instancesAfter = persistedObjects.instances();
         assertThat(instancesAfter.iterator().hasNext(), is(true));
@@ -78,15 +72,7 @@ public void clearZapsTheInstances() throws Exception {
     }
 
     private void ensureThereAreSomeInstances() {
-        persistedObjects.instancesFor(mockSpec);
-    }
-
-    private void neverInteractsWithSpec() {
-        context.checking(new Expectations() {
-            {
-                never(mockSpec);
-            }
-        });
+        persistedObjects.instancesFor(specId);
     }
 
 }
@@ -0,0 +1,152 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.persistence.objectstore.transaction;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommandQueue.Kind;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder.Persistence;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceCommandQueueTest {
+
+    private PersistenceCommandQueue queue;
+
+    private ObjectAdapter adapter1;
+    private ObjectAdapter adapter2;
+
+    private static class TestCommand implements PersistenceCommand {
+        private final ObjectAdapter adapter;
+        TestCommand(final ObjectAdapter adapter) {
+            this.adapter = adapter;
+        }
+        @Override
+        public void execute(final PersistenceCommandContext context) {
+        }
+        @Override
+        public ObjectAdapter onAdapter() {
+            return adapter;
+        }
+    }
+
+    private static class TestCreateCommand extends TestCommand implements CreateObjectCommand {
+        TestCreateCommand(final ObjectAdapter adapter) {
+            super(adapter);
+        }
+    }
+
+    private static class TestSaveCommand extends TestCommand implements SaveObjectCommand {
+        TestSaveCommand(final ObjectAdapter adapter) {
+            super(adapter);
+        }
+    }
+
+    private static class TestDestroyCommand extends TestCommand implements DestroyObjectCommand {
+        TestDestroyCommand(final ObjectAdapter adapter) {
+            super(adapter);
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        queue = new PersistenceCommandQueue();
+        adapter1 = PojoAdapterBuilder.create().with(Persistence.PERSISTENT).withIdentifier("1").build();
+        adapter2 = PojoAdapterBuilder.create().with(Persistence.PERSISTENT).withIdentifier("2").build();
+    }
+
+    @Test
+    public void kindOf() throws Exception {
+        assertThat(Kind.of(new TestCreateCommand(adapter1)), is(Kind.CREATE));
+        assertThat(Kind.of(new TestSaveCommand(adapter1)), is(Kind.SAVE));
+        assertThat(Kind.of(new TestDestroyCommand(adapter1)), is(Kind.DESTROY));
+        assertThat(Kind.of(new TestCommand(adapter1)), is(Kind.OTHER));
+    }
+
+    @Test
+    public void indexedByAdapterAndKind() throws Exception {
+        final TestSaveCommand save1 = new TestSaveCommand(adapter1);
+        queue.add(save1);
+
+        assertThat(queue.contains(Kind.SAVE, adapter1), is(true));
+        assertThat(queue.contains(Kind.CREATE, adapter1), is(false));
+        assertThat(queue.contains(Kind.SAVE, adapter2), is(false));
+        assertThat(queue.get(Kind.SAVE, adapter1), is(sameInstance((PersistenceCommand) save1)));
+        assertThat(queue.get(Kind.SAVE, adapter2), is(nullValue()));
+    }
+
+    @Test
+    public void snapshotIsInInsertionOrder() throws Exception {
+        final TestCreateCommand create2 = new TestCreateCommand(adapter2);
+        final TestSaveCommand save1 = new TestSaveCommand(adapter1);
+        final TestDestroyCommand destroy1 = new TestDestroyCommand(adapter1);
+        queue.add(create2);
+        queue.add(save1);
+        queue.add(destroy1);
+
+        assertThat(queue.snapshot(), is(Arrays.<PersistenceCommand>asList(create2, save1, destroy1)));
+    }
+
+    @Test
+    public void removeByKind() throws Exception {
+        final TestCreateCommand create1 = new TestCreateCommand(adapter1);
+        final TestSaveCommand save1 = new TestSaveCommand(adapter1);
+        queue.add(create1);
+        queue.add(save1);
+
+        assertThat(queue.remove(Kind.CREATE, adapter1), is(sameInstance((PersistenceCommand) create1)));
+
+        assertThat(queue.contains(Kind.CREATE, adapter1), is(false));
+        assertThat(queue.snapshot(), is(Arrays.<PersistenceCommand>asList(save1)));
+        assertThat(queue.remove(Kind.CREATE, adapter1), is(nullValue()));
+    }
+
+    @Test
+    public void removeAllLeavesCommandsAddedSince() throws Exception {
+        final TestSaveCommand save1 = new TestSaveCommand(adapter1);
+        queue.add(save1);
+        final List<PersistenceCommand> prior = queue.snapshot();
+
+        final TestSaveCommand save2 = new TestSaveCommand(adapter2);
+        queue.add(save2);
+        queue.removeAll(prior);
+
+        assertThat(queue.size(), is(1));
+        assertThat(queue.contains(Kind.SAVE, adapter1), is(false));
+        assertThat(queue.contains(Kind.SAVE, adapter2), is(true));
+    }
+
+    @Test
+    public void clear() throws Exception {
+        queue.add(new TestSaveCommand(adapter1));
+        queue.clear();
+
+        assertThat(queue.isEmpty(), is(true));
+        assertThat(queue.contains(Kind.SAVE, adapter1), is(false));
+    }
+}
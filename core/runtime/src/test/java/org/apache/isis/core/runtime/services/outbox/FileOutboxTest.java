@@ -0,0 +1,299 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.services.outbox;
+
+import java.io.File;
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.publish.EventMetadata;
+import org.apache.isis.applib.services.publish.EventPayload;
+import org.apache.isis.applib.services.publish.EventType;
+import org.apache.isis.applib.services.publish.ObjectStringifier;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FileOutboxTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File directory;
+    private FileOutbox outbox;
+
+    private static class RecordingSink implements FileOutbox.Sink {
+        private final List<OutboxBatch> delivered = new CopyOnWriteArrayList<OutboxBatch>();
+        private final AtomicInteger failuresRemaining;
+        private final CountDownLatch attempts;
+
+        RecordingSink(final int failures, final int expectedAttempts) {
+            this.failuresRemaining = new AtomicInteger(failures);
+            this.attempts = new CountDownLatch(expectedAttempts);
+        }
+
+        @Override
+        public void deliver(final OutboxBatch batch) throws Exception {
+            try {
+                if (failuresRemaining.getAndDecrement() > 0) {
+                    throw new Exception("sink unavailable");
+                }
+                delivered.add(batch);
+            } finally {
+                attempts.countDown();
+            }
+        }
+
+        void awaitAttempts() throws InterruptedException {
+            assertThat(attempts.await(5, TimeUnit.SECONDS), is(true));
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        directory = temporaryFolder.newFolder("outbox");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (outbox != null) {
+            outbox.shutdown();
+        }
+    }
+
+    @Test
+    public void deliversReleasedBatchAndRemovesItsFile() throws Exception {
+        final RecordingSink sink = new RecordingSink(0, 1);
+        outbox = newOutbox(sink, 3);
+        outbox.start();
+
+        final OutboxBatch batch = newBatch();
+        outbox.prepare(batch);
+        assertThat(new File(directory, batch.getId() + FileOutbox.PREPARED_SUFFIX).exists(), is(true));
+        assertThat(sink.delivered.isEmpty(), is(true));
+
+        outbox.release(batch);
+        sink.awaitAttempts();
+        outbox.shutdown();
+
+        assertThat(sink.delivered.size(), is(1));
+        assertThat(sink.delivered.get(0).getId(), is(batch.getId()));
+        assertThat(sink.delivered.get(0).size(), is(2));
+        assertThat(directory.list().length, is(0));
+        assertThat(outbox.getQueueDepth(), is(0));
+        assertThat(outbox.getDeliveredBatches(), is(1L));
+        assertThat(outbox.getLargestBatchSize(), is(2));
+    }
+
+    @Test
+    public void discardedBatchIsNeverDelivered() throws Exception {
+        final RecordingSink sink = new RecordingSink(0, 1);
+        outbox = newOutbox(sink, 3);
+        outbox.start();
+
+        final OutboxBatch batch = newBatch();
+        outbox.prepare(batch);
+        outbox.discard(batch);
+        outbox.shutdown();
+
+        assertThat(sink.delivered.isEmpty(), is(true));
+        assertThat(directory.list().length, is(0));
+        assertThat(outbox.getEnqueuedBatches(), is(0L));
+    }
+
+    @Test
+    public void retriesFailedDelivery() throws Exception {
+        final RecordingSink sink = new RecordingSink(2, 3);
+        outbox = newOutbox(sink, 3);
+        outbox.start();
+
+        prepareAndRelease(newBatch());
+        sink.awaitAttempts();
+        outbox.shutdown();
+
+        assertThat(sink.delivered.size(), is(1));
+        assertThat(outbox.getRetries(), is(2L));
+        assertThat(outbox.getFailedBatches(), is(0L));
+        assertThat(directory.list().length, is(0));
+    }
+
+    @Test
+    public void givesUpAfterMaxAttempts() throws Exception {
+        final RecordingSink sink = new RecordingSink(Integer.MAX_VALUE, 3);
+        outbox = newOutbox(sink, 3);
+        outbox.start();
+
+        final OutboxBatch batch = newBatch();
+        prepareAndRelease(batch);
+        sink.awaitAttempts();
+        outbox.shutdown();
+
+        assertThat(sink.delivered.isEmpty(), is(true));
+        assertThat(outbox.getFailedBatches(), is(1L));
+        assertThat(outbox.getQueueDepth(), is(0));
+        assertThat(new File(directory, batch.getId() + FileOutbox.PENDING_SUFFIX + FileOutbox.FAILED_SUFFIX).exists(), is(true));
+    }
+
+    @Test
+    public void releaseAfterShutdownLeavesBatchForRestart() throws Exception {
+        final RecordingSink sink = new RecordingSink(0, 1);
+        outbox = newOutbox(sink, 3);
+        outbox.start();
+
+        final OutboxBatch batch = newBatch();
+        outbox.prepare(batch);
+        outbox.shutdown();
+        outbox.release(batch);
+
+        assertThat(sink.delivered.isEmpty(), is(true));
+        assertThat(new File(directory, batch.getId() + FileOutbox.PENDING_SUFFIX).exists(), is(true));
+    }
+
+    @Test
+    public void redeliversPendingBatchesOnStart() throws Exception {
+        // never delivers, and doesn't retry before being shut down
+        final RecordingSink unavailableSink = new RecordingSink(Integer.MAX_VALUE, 1);
+        final FileOutbox previousOutbox = new FileOutbox(directory, 1, 10, 5, 60000L, 0L, 1000L, unavailableSink);
+        previousOutbox.start();
+        final OutboxBatch batch = newBatch();
+        previousOutbox.prepare(batch);
+        previousOutbox.release(batch);
+        unavailableSink.awaitAttempts();
+        previousOutbox.shutdown();
+        assertThat(directory.list().length, is(1));
+
+        final RecordingSink sink = new RecordingSink(0, 1);
+        outbox = newOutbox(sink, 3);
+        outbox.start();
+        sink.awaitAttempts();
+        outbox.shutdown();
+
+        assertThat(sink.delivered.size(), is(1));
+        assertThat(sink.delivered.get(0).getId(), is(batch.getId()));
+        assertThat(sink.delivered.get(0).getPublishedEvents().get(0).getPayload().recreate(null, null).toString(), is("payload"));
+        assertThat(directory.list().length, is(0));
+    }
+
+    @Test
+    public void redeliversBatchesPreparedButNeverReleasedOnStart() throws Exception {
+        // as if the process died between the batch being prepared and the transaction committing
+        final FileOutbox previousOutbox = newOutbox(new RecordingSink(0, 0), 3);
+        previousOutbox.start();
+        final OutboxBatch batch = newBatch();
+        previousOutbox.prepare(batch);
+        previousOutbox.shutdown();
+
+        final RecordingSink sink = new RecordingSink(0, 1);
+        outbox = newOutbox(sink, 3);
+        outbox.start();
+        sink.awaitAttempts();
+        outbox.shutdown();
+
+        assertThat(sink.delivered.size(), is(1));
+        assertThat(sink.delivered.get(0).getId(), is(batch.getId()));
+        assertThat(directory.list().length, is(0));
+    }
+
+    @Test
+    public void startDoesNotWaitForRedelivery() throws Exception {
+        final FileOutbox previousOutbox = newOutbox(new RecordingSink(0, 0), 3);
+        previousOutbox.start();
+        final OutboxBatch batch = newBatch();
+        previousOutbox.prepare(batch);
+        previousOutbox.shutdown();
+
+        final RecordingSink sink = new RecordingSink(0, 1);
+        outbox = new FileOutbox(directory, 1, 10, 3, 1L, 60000L, 1000L, sink);
+        outbox.start();
+
+        assertThat(outbox.getQueueDepth(), is(0));
+        assertThat(sink.delivered.isEmpty(), is(true));
+        assertThat(new File(directory, batch.getId() + FileOutbox.PREPARED_SUFFIX).exists(), is(true));
+    }
+
+    @Test
+    public void batchesNotPreparedByPreviousRunAreNotReplayed() throws Exception {
+        final RecordingSink sink = new RecordingSink(0, 1);
+        outbox = new FileOutbox(directory, 1, 10, 3, 1L, 0L, 1000L, sink);
+        outbox.start();
+
+        // prepared by this run, but its transaction has not yet committed
+        final OutboxBatch batch = newBatch();
+        outbox.prepare(batch);
+        Thread.sleep(100L);
+
+        assertThat(sink.delivered.isEmpty(), is(true));
+        outbox.release(batch);
+        sink.awaitAttempts();
+        assertThat(sink.delivered.size(), is(1));
+    }
+
+    private void prepareAndRelease(final OutboxBatch batch) {
+        outbox.prepare(batch);
+        outbox.release(batch);
+    }
+
+    private FileOutbox newOutbox(final FileOutbox.Sink sink, final int maxAttempts) {
+        return new FileOutbox(directory, 2, 10, maxAttempts, 1L, 0L, 5000L, sink);
+    }
+
+    private static OutboxBatch newBatch() {
+        final UUID transactionId = UUID.randomUUID();
+        final Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+        final Bookmark target = new Bookmark("CUS", "1");
+        final OutboxBatch batch = new OutboxBatch(transactionId);
+        batch.add(new OutboxBatch.AuditEntry(
+                transactionId, "com.mycompany.Customer", target, "com.mycompany.Customer#name", "name",
+                "Fred", "Freddy", "sven", timestamp));
+        batch.add(new OutboxBatch.PublishedEvent(
+                new EventMetadata(transactionId, 0, EventType.OBJECT_UPDATED, "sven", timestamp, "CUS:1",
+                        "com.mycompany.Customer", null, target, null),
+                PayloadMemento.of(new SerializablePayload("payload"), null, null)));
+        return batch;
+    }
+
+    private static class SerializablePayload implements EventPayload, Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String payload;
+        SerializablePayload(final String payload) {
+            this.payload = payload;
+        }
+        @Override
+        public void withStringifier(final ObjectStringifier stringifier) {
+        }
+        @Override
+        public String toString() {
+            return payload;
+        }
+    }
+}
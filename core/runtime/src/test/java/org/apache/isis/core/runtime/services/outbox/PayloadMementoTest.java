@@ -0,0 +1,235 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.services.outbox;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.applib.services.publish.EventPayload;
+import org.apache.isis.applib.services.publish.EventPayloadForActionInvocation;
+import org.apache.isis.applib.services.publish.EventPayloadForObjectChanged;
+import org.apache.isis.applib.services.publish.ObjectStringifier;
+import org.apache.isis.core.commons.exceptions.IsisException;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
+import org.apache.isis.core.metamodel.facets.object.encodeable.EncodableFacet;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.SpecificationLoader;
+import org.apache.isis.core.runtime.persistence.ObjectNotFoundException;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder.Persistence;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder.Type;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PayloadMementoTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private AdapterManager mockAdapterManager;
+    @Mock
+    private SpecificationLoader mockSpecificationLoader;
+    @Mock
+    private ObjectSpecification mockCustomerSpec;
+    @Mock
+    private ObjectSpecification mockIntegerSpec;
+    @Mock
+    private EncodableFacet mockEncodableFacet;
+
+    public static class Customer {
+        String name;
+    }
+
+    private final ObjectStringifier stringifier = new ObjectStringifier() {
+        @Override
+        public String toString(final Object object) {
+            if (object instanceof Customer) {
+                return "CUS:" + ((Customer) object).name;
+            }
+            return object != null ? object.toString() : null;
+        }
+
+        @Override
+        public String classNameOf(final Object object) {
+            return object.getClass().getName();
+        }
+    };
+
+    private Customer customer;
+    private ObjectAdapter customerAdapter;
+    private final RootOidDefault customerOid = RootOidDefault.create(ObjectSpecId.of("CUS"), "1");
+
+    @Before
+    public void setUp() throws Exception {
+        customer = new Customer();
+        customer.name = "Fred";
+        customerAdapter = PojoAdapterBuilder.create()
+                .withPojo(customer).withObjectType("CUS").withIdentifier("1").with(mockCustomerSpec).build();
+
+        context.checking(new Expectations() {{
+            allowing(mockAdapterManager).adapterFor(customer);
+            will(returnValue(customerAdapter));
+
+            allowing(mockCustomerSpec).getFullIdentifier();
+            will(returnValue(Customer.class.getName()));
+
+            allowing(mockCustomerSpec).isEncodeable();
+            will(returnValue(false));
+
+            allowing(mockSpecificationLoader).loadSpecification(Customer.class.getName());
+            will(returnValue(mockCustomerSpec));
+        }});
+    }
+
+    @Test
+    public void objectChanged_isLookedUpAgainOnRecreation() throws Exception {
+        final EventPayloadForObjectChanged<Customer> payload = new EventPayloadForObjectChanged<Customer>(customer);
+        payload.withStringifier(stringifier);
+        final PayloadMemento memento = roundTrip(PayloadMemento.of(payload, mockAdapterManager, stringifier));
+
+        final Customer reloaded = new Customer();
+        final ObjectAdapter reloadedAdapter = PojoAdapterBuilder.create()
+                .withPojo(reloaded).withObjectType("CUS").withIdentifier("1").with(mockCustomerSpec).build();
+        context.checking(new Expectations() {{
+            oneOf(mockAdapterManager).adapterFor(with(equalTo(customerOid)));
+            will(returnValue(reloadedAdapter));
+        }});
+
+        final EventPayload recreated = memento.recreate(mockAdapterManager, mockSpecificationLoader);
+
+        assertThat(recreated, is(instanceOf(EventPayloadForObjectChanged.class)));
+        assertThat(((EventPayloadForObjectChanged<?>) recreated).getChanged(), is(sameInstance((Object) reloaded)));
+        assertThat(recreated.toString(), is("CUS:Fred"));
+        assertThat(((EventPayloadForObjectChanged<?>) recreated).getClassName(), is(Customer.class.getName()));
+    }
+
+    @Test
+    public void objectChanged_deletedSinceIsRecreatedEmpty() throws Exception {
+        final EventPayloadForObjectChanged<Customer> payload = new EventPayloadForObjectChanged<Customer>(customer);
+        payload.withStringifier(stringifier);
+        final PayloadMemento memento = roundTrip(PayloadMemento.of(payload, mockAdapterManager, stringifier));
+
+        final Customer empty = new Customer();
+        context.checking(new Expectations() {{
+            oneOf(mockAdapterManager).adapterFor(with(equalTo(customerOid)));
+            will(throwException(new ObjectNotFoundException(customerOid)));
+
+            oneOf(mockCustomerSpec).createObject();
+            will(returnValue(empty));
+        }});
+
+        final EventPayload recreated = memento.recreate(mockAdapterManager, mockSpecificationLoader);
+
+        assertThat(((EventPayloadForObjectChanged<?>) recreated).getChanged(), is(sameInstance((Object) empty)));
+        assertThat(recreated.toString(), is("CUS:Fred"));
+    }
+
+    @Test
+    public void actionInvocation_rendersAsOriginal() throws Exception {
+        final Integer quantity = Integer.valueOf(3);
+        final ObjectAdapter quantityAdapter = PojoAdapterBuilder.create()
+                .withPojo(quantity).with(Persistence.VALUE).with(Type.VALUE).with(mockIntegerSpec).build();
+        final Integer decodedQuantity = new Integer(3);
+        final ObjectAdapter decodedQuantityAdapter = PojoAdapterBuilder.create()
+                .withPojo(decodedQuantity).with(Persistence.VALUE).with(Type.VALUE).with(mockIntegerSpec).build();
+        context.checking(new Expectations() {{
+            allowing(mockAdapterManager).adapterFor(quantity);
+            will(returnValue(quantityAdapter));
+
+            allowing(mockIntegerSpec).getFullIdentifier();
+            will(returnValue(Integer.class.getName()));
+
+            allowing(mockIntegerSpec).isEncodeable();
+            will(returnValue(true));
+
+            allowing(mockIntegerSpec).getFacet(EncodableFacet.class);
+            will(returnValue(mockEncodableFacet));
+
+            allowing(mockEncodableFacet).toEncodedString(quantityAdapter);
+            will(returnValue("3"));
+
+            allowing(mockSpecificationLoader).loadSpecification(Integer.class.getName());
+            will(returnValue(mockIntegerSpec));
+
+            oneOf(mockEncodableFacet).fromEncodedString("3");
+            will(returnValue(decodedQuantityAdapter));
+
+            oneOf(mockAdapterManager).adapterFor(with(equalTo(customerOid)));
+            will(returnValue(customerAdapter));
+        }});
+
+        final EventPayloadForActionInvocation<Customer> payload = new EventPayloadForActionInvocation<Customer>(
+                Identifier.actionIdentifier(Customer.class, "placeOrder", int.class), customer, Arrays.asList(quantity), null);
+        payload.withStringifier(stringifier);
+        final PayloadMemento memento = roundTrip(PayloadMemento.of(payload, mockAdapterManager, stringifier));
+
+        final EventPayloadForActionInvocation<?> recreated =
+                (EventPayloadForActionInvocation<?>) memento.recreate(mockAdapterManager, mockSpecificationLoader);
+
+        assertThat(recreated.getActionName(), is(payload.getActionName()));
+        assertThat(recreated.getTarget(), is(sameInstance((Object) customer)));
+        assertThat(recreated.getArg0(), is(sameInstance((Object) decodedQuantity)));
+        assertThat(recreated.getResult(), is(nullValue()));
+        assertThat(recreated.toString(), is(payload.toString()));
+    }
+
+    @Test(expected = IsisException.class)
+    public void payloadThatIsNeitherDefaultNorSerializable_isRejected() throws Exception {
+        PayloadMemento.of(new EventPayload() {
+            @Override
+            public void withStringifier(final ObjectStringifier stringifier) {
+            }
+        }, mockAdapterManager, stringifier);
+    }
+
+    private static PayloadMemento roundTrip(final PayloadMemento memento) throws Exception {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(memento);
+        oos.close();
+        final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        try {
+            return (PayloadMemento) ois.readObject();
+        } finally {
+            ois.close();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.system.persistence;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.apache.isis.core.commons.config.IsisConfigurationDefault;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.app.IsisMetaModel;
+import org.apache.isis.core.metamodel.runtimecontext.noruntime.RuntimeContextNoRuntime;
+import org.apache.isis.core.metamodel.services.ServicesInjectorDefault;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
+import org.apache.isis.core.objectstore.InMemoryObjectStore;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder.Persistence;
+import org.apache.isis.core.runtime.system.DeploymentType;
+import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
+
+/**
+ * JMH benchmark of the cost of checking for {@link org.apache.isis.core.metamodel.spec.Dirtiable dirtiable}
+ * objects at the end of a transaction, for a session with <i>N</i> loaded objects none of whose types are
+ * dirtiable (that is, have an <tt>isDirty()</tt> method), which is the usual case.
+ *
+ * <p>
+ * {@link #sweepAllLoaded()} checks every loaded object (as {@link PersistenceSession#objectChangedAllDirty()}
+ * previously did, by iterating over the adapter map), while {@link #objectChangedAllDirty()} finds that no
+ * specification is dirtiable and so does not sweep at all.  (Were any type dirtiable, then the adapter map would
+ * still be swept.)
+ *
+ * <p>
+ * Run using {@link #main(String[])}, or through the JMH uber-jar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PersistenceSessionDirtyTrackingBenchmark {
+
+    public static class Customer {
+    }
+
+    @Param({"1000", "10000", "50000"})
+    public int loadedObjects;
+
+    private List<ObjectAdapter> loadedAdapters;
+    private PersistenceSession persistenceSession;
+
+    @Setup(Level.Trial)
+    public void setUpSession() {
+        final IsisMetaModel isisMetaModel = new IsisMetaModel(new RuntimeContextNoRuntime(), new ProgrammingModelFacetsJava5());
+        isisMetaModel.init();
+        final SpecificationLoaderSpi specificationLoader = isisMetaModel.getSpecificationLoader();
+        final ObjectSpecification customerSpec = specificationLoader.loadSpecification(Customer.class);
+
+        final IsisConfigurationDefault configuration = new IsisConfigurationDefault();
+        persistenceSession = new PersistenceSession(
+                new PersistenceSessionFactory(DeploymentType.UNIT_TESTING, configuration, null),
+                new ServicesInjectorDefault(),
+                new InMemoryObjectStore(),
+                configuration) {
+            @Override
+            protected SpecificationLoaderSpi getSpecificationLoader() {
+                return specificationLoader;
+            }
+        };
+
+        loadedAdapters = Lists.newArrayListWithCapacity(loadedObjects);
+        for (int i = 0; i < loadedObjects; i++) {
+            loadedAdapters.add(PojoAdapterBuilder.create()
+                    .withPojo(new Customer()).with(customerSpec)
+                    .with(Persistence.TRANSIENT).withIdentifier("" + i).build());
+        }
+
+    }
+
+    @Benchmark
+    public PersistenceSession objectChangedAllDirty() {
+        persistenceSession.objectChangedAllDirty();
+        return persistenceSession;
+    }
+
+    @Benchmark
+    public PersistenceSession sweepAllLoaded() {
+        for (final ObjectAdapter adapter : loadedAdapters) {
+            if (adapter.getSpecification().isDirty(adapter)) {
+                persistenceSession.objectChanged(adapter);
+                adapter.getSpecification().clearDirty(adapter);
+            }
+        }
+        return persistenceSession;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(PersistenceSessionDirtyTrackingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -23,6 +23,7 @@
 import org.jmock.Expectations;
 import org.jmock.Sequence;
 import org.jmock.auto.Mock;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -33,11 +34,14 @@
 import org.apache.isis.core.commons.matchers.IsisMatchers;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapterFactory;
+import org.apache.isis.core.metamodel.adapter.oid.OidMarshaller;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
 import org.apache.isis.core.metamodel.adapter.version.Version;
 import org.apache.isis.core.metamodel.app.IsisMetaModel;
 import org.apache.isis.core.metamodel.runtimecontext.RuntimeContext;
 import org.apache.isis.core.metamodel.services.ServicesInjectorDefault;
 import org.apache.isis.core.metamodel.services.container.DomainObjectContainerDefault;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
 import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
 import org.apache.isis.core.metamodel.specloader.InjectorMethodEvaluatorDefault;
 import org.apache.isis.core.runtime.persistence.adapter.PojoAdapter;
@@ -47,12 +51,18 @@
 import org.apache.isis.core.runtime.persistence.internal.RuntimeContextFromSession;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.*;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder.Persistence;
+import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.context.IsisContextStatic;
+import org.apache.isis.core.runtime.system.session.IsisSession;
+import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
 import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
 import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
 import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
 import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
 
 public class PersistenceSessionTest {
 
@@ -101,6 +111,11 @@ public class PersistenceSessionTest {
     
     @Mock
     private MessageBroker mockMessageBroker;
+
+    @Mock
+    private IsisSessionFactory mockIsisSessionFactory;
+    @Mock
+    private IsisSession mockIsisSession;
     
     
     private IsisMetaModel isisMetaModel;
@@ -110,6 +125,18 @@ public class PersistenceSessionTest {
     public static class Customer {
     }
 
+    public static class DirtiableCustomer {
+        private boolean dirty;
+
+        public boolean isDirty() {
+            return dirty;
+        }
+
+        public void clearDirty() {
+            dirty = false;
+        }
+    }
+
     public static class CustomerRepository {
         public Customer x() {return null;}
     }
@@ -181,6 +208,42 @@ public AuthenticationSession getAuthenticationSession() {
     }
 
 
+    @After
+    public void tearDown() throws Exception {
+        if (IsisContext.exists()) {
+            IsisContext.testReset();
+        }
+    }
+
+    /**
+     * Maps the pojo into the session's adapter map, which requires an {@link IsisContext}.
+     */
+    private ObjectAdapter mapPersistent(final Object pojo, final String identifier) {
+        context.checking(new Expectations() {
+            {
+                allowing(mockIsisSessionFactory).getSpecificationLoader();
+                will(returnValue(isisMetaModel.getSpecificationLoader()));
+                allowing(mockIsisSessionFactory).getConfiguration();
+                will(returnValue(mockConfiguration));
+                allowing(mockIsisSessionFactory).getOidMarshaller();
+                will(returnValue(new OidMarshaller()));
+
+                allowing(mockIsisSessionFactory).openSession(mockAuthenticationSession);
+                will(returnValue(mockIsisSession));
+                ignoring(mockIsisSession).open();
+                allowing(mockIsisSession).getPersistenceSession();
+                will(returnValue(persistenceSession));
+                allowing(mockIsisSession).getAuthenticationSession();
+                will(returnValue(mockAuthenticationSession));
+            }
+        });
+        IsisContextStatic.createRelaxedInstance(mockIsisSessionFactory);
+        IsisContext.openSession(mockAuthenticationSession);
+
+        final ObjectSpecId specId = isisMetaModel.getSpecificationLoader().loadSpecification(pojo.getClass()).getSpecId();
+        return persistenceSession.getAdapterManager().mapRecreatedPojo(RootOidDefault.create(specId, identifier), pojo);
+    }
+
     @Test
     public void destroyObjectThenAbort() {
         
@@ -265,4 +328,72 @@ public void makePersistent_happyCase() {
         persistenceSession.makePersistent(transientAdapter);
         transactionManager.endTransaction();
     }
+
+    @Test
+    public void objectMarkedDirty_isOnlyCheckedOnce() {
+
+        persistenceSession.objectMarkedDirty(transientAdapter);
+        persistenceSession.objectMarkedDirty(transientAdapter);
+        assertThat(persistenceSession.getDirtyCount(), is(1));
+
+        persistenceSession.objectChangedAllDirty();
+        assertThat(persistenceSession.getDirtyCount(), is(0));
+    }
+
+    @Test
+    public void objectMarkingItselfDirty_isSavedOnCommit() {
+
+        final DirtiableCustomer customer = new DirtiableCustomer();
+        final ObjectAdapter customerAdapter = mapPersistent(customer, "1");
+
+        final Sequence tran = context.sequence("tran");
+        context.checking(new Expectations() {
+            {
+                oneOf(mockObjectStore).startTransaction();
+                inSequence(tran);
+
+                oneOf(mockObjectStore).createSaveObjectCommand(customerAdapter);
+                inSequence(tran);
+                will(returnValue(saveObjectCommand));
+
+                oneOf(mockObjectStore).execute(with(IsisMatchers.listContaining((PersistenceCommand)saveObjectCommand)));
+                inSequence(tran);
+
+                allowing(mockObjectStore).execute(with(equalTo(Collections.<PersistenceCommand>emptyList())));
+
+                oneOf(mockObjectStore).endTransaction();
+                inSequence(tran);
+            }
+        });
+
+        transactionManager.startTransaction();
+        // the pojo marks itself as dirty, without going through its specification
+        customer.dirty = true;
+        transactionManager.endTransaction();
+
+        assertThat(customer.isDirty(), is(false));
+    }
+
+    @Test
+    public void clearAllDirty_clearsObjectsMarkingThemselvesDirty() {
+
+        final DirtiableCustomer customer = new DirtiableCustomer();
+        mapPersistent(customer, "1");
+        customer.dirty = true;
+
+        persistenceSession.clearAllDirty();
+
+        assertThat(customer.isDirty(), is(false));
+    }
+
+    @Test
+    public void clearAllDirty_forgetsObjectsMarkedDirty() {
+
+        persistenceSession.objectMarkedDirty(transientAdapter);
+        persistenceSession.objectMarkedDirty(persistentAdapter);
+        assertThat(persistenceSession.getDirtyCount(), is(2));
+
+        persistenceSession.clearAllDirty();
+        assertThat(persistenceSession.getDirtyCount(), is(0));
+    }
 }
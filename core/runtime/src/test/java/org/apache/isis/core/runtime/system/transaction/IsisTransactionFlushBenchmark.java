@@ -0,0 +1,162 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.apache.isis.core.commons.authentication.MessageBroker;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.services.ServicesInjectorDefault;
+import org.apache.isis.core.runtime.authentication.standard.SimpleSession;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.CreateObjectCommand;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommand;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommandContext;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder.Persistence;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.SaveObjectCommand;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.TransactionalResource;
+
+/**
+ * JMH benchmark of the cost of enlisting and then flushing <i>N</i> objects within a single
+ * {@link IsisTransaction}.
+ *
+ * <p>
+ * Each object is enlisted with a create followed by a (disregarded) save, so that the
+ * duplicate-detection in {@link IsisTransaction#addCommand(PersistenceCommand)} is exercised
+ * as well as the flush itself.
+ *
+ * <p>
+ * Run using {@link #main(String[])}, or through the JMH uber-jar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class IsisTransactionFlushBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int enlistedObjects;
+
+    private List<ObjectAdapter> adapters;
+    private IsisTransactionManager transactionManager;
+    private MessageBroker messageBroker;
+    private ServicesInjectorDefault servicesInjector;
+
+    private IsisTransaction transaction;
+
+    private final TransactionalResource noopObjectStore = new TransactionalResource() {
+        @Override
+        public void startTransaction() {
+        }
+        @Override
+        public void execute(final List<PersistenceCommand> commands) {
+        }
+        @Override
+        public void endTransaction() {
+        }
+        @Override
+        public void abortTransaction() {
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setUpAdapters() {
+        adapters = Lists.newArrayListWithCapacity(enlistedObjects);
+        for (int i = 0; i < enlistedObjects; i++) {
+            adapters.add(PojoAdapterBuilder.create().with(Persistence.TRANSIENT).withIdentifier("" + i).build());
+        }
+        servicesInjector = new ServicesInjectorDefault().withServices(Collections.<Object>emptyList());
+        transactionManager = new IsisTransactionManager(null, noopObjectStore, servicesInjector);
+        messageBroker = MessageBroker.acquire(new SimpleSession("bench", new String[0]));
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpTransaction() {
+        transaction = new IsisTransaction(transactionManager, messageBroker, noopObjectStore, servicesInjector);
+    }
+
+    @Benchmark
+    public IsisTransaction enlistAndFlush() {
+        for (final ObjectAdapter adapter : adapters) {
+            transaction.addCommand(new BenchmarkCreateCommand(adapter));
+            transaction.addCommand(new BenchmarkSaveCommand(adapter));
+        }
+        transaction.flush();
+        return transaction;
+    }
+
+    private static class BenchmarkCreateCommand implements CreateObjectCommand {
+        private final ObjectAdapter adapter;
+        BenchmarkCreateCommand(final ObjectAdapter adapter) {
+            this.adapter = adapter;
+        }
+        @Override
+        public void execute(final PersistenceCommandContext context) {
+        }
+        @Override
+        public ObjectAdapter onAdapter() {
+            return adapter;
+        }
+    }
+
+    private static class BenchmarkSaveCommand implements SaveObjectCommand {
+        private final ObjectAdapter adapter;
+        BenchmarkSaveCommand(final ObjectAdapter adapter) {
+            this.adapter = adapter;
+        }
+        @Override
+        public void execute(final PersistenceCommandContext context) {
+        }
+        @Override
+        public ObjectAdapter onAdapter() {
+            return adapter;
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(IsisTransactionFlushBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
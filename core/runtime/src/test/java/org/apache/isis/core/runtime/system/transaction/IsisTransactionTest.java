@@ -42,6 +42,7 @@
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.*;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder.Persistence;
 import org.apache.isis.core.runtime.services.eventbus.EventBusServiceDefault;
+import org.apache.isis.core.runtime.services.outbox.PublishingAndAuditingOutbox;
 import org.apache.isis.core.runtime.system.persistence.ObjectStore;
 import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
 import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
@@ -208,6 +209,9 @@ public void setUp() throws Exception {
             allowing(mockServicesInjector).lookupService(EventBusServiceDefault.class);
             will(returnValue(mockEventBusServiceDefault));
             
+            allowing(mockServicesInjector).lookupService(PublishingAndAuditingOutbox.class);
+            will(returnValue(null));
+
             allowing(mockServicesInjector).getRegisteredServices();
             will(returnValue(Collections.emptyList())); // close enough...
 
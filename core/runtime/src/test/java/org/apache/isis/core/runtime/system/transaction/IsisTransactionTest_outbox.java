@@ -0,0 +1,199 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.sql.Timestamp;
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.authentication.MessageBroker;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.facets.object.audit.AuditableFacet;
+import org.apache.isis.core.metamodel.runtimecontext.ServicesInjector;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder.Persistence;
+import org.apache.isis.core.runtime.services.outbox.OutboxBatch;
+import org.apache.isis.core.runtime.services.outbox.PublishingAndAuditingOutbox;
+import org.apache.isis.core.runtime.system.persistence.ObjectStore;
+import org.apache.isis.core.runtime.system.transaction.IsisTransaction.AdapterAndProperty;
+import org.apache.isis.core.runtime.system.transaction.IsisTransaction.PreAndPostValues;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IsisTransactionTest_outbox {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private ObjectStore mockObjectStore;
+    @Mock
+    private IsisTransactionManager mockTransactionManager;
+    @Mock
+    private AuthenticationSession mockAuthenticationSession;
+    @Mock
+    private MessageBroker mockMessageBroker;
+    @Mock
+    private ServicesInjector mockServicesInjector;
+    @Mock
+    private PublishingAndAuditingOutbox mockOutbox;
+    @Mock
+    private ObjectSpecification mockSpec;
+    @Mock
+    private AuditableFacet mockAuditableFacet;
+    @Mock
+    private ObjectAssociation mockProperty;
+
+    private IsisTransaction transaction;
+    private Map.Entry<AdapterAndProperty, PreAndPostValues> changedProperty;
+
+    @Before
+    public void setUp() throws Exception {
+        org.apache.log4j.Logger.getRootLogger().setLevel(org.apache.log4j.Level.OFF);
+
+        context.checking(new Expectations() {{
+            allowing(mockServicesInjector).lookupService(PublishingAndAuditingOutbox.class);
+            will(returnValue(mockOutbox));
+
+            allowing(mockServicesInjector).lookupService(with(any(Class.class)));
+            will(returnValue(null));
+
+            allowing(mockTransactionManager).getAuthenticationSession();
+            will(returnValue(mockAuthenticationSession));
+
+            allowing(mockAuthenticationSession).getUserName();
+            will(returnValue("sven"));
+
+            allowing(mockObjectStore).execute(with(any(List.class)));
+
+            allowing(mockSpec).getFacet(AuditableFacet.class);
+            will(returnValue(mockAuditableFacet));
+
+            allowing(mockAuditableFacet).isDisabled();
+            will(returnValue(false));
+
+            allowing(mockSpec).getSingularName();
+            will(returnValue("Customer"));
+
+            allowing(mockProperty).getIdentifier();
+            will(returnValue(Identifier.propertyOrCollectionIdentifier("com.mycompany.Customer", "name")));
+
+            allowing(mockProperty).getId();
+            will(returnValue("name"));
+        }});
+
+        transaction = new IsisTransaction(mockTransactionManager, mockMessageBroker, mockObjectStore, mockServicesInjector);
+
+        final ObjectAdapter adapter = PojoAdapterBuilder.create()
+                .with(Persistence.PERSISTENT).withObjectType("CUS").withIdentifier("1").with(mockSpec).build();
+        final PreAndPostValues preAndPostValues = PreAndPostValues.pre("Fred");
+        preAndPostValues.setPost("Freddy");
+        changedProperty = new AbstractMap.SimpleEntry<AdapterAndProperty, PreAndPostValues>(
+                AdapterAndProperty.of(adapter, mockProperty), preAndPostValues);
+    }
+
+    @Test
+    public void batchIsPreparedBeforeCommitAndReleasedOnlyOnceCommitted() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockOutbox).prepare(with(any(OutboxBatch.class)));
+        }});
+
+        transaction.auditChangedProperty(new Timestamp(0L), "sven", changedProperty);
+        transaction.preCommit();
+
+        context.assertIsSatisfied();
+
+        context.checking(new Expectations() {{
+            oneOf(mockOutbox).release(with(any(OutboxBatch.class)));
+        }});
+
+        transaction.commit();
+    }
+
+    @Test
+    public void batchIsDiscardedIfAbortedAfterBeingPrepared() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockOutbox).prepare(with(any(OutboxBatch.class)));
+            oneOf(mockOutbox).discard(with(any(OutboxBatch.class)));
+            never(mockOutbox).release(with(any(OutboxBatch.class)));
+        }});
+
+        transaction.auditChangedProperty(new Timestamp(0L), "sven", changedProperty);
+        transaction.preCommit();
+        transaction.markAsAborted();
+    }
+
+    @Test
+    public void failureToPrepareAbortsTransactionWithoutDiscarding() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockOutbox).prepare(with(any(OutboxBatch.class)));
+            will(throwException(new IllegalStateException("disk full")));
+            never(mockOutbox).discard(with(any(OutboxBatch.class)));
+        }});
+
+        transaction.auditChangedProperty(new Timestamp(0L), "sven", changedProperty);
+        try {
+            transaction.preCommit();
+        } catch (final IllegalStateException ex) {
+            // expected
+        }
+        assertThat(transaction.getState(), is(IsisTransaction.State.MUST_ABORT));
+        transaction.markAsAborted();
+    }
+
+    @Test
+    public void failureToReleaseDoesNotFailCommit() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockOutbox).prepare(with(any(OutboxBatch.class)));
+            oneOf(mockOutbox).release(with(any(OutboxBatch.class)));
+            will(throwException(new IllegalStateException("outbox shut down")));
+        }});
+
+        transaction.auditChangedProperty(new Timestamp(0L), "sven", changedProperty);
+        transaction.preCommit();
+        transaction.commit();
+
+        assertThat(transaction.getState(), is(IsisTransaction.State.COMMITTED));
+    }
+
+    @Test
+    public void nothingPreparedIfNothingToRecord() throws Exception {
+        context.checking(new Expectations() {{
+            never(mockOutbox);
+        }});
+
+        transaction.preCommit();
+        transaction.commit();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.services.container.query.QueryCardinality;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class JdoQueryTemplatesTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private PersistenceManager mockPersistenceManager;
+
+    @Mock
+    private Query mockQuery;
+
+    public static class Customer {}
+
+    private final JdoQueryTemplates queryTemplates = new JdoQueryTemplates();
+
+    @Test
+    public void sameTemplateForSameTypeQueryAndCardinality() throws Exception {
+        final JdoQueryTemplate template = queryTemplates.namedQuery(Customer.class, "findByName", QueryCardinality.MULTIPLE);
+
+        assertThat(queryTemplates.namedQuery(Customer.class, "findByName", QueryCardinality.MULTIPLE), is(sameInstance(template)));
+        assertThat(queryTemplates.namedQuery(Customer.class, "findByName", QueryCardinality.SINGLE), is(not(sameInstance(template))));
+        assertThat(queryTemplates.namedQuery(Customer.class, "findByEmail", QueryCardinality.MULTIPLE), is(not(sameInstance(template))));
+        assertThat(queryTemplates.filter(Customer.class, "name == :pk", QueryCardinality.MULTIPLE), is(not(sameInstance(template))));
+    }
+
+    @Test
+    public void newQueryCompilesNamedQuery() throws Exception {
+        final JdoQueryTemplate template = queryTemplates.namedQuery(Customer.class, "findByName", QueryCardinality.MULTIPLE);
+
+        context.checking(new Expectations() {{
+            oneOf(mockPersistenceManager).newNamedQuery(Customer.class, "findByName");
+            will(returnValue(mockQuery));
+            oneOf(mockQuery).addExtension("datanucleus.multivaluedFetch", "none");
+            oneOf(mockQuery).compile();
+            never(mockQuery).setRange(with(any(long.class)), with(any(long.class)));
+        }});
+
+        assertThat(template.newQuery(mockPersistenceManager), is(mockQuery));
+        assertThat(template.getCompilations(), is(1L));
+    }
+
+    @Test
+    public void newQueryForSingleResultRestrictsRange() throws Exception {
+        final JdoQueryTemplate template = queryTemplates.filter(Customer.class, "name == :pk", QueryCardinality.SINGLE);
+
+        context.checking(new Expectations() {{
+            oneOf(mockPersistenceManager).newQuery(Customer.class, "name == :pk");
+            will(returnValue(mockQuery));
+            oneOf(mockQuery).addExtension("datanucleus.multivaluedFetch", "none");
+            oneOf(mockQuery).setRange(0, 1);
+            oneOf(mockQuery).compile();
+        }});
+
+        template.newQuery(mockPersistenceManager);
+    }
+
+    @Test
+    public void recordsExecutions() throws Exception {
+        final JdoQueryTemplate template = queryTemplates.namedQuery(Customer.class, "findByName", QueryCardinality.MULTIPLE);
+
+        template.executed(1000L, 3);
+        template.executed(3000L, 1);
+
+        assertThat(template.getExecutions(), is(2L));
+        assertThat((Long) template.getStatistics().get("largestResultSize"), is(3L));
+        assertThat((Double) template.getStatistics().get("averageResultSize"), is(2.0));
+        assertThat(queryTemplates.getStatistics().keySet().contains(template.getKey()), is(true));
+    }
+}
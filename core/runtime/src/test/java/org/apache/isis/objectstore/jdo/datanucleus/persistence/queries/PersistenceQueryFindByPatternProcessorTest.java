@@ -0,0 +1,206 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.jdo.Extent;
+import javax.jdo.PersistenceManager;
+import javax.jdo.PersistenceManagerFactory;
+import javax.jdo.Query;
+import javax.jdo.annotations.IdentityType;
+import javax.jdo.annotations.PersistenceModifier;
+import javax.jdo.metadata.MemberMetadata;
+import javax.jdo.metadata.TypeMetadata;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByPattern;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceQueryFindByPatternProcessorTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    public static class Customer {
+        private String name;
+        private String nickname;
+    }
+
+    @Mock
+    private PersistenceManager mockPersistenceManager;
+    @Mock
+    private PersistenceManagerFactory mockPersistenceManagerFactory;
+    @Mock
+    private FrameworkSynchronizer mockFrameworkSynchronizer;
+    @Mock
+    private Extent<?> mockExtent;
+    @Mock
+    private Query mockQuery;
+
+    @Mock
+    private TypeMetadata mockCustomerMetadata;
+    @Mock
+    private MemberMetadata mockNameMetadata;
+    @Mock
+    private MemberMetadata mockNicknameMetadata;
+
+    @Mock
+    private ObjectSpecification mockCustomerSpec;
+    @Mock
+    private ObjectSpecification mockStringSpec;
+    @Mock
+    private ObjectAssociation mockNameAssociation;
+    @Mock
+    private ObjectAssociation mockNicknameAssociation;
+
+    @Mock
+    private ObjectAdapter mockPattern;
+    @Mock
+    private ObjectAdapter mockNameAdapter;
+    @Mock
+    private ObjectAdapter mockNicknameAdapter;
+
+    private PersistenceQueryFindByPatternProcessor processor;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockPersistenceManager).getPersistenceManagerFactory();
+            will(returnValue(mockPersistenceManagerFactory));
+            allowing(mockPersistenceManagerFactory).getMetadata(Customer.class.getName());
+            will(returnValue(mockCustomerMetadata));
+
+            allowing(mockCustomerMetadata).getIdentityType();
+            will(returnValue(IdentityType.DATASTORE));
+            allowing(mockCustomerMetadata).getMembers();
+            will(returnValue(new MemberMetadata[] { mockNameMetadata, mockNicknameMetadata }));
+            allowing(mockNameMetadata).getName();
+            will(returnValue("name"));
+            allowing(mockNameMetadata).getPersistenceModifier();
+            will(returnValue(PersistenceModifier.PERSISTENT));
+            // eg @NotPersistent
+            allowing(mockNicknameMetadata).getName();
+            will(returnValue("nickname"));
+            allowing(mockNicknameMetadata).getPersistenceModifier();
+            will(returnValue(PersistenceModifier.NONE));
+
+            allowing(mockCustomerSpec).getCorrespondingClass();
+            will(returnValue(Customer.class));
+            allowing(mockCustomerSpec).getFullIdentifier();
+            will(returnValue(Customer.class.getName()));
+            allowing(mockCustomerSpec).getAssociations(Contributed.EXCLUDED);
+            will(returnValue(Arrays.asList(mockNameAssociation, mockNicknameAssociation)));
+            allowing(mockStringSpec).isValue();
+            will(returnValue(true));
+
+            allowing(mockNameAssociation).getId();
+            will(returnValue("name"));
+            allowing(mockNicknameAssociation).getId();
+            will(returnValue("nickname"));
+            for (final ObjectAssociation association : Arrays.asList(mockNameAssociation, mockNicknameAssociation)) {
+                allowing(association).isNotPersisted();
+                will(returnValue(false));
+                allowing(association).isOneToOneAssociation();
+                will(returnValue(true));
+                allowing(association).getSpecification();
+                will(returnValue(mockStringSpec));
+            }
+
+            allowing(mockPattern).getSpecification();
+            will(returnValue(mockCustomerSpec));
+            allowing(mockNameAssociation).isEmpty(mockPattern);
+            will(returnValue(false));
+            allowing(mockNameAssociation).get(mockPattern);
+            will(returnValue(mockNameAdapter));
+            allowing(mockNameAdapter).getObject();
+            will(returnValue("Fred"));
+
+            allowing(mockPersistenceManager).getExtent(Customer.class, false);
+            will(returnValue(mockExtent));
+            allowing(mockPersistenceManager).newQuery(mockExtent);
+            will(returnValue(mockQuery));
+            allowing(mockQuery).addExtension("datanucleus.multivaluedFetch", "none");
+        }});
+
+        processor = new PersistenceQueryFindByPatternProcessor(mockPersistenceManager, mockFrameworkSynchronizer);
+    }
+
+    @Test
+    public void whenOnlyPersistentFieldsInPattern() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockNicknameAssociation).isEmpty(mockPattern);
+            will(returnValue(true));
+
+            oneOf(mockQuery).setFilter("this.name == :p0");
+            oneOf(mockQuery).setOrdering("JDOHelper.getObjectId(this) ascending");
+            oneOf(mockQuery).setRange(10L, 15L);
+            oneOf(mockQuery).executeWithMap(Collections.singletonMap("p0", "Fred"));
+            will(returnValue(Collections.emptyList()));
+        }});
+
+        final List<ObjectAdapter> adapters = processor.process(new PersistenceQueryFindByPattern(mockCustomerSpec, mockPattern, 10, 5));
+
+        assertThat(adapters.isEmpty(), is(true));
+    }
+
+    @Test
+    public void whenNonPersistentFieldInPattern() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockNicknameAssociation).isEmpty(mockPattern);
+            will(returnValue(false));
+            allowing(mockNicknameAssociation).get(mockPattern);
+            will(returnValue(mockNicknameAdapter));
+
+            // the nickname is matched in memory, so the range cannot be applied by the query
+            oneOf(mockQuery).setFilter("this.name == :p0");
+            never(mockQuery).setRange(with(any(long.class)), with(any(long.class)));
+            oneOf(mockQuery).executeWithMap(Collections.singletonMap("p0", "Fred"));
+            will(returnValue(Collections.emptyList()));
+        }});
+
+        final List<ObjectAdapter> adapters = processor.process(new PersistenceQueryFindByPattern(mockCustomerSpec, mockPattern, 10, 5));
+
+        assertThat(adapters.isEmpty(), is(true));
+    }
+
+    @Test
+    public void persistentFieldFor() throws Exception {
+        assertThat(processor.persistentFieldFor(Customer.class, mockNameAssociation), is(Customer.class.getDeclaredField("name")));
+        assertThat(processor.persistentFieldFor(Customer.class, mockNicknameAssociation), is(nullValue()));
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.PersistenceManagerFactory;
+import javax.jdo.Query;
+import javax.jdo.annotations.IdentityType;
+import javax.jdo.annotations.PersistenceModifier;
+import javax.jdo.metadata.MemberMetadata;
+import javax.jdo.metadata.TypeMetadata;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.annotation.Title;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.facetapi.FacetHolderImpl;
+import org.apache.isis.core.metamodel.facets.object.title.TitleFacet;
+import org.apache.isis.core.metamodel.facets.object.title.annotation.TitleFacetViaTitleAnnotation;
+import org.apache.isis.core.metamodel.facets.object.title.annotation.TitleFacetViaTitleAnnotation.TitleComponent;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByTitle;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceQueryFindByTitleProcessorTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    public static class Customer {
+        private String firstName;
+        private String lastName;
+        private String nickname;
+
+        @Title(sequence = "1")
+        public String getFirstName() {
+            return firstName;
+        }
+
+        @Title(sequence = "2", prepend = " (", append = ")")
+        public String getLastName() {
+            return lastName;
+        }
+
+        @Title(sequence = "3")
+        public String getNickname() {
+            return nickname;
+        }
+    }
+
+    @Mock
+    private PersistenceManager mockPersistenceManager;
+    @Mock
+    private PersistenceManagerFactory mockPersistenceManagerFactory;
+    @Mock
+    private FrameworkSynchronizer mockFrameworkSynchronizer;
+    @Mock
+    private Query mockQuery;
+
+    @Mock
+    private TypeMetadata mockCustomerMetadata;
+    @Mock
+    private MemberMetadata mockFirstNameMetadata;
+    @Mock
+    private MemberMetadata mockLastNameMetadata;
+    @Mock
+    private MemberMetadata mockNicknameMetadata;
+
+    @Mock
+    private ObjectSpecification mockCustomerSpec;
+    @Mock
+    private ObjectAssociation mockFirstNameAssociation;
+    @Mock
+    private ObjectAssociation mockLastNameAssociation;
+    @Mock
+    private ObjectAssociation mockNicknameAssociation;
+
+    private TitleComponent firstName;
+    private TitleComponent lastName;
+    private TitleComponent nickname;
+
+    private PersistenceQueryFindByTitleProcessor processor;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockPersistenceManager).getPersistenceManagerFactory();
+            will(returnValue(mockPersistenceManagerFactory));
+            allowing(mockPersistenceManagerFactory).getMetadata(Customer.class.getName());
+            will(returnValue(mockCustomerMetadata));
+
+            allowing(mockCustomerMetadata).getIdentityType();
+            will(returnValue(IdentityType.DATASTORE));
+            allowing(mockCustomerMetadata).getMembers();
+            will(returnValue(new MemberMetadata[] { mockFirstNameMetadata, mockLastNameMetadata, mockNicknameMetadata }));
+            allowing(mockFirstNameMetadata).getName();
+            will(returnValue("firstName"));
+            allowing(mockFirstNameMetadata).getPersistenceModifier();
+            will(returnValue(PersistenceModifier.PERSISTENT));
+            allowing(mockLastNameMetadata).getName();
+            will(returnValue("lastName"));
+            allowing(mockLastNameMetadata).getPersistenceModifier();
+            will(returnValue(PersistenceModifier.PERSISTENT));
+            // eg @NotPersistent
+            allowing(mockNicknameMetadata).getName();
+            will(returnValue("nickname"));
+            allowing(mockNicknameMetadata).getPersistenceModifier();
+            will(returnValue(PersistenceModifier.NONE));
+
+            allowing(mockCustomerSpec).getCorrespondingClass();
+            will(returnValue(Customer.class));
+            allowing(mockCustomerSpec).getFullIdentifier();
+            will(returnValue(Customer.class.getName()));
+            allowing(mockCustomerSpec).getAssociations(Contributed.EXCLUDED);
+            will(returnValue(Arrays.asList(mockFirstNameAssociation, mockLastNameAssociation, mockNicknameAssociation)));
+
+            allowing(mockFirstNameAssociation).getId();
+            will(returnValue("firstName"));
+            allowing(mockLastNameAssociation).getId();
+            will(returnValue("lastName"));
+            allowing(mockNicknameAssociation).getId();
+            will(returnValue("nickname"));
+            for (final ObjectAssociation association : Arrays.asList(mockFirstNameAssociation, mockLastNameAssociation, mockNicknameAssociation)) {
+                allowing(association).isNotPersisted();
+                will(returnValue(false));
+                allowing(association).isOneToOneAssociation();
+                will(returnValue(true));
+            }
+        }});
+
+        firstName = TitleComponent.of(Customer.class.getMethod("getFirstName"));
+        lastName = TitleComponent.of(Customer.class.getMethod("getLastName"));
+        nickname = TitleComponent.of(Customer.class.getMethod("getNickname"));
+
+        processor = new PersistenceQueryFindByTitleProcessor(mockPersistenceManager, mockFrameworkSynchronizer);
+    }
+
+    @Test
+    public void titleFieldsFor() throws Exception {
+        assertThat(processor.titleFieldsFor(mockCustomerSpec, Arrays.asList(firstName, lastName), "fre"),
+                is(Arrays.asList(field("firstName"), field("lastName"))));
+    }
+
+    @Test
+    public void titleFieldsForWhenTitleCouldSpanFields() throws Exception {
+        assertThat(processor.titleFieldsFor(mockCustomerSpec, Arrays.asList(firstName, lastName), "fred bloggs"), is(nullValue()));
+    }
+
+    @Test
+    public void titleFieldsForWhenTitleContainsPrependedOrAppended() throws Exception {
+        assertThat(processor.titleFieldsFor(mockCustomerSpec, Arrays.asList(firstName, lastName), "(fred)"), is(nullValue()));
+    }
+
+    @Test
+    public void titleFieldsForWhenFieldNotPersistent() throws Exception {
+        assertThat(processor.titleFieldsFor(mockCustomerSpec, Arrays.asList(firstName, nickname), "fre"), is(nullValue()));
+    }
+
+    @Test
+    public void persistentFieldFor() throws Exception {
+        assertThat(processor.persistentFieldFor(Customer.class, mockFirstNameAssociation), is(field("firstName")));
+        assertThat(processor.persistentFieldFor(Customer.class, mockNicknameAssociation), is(nullValue()));
+    }
+
+    @Test
+    public void filtersAndOrdersOnTitleFields() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockCustomerSpec).getFacet(TitleFacet.class);
+            will(returnValue(new TitleFacetViaTitleAnnotation(Arrays.asList(firstName, lastName), new FacetHolderImpl(), null)));
+
+            oneOf(mockPersistenceManager).newQuery(Customer.class);
+            will(returnValue(mockQuery));
+            allowing(mockQuery).addExtension("datanucleus.multivaluedFetch", "none");
+            oneOf(mockQuery).setFilter(
+                    "(this.firstName != null && this.firstName.toLowerCase().indexOf(:title) >= 0)"
+                    + " || (this.lastName != null && this.lastName.toLowerCase().indexOf(:title) >= 0)");
+            oneOf(mockQuery).setOrdering("this.firstName ascending, this.lastName ascending, JDOHelper.getObjectId(this) ascending");
+            oneOf(mockQuery).setRange(0L, 10L);
+            oneOf(mockQuery).executeWithMap(Collections.singletonMap("title", "fre"));
+            will(returnValue(Collections.emptyList()));
+        }});
+
+        final List<ObjectAdapter> adapters = processor.process(new PersistenceQueryFindByTitle(mockCustomerSpec, "Fre", 0, 10));
+
+        assertThat(adapters.isEmpty(), is(true));
+    }
+
+    private static Field field(final String name) throws NoSuchFieldException {
+        return Customer.class.getDeclaredField(name);
+    }
+
+}
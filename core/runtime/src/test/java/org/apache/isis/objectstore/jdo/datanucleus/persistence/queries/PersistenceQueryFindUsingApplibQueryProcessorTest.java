@@ -0,0 +1,118 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import com.google.common.collect.Lists;
+
+import org.jmock.Expectations;
+import org.jmock.Sequence;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.services.container.query.QueryCardinality;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindUsingApplibQueryDefault;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceQueryFindUsingApplibQueryProcessorTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    public static class Customer {}
+
+    @Mock
+    private PersistenceManager mockPersistenceManager;
+    @Mock
+    private FrameworkSynchronizer mockFrameworkSynchronizer;
+    @Mock
+    private Query mockQuery;
+    @Mock
+    private ObjectSpecification mockCustomerSpec;
+
+    private final JdoQueryTemplates queryTemplates = new JdoQueryTemplates();
+
+    private PersistenceQueryFindUsingApplibQueryProcessor processor;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockCustomerSpec).getCorrespondingClass();
+            will(returnValue(Customer.class));
+            allowing(mockCustomerSpec).getFullIdentifier();
+            will(returnValue(Customer.class.getName()));
+        }});
+
+        processor = new PersistenceQueryFindUsingApplibQueryProcessor(mockPersistenceManager, mockFrameworkSynchronizer, queryTemplates);
+    }
+
+    @Test
+    public void reExecutesCompiledQueryClosingEachResult() throws Exception {
+        final List<Object> firstResult = Lists.newArrayList();
+        final List<Object> secondResult = Lists.newArrayList();
+        final Sequence executions = context.sequence("executions");
+
+        context.checking(new Expectations() {{
+            oneOf(mockPersistenceManager).newNamedQuery(Customer.class, "findByName");
+            will(returnValue(mockQuery));
+            oneOf(mockQuery).addExtension("datanucleus.multivaluedFetch", "none");
+            oneOf(mockQuery).compile();
+
+            oneOf(mockQuery).executeWithMap(Collections.<String, Object>singletonMap("name", null));
+            inSequence(executions);
+            will(returnValue(firstResult));
+            oneOf(mockQuery).close(with(sameInstance(firstResult)));
+            inSequence(executions);
+
+            oneOf(mockQuery).executeWithMap(Collections.<String, Object>singletonMap("name", null));
+            inSequence(executions);
+            will(returnValue(secondResult));
+            oneOf(mockQuery).close(with(sameInstance(secondResult)));
+            inSequence(executions);
+        }});
+
+        assertThat(processor.process(findByName()).isEmpty(), is(true));
+        assertThat(processor.process(findByName()).isEmpty(), is(true));
+
+        final JdoQueryTemplate template = queryTemplates.namedQuery(Customer.class, "findByName", QueryCardinality.MULTIPLE);
+        assertThat(template.getCompilations(), is(1L));
+        assertThat(template.getExecutions(), is(2L));
+    }
+
+    private PersistenceQueryFindUsingApplibQueryDefault findByName() {
+        final Map<String, ObjectAdapter> argumentAdapters = Collections.singletonMap("name", null);
+        return new PersistenceQueryFindUsingApplibQueryDefault(mockCustomerSpec, "findByName", argumentAdapters, QueryCardinality.MULTIPLE);
+    }
+}
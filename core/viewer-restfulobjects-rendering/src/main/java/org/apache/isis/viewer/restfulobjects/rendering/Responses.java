@@ -19,6 +19,7 @@
 import java.util.Date;
 import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import org.joda.time.DateTime;
 import org.joda.time.format.ISODateTimeFormat;
@@ -38,12 +39,24 @@ public static Response.ResponseBuilder ofOk(final ReprRenderer<?, ?> renderer, f
         return ofOk(renderer, caching, null);
     }
 
+    /**
+     * The representation is still rendered eagerly and in full (so that any rendering exception results in an
+     * error response); only its serialization is {@link JsonWriterUtil#streamingJsonFor(Object) streamed} to the
+     * response, rather than first being written to a <tt>String</tt>.
+     */
     public static Response.ResponseBuilder ofOk(final ReprRenderer<?, ?> renderer, final Caching caching, final Version version) {
         final MediaType mediaType = renderer.getMediaType();
-        final Response.ResponseBuilder response = of(RestfulResponse.HttpStatusCode.OK).type(mediaType).cacheControl(caching.getCacheControl()).entity(JsonWriterUtil.jsonFor(renderer.render()));
+        final Response.ResponseBuilder response = of(RestfulResponse.HttpStatusCode.OK).type(mediaType).cacheControl(caching.getCacheControl()).entity(JsonWriterUtil.streamingJsonFor(renderer.render()));
         return addLastModifiedAndETagIfAvailable(response, version);
     }
 
+    /**
+     * For a representation that has already been {@link JsonWriterUtil#bytesFor(Object) serialized} (and cached).
+     */
+    public static Response.ResponseBuilder ofOk(final byte[] json, final MediaType mediaType, final Caching caching) {
+        return of(RestfulResponse.HttpStatusCode.OK).type(mediaType).cacheControl(caching.getCacheControl()).entity(json);
+    }
+
     protected static Response.ResponseBuilder of(final RestfulResponse.HttpStatusCode httpStatusCode) {
         return Response.status(httpStatusCode.getJaxrsStatusType()).type(MediaType.APPLICATION_JSON_TYPE);
     }
@@ -57,6 +70,24 @@ public static Response.ResponseBuilder addLastModifiedAndETagIfAvailable(final R
         return responseBuilder;
     }
 
+    /**
+     * Evaluates any conditional request headers (<tt>If-None-Match</tt>, <tt>If-Modified-Since</tt>) against the
+     * validators that {@link #addLastModifiedAndETagIfAvailable(Response.ResponseBuilder, Version)} emits for the
+     * provided version.
+     *
+     * @return a response builder (typically <tt>304 Not Modified</tt>) if the preconditions are met, such that no
+     *         representation need be rendered, else <tt>null</tt> (including if there is no version to compare against).
+     */
+    public static Response.ResponseBuilder evaluatePreconditions(final Request request, final Version version) {
+        if (version == null || version.getTime() == null) {
+            return null;
+        }
+        final Date time = version.getTime();
+        // HTTP dates have a precision of seconds, so compare against what the client was sent as Last-Modified
+        final Date lastModified = new Date(time.getTime() / 1000L * 1000L);
+        return request.evaluatePreconditions(lastModified, asETag(time));
+    }
+
     private static EntityTag asETag(final Date time) {
         final String utcTime = ISODateTimeFormat.basicDateTime().print(new DateTime(time));
         return new EntityTag(utcTime, true);
@@ -16,14 +16,11 @@
  */
 package org.apache.isis.viewer.restfulobjects.rendering.service;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import org.apache.isis.applib.annotation.DomainService;
 import org.apache.isis.applib.annotation.Programmatic;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
-import org.apache.isis.core.metamodel.adapter.version.Version;
 import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
 import org.apache.isis.viewer.restfulobjects.rendering.Caching;
 import org.apache.isis.viewer.restfulobjects.rendering.Responses;
@@ -33,7 +30,6 @@
 @DomainService
 public class RepresentationServiceForRestfulObjects implements RepresentationService {
 
-    private static final DateFormat ETAG_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
 
     // //////////////////////////////////////////////////////////////
     // objectRepresentation
@@ -47,12 +43,7 @@ public Response objectRepresentation(
         final DomainObjectReprRenderer renderer = new DomainObjectReprRenderer(resourceContext, null, JsonRepresentation.newMap());
         renderer.with(objectAdapter).includesSelf();
 
-        final ResponseBuilder responseBuilder = Responses.ofOk(renderer, Caching.NONE);
-
-        final Version version = objectAdapter.getVersion();
-        if (version != null && version.getTime() != null) {
-            responseBuilder.tag(ETAG_FORMAT.format(version.getTime()));
-        }
+        final ResponseBuilder responseBuilder = Responses.ofOk(renderer, Caching.NONE, objectAdapter.getVersion());
         return buildResponse(responseBuilder);
     }
 
@@ -18,7 +18,11 @@
  */
 package org.apache.isis.viewer.restfulobjects.rendering.util;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.isis.core.runtime.system.DeploymentType;
 import org.apache.isis.core.runtime.system.context.IsisContext;
 import org.apache.isis.viewer.restfulobjects.applib.util.JsonMapper;
@@ -36,6 +40,39 @@ public static String jsonFor(final Object object) {
         }
     }
 
+    /**
+     * As {@link #jsonFor(Object)}, but deferring the serialization until the JAX-RS runtime writes the response,
+     * and then writing directly to its stream, rather than building an intermediate <tt>String</tt>.
+     *
+     * <p>
+     * The object itself (typically an already rendered {@link org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation})
+     * is still held in memory in full.
+     */
+    public static StreamingOutput streamingJsonFor(final Object object) {
+        final JsonMapper jsonMapper = JsonMapper.instance(inferPrettyPrinting(IsisContext.getDeploymentType()));
+        return new StreamingOutput() {
+            @Override
+            public void write(final OutputStream output) throws IOException, WebApplicationException {
+                jsonMapper.write(object, output);
+            }
+        };
+    }
+
+    /**
+     * As {@link #jsonFor(Object)}, but serializing to UTF-8 bytes, for those representations that are cached once
+     * serialized.
+     */
+    public static byte[] bytesFor(final Object object) {
+        final JsonMapper jsonMapper = JsonMapper.instance(inferPrettyPrinting(IsisContext.getDeploymentType()));
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            jsonMapper.write(object, baos);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        return baos.toByteArray();
+    }
+
     private static JsonMapper.PrettyPrinting inferPrettyPrinting(final DeploymentType deploymentType) {
         return deploymentType.isProduction() ? JsonMapper.PrettyPrinting.DISABLE : JsonMapper.PrettyPrinting.ENABLE;
     }
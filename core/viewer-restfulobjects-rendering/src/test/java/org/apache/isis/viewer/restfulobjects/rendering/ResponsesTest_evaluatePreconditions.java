@@ -0,0 +1,84 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.rendering;
+
+import java.util.Date;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.metamodel.adapter.version.Version;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.any;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ResponsesTest_evaluatePreconditions {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private Request mockRequest;
+
+    @Mock
+    private Response.ResponseBuilder mockResponseBuilder;
+
+    @Test
+    public void whenNoVersion() throws Exception {
+        context.checking(new Expectations() {{
+            never(mockRequest);
+        }});
+
+        assertThat(Responses.evaluatePreconditions(mockRequest, null), is(nullValue()));
+        assertThat(Responses.evaluatePreconditions(mockRequest, Version.create(1L)), is(nullValue()));
+    }
+
+    @Test
+    public void lastModifiedIsTruncatedToSeconds() throws Exception {
+        final Version version = Version.create(1L, "sven", new Date(1400000000123L));
+
+        context.checking(new Expectations() {{
+            oneOf(mockRequest).evaluatePreconditions(with(new Date(1400000000000L)), with(any(EntityTag.class)));
+            will(returnValue(mockResponseBuilder));
+        }});
+
+        assertThat(Responses.evaluatePreconditions(mockRequest, version), is(sameInstance(mockResponseBuilder)));
+    }
+
+    @Test
+    public void whenPreconditionsNotMet() throws Exception {
+        final Version version = Version.create(1L, "sven", new Date(1400000000123L));
+
+        context.checking(new Expectations() {{
+            oneOf(mockRequest).evaluatePreconditions(with(any(Date.class)), with(any(EntityTag.class)));
+            will(returnValue(null));
+        }});
+
+        assertThat(Responses.evaluatePreconditions(mockRequest, version), is(nullValue()));
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.server;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.ws.rs.core.MediaType;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
+import org.apache.isis.viewer.restfulobjects.rendering.Caching;
+
+/**
+ * Caches the serialized JSON of those representations that are derived from the metamodel (and so are sent with
+ * {@link Caching#ONE_DAY} cache headers), so that a repeated request is served by copying bytes rather than by
+ * rendering and serializing the representation again.
+ *
+ * <p>
+ * Entries are keyed by the request URI (which determines the media type; the URI includes any query string, so
+ * that, for example, follow-links hints are distinguished) and, for those representations that depend on what
+ * the user may see, by the user name (these are only cached if what the user may see is determined statically, by
+ * the metamodel and the user's permissions, rather than by <tt>hideXxx()</tt> or <tt>disableXxx()</tt> supporting
+ * methods).  Each entry records the
+ * {@link SpecificationLoaderSpi#getCacheGeneration() generation} of the metamodel that it was rendered from, and is
+ * ignored once the metamodel has been invalidated since (as happens when a class is reloaded other than in
+ * production).  Entries are populated lazily, the first time that each is requested, and expire after
+ * {@link #EXPIRY_SECONDS the same time} that a client may cache them for, so that a per-user representation
+ * reflects any change to that user's permissions no later than a client-side copy would.
+ *
+ * <p>
+ * Caching can be disabled by setting {@value #ENABLED_KEY} to <tt>false</tt>.
+ */
+public final class RepresentationCache {
+
+    public static final String ENABLED_KEY = "isis.viewer.restfulobjects.representationCache.enabled";
+    public static final boolean ENABLED_DEFAULT = true;
+
+    /**
+     * Bounds the memory used if there are many users, or many distinct query strings.
+     */
+    static final int MAXIMUM_SIZE = 1000;
+
+    /**
+     * The max-age of {@link Caching#ONE_DAY}.
+     */
+    static final long EXPIRY_SECONDS = Caching.ONE_DAY.getCacheControl().getMaxAge();
+
+    private static final RepresentationCache INSTANCE = new RepresentationCache();
+
+    public static RepresentationCache getInstance() {
+        return INSTANCE;
+    }
+
+    public static final class Entry {
+        private final MediaType mediaType;
+        private final byte[] json;
+        private final long generation;
+
+        Entry(final MediaType mediaType, final byte[] json, final long generation) {
+            this.mediaType = mediaType;
+            this.json = json;
+            this.generation = generation;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        /**
+         * Not copied, so must not be modified.
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        public long getGeneration() {
+            return generation;
+        }
+    }
+
+    private final Cache<String, Entry> entries;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    RepresentationCache() {
+        this(Ticker.systemTicker());
+    }
+
+    RepresentationCache(final Ticker ticker) {
+        entries = CacheBuilder.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfterWrite(EXPIRY_SECONDS, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * @param userName - <tt>null</tt> if the representation is the same for all users.
+     */
+    public static String keyFor(final URI requestUri, final String userName) {
+        return userName != null ? userName + "@" + requestUri : requestUri.toString();
+    }
+
+    /**
+     * The entry for the key, provided that it was rendered from the specified generation of the metamodel, else
+     * <tt>null</tt>.
+     */
+    public Entry lookup(final String key, final long generation) {
+        final Entry entry = entries.getIfPresent(key);
+        if (entry == null || entry.getGeneration() != generation) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * @param generation - of the metamodel, as read before the representation was rendered.
+     */
+    public Entry put(final String key, final MediaType mediaType, final byte[] json, final long generation) {
+        final Entry entry = new Entry(mediaType, json, generation);
+        entries.put(key, entry);
+        return entry;
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+}
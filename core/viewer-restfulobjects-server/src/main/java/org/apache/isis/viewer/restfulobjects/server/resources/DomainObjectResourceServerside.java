@@ -35,6 +35,7 @@
 import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse;
 import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse.HttpStatusCode;
 import org.apache.isis.viewer.restfulobjects.applib.domainobjects.DomainObjectResource;
+import org.apache.isis.viewer.restfulobjects.rendering.Responses;
 import org.apache.isis.viewer.restfulobjects.rendering.RestfulObjectsApplicationException;
 import org.apache.isis.viewer.restfulobjects.rendering.domainobjects.MemberReprMode;
 import org.apache.isis.viewer.restfulobjects.rendering.util.Util;
@@ -102,6 +103,12 @@ public Response object(@PathParam("domainType") String domainType, @PathParam("i
 
         final ObjectAdapter objectAdapter = getObjectAdapterElseThrowNotFound(domainType, instanceId);
 
+        final Response.ResponseBuilder notModified = Responses.evaluatePreconditions(request, objectAdapter.getVersion());
+        if (notModified != null) {
+            // client's copy is current (If-None-Match/If-Modified-Since), so no need to render
+            return notModified.build();
+        }
+
         final DomainResourceHelper helper = getDomainResourceHelper(objectAdapter);
         return helper.objectRepresentation();
     }
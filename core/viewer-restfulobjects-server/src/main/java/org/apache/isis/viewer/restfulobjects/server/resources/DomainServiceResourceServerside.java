@@ -17,20 +17,31 @@
 package org.apache.isis.viewer.restfulobjects.server.resources;
 
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.List;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import org.apache.isis.applib.annotation.Where;
+import org.apache.isis.applib.filter.Filter;
 import org.apache.isis.core.commons.url.UrlEncodingUtils;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.facetapi.Facet;
+import org.apache.isis.core.metamodel.facetapi.FacetHolder;
+import org.apache.isis.core.metamodel.facets.ImperativeFacet;
+import org.apache.isis.core.metamodel.facets.object.hidden.HiddenObjectFacet;
+import org.apache.isis.core.metamodel.interactions.DisablingInteractionAdvisor;
+import org.apache.isis.core.metamodel.interactions.HidingInteractionAdvisor;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
 import org.apache.isis.viewer.restfulobjects.applib.RepresentationType;
 import org.apache.isis.viewer.restfulobjects.applib.RestfulMediaType;
 import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse;
 import org.apache.isis.viewer.restfulobjects.applib.domainobjects.DomainServiceResource;
 import org.apache.isis.viewer.restfulobjects.rendering.Caching;
-import org.apache.isis.viewer.restfulobjects.rendering.Responses;
 import org.apache.isis.viewer.restfulobjects.rendering.domainobjects.DomainObjectReprRenderer;
 import org.apache.isis.viewer.restfulobjects.rendering.domainobjects.DomainServiceLinkTo;
 import org.apache.isis.viewer.restfulobjects.rendering.RestfulObjectsApplicationException;
@@ -47,12 +58,18 @@ public Response services() {
 
         final List<ObjectAdapter> serviceAdapters = getResourceContext().getServiceAdapters();
 
+        final String cacheKey = isStaticallyVisible(serviceAdapters) ? representationCacheKey(true) : null;
+        final Response cached = cachedRepresentationElseNull(cacheKey, Caching.ONE_DAY);
+        if (cached != null) {
+            return cached;
+        }
+
         final DomainServicesListReprRenderer renderer = new DomainServicesListReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.usingLinkToBuilder(new DomainServiceLinkTo())
             .includesSelf()
             .with(serviceAdapters);
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return cacheRepresentation(cacheKey, renderer, Caching.ONE_DAY);
     }
 
     @Override
@@ -83,12 +100,18 @@ public Response service(@PathParam("serviceId") final String serviceId) {
 
         final ObjectAdapter serviceAdapter = getServiceAdapter(serviceId);
 
+        final String cacheKey = isStaticallyVisible(Collections.singletonList(serviceAdapter)) ? representationCacheKey(true) : null;
+        final Response cached = cachedRepresentationElseNull(cacheKey, Caching.ONE_DAY);
+        if (cached != null) {
+            return cached;
+        }
+
         final DomainObjectReprRenderer renderer = new DomainObjectReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.usingLinkToBuilder(new DomainServiceLinkTo())
             .with(serviceAdapter)
             .includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return cacheRepresentation(cacheKey, renderer, Caching.ONE_DAY);
     }
 
     @Override
@@ -209,4 +232,46 @@ public Response deleteInvokeActionNotAllowed(@PathParam("serviceId") String serv
         throw RestfulObjectsApplicationException.createWithMessage(RestfulResponse.HttpStatusCode.METHOD_NOT_ALLOWED, "Deleting an action invocation resource is not allowed.");
     }
 
+    // //////////////////////////////////////////////////////////
+    // helpers
+    // //////////////////////////////////////////////////////////
+
+    private static final Filter<Facet> IMPERATIVE_HIDING_OR_DISABLING = new Filter<Facet>() {
+        @Override
+        public boolean accept(final Facet facet) {
+            return facet instanceof HiddenObjectFacet ||
+                   facet instanceof ImperativeFacet && (facet instanceof HidingInteractionAdvisor || facet instanceof DisablingInteractionAdvisor);
+        }
+    };
+
+    /**
+     * Whether what the user may see of the services (and so their representations) is determined only by
+     * the metamodel and the user's permissions, and so may be {@link #representationCacheKey(boolean) cached}
+     * per user; not so if any have a <tt>hidden()</tt> method, or members with <tt>hideXxx()</tt> or
+     * <tt>disableXxx()</tt> supporting methods, whose outcome may change from one request to the next.
+     */
+    static boolean isStaticallyVisible(final List<ObjectAdapter> serviceAdapters) {
+        for (final ObjectAdapter serviceAdapter : serviceAdapters) {
+            final ObjectSpecification serviceSpec = serviceAdapter.getSpecification();
+            if (hasImperativeHidingOrDisabling(serviceSpec)) {
+                return false;
+            }
+            for (final ObjectAction action : serviceSpec.getObjectActions(Contributed.EXCLUDED)) {
+                if (hasImperativeHidingOrDisabling(action)) {
+                    return false;
+                }
+            }
+            for (final ObjectAssociation association : serviceSpec.getAssociations(Contributed.EXCLUDED)) {
+                if (hasImperativeHidingOrDisabling(association)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasImperativeHidingOrDisabling(final FacetHolder facetHolder) {
+        return !facetHolder.getFacets(IMPERATIVE_HIDING_OR_DISABLING).isEmpty();
+    }
+
 }
@@ -47,7 +47,6 @@
 import org.apache.isis.viewer.restfulobjects.applib.util.UrlEncodingUtils;
 import org.apache.isis.viewer.restfulobjects.rendering.Caching;
 import org.apache.isis.viewer.restfulobjects.rendering.LinkBuilder;
-import org.apache.isis.viewer.restfulobjects.rendering.Responses;
 import org.apache.isis.viewer.restfulobjects.rendering.domaintypes.ActionDescriptionReprRenderer;
 import org.apache.isis.viewer.restfulobjects.rendering.domaintypes.ActionParameterDescriptionReprRenderer;
 import org.apache.isis.viewer.restfulobjects.rendering.domaintypes.CollectionDescriptionReprRenderer;
@@ -79,12 +78,18 @@ public Response domainTypes() {
         final RepresentationType representationType = RepresentationType.TYPE_LIST;
         init(representationType, Where.ANYWHERE);
 
+        final String cacheKey = representationCacheKey(false);
+        final Response cached = cachedRepresentationElseNull(cacheKey, Caching.ONE_DAY);
+        if (cached != null) {
+            return cached;
+        }
+
         final Collection<ObjectSpecification> allSpecifications = getSpecificationLoader().allSpecifications();
 
         final TypeListReprRenderer renderer = new TypeListReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(allSpecifications).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return cacheRepresentation(cacheKey, renderer, Caching.ONE_DAY);
     }
 
     @Override
@@ -95,12 +100,18 @@ public Response domainType(@PathParam("domainType") final String domainType) {
 
         init(RepresentationType.DOMAIN_TYPE, Where.ANYWHERE);
 
+        final String cacheKey = representationCacheKey(false);
+        final Response cached = cachedRepresentationElseNull(cacheKey, Caching.ONE_DAY);
+        if (cached != null) {
+            return cached;
+        }
+
         final ObjectSpecification objectSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
 
         final DomainTypeReprRenderer renderer = new DomainTypeReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(objectSpec).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return cacheRepresentation(cacheKey, renderer, Caching.ONE_DAY);
     }
 
     @Override
@@ -111,6 +122,12 @@ public Response typeProperty(@PathParam("domainType") final String domainType, @
         final RepresentationType representationType = RepresentationType.PROPERTY_DESCRIPTION;
         init(representationType, Where.ANYWHERE);
 
+        final String cacheKey = representationCacheKey(false);
+        final Response cached = cachedRepresentationElseNull(cacheKey, Caching.ONE_DAY);
+        if (cached != null) {
+            return cached;
+        }
+
         final ObjectSpecification parentSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
         if (parentSpec == null) {
             throw RestfulObjectsApplicationException.create(HttpStatusCode.NOT_FOUND);
@@ -125,7 +142,7 @@ public Response typeProperty(@PathParam("domainType") final String domainType, @
         final PropertyDescriptionReprRenderer renderer = new PropertyDescriptionReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(new ParentSpecAndProperty(parentSpec, property)).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return cacheRepresentation(cacheKey, renderer, Caching.ONE_DAY);
     }
 
     @Override
@@ -136,6 +153,12 @@ public Response typeCollection(@PathParam("domainType") final String domainType,
         final RepresentationType representationType = RepresentationType.COLLECTION_DESCRIPTION;
         init(representationType, Where.ANYWHERE);
 
+        final String cacheKey = representationCacheKey(false);
+        final Response cached = cachedRepresentationElseNull(cacheKey, Caching.ONE_DAY);
+        if (cached != null) {
+            return cached;
+        }
+
         final ObjectSpecification parentSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
         if (parentSpec == null) {
             throw RestfulObjectsApplicationException.create(HttpStatusCode.NOT_FOUND);
@@ -150,7 +173,7 @@ public Response typeCollection(@PathParam("domainType") final String domainType,
         final CollectionDescriptionReprRenderer renderer = new CollectionDescriptionReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(new ParentSpecAndCollection(parentSpec, collection)).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return cacheRepresentation(cacheKey, renderer, Caching.ONE_DAY);
     }
 
     @Override
@@ -161,6 +184,12 @@ public Response typeAction(@PathParam("domainType") final String domainType, @Pa
         final RepresentationType representationType = RepresentationType.ACTION_DESCRIPTION;
         init(representationType, Where.ANYWHERE);
 
+        final String cacheKey = representationCacheKey(false);
+        final Response cached = cachedRepresentationElseNull(cacheKey, Caching.ONE_DAY);
+        if (cached != null) {
+            return cached;
+        }
+
         final ObjectSpecification parentSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
         if (parentSpec == null) {
             throw RestfulObjectsApplicationException.create(HttpStatusCode.NOT_FOUND);
@@ -175,7 +204,7 @@ public Response typeAction(@PathParam("domainType") final String domainType, @Pa
         final ActionDescriptionReprRenderer renderer = new ActionDescriptionReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(new ParentSpecAndAction(parentSpec, action)).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return cacheRepresentation(cacheKey, renderer, Caching.ONE_DAY);
     }
 
     @Override
@@ -186,6 +215,12 @@ public Response typeActionParam(@PathParam("domainType") final String domainType
         final RepresentationType representationType = RepresentationType.ACTION_PARAMETER_DESCRIPTION;
         init(representationType, Where.ANYWHERE);
 
+        final String cacheKey = representationCacheKey(false);
+        final Response cached = cachedRepresentationElseNull(cacheKey, Caching.ONE_DAY);
+        if (cached != null) {
+            return cached;
+        }
+
         final ObjectSpecification parentSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
         if (parentSpec == null) {
             throw RestfulObjectsApplicationException.create(HttpStatusCode.NOT_FOUND);
@@ -202,7 +237,7 @@ public Response typeActionParam(@PathParam("domainType") final String domainType
         final ActionParameterDescriptionReprRenderer renderer = new ActionParameterDescriptionReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(new ParentSpecAndActionParam(parentSpec, actionParam)).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return cacheRepresentation(cacheKey, renderer, Caching.ONE_DAY);
     }
 
     // //////////////////////////////////////////////////////////
@@ -220,6 +255,12 @@ public Response domainTypeIsSubtypeOf(
             ) {
         init(Where.ANYWHERE);
 
+        final String cacheKey = representationCacheKey(false);
+        final Response cached = cachedRepresentationElseNull(cacheKey, Caching.ONE_DAY);
+        if (cached != null) {
+            return cached;
+        }
+
         final String supertype = domainTypeFor(superTypeStr, argsUrlEncoded, "supertype");
 
         final ObjectSpecification domainTypeSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
@@ -235,7 +276,7 @@ public Response domainTypeIsSubtypeOf(
         final boolean value = domainTypeSpec.isOfType(supertypeSpec);
         renderer.with(domainTypeSpec).withSelf(selfLink).withValue(value);
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return cacheRepresentation(cacheKey, renderer, Caching.ONE_DAY);
     }
 
 
@@ -251,6 +292,12 @@ public Response domainTypeIsSupertypeOf(
 
         init(Where.ANYWHERE);
 
+        final String cacheKey = representationCacheKey(false);
+        final Response cached = cachedRepresentationElseNull(cacheKey, Caching.ONE_DAY);
+        if (cached != null) {
+            return cached;
+        }
+
         final String subtype = domainTypeFor(subTypeStr, argsUrlEncoded, "subtype");
 
         final ObjectSpecification domainTypeSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
@@ -266,7 +313,7 @@ public Response domainTypeIsSupertypeOf(
         final boolean value = subtypeSpec.isOfType(domainTypeSpec);
         renderer.with(domainTypeSpec).withSelf(selfLink).withValue(value);
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return cacheRepresentation(cacheKey, renderer, Caching.ONE_DAY);
     }
 
     private static String domainTypeFor(
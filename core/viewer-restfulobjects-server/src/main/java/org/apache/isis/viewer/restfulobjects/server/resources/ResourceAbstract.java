@@ -37,8 +37,13 @@
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
 import org.apache.isis.viewer.restfulobjects.applib.RepresentationType;
 import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse.HttpStatusCode;
+import org.apache.isis.viewer.restfulobjects.rendering.Caching;
+import org.apache.isis.viewer.restfulobjects.rendering.ReprRenderer;
+import org.apache.isis.viewer.restfulobjects.rendering.Responses;
 import org.apache.isis.viewer.restfulobjects.rendering.RestfulObjectsApplicationException;
+import org.apache.isis.viewer.restfulobjects.rendering.util.JsonWriterUtil;
 import org.apache.isis.viewer.restfulobjects.rendering.util.Util;
+import org.apache.isis.viewer.restfulobjects.server.RepresentationCache;
 import org.apache.isis.viewer.restfulobjects.server.ResourceContext;
 import org.apache.isis.viewer.restfulobjects.server.util.OidUtils;
 import org.apache.isis.viewer.restfulobjects.server.util.UrlDecoderUtils;
@@ -138,6 +143,48 @@ protected ObjectAdapter getServiceAdapter(final String serviceId) {
     }
 
 
+    // //////////////////////////////////////////////////////////////
+    // Representation cache
+    // //////////////////////////////////////////////////////////////
+
+    /**
+     * The key under which the representation for this request is {@link RepresentationCache cached}, or
+     * <tt>null</tt> if caching has been disabled.
+     *
+     * @param perUser - whether the representation depends on what the current user may see.
+     */
+    protected String representationCacheKey(final boolean perUser) {
+        if (!getConfiguration().getBoolean(RepresentationCache.ENABLED_KEY, RepresentationCache.ENABLED_DEFAULT)) {
+            return null;
+        }
+        final String userName = perUser ? getAuthenticationSession().getUserName() : null;
+        return RepresentationCache.keyFor(uriInfo.getRequestUri(), userName);
+    }
+
+    /**
+     * The cached representation, if there is one still current for the metamodel, else <tt>null</tt>.
+     */
+    protected Response cachedRepresentationElseNull(final String cacheKey, final Caching caching) {
+        if (cacheKey == null) {
+            return null;
+        }
+        final RepresentationCache.Entry entry = RepresentationCache.getInstance().lookup(cacheKey, getSpecificationLoader().getCacheGeneration());
+        return entry != null ? Responses.ofOk(entry.getJson(), entry.getMediaType(), caching).build() : null;
+    }
+
+    /**
+     * Renders and serializes the representation, caching the result (unless caching has been disabled).
+     */
+    protected Response cacheRepresentation(final String cacheKey, final ReprRenderer<?, ?> renderer, final Caching caching) {
+        if (cacheKey == null) {
+            return Responses.ofOk(renderer, caching).build();
+        }
+        final long generation = getSpecificationLoader().getCacheGeneration();
+        final byte[] json = JsonWriterUtil.bytesFor(renderer.render());
+        RepresentationCache.getInstance().put(cacheKey, renderer.getMediaType(), json, generation);
+        return Responses.ofOk(json, renderer.getMediaType(), caching).build();
+    }
+
     // //////////////////////////////////////////////////////////////
     // Dependencies (from singletons)
     // //////////////////////////////////////////////////////////////
@@ -0,0 +1,92 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.server;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.MediaType;
+import com.google.common.base.Ticker;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class RepresentationCacheTest {
+
+    private RepresentationCache cache;
+    private final byte[] json = "{}".getBytes();
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new RepresentationCache();
+    }
+
+    @Test
+    public void whenPutThenHitForSameGeneration() throws Exception {
+        final String key = RepresentationCache.keyFor(URI.create("http://localhost/restful/domain-types"), null);
+        cache.put(key, MediaType.APPLICATION_JSON_TYPE, json, 3);
+
+        final RepresentationCache.Entry entry = cache.lookup(key, 3);
+
+        assertThat(entry.getJson(), is(json));
+        assertThat(entry.getMediaType(), is(MediaType.APPLICATION_JSON_TYPE));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void whenMetamodelInvalidatedThenMiss() throws Exception {
+        final String key = RepresentationCache.keyFor(URI.create("http://localhost/restful/domain-types"), null);
+        cache.put(key, MediaType.APPLICATION_JSON_TYPE, json, 3);
+
+        assertThat(cache.lookup(key, 4), is(nullValue()));
+        assertThat(cache.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void whenOlderThanClientsMayCacheThenMiss() throws Exception {
+        final long[] nanos = { 0 };
+        cache = new RepresentationCache(new Ticker() {
+            @Override
+            public long read() {
+                return nanos[0];
+            }
+        });
+        final String key = RepresentationCache.keyFor(URI.create("http://localhost/restful/services"), "sven");
+        cache.put(key, MediaType.APPLICATION_JSON_TYPE, json, 0);
+
+        nanos[0] = TimeUnit.SECONDS.toNanos(RepresentationCache.EXPIRY_SECONDS) - 1;
+        assertThat(cache.lookup(key, 0).getJson(), is(json));
+
+        nanos[0] = TimeUnit.SECONDS.toNanos(RepresentationCache.EXPIRY_SECONDS);
+        assertThat(cache.lookup(key, 0), is(nullValue()));
+    }
+
+    @Test
+    public void keyedByUserAndQueryString() throws Exception {
+        final URI uri = URI.create("http://localhost/restful/services");
+        cache.put(RepresentationCache.keyFor(uri, "sven"), MediaType.APPLICATION_JSON_TYPE, json, 0);
+
+        assertThat(cache.lookup(RepresentationCache.keyFor(uri, "dick"), 0), is(nullValue()));
+        assertThat(cache.lookup(RepresentationCache.keyFor(URI.create(uri + "?x-ro-follow-links=members"), "sven"), 0), is(nullValue()));
+        assertThat(cache.lookup(RepresentationCache.keyFor(uri, "sven"), 0).getJson(), is(json));
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.server.resources;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.UriInfo;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
+import org.apache.isis.core.runtime.system.DeploymentType;
+import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.context.IsisContextStatic;
+import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+import org.apache.isis.viewer.restfulobjects.rendering.Caching;
+import org.apache.isis.viewer.restfulobjects.rendering.ReprRenderer;
+import org.apache.isis.viewer.restfulobjects.server.RepresentationCache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ResourceAbstractTest_cacheRepresentation {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private IsisSessionFactory mockSessionFactory;
+    @Mock
+    private IsisConfiguration mockConfiguration;
+    @Mock
+    private SpecificationLoaderSpi mockSpecificationLoader;
+    @Mock
+    private UriInfo mockUriInfo;
+    @SuppressWarnings("rawtypes")
+    @Mock
+    private ReprRenderer mockRenderer;
+
+    private ResourceAbstract resource;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockSessionFactory).getDeploymentType();
+            will(returnValue(DeploymentType.SERVER_PROTOTYPE));
+
+            allowing(mockSpecificationLoader).getCacheGeneration();
+            will(returnValue(0L));
+
+            allowing(mockUriInfo).getRequestUri();
+            will(returnValue(URI.create("http://localhost/restful/domain-types")));
+
+            allowing(mockRenderer).getMediaType();
+            will(returnValue(MediaType.APPLICATION_JSON_TYPE));
+            allowing(mockRenderer).render();
+            will(returnValue(JsonRepresentation.newMap().mapPut("domainType", "CUS")));
+        }});
+        IsisContextStatic.createRelaxedInstance(mockSessionFactory);
+        RepresentationCache.getInstance().clear();
+
+        resource = new ResourceAbstract() {
+            @Override
+            protected IsisConfiguration getConfiguration() {
+                return mockConfiguration;
+            }
+
+            @Override
+            protected SpecificationLoaderSpi getSpecificationLoader() {
+                return mockSpecificationLoader;
+            }
+        };
+        resource.uriInfo = mockUriInfo;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        RepresentationCache.getInstance().clear();
+        IsisContext.testReset();
+    }
+
+    @Test
+    public void cachedResponseSameAsUncached() throws Exception {
+        cachingEnabled(false);
+        final String uncachedKey = resource.representationCacheKey(false);
+        assertThat(uncachedKey, is(nullValue()));
+        final Response uncached = resource.cacheRepresentation(uncachedKey, mockRenderer, Caching.ONE_DAY);
+
+        cachingEnabled(true);
+        final String cacheKey = resource.representationCacheKey(false);
+        assertThat(resource.cachedRepresentationElseNull(cacheKey, Caching.ONE_DAY), is(nullValue()));
+        final Response firstCached = resource.cacheRepresentation(cacheKey, mockRenderer, Caching.ONE_DAY);
+        final Response cached = resource.cachedRepresentationElseNull(cacheKey, Caching.ONE_DAY);
+        assertThat(cached, is(notNullValue()));
+
+        final byte[] uncachedBytes = bytesOf(uncached);
+        assertThat(bytesOf(firstCached), is(uncachedBytes));
+        assertThat(bytesOf(cached), is(uncachedBytes));
+
+        for (final Response response : new Response[] { firstCached, cached }) {
+            assertThat(response.getStatus(), is(uncached.getStatus()));
+            assertThat(response.getMetadata().getFirst(HttpHeaders.CONTENT_TYPE), is(uncached.getMetadata().getFirst(HttpHeaders.CONTENT_TYPE)));
+            assertThat(response.getMetadata().getFirst(HttpHeaders.CACHE_CONTROL), is(uncached.getMetadata().getFirst(HttpHeaders.CACHE_CONTROL)));
+        }
+    }
+
+    @Test
+    public void whenMetamodelInvalidatedThenNotFromCache() throws Exception {
+        cachingEnabled(true);
+        final String cacheKey = resource.representationCacheKey(false);
+        resource.cacheRepresentation(cacheKey, mockRenderer, Caching.ONE_DAY);
+
+        final SpecificationLoaderSpi mockReloadedSpecificationLoader = context.mock(SpecificationLoaderSpi.class, "reloaded");
+        context.checking(new Expectations() {{
+            allowing(mockReloadedSpecificationLoader).getCacheGeneration();
+            will(returnValue(1L));
+        }});
+        mockSpecificationLoader = mockReloadedSpecificationLoader;
+
+        assertThat(resource.cachedRepresentationElseNull(cacheKey, Caching.ONE_DAY), is(nullValue()));
+    }
+
+    private void cachingEnabled(final boolean enabled) {
+        context.checking(new Expectations() {{
+            oneOf(mockConfiguration).getBoolean(RepresentationCache.ENABLED_KEY, RepresentationCache.ENABLED_DEFAULT);
+            will(returnValue(enabled));
+        }});
+    }
+
+    private static byte[] bytesOf(final Response response) throws Exception {
+        final Object entity = response.getEntity();
+        if (entity instanceof byte[]) {
+            return (byte[]) entity;
+        }
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ((StreamingOutput) entity).write(baos);
+        return baos.toByteArray();
+    }
+
+}
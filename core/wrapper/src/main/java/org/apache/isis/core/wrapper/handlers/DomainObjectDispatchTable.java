@@ -0,0 +1,302 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.wrapper.handlers;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.isis.applib.services.wrapper.WrapperObject;
+import org.apache.isis.core.metamodel.facets.ImperativeFacet;
+import org.apache.isis.core.metamodel.facets.ImperativeFacet.Intent;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.SpecificationLoader;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectMember;
+import org.apache.isis.core.metamodel.specloader.specimpl.dflt.ObjectSpecificationDefault;
+
+/**
+ * For the {@link ObjectSpecification} of a wrapped domain object, how each {@link Method} invoked on
+ * the wrapper is to be {@link Dispatch dispatched}.
+ *
+ * <p>
+ * Working out whether a method is a reserved method, which {@link ObjectMember member} it corresponds
+ * to and with what {@link Intent} is done only once per method; the resultant {@link Dispatch} is
+ * immutable and shared (through the {@link ProxyContextHandler}) by all wrappers of the type.
+ */
+public class DomainObjectDispatchTable {
+
+    public static enum Kind {
+        /**
+         * Invoke directly on the underlying domain object, without any checks.
+         */
+        DELEGATE,
+        TITLE,
+        SAVE,
+        WRAPPED,
+        EXECUTION_MODE,
+        PROPERTY_GET,
+        PROPERTY_SET,
+        COLLECTION_GET,
+        COLLECTION_ADD,
+        COLLECTION_REMOVE,
+        ACTION,
+        /**
+         * Cannot be invoked through the wrapper; see {@link Dispatch#getUnsupportedMessage()}.
+         */
+        UNSUPPORTED
+    }
+
+    /**
+     * Immutable.
+     */
+    public static final class Dispatch {
+
+        private static final Dispatch DELEGATE = new Dispatch(Kind.DELEGATE, null, null);
+        private static final Dispatch TITLE = new Dispatch(Kind.TITLE, null, null);
+        private static final Dispatch SAVE = new Dispatch(Kind.SAVE, null, null);
+        private static final Dispatch WRAPPED = new Dispatch(Kind.WRAPPED, null, null);
+        private static final Dispatch EXECUTION_MODE = new Dispatch(Kind.EXECUTION_MODE, null, null);
+
+        private static Dispatch to(final Kind kind, final ObjectMember member) {
+            return new Dispatch(kind, member, null);
+        }
+
+        private static Dispatch unsupported(final String message) {
+            return new Dispatch(Kind.UNSUPPORTED, null, message);
+        }
+
+        private final Kind kind;
+        private final ObjectMember member;
+        private final String unsupportedMessage;
+
+        private Dispatch(final Kind kind, final ObjectMember member, final String unsupportedMessage) {
+            this.kind = kind;
+            this.member = member;
+            this.unsupportedMessage = unsupportedMessage;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * The member to which the method corresponds; <tt>null</tt> unless a property, collection or
+         * action {@link Kind kind}.
+         */
+        public ObjectMember getMember() {
+            return member;
+        }
+
+        public String getUnsupportedMessage() {
+            return unsupportedMessage;
+        }
+
+        @Override
+        public String toString() {
+            return kind + (member != null ? " " + member.getId() : "");
+        }
+    }
+
+    private final ObjectSpecification specification;
+    private final SpecificationLoader specificationLookup;
+
+    private final Method __isis_saveMethod;
+    @Deprecated
+    private final Method saveMethod;
+    private final Method __isis_wrappedMethod;
+    @Deprecated
+    private final Method wrappedMethod;
+    private final Method __isis_executionMode;
+
+    private final ConcurrentMap<Method, Dispatch> dispatchByMethod = new ConcurrentHashMap<Method, Dispatch>();
+
+    public DomainObjectDispatchTable(final ObjectSpecification specification, final SpecificationLoader specificationLookup) {
+        this.specification = specification;
+        this.specificationLookup = specificationLookup;
+        try {
+            __isis_saveMethod = WrapperObject.class.getMethod("__isis_save", new Class[]{});
+            __isis_wrappedMethod = WrapperObject.class.getMethod("__isis_wrapped", new Class[]{});
+            __isis_executionMode = WrapperObject.class.getMethod("__isis_executionMode", new Class[]{});
+            saveMethod = WrapperObject.class.getMethod("save", new Class[] {});
+            wrappedMethod = WrapperObject.class.getMethod("wrapped", new Class[] {});
+        } catch (final NoSuchMethodException nsme) {
+            throw new IllegalStateException(
+                    "Could not locate reserved declared methods in the WrappingObject and WrappedObject interfaces",
+                    nsme);
+        }
+    }
+
+    public ObjectSpecification getSpecification() {
+        return specification;
+    }
+
+    /**
+     * The dispatch for the method, computed (and then cached) on first use.
+     *
+     * <p>
+     * Any exception thrown while working out the dispatch is propagated (and nothing cached).
+     */
+    public Dispatch dispatchFor(final Method method) {
+        final Dispatch dispatch = dispatchByMethod.get(method);
+        if (dispatch != null) {
+            return dispatch;
+        }
+        final Dispatch newDispatch = compile(method);
+        final Dispatch existing = dispatchByMethod.putIfAbsent(method, newDispatch);
+        return existing != null ? existing : newDispatch;
+    }
+
+    // /////////////////////////////////////////////////////////////////
+    // compile
+    // /////////////////////////////////////////////////////////////////
+
+    private Dispatch compile(final Method method) {
+
+        if (isObjectMethod(method)) {
+            return Dispatch.DELEGATE;
+        }
+
+        // workaround for JDO-enhanced..
+        final String methodName = method.getName();
+        if (methodName.startsWith("jdo")) {
+            return Dispatch.DELEGATE;
+        }
+
+        if (methodName.startsWith("inject")) {
+            return Dispatch.DELEGATE;
+        }
+
+        if (isTitleMethod(method)) {
+            return Dispatch.TITLE;
+        }
+
+        if (method.equals(saveMethod) || method.equals(__isis_saveMethod)) {
+            return Dispatch.SAVE;
+        }
+
+        if (method.equals(wrappedMethod) || method.equals(__isis_wrappedMethod)) {
+            return Dispatch.WRAPPED;
+        }
+
+        if (method.equals(__isis_executionMode)) {
+            return Dispatch.EXECUTION_MODE;
+        }
+
+        final ObjectMember objectMember = getJavaSpecificationOfOwningClass(method).getMember(method);
+        if (objectMember == null) {
+            return Dispatch.unsupported("Method '" + methodName + "' being invoked does not correspond to any of the object's fields or actions.");
+        }
+
+        final String memberName = objectMember.getName();
+
+        final Intent intent = ImperativeFacet.Util.getIntent(objectMember, method);
+        if(intent == Intent.CHECK_IF_HIDDEN || intent == Intent.CHECK_IF_DISABLED) {
+            return Dispatch.unsupported(String.format("Cannot invoke supporting method '%s'", memberName));
+        }
+
+        if (intent == Intent.DEFAULTS || intent == Intent.CHOICES_OR_AUTOCOMPLETE) {
+            return Dispatch.DELEGATE;
+        }
+
+        if (objectMember.isOneToOneAssociation()) {
+
+            if (intent == Intent.CHECK_IF_VALID || intent == Intent.MODIFY_PROPERTY_SUPPORTING) {
+                return Dispatch.unsupported(String.format("Cannot invoke supporting method for '%s'; use only property accessor/mutator", memberName));
+            }
+
+            if (intent == Intent.ACCESSOR) {
+                return Dispatch.to(Kind.PROPERTY_GET, objectMember);
+            }
+
+            if (intent == Intent.MODIFY_PROPERTY || intent == Intent.INITIALIZATION) {
+                return Dispatch.to(Kind.PROPERTY_SET, objectMember);
+            }
+        }
+        if (objectMember.isOneToManyAssociation()) {
+
+            if (intent == Intent.CHECK_IF_VALID) {
+                return Dispatch.unsupported(String.format("Cannot invoke supporting method '%s'; use only collection accessor/mutator", memberName));
+            }
+
+            if (intent == Intent.ACCESSOR) {
+                return Dispatch.to(Kind.COLLECTION_GET, objectMember);
+            }
+            if (intent == Intent.MODIFY_COLLECTION_ADD) {
+                return Dispatch.to(Kind.COLLECTION_ADD, objectMember);
+            }
+            if (intent == Intent.MODIFY_COLLECTION_REMOVE) {
+                return Dispatch.to(Kind.COLLECTION_REMOVE, objectMember);
+            }
+        }
+
+        if (objectMember instanceof ObjectAction) {
+
+            if (intent == Intent.CHECK_IF_VALID) {
+                return Dispatch.unsupported(String.format("Cannot invoke supporting method '%s'; use only the 'invoke' method", memberName));
+            }
+
+            return Dispatch.to(Kind.ACTION, objectMember);
+        }
+
+        return Dispatch.unsupported(String.format("Unknown member type '%s'", objectMember));
+    }
+
+    /**
+     * Equivalent to checking against the delegate's <tt>equals(Object)</tt>, <tt>hashCode()</tt> and
+     * <tt>toString()</tt> methods, but without needing the delegate itself.
+     */
+    private static boolean isObjectMethod(final Method method) {
+        final String methodName = method.getName();
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length == 0) {
+            return methodName.equals("toString") || methodName.equals("hashCode");
+        }
+        return parameterTypes.length == 1 && parameterTypes[0] == Object.class && methodName.equals("equals");
+    }
+
+    /**
+     * The public <tt>title()</tt> method, if any.
+     */
+    private static boolean isTitleMethod(final Method method) {
+        return method.getName().equals("title")
+                && method.getParameterTypes().length == 0
+                && Modifier.isPublic(method.getModifiers());
+    }
+
+    // /////////////////////////////////////////////////////////////////
+    // Specification lookup
+    // /////////////////////////////////////////////////////////////////
+
+    private ObjectSpecificationDefault getJavaSpecificationOfOwningClass(final Method method) {
+        final ObjectSpecification nos = specificationLookup.loadSpecification(method.getDeclaringClass());
+        if (!(nos instanceof ObjectSpecificationDefault)) {
+            throw new UnsupportedOperationException("Only Java is supported (specification is '" + nos.getClass().getCanonicalName() + "')");
+        }
+        return (ObjectSpecificationDefault) nos;
+    }
+
+    @Override
+    public String toString() {
+        return "DomainObjectDispatchTable[" + specification.getFullIdentifier() + ", " + dispatchByMethod.size() + " methods]";
+    }
+
+}
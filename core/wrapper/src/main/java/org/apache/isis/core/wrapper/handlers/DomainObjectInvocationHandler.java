@@ -41,7 +41,6 @@
 import org.apache.isis.core.metamodel.facetapi.DecoratingFacet;
 import org.apache.isis.core.metamodel.facetapi.Facet;
 import org.apache.isis.core.metamodel.facets.ImperativeFacet;
-import org.apache.isis.core.metamodel.facets.ImperativeFacet.Intent;
 import org.apache.isis.core.metamodel.interactions.ObjectTitleContext;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.spec.SpecificationLoader;
@@ -49,7 +48,7 @@
 import org.apache.isis.core.metamodel.spec.feature.ObjectMember;
 import org.apache.isis.core.metamodel.spec.feature.OneToManyAssociation;
 import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
-import org.apache.isis.core.metamodel.specloader.specimpl.dflt.ObjectSpecificationDefault;
+import org.apache.isis.core.wrapper.handlers.DomainObjectDispatchTable.Dispatch;
 
 public class DomainObjectInvocationHandler<T> extends DelegatingInvocationHandlerDefault<T> {
 
@@ -64,38 +63,6 @@
     private final ProxyContextHandler proxy;
     private final ExecutionMode executionMode;
 
-    /**
-     * The <tt>title()</tt> method; may be <tt>null</tt>.
-     */
-    protected Method titleMethod;
-
-    /**
-     * The <tt>__isis_save()</tt> method from {@link WrapperObject#__isis_save()}.
-     */
-    protected Method __isis_saveMethod;
-
-    /**
-     * The <tt>save()</tt> method from {@link WrapperObject#save()}.
-     */
-    @Deprecated
-    protected Method saveMethod;
-
-    /**
-     * The <tt>__isis_wrapped()</tt> method from {@link WrapperObject#__isis_wrapped()}.
-     */
-    protected Method __isis_wrappedMethod;
-
-    /**
-     * The <tt>wrapped()</tt> method from {@link WrapperObject#wrapped()}.
-     */
-    @Deprecated
-    protected Method wrappedMethod;
-
-    /**
-     * The <tt>__isis_executionMode()</tt> method from {@link WrapperObject#__isis_executionMode()}.
-     */
-    protected Method __isis_executionMode;
-
     public DomainObjectInvocationHandler(
             final T delegate,
             final WrapperFactory wrapperFactory,
@@ -113,137 +80,65 @@ public DomainObjectInvocationHandler(
         this.adapterManager = adapterManager;
         this.objectPersistor = objectPersistor;
         this.executionMode = mode;
-
-        try {
-            titleMethod = delegate.getClass().getMethod("title", new Class[]{});
-        } catch (final NoSuchMethodException e) {
-            // ignore
-        }
-        try {
-            __isis_saveMethod = WrapperObject.class.getMethod("__isis_save", new Class[]{});
-            __isis_wrappedMethod = WrapperObject.class.getMethod("__isis_wrapped", new Class[]{});
-            __isis_executionMode = WrapperObject.class.getMethod("__isis_executionMode", new Class[]{});
-            saveMethod = WrapperObject.class.getMethod("save", new Class[] {});
-            wrappedMethod = WrapperObject.class.getMethod("wrapped", new Class[] {});
-        } catch (final NoSuchMethodException nsme) {
-            throw new IllegalStateException(
-                    "Could not locate reserved declared methods in the WrappingObject and WrappedObject interfaces",
-                    nsme);
-        }
     }
 
+    /**
+     * Looked up lazily, then shared with all other wrappers of the same type.
+     */
+    private DomainObjectDispatchTable dispatchTable;
+
     @Override
     public Object invoke(final Object proxyObject, final Method method, final Object[] args) throws Throwable {
 
-        if (isObjectMethod(method)) {
-            return delegate(method, args);
-        }
-
-        // workaround for JDO-enhanced..
-        if(isJdoMethod(method)) {
-            return delegate(method, args);
-        }
+        final Dispatch dispatch = getDispatchTable().dispatchFor(method);
 
-        if(isInjectMethod(method)) {
-            return delegate(method, args);
+        // these do not require the adapter
+        switch (dispatch.getKind()) {
+            case DELEGATE:
+                return delegate(method, args);
+            case WRAPPED:
+                return getDelegate();
+            case EXECUTION_MODE:
+                return executionMode;
+            case UNSUPPORTED:
+                throw new UnsupportedOperationException(dispatch.getUnsupportedMessage());
+            default:
+                break;
         }
 
         final ObjectAdapter targetAdapter = getAdapterManager().adapterFor(getDelegate());
-
-        if (isTitleMethod(method)) {
-            return handleTitleMethod(method, args, targetAdapter);
-        }
-
-
-        final ObjectSpecification targetNoSpec = targetAdapter.getSpecification();
-
-        // save method, through the proxy
-        if (isSaveMethod(method)) {
-            return handleSaveMethod(getAuthenticationSession(), targetAdapter, targetNoSpec);
-        }
-
-        if (isWrappedMethod(method)) {
-            return getDelegate();
-        }
-
-        if (isExecutionModeMethod(method)) {
-            return executionMode;
-        }
-
-        final ObjectMember objectMember = locateAndCheckMember(method);
-
-        final String memberName = objectMember.getName();
-
-        final Intent intent = ImperativeFacet.Util.getIntent(objectMember, method);
-        if(intent == Intent.CHECK_IF_HIDDEN || intent == Intent.CHECK_IF_DISABLED) {
-            throw new UnsupportedOperationException(String.format("Cannot invoke supporting method '%s'", memberName));
-        }
-
-        final String methodName = method.getName();
-
-        if (intent == Intent.DEFAULTS || intent == Intent.CHOICES_OR_AUTOCOMPLETE) {
-            return method.invoke(getDelegate(), args);
-        }
-
-        if (objectMember.isOneToOneAssociation()) {
-
-            if (intent == Intent.CHECK_IF_VALID || intent == Intent.MODIFY_PROPERTY_SUPPORTING) {
-                throw new UnsupportedOperationException(String.format("Cannot invoke supporting method for '%s'; use only property accessor/mutator", memberName));
-            }
-
-            final OneToOneAssociation otoa = (OneToOneAssociation) objectMember;
-            
-            if (intent == Intent.ACCESSOR) {
-                return handleGetterMethodOnProperty(args, targetAdapter, otoa, methodName);
-            }
-            
-            if (intent == Intent.MODIFY_PROPERTY || intent == Intent.INITIALIZATION) {
-                return handleSetterMethodOnProperty(args, getAuthenticationSession(), targetAdapter, otoa, methodName);
-            }
-        }
-        if (objectMember.isOneToManyAssociation()) {
-
-            if (intent == Intent.CHECK_IF_VALID) {
-                throw new UnsupportedOperationException(String.format("Cannot invoke supporting method '%s'; use only collection accessor/mutator", memberName));
-            }
-
-            final OneToManyAssociation otma = (OneToManyAssociation) objectMember;
-            if (intent == Intent.ACCESSOR) {
-                return handleGetterMethodOnCollection(method, args, targetAdapter, otma, memberName);
-            }
-            if (intent == Intent.MODIFY_COLLECTION_ADD) {
-                return handleCollectionAddToMethod(args, targetAdapter, otma, methodName);
-            }
-            if (intent == Intent.MODIFY_COLLECTION_REMOVE) {
-                return handleCollectionRemoveFromMethod(args, targetAdapter, otma, methodName);
-            }
-        }
-
-        if (objectMember instanceof ObjectAction) {
-
-            if (intent == Intent.CHECK_IF_VALID) {
-                throw new UnsupportedOperationException(String.format("Cannot invoke supporting method '%s'; use only the 'invoke' method", memberName));
-            }
-
-            final ObjectAction noa = (ObjectAction) objectMember;
-            return handleActionMethod(args, getAuthenticationSession(), targetAdapter, noa, memberName);
-        }
-
-        throw new UnsupportedOperationException(String.format("Unknown member type '%s'", objectMember));
-    }
-
-    private boolean isJdoMethod(final Method method) {
-        return methodStartsWith(method, "jdo");
+        final ObjectMember objectMember = dispatch.getMember();
+
+        switch (dispatch.getKind()) {
+            case TITLE:
+                return handleTitleMethod(method, args, targetAdapter);
+            case SAVE:
+                return handleSaveMethod(getAuthenticationSession(), targetAdapter, targetAdapter.getSpecification());
+            case PROPERTY_GET:
+                return handleGetterMethodOnProperty(args, targetAdapter, (OneToOneAssociation) objectMember, method.getName());
+            case PROPERTY_SET:
+                return handleSetterMethodOnProperty(args, getAuthenticationSession(), targetAdapter, (OneToOneAssociation) objectMember, method.getName());
+            case COLLECTION_GET:
+                return handleGetterMethodOnCollection(method, args, targetAdapter, (OneToManyAssociation) objectMember, objectMember.getName());
+            case COLLECTION_ADD:
+                return handleCollectionAddToMethod(args, targetAdapter, (OneToManyAssociation) objectMember, method.getName());
+            case COLLECTION_REMOVE:
+                return handleCollectionRemoveFromMethod(args, targetAdapter, (OneToManyAssociation) objectMember, method.getName());
+            case ACTION:
+                return handleActionMethod(args, getAuthenticationSession(), targetAdapter, (ObjectAction) objectMember, objectMember.getName());
+            default:
+                throw new UnsupportedOperationException(String.format("Unknown member type '%s'", objectMember));
+        }
+    }
+
+    private DomainObjectDispatchTable getDispatchTable() {
+        if (dispatchTable == null) {
+            final ObjectSpecification specification = getSpecification(getDelegate().getClass());
+            dispatchTable = proxy.dispatchTableFor(specification, getSpecificationLookup());
+        }
+        return dispatchTable;
     }
 
-    private boolean isInjectMethod(final Method method) {
-        return methodStartsWith(method, "inject");
-    }
-
-    private boolean methodStartsWith(final Method method, final String prefix) {
-        return method.getName().startsWith(prefix);
-    }
-    
     public List<Facet> getImperativeFacets(final ObjectMember objectMember, final Method method) {
         final List<Facet> imperativeFacets = objectMember.getFacets(new Filter<Facet>() {
             @Override
@@ -648,53 +543,10 @@ private InteractionException toException(final InteractionEvent interactionEvent
         throw new IllegalArgumentException("Provided interactionEvent must be a VisibilityEvent, UsabilityEvent or a ValidityEvent");
     }
 
-    // /////////////////////////////////////////////////////////////////
-    // switching
-    // /////////////////////////////////////////////////////////////////
-
-    private ObjectMember locateAndCheckMember(final Method method) {
-        final ObjectSpecificationDefault objectSpecificationDefault = getJavaSpecificationOfOwningClass(method);
-        final ObjectMember member = objectSpecificationDefault.getMember(method);
-        
-        if (member == null) {
-            final String methodName = method.getName();
-            throw new UnsupportedOperationException("Method '" + methodName + "' being invoked does not correspond to any of the object's fields or actions.");
-        }
-        return member;
-    }
-
-    protected boolean isTitleMethod(final Method method) {
-        return method.equals(titleMethod);
-    }
-
-    protected boolean isSaveMethod(final Method method) {
-        return method.equals(saveMethod) || method.equals(__isis_saveMethod);
-    }
-
-    protected boolean isWrappedMethod(final Method method) {
-        return method.equals(wrappedMethod) || method.equals(__isis_wrappedMethod);
-    }
-
-    protected boolean isExecutionModeMethod(final Method method) {
-        return method.equals(__isis_executionMode);
-    }
-
     // /////////////////////////////////////////////////////////////////
     // Specification lookup
     // /////////////////////////////////////////////////////////////////
 
-    private ObjectSpecificationDefault getJavaSpecificationOfOwningClass(final Method method) {
-        return getJavaSpecification(method.getDeclaringClass());
-    }
-
-    private ObjectSpecificationDefault getJavaSpecification(final Class<?> clazz) {
-        final ObjectSpecification nos = getSpecification(clazz);
-        if (!(nos instanceof ObjectSpecificationDefault)) {
-            throw new UnsupportedOperationException("Only Java is supported (specification is '" + nos.getClass().getCanonicalName() + "')");
-        }
-        return (ObjectSpecificationDefault) nos;
-    }
-
     private ObjectSpecification getSpecification(final Class<?> type) {
         final ObjectSpecification nos = getSpecificationLookup().loadSpecification(type);
         return nos;
@@ -25,6 +25,8 @@
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.isis.applib.services.wrapper.WrapperFactory;
 import org.apache.isis.applib.services.wrapper.WrapperFactory.ExecutionMode;
@@ -32,6 +34,7 @@
 import org.apache.isis.core.commons.ensure.Ensure;
 import org.apache.isis.core.metamodel.adapter.ObjectPersistor;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.spec.SpecificationLoader;
 import org.apache.isis.core.metamodel.spec.feature.OneToManyAssociation;
 import org.apache.isis.core.wrapper.proxy.ProxyInstantiator;
@@ -39,10 +42,29 @@
 public class ProxyContextHandler {
 
     private final ProxyInstantiator proxyInstantiator;
+
+    /**
+     * Shared by all wrappers of the same type.
+     *
+     * <p>
+     * Kept here rather than on the {@link ObjectSpecification} itself, so that the metamodel is not polluted
+     * with the wrapper's own runtime state.
+     */
+    private final ConcurrentMap<ObjectSpecification, DomainObjectDispatchTable> dispatchTableBySpec = new ConcurrentHashMap<ObjectSpecification, DomainObjectDispatchTable>();
     
     public ProxyContextHandler(final ProxyInstantiator proxyInstantiator) {
         this.proxyInstantiator = proxyInstantiator;
     }
+
+    public DomainObjectDispatchTable dispatchTableFor(final ObjectSpecification specification, final SpecificationLoader specificationLookup) {
+        final DomainObjectDispatchTable dispatchTable = dispatchTableBySpec.get(specification);
+        if (dispatchTable != null) {
+            return dispatchTable;
+        }
+        final DomainObjectDispatchTable newDispatchTable = new DomainObjectDispatchTable(specification, specificationLookup);
+        final DomainObjectDispatchTable existing = dispatchTableBySpec.putIfAbsent(specification, newDispatchTable);
+        return existing != null ? existing : newDispatchTable;
+    }
     
     public <T> T proxy(final T domainObject, final WrapperFactory wrapperFactory, final ExecutionMode mode, final AuthenticationSessionProvider authenticationSessionProvider, final SpecificationLoader specificationLookup, final AdapterManager adapterManager, final ObjectPersistor objectPersistor) {
 
@@ -34,11 +34,24 @@
 
 import org.apache.isis.applib.services.wrapper.WrapperObject;
 import org.apache.isis.core.metamodel.specloader.classsubstitutor.CglibEnhanced;
+import org.apache.isis.core.metamodel.specloader.classsubstitutor.ProxyClassCache;
 import org.apache.isis.core.wrapper.handlers.DelegatingInvocationHandler;
 import org.apache.isis.core.wrapper.internal.util.Util;
 
 public class ProxyInstantiatorForCglib implements ProxyInstantiator {
 
+    private static final String PROXY_TYPE = "wrapper-cglib";
+
+    private final ProxyClassCache proxyClassCache;
+
+    public ProxyInstantiatorForCglib() {
+        this(ProxyClassCache.getInstance());
+    }
+
+    public ProxyInstantiatorForCglib(final ProxyClassCache proxyClassCache) {
+        this.proxyClassCache = proxyClassCache;
+    }
+
     @SuppressWarnings("unchecked")
     public <T> T instantiateProxy(final DelegatingInvocationHandler<T> handler) {
 
@@ -68,26 +81,29 @@ public <T> T instantiateProxy(final DelegatingInvocationHandler<T> handler) {
         if (clazz.isInterface()) {
             return Util.createInstance(clazz, handler, WrapperObject.class);
         } else {
-            final Class<T> enhancedClass = createEnhancedClass(clazz, handler, WrapperObject.class);
-            return Util.createInstance(enhancedClass);
+            final Class<T> enhancedClass = enhancedClassFor(clazz, WrapperObject.class);
+            final T proxy = Util.createInstance(enhancedClass);
+            // the generated class is shared, so set the callback on the instance rather than registering it on the class
+            ((Factory) proxy).setCallbacks(new Callback[] { newMethodInterceptor(handler) });
+            return proxy;
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> Class<T> createEnhancedClass(final Class<T> toProxyClass, final InvocationHandler handler, final Class<?>... auxiliaryTypes) {
-
-        // Create the proxy
-        final Enhancer enhancer = new Enhancer();
-        enhancer.setSuperclass(toProxyClass);
-        enhancer.setInterfaces(auxiliaryTypes);
-        enhancer.setCallbackType(newMethodInterceptor(handler).getClass());
-
-        final Class<?> enhancedClass = enhancer.createClass();
-
-        Enhancer.registerCallbacks(enhancedClass, new Callback[] { newMethodInterceptor(handler) });
-        return (Class<T>) enhancedClass;
+    private <T> Class<T> enhancedClassFor(final Class<T> toProxyClass, final Class<?>... auxiliaryTypes) {
+        return proxyClassCache.proxyClassFor(PROXY_TYPE, toProxyClass, auxiliaryTypes, PROXY_CLASS_FACTORY);
     }
 
+    private static final ProxyClassCache.ProxyClassFactory PROXY_CLASS_FACTORY = new ProxyClassCache.ProxyClassFactory() {
+        @Override
+        public Class<?> createProxyClass(final Class<?> superclass, final Class<?>[] interfaces) {
+            final Enhancer enhancer = new Enhancer();
+            enhancer.setSuperclass(superclass);
+            enhancer.setInterfaces(interfaces);
+            enhancer.setCallbackType(MethodInterceptor.class);
+            return enhancer.createClass();
+        }
+    };
+
     private static <T> MethodInterceptor newMethodInterceptor(final InvocationHandler handler) {
         return new MethodInterceptor() {
             @Override
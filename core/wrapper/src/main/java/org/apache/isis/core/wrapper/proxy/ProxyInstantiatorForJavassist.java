@@ -19,7 +19,6 @@
 
 package org.apache.isis.core.wrapper.proxy;
 
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 
 import javassist.util.proxy.MethodFilter;
@@ -29,11 +28,25 @@
 
 import org.apache.isis.applib.services.wrapper.WrapperObject;
 import org.apache.isis.core.commons.lang.ArrayExtensions;
+import org.apache.isis.core.metamodel.specloader.classsubstitutor.JavassistEnhanced;
+import org.apache.isis.core.metamodel.specloader.classsubstitutor.ProxyClassCache;
 import org.apache.isis.core.wrapper.handlers.DelegatingInvocationHandler;
 import org.apache.isis.core.wrapper.internal.util.Util;
 
 public class ProxyInstantiatorForJavassist implements ProxyInstantiator {
 
+    private static final String PROXY_TYPE = "wrapper-javassist";
+
+    private final ProxyClassCache proxyClassCache;
+
+    public ProxyInstantiatorForJavassist() {
+        this(ProxyClassCache.getInstance());
+    }
+
+    public ProxyInstantiatorForJavassist(final ProxyClassCache proxyClassCache) {
+        this.proxyClassCache = proxyClassCache;
+    }
+
     @SuppressWarnings("unchecked")
     public <T> T instantiateProxy(final DelegatingInvocationHandler<T> handler) {
 
@@ -44,7 +57,7 @@ public <T> T instantiateProxy(final DelegatingInvocationHandler<T> handler) {
         if (clazz.isInterface()) {
             return Util.createInstance(clazz, handler, WrapperObject.class);
         } else {
-            final Class<T> enhancedClass = createEnhancedClass(clazz, handler, WrapperObject.class);
+            final Class<T> enhancedClass = enhancedClassFor(clazz, WrapperObject.class);
             ProxyObject proxyObject = (ProxyObject) Util.createInstance(enhancedClass);
             proxyObject.setHandler(new MethodHandler() {
                 @Override
@@ -55,23 +68,32 @@ public Object invoke(Object self, Method thisMethod, Method proceed, Object[] ar
             return (T) proxyObject;
         }
     }
-    
-    @SuppressWarnings("unchecked")
-    private static <T> Class<T> createEnhancedClass(final Class<T> toProxyClass, final InvocationHandler handler, final Class<?>... auxiliaryTypes) {
-        
-        final ProxyFactory proxyFactory = new ProxyFactory();
-        proxyFactory.setSuperclass(toProxyClass);
-        proxyFactory.setInterfaces(ArrayExtensions.combine(toProxyClass.getInterfaces(), new Class<?>[]{org.apache.isis.core.metamodel.specloader.classsubstitutor.JavassistEnhanced.class}, auxiliaryTypes));
-
-        proxyFactory.setFilter(new MethodFilter() {
-            @Override
-            public boolean isHandled(final Method m) {
-                // ignore finalize()
-                return !m.getName().equals("finalize") || m.isBridge();
-            }
-        });
-        
-        return proxyFactory.createClass();
+
+    /**
+     * The generated class is cached (the handler is set on each instance instead).
+     */
+    private <T> Class<T> enhancedClassFor(final Class<T> toProxyClass, final Class<?>... auxiliaryTypes) {
+        final Class<?>[] interfaces = ArrayExtensions.combine(toProxyClass.getInterfaces(), new Class<?>[]{JavassistEnhanced.class}, auxiliaryTypes);
+        return proxyClassCache.proxyClassFor(PROXY_TYPE, toProxyClass, interfaces, PROXY_CLASS_FACTORY);
     }
 
+    private static final ProxyClassCache.ProxyClassFactory PROXY_CLASS_FACTORY = new ProxyClassCache.ProxyClassFactory() {
+        @Override
+        public Class<?> createProxyClass(final Class<?> superclass, final Class<?>[] interfaces) {
+            final ProxyFactory proxyFactory = new ProxyFactory();
+            proxyFactory.setSuperclass(superclass);
+            proxyFactory.setInterfaces(interfaces);
+
+            proxyFactory.setFilter(new MethodFilter() {
+                @Override
+                public boolean isHandled(final Method m) {
+                    // ignore finalize()
+                    return !m.getName().equals("finalize") || m.isBridge();
+                }
+            });
+
+            return proxyFactory.createClass();
+        }
+    };
+
 }
@@ -0,0 +1,108 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.wrapper.handlers;
+
+import java.lang.reflect.Method;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.wrapper.WrapperObject;
+import org.apache.isis.core.metamodel.spec.SpecificationLoader;
+import org.apache.isis.core.metamodel.specloader.specimpl.dflt.ObjectSpecificationDefault;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.core.wrapper.handlers.DomainObjectDispatchTable.Dispatch;
+import org.apache.isis.core.wrapper.handlers.DomainObjectDispatchTable.Kind;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class DomainObjectDispatchTableTest {
+
+    public static class Customer {
+        public String title() { return null; }
+        public void jdoPreStore() {}
+        public void injectCustomerRepository(final Object repository) {}
+        public void notAMember() {}
+        @Override
+        public String toString() { return "customer"; }
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private SpecificationLoader mockSpecificationLookup;
+    @Mock
+    private ObjectSpecificationDefault mockCustomerSpec;
+
+    private DomainObjectDispatchTable dispatchTable;
+
+    @Before
+    public void setUp() throws Exception {
+        dispatchTable = new DomainObjectDispatchTable(mockCustomerSpec, mockSpecificationLookup);
+    }
+
+    @Test
+    public void objectMethodsAreDelegated() throws Exception {
+        assertThat(dispatchTable.dispatchFor(Customer.class.getMethod("toString")).getKind(), is(Kind.DELEGATE));
+        assertThat(dispatchTable.dispatchFor(Customer.class.getMethod("hashCode")).getKind(), is(Kind.DELEGATE));
+        assertThat(dispatchTable.dispatchFor(Customer.class.getMethod("equals", Object.class)).getKind(), is(Kind.DELEGATE));
+    }
+
+    @Test
+    public void jdoAndInjectMethodsAreDelegated() throws Exception {
+        assertThat(dispatchTable.dispatchFor(Customer.class.getMethod("jdoPreStore")).getKind(), is(Kind.DELEGATE));
+        assertThat(dispatchTable.dispatchFor(Customer.class.getMethod("injectCustomerRepository", Object.class)).getKind(), is(Kind.DELEGATE));
+    }
+
+    @Test
+    public void reservedMethods() throws Exception {
+        assertThat(dispatchTable.dispatchFor(Customer.class.getMethod("title")).getKind(), is(Kind.TITLE));
+        assertThat(dispatchTable.dispatchFor(WrapperObject.class.getMethod("__isis_save")).getKind(), is(Kind.SAVE));
+        assertThat(dispatchTable.dispatchFor(WrapperObject.class.getMethod("save")).getKind(), is(Kind.SAVE));
+        assertThat(dispatchTable.dispatchFor(WrapperObject.class.getMethod("__isis_wrapped")).getKind(), is(Kind.WRAPPED));
+        assertThat(dispatchTable.dispatchFor(WrapperObject.class.getMethod("__isis_executionMode")).getKind(), is(Kind.EXECUTION_MODE));
+    }
+
+    @Test
+    public void methodNotCorrespondingToAnyMemberIsCompiledOnlyOnce() throws Exception {
+        final Method notAMember = Customer.class.getMethod("notAMember");
+        context.checking(new Expectations() {{
+            oneOf(mockSpecificationLookup).loadSpecification(Customer.class);
+            will(returnValue(mockCustomerSpec));
+            oneOf(mockCustomerSpec).getMember(notAMember);
+            will(returnValue(null));
+        }});
+
+        final Dispatch dispatch = dispatchTable.dispatchFor(notAMember);
+
+        assertThat(dispatch.getKind(), is(Kind.UNSUPPORTED));
+        assertThat(dispatch.getUnsupportedMessage(),
+                is("Method 'notAMember' being invoked does not correspond to any of the object's fields or actions."));
+        assertThat(dispatchTable.dispatchFor(notAMember), is(sameInstance(dispatch)));
+    }
+
+}
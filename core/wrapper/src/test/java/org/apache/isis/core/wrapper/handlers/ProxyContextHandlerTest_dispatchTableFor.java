@@ -0,0 +1,85 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.wrapper.handlers;
+
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.spec.SpecificationLoader;
+import org.apache.isis.core.metamodel.testspec.ObjectSpecificationStub;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.core.wrapper.proxy.ProxyInstantiator;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ProxyContextHandlerTest_dispatchTableFor {
+
+    public static class Customer {
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private ProxyInstantiator mockProxyInstantiator;
+    @Mock
+    private SpecificationLoader mockSpecificationLookup;
+
+    private ProxyContextHandler proxyContextHandler;
+
+    @Before
+    public void setUp() throws Exception {
+        proxyContextHandler = new ProxyContextHandler(mockProxyInstantiator);
+    }
+
+    @Test
+    public void sharedForSameSpecification() throws Exception {
+        final ObjectSpecificationStub customerSpec = new ObjectSpecificationStub(Customer.class);
+
+        final DomainObjectDispatchTable dispatchTable = proxyContextHandler.dispatchTableFor(customerSpec, mockSpecificationLookup);
+
+        assertThat(proxyContextHandler.dispatchTableFor(customerSpec, mockSpecificationLookup), is(sameInstance(dispatchTable)));
+    }
+
+    @Test
+    public void notHeldBySpecification() throws Exception {
+        final ObjectSpecificationStub customerSpec = new ObjectSpecificationStub(Customer.class);
+        final int facetCount = customerSpec.getFacetTypes().length;
+
+        proxyContextHandler.dispatchTableFor(customerSpec, mockSpecificationLookup);
+
+        assertThat(customerSpec.getFacetTypes().length, is(facetCount));
+    }
+
+    @Test
+    public void notSharedWithReloadedSpecification() throws Exception {
+        final DomainObjectDispatchTable dispatchTable = proxyContextHandler.dispatchTableFor(new ObjectSpecificationStub(Customer.class), mockSpecificationLookup);
+        final DomainObjectDispatchTable reloadedDispatchTable = proxyContextHandler.dispatchTableFor(new ObjectSpecificationStub(Customer.class), mockSpecificationLookup);
+
+        assertThat(reloadedDispatchTable, is(not(sameInstance(dispatchTable))));
+    }
+
+}
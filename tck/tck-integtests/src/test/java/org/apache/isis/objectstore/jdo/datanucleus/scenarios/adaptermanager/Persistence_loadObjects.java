@@ -0,0 +1,170 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.scenarios.adaptermanager;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.integtestsupport.IsisSystemWithFixtures;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.oid.AggregatedOid;
+import org.apache.isis.core.metamodel.adapter.oid.TypedOid;
+import org.apache.isis.core.runtime.persistence.ObjectNotFoundException;
+import org.apache.isis.core.tck.dom.refs.UnidirReferencedEntity;
+import org.apache.isis.core.tck.dom.refs.UnidirReferencedEntityRepository;
+import org.apache.isis.core.tck.dom.refs.UnidirReferencingEntity;
+import org.apache.isis.core.tck.dom.refs.UnidirReferencingEntityRepository;
+import org.apache.isis.objectstore.jdo.applib.service.exceprecog.ExceptionRecognizerForJDOObjectNotFoundException;
+import org.apache.isis.objectstore.jdo.datanucleus.Utils;
+
+public class Persistence_loadObjects {
+
+    private UnidirReferencingEntityRepository referencingRepo = new UnidirReferencingEntityRepository();
+    private UnidirReferencedEntityRepository referencedRepo = new UnidirReferencedEntityRepository();
+    
+    @Rule
+    public IsisSystemWithFixtures iswf = Utils.systemBuilder()
+        .with(Utils.listenerToDeleteFrom("UNIDIRREFERENCINGENTITY"))
+        .with(Utils.listenerToDeleteFrom("UNIDIRREFERENCEDENTITY"))
+        .withServices(referencingRepo, referencedRepo, new ExceptionRecognizerForJDOObjectNotFoundException())
+        .build();
+
+    private TypedOid referencingOid1;
+    private TypedOid referencingOid2;
+    private TypedOid referencedOid1;
+    private TypedOid referencedOid2;
+    private TypedOid referencedOid3;
+
+    @Test
+    public void loadsEachTypeInBulkInTheOrderRequested() throws Exception {
+        persistEntities();
+
+        iswf.bounceSystem();
+        iswf.beginTran();
+
+        final List<ObjectAdapter> adapters = iswf.getPersistor().loadObjects(
+                Arrays.asList(referencedOid2, referencingOid1, referencedOid1, referencingOid2, referencedOid3));
+
+        assertThat(namesOf(adapters), is(Arrays.asList("Referenced 2", "Referencing 1", "Referenced 1", "Referencing 2", "Referenced 3")));
+        assertThat(adapters.get(0), is(iswf.getAdapterManager().getAdapterFor(referencedOid2)));
+
+        iswf.commitTran();
+    }
+
+    @Test
+    public void alreadyLoadedObjectsAreNotReloaded() throws Exception {
+        persistEntities();
+
+        iswf.bounceSystem();
+        iswf.beginTran();
+
+        final ObjectAdapter referencedAdapter1 = iswf.getPersistor().loadObject(referencedOid1);
+        final List<ObjectAdapter> adapters = iswf.getPersistor().loadObjects(Arrays.asList(referencedOid2, referencedOid1));
+
+        assertThat(namesOf(adapters), is(Arrays.asList("Referenced 2", "Referenced 1")));
+        assertThat(adapters.get(1), is(referencedAdapter1));
+
+        iswf.commitTran();
+    }
+
+    @Test
+    public void whenOneOfTypeNotFoundThenIdentifiesIt() throws Exception {
+        persistEntities();
+
+        iswf.beginTran();
+        iswf.destroy(iswf.getAdapterManager().getAdapterFor(referencedOid2).getObject());
+        iswf.commitTran();
+
+        iswf.bounceSystem();
+        iswf.beginTran();
+
+        try {
+            iswf.getPersistor().loadObjects(Arrays.asList(referencedOid1, referencedOid2, referencedOid3));
+            fail();
+        } catch (final ObjectNotFoundException ex) {
+            assertThat(ex.getMessage(), is("Object not found in store with oid " + referencedOid2));
+        }
+
+        iswf.abortTran();
+    }
+
+    @Test
+    public void whenAggregatedThenRejected() throws Exception {
+        persistEntities();
+
+        iswf.bounceSystem();
+        iswf.beginTran();
+
+        final AggregatedOid aggregatedOid = new AggregatedOid(referencedOid1.getObjectSpecId(), referencingOid1, "1");
+        try {
+            iswf.getPersistor().loadObjects(Arrays.<TypedOid>asList(referencedOid1, aggregatedOid));
+            fail();
+        } catch (final UnsupportedOperationException ex) {
+            // expected
+        }
+
+        iswf.abortTran();
+    }
+
+    private void persistEntities() {
+        iswf.beginTran();
+        final UnidirReferencedEntity referencedEntity1 = newReferenced("Referenced 1");
+        final UnidirReferencedEntity referencedEntity2 = newReferenced("Referenced 2");
+        final UnidirReferencedEntity referencedEntity3 = newReferenced("Referenced 3");
+
+        final UnidirReferencingEntity referencingEntity1 = referencingRepo.newEntity();
+        referencingEntity1.setName("Referencing 1");
+        final UnidirReferencingEntity referencingEntity2 = referencingRepo.newEntity();
+        referencingEntity2.setName("Referencing 2");
+        iswf.commitTran();
+
+        referencedOid1 = (TypedOid) iswf.adapterFor(referencedEntity1).getOid();
+        referencedOid2 = (TypedOid) iswf.adapterFor(referencedEntity2).getOid();
+        referencedOid3 = (TypedOid) iswf.adapterFor(referencedEntity3).getOid();
+        referencingOid1 = (TypedOid) iswf.adapterFor(referencingEntity1).getOid();
+        referencingOid2 = (TypedOid) iswf.adapterFor(referencingEntity2).getOid();
+    }
+
+    private UnidirReferencedEntity newReferenced(final String name) {
+        final UnidirReferencedEntity entity = referencedRepo.newEntity();
+        entity.setName(name);
+        return entity;
+    }
+
+    private static List<String> namesOf(final List<ObjectAdapter> adapters) {
+        final List<String> names = Lists.newArrayList();
+        for (final ObjectAdapter adapter : adapters) {
+            final Object pojo = adapter.getObject();
+            names.add(pojo instanceof UnidirReferencedEntity
+                    ? ((UnidirReferencedEntity) pojo).getName()
+                    : ((UnidirReferencingEntity) pojo).getName());
+        }
+        return names;
+    }
+
+}